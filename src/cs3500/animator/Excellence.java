@@ -1,20 +1,22 @@
 package cs3500.animator;
 
-import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Paths;
 
 import cs3500.animator.controller.AnimationControllerImpl;
 import cs3500.animator.controller.IAnimationController;
 import cs3500.animator.controller.InteractiveControllerImpl;
 import cs3500.animator.misc.ErrorMessages;
 import cs3500.animator.misc.Utils;
+import cs3500.animator.model.ConcurrentAnimationModel;
 import cs3500.animator.model.IAnimationModel;
+import cs3500.animator.model.LoadProgress;
 import cs3500.animator.model.SourceToProviderModel;
 import cs3500.animator.util.AnimationBuilder;
 import cs3500.animator.util.AnimationModelBuilder;
 import cs3500.animator.util.AnimationReader;
+import cs3500.animator.util.ProgressiveLoader;
 import cs3500.animator.view.IAnimationView;
 import cs3500.animator.view.InteractiveVisualView;
 import cs3500.animator.view.ProviderView;
@@ -38,6 +40,8 @@ public final class Excellence {
     String viewType = null;
     OutType outType = OutType.DEFAULT;
     int tempo = 1;
+    double tolerance = -1; // how far -simplify may move shapes, or -1 to leave them alone
+    boolean progressive = false;
 
     // Iterate through the command line arguments to gather information
     for (int i = 0; i < args.length; i++) {
@@ -58,6 +62,14 @@ public final class Excellence {
           tempo = Integer.parseInt(args[i + 1]);
           i++;
           break;
+        case "-simplify":
+          tolerance = Double.parseDouble(args[i + 1]);
+          Utils.requireNonNegative(tolerance);
+          i++;
+          break;
+        case "-progressive":
+          progressive = true;
+          break;
         default:
           throw new IllegalArgumentException("Poorly formatted command line args");
       }
@@ -67,14 +79,42 @@ public final class Excellence {
     Utils.requireNonNull(fileName, viewType);
 
     // Initialize the model, view, and controller
-    IAnimationModel model = initializeModel(fileName);
-    IAnimationView view = initializeView(viewType, outType, tempo, model);
+    IAnimationModel model;
+    ProgressiveLoader loader = null;
+    // only the windowed views can play an animation that is still loading, and simplifying
+    // needs all of it
+    if (progressive && tolerance < 0 && (viewType.equals("visual") || viewType.equals("edit"))) {
+      loader = new ProgressiveLoader(Paths.get(fileName));
+      loader.start();
+      loader.awaitStart();
+      // a file that can't be read at all is reported like it is without -progressive
+      model = loader.isDone() ? loader.await() : loader.getModel();
+    } else {
+      model = initializeModel(fileName);
+    }
+    if (tolerance >= 0) {
+      // the same tolerance in pixels and in color levels, reported on the side so it doesn't
+      // end up in text or svg output
+      int removed = model.simplify(tolerance, (int) tolerance);
+      System.err.println("Simplifying removed " + removed + " events");
+    }
+    IAnimationView view = initializeView(viewType, outType, tempo, model, loader);
 
-    IAnimationController controller = initializeController(model, view, viewType, tempo);
+    IAnimationController controller = initializeController(model, view, viewType, tempo, loader);
 
     // Start the animation
     controller.play();
 
+    if (loader != null) {
+      // the animation plays on while the rest loads, so a problem part of the way through the
+      // file is reported on the side
+      try {
+        loader.await();
+      } catch (IllegalArgumentException e) {
+        System.err.println("Loading stopped: " + e.getMessage());
+      }
+    }
+
     outType.close();
   }
 
@@ -86,13 +126,12 @@ public final class Excellence {
    */
   private static IAnimationModel initializeModel(String fileName) {
     AnimationBuilder<IAnimationModel> builder = new AnimationModelBuilder();
-    Readable inputFile;
     try {
-      inputFile = new FileReader(fileName);
-    } catch (FileNotFoundException e) {
+      // read straight out of the mapped file, which keeps big files fast to load
+      AnimationReader.parseFile(Paths.get(fileName), builder);
+    } catch (IOException e) {
       throw new IllegalArgumentException(e.getMessage());
     }
-    AnimationReader.parseFile(inputFile, builder);
 
     return builder.build();
   }
@@ -104,16 +143,20 @@ public final class Excellence {
    * @param outType  the enumeration representing the type of appendable
    * @param tempo    the ticks per second of the animation
    * @param model    the model we want to add to the view. NEEDED FOR THE PROVIDED VIEW.
+   * @param loading  how far the model has loaded, or null if it already has
    * @return a well-constructed IAnimationView based on the view type
    */
   private static IAnimationView initializeView(String viewType,
-                                               OutType outType, int tempo, IAnimationModel model) {
+                                               OutType outType, int tempo, IAnimationModel model,
+                                               LoadProgress loading) {
     Utils.requireNonNull(viewType, outType);
     switch (viewType) {
       case "text":
         return new TextView(outType.getAppendable());
       case "visual":
-        return new VisualView(tempo);
+        VisualView visual = new VisualView(tempo);
+        visual.setLoadProgress(loading);
+        return visual;
       case "svg":
         return new SVGView(outType.getAppendable(), tempo);
       case "edit":
@@ -128,16 +171,23 @@ public final class Excellence {
   /**
    * Initializes the controller with the passed in AnimationModel and AnimationView.
    *
-   * @param model the animation model
-   * @param view  the animation view
+   * @param model   the animation model
+   * @param view    the animation view
+   * @param loading how far the model has loaded, or null if it already has
    * @return a well-constructed IAnimationController
    */
   private static IAnimationController initializeController(IAnimationModel model,
                                                            IAnimationView view,
                                                            String viewType,
-                                                           int tempo) {
+                                                           int tempo,
+                                                           LoadProgress loading) {
     if (viewType.equals("edit")) {
-      return new InteractiveControllerImpl(model, new InteractiveVisualView(tempo));
+      // the editor draws on a timer while it is being edited, so it gets a thread safe model,
+      // which a model still loading already is
+      InteractiveVisualView editor = new InteractiveVisualView(tempo);
+      editor.setLoadProgress(loading);
+      return new InteractiveControllerImpl(
+              loading == null ? new ConcurrentAnimationModel(model) : model, editor, loading);
     }
     else {
       return new AnimationControllerImpl(model, view);
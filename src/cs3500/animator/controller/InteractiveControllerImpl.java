@@ -6,6 +6,9 @@ import java.awt.event.ActionListener;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.FileWriter;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
 
 import cs3500.animator.misc.ErrorMessages;
 import cs3500.animator.misc.Position2D;
@@ -13,7 +16,8 @@ import cs3500.animator.misc.Utils;
 import cs3500.animator.model.AnimatedShape;
 import cs3500.animator.model.EventInstructions;
 import cs3500.animator.model.IAnimationModel;
-import cs3500.animator.model.LayeredModelImpl;
+import cs3500.animator.model.LoadProgress;
+import cs3500.animator.model.ModelSnapshot;
 import cs3500.animator.shapes.Ellipse;
 import cs3500.animator.shapes.IShape;
 import cs3500.animator.shapes.Rectangle;
@@ -32,27 +36,70 @@ import cs3500.animator.view.TextView;
  * play first! To ensure the View has a local copy of the model.
  */
 public class InteractiveControllerImpl implements IAnimationController, ActionListener {
+  /**
+   * How many edits can be undone. Snapshots share everything they don't change, so each one only
+   * holds on to the shapes its edit changed.
+   */
+  private static final int UNDO_LIMIT = 100;
+
   private IAnimationModel model;
   private IInteractiveView view;
-  private IAnimationModel copy;
+  private ModelSnapshot original; // null until the model has loaded
+  private LoadProgress loading; // how far the model has loaded, or null once it all has
+  private final Deque<ModelSnapshot> undoStack = new ArrayDeque<>();
+  private final Deque<ModelSnapshot> redoStack = new ArrayDeque<>();
 
   /**
    * Basic constructor for the controller. Takes in a non-null model and non-null view and sets the
    * private model and view to them. The constructor also sets the view's listener to this
-   * interactive controller. The constructor also creates a copy of the original passed in animation
-   * model and sets the copy to it to keep track of the original state. To make sure that the copy
-   * is not mutated, it is of interface type ReadOnlyIAnimationModel.
+   * interactive controller. The constructor also takes a snapshot of the original passed in
+   * animation model to keep track of the original state, which costs nothing however big the
+   * model is.
    *
    * @param model the animation model
    * @param view  the animation view
    * @throws IllegalArgumentException if the model or the view is null
    */
   public InteractiveControllerImpl(IAnimationModel model, IInteractiveView view) {
+    this(model, view, null);
+  }
+
+  /**
+   * Constructs a controller for a model that may still be loading. The animation can be played
+   * while the model loads, but it can't be edited, opened over or saved until it has loaded, since
+   * loading would write over any edits. The original state restarting goes back to is taken once
+   * the model has loaded.
+   *
+   * @param model   the animation model
+   * @param view    the animation view
+   * @param loading how far the model has loaded, or null if it already has
+   * @throws IllegalArgumentException if the model or the view is null
+   */
+  public InteractiveControllerImpl(IAnimationModel model, IInteractiveView view,
+                                   LoadProgress loading) {
     Utils.requireNonNull(view, model);
     this.view = view;
     this.model = model;
     this.view.setListener(this);
-    this.copy = new LayeredModelImpl(model);
+    this.loading = loading;
+    this.isLoading();
+  }
+
+  /**
+   * Determines if the model is still loading, taking the snapshot of its original state as soon
+   * as it isn't.
+   *
+   * @return true if the model hasn't finished loading.
+   */
+  private boolean isLoading() {
+    if (this.loading != null && !this.loading.isDone()) {
+      return true;
+    }
+    this.loading = null;
+    if (this.original == null) {
+      this.original = this.model.snapshot();
+    }
+    return false;
   }
 
   @Override
@@ -83,23 +130,83 @@ public class InteractiveControllerImpl implements IAnimationController, ActionLi
   }
 
   /**
-   * Restarts the model to it's original state using this.copy.
+   * Restarts the model to it's original state by restoring the snapshot taken of it. Restarting
+   * can be undone like any other edit.
    */
   private void restartModel() {
-    int lc = this.model.layerCount();
-    for (int i = 0; i < lc; i++) {
-      this.model.deleteLayer(0);
-    }
-    for (int i = 0; i < this.copy.layerCount(); i++) {
-      this.model.addLayer();
-      this.model.setCurrentLayer(i);
-      this.copy.setCurrentLayer(i);
-      this.copy.getAllAnimatedShapes().stream()
-              .forEach(as -> this.model.placeAnimatedShape(new AnimatedShape(as)));
+    if (!this.isLoading()) {
+      this.edit(() -> this.model.restore(this.original));
     }
     this.view.restart();
   }
 
+  /**
+   * Makes a change to the model that can be undone. A snapshot of the model from before the change
+   * goes on the undo stack if the change completed and the model did change. A change that throws
+   * leaves nothing to undo.
+   *
+   * @param change the change to make.
+   */
+  private void edit(Runnable change) {
+    ModelSnapshot before = this.model.snapshot();
+    long version = this.model.getVersion();
+    change.run();
+    if (this.model.getVersion() != version) {
+      push(this.undoStack, before);
+      this.redoStack.clear();
+    }
+  }
+
+  /**
+   * Puts the model back the way it was before the last edit, if there is one.
+   */
+  private void undo() {
+    if (!this.undoStack.isEmpty()) {
+      push(this.redoStack, this.model.snapshot());
+      this.model.restore(this.undoStack.pop());
+    }
+  }
+
+  /**
+   * Makes the last undone edit again, if nothing was edited since it was undone.
+   */
+  private void redo() {
+    if (!this.redoStack.isEmpty()) {
+      push(this.undoStack, this.model.snapshot());
+      this.model.restore(this.redoStack.pop());
+    }
+  }
+
+  /**
+   * Determines if the command can be carried out while the model is loading, which only those
+   * that play the animation, or pick a layer to look at, can.
+   */
+  private static boolean playsWhileLoading(Command command) {
+    switch (command) {
+      case PAUSE:
+      case START:
+      case RESTART:
+      case TEMPO_DOUBLE:
+      case TEMPO_HALF:
+      case ENABLE:
+      case DISABLE:
+      case SET_LAYER:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Pushes the snapshot on to the stack, dropping the oldest snapshot if the stack is full.
+   */
+  private static void push(Deque<ModelSnapshot> stack, ModelSnapshot snapshot) {
+    stack.push(snapshot);
+    if (stack.size() > UNDO_LIMIT) {
+      stack.removeLast();
+    }
+  }
+
   /**
    * Opens a file and loads the contents of the file into the new model.
    *
@@ -111,25 +218,28 @@ public class InteractiveControllerImpl implements IAnimationController, ActionLi
     try {
       inputFile = new FileReader(openPath);
       AnimationReader.parseFile(inputFile, builder);
+      IAnimationModel newModel = builder.build();
 
-      for (int i = 0; i < this.model.layerCount(); i++) {
-        this.model.setCurrentLayer(0);
-        this.model.getAllAnimatedShapes().stream().forEach(s ->
-                this.model.deleteShape(s.getShape().getName())
-        );
-      }
+      // swapped in as one batch, so a file that can't be loaded leaves the model as it was
+      this.model.applyAll(Collections.singletonList(m -> {
+        for (int i = 0; i < m.layerCount(); i++) {
+          m.setCurrentLayer(0);
+          m.getAllAnimatedShapes().stream().forEach(s ->
+                  m.deleteShape(s.getShape().getName())
+          );
+        }
 
-      IAnimationModel newModel = builder.build();
-      while (newModel.layerCount() > this.model.layerCount()) {
-        this.model.addLayer();
-      }
-      for (int i = 0; i < newModel.layerCount(); i++) {
-        newModel.setCurrentLayer(0);
-        this.model.setCurrentLayer(i);
-        newModel.getAllAnimatedShapes().forEach(s ->
-                this.model.placeAnimatedShape(s)
-        );
-      }
+        while (newModel.layerCount() > m.layerCount()) {
+          m.addLayer();
+        }
+        for (int i = 0; i < newModel.layerCount(); i++) {
+          newModel.setCurrentLayer(0);
+          m.setCurrentLayer(i);
+          newModel.getAllAnimatedShapes().forEach(s ->
+                  m.placeAnimatedShape(s.copy())
+          );
+        }
+      }));
     } catch (FileNotFoundException z) {
       this.view.showDialogBox(z.getMessage());
     } catch (Exception z) {
@@ -152,6 +262,10 @@ public class InteractiveControllerImpl implements IAnimationController, ActionLi
 
     Utils.requireNonNull(command);
 
+    if (this.isLoading() && !playsWhileLoading(command)) {
+      this.view.showDialogBox(ErrorMessages.StillLoading.errorMessage());
+      return;
+    }
 
     switch (command) {
       case PAUSE:
@@ -177,7 +291,15 @@ public class InteractiveControllerImpl implements IAnimationController, ActionLi
         break;
       case OPEN:
         String openPath = this.view.getFileFromUser();
-        this.openFile(openPath);
+        this.edit(() -> this.openFile(openPath));
+        this.view.updateComboBox();
+        break;
+      case UNDO:
+        this.undo();
+        this.view.updateComboBox();
+        break;
+      case REDO:
+        this.redo();
         this.view.updateComboBox();
         break;
       case SAVE:
@@ -190,13 +312,13 @@ public class InteractiveControllerImpl implements IAnimationController, ActionLi
         break;
       case DELETE_SHAPE:
         String shapeID = this.view.getDeleteDropDownString();
-        this.model.deleteShape(shapeID);
+        this.edit(() -> this.model.deleteShape(shapeID));
         this.view.updateComboBox();
         break;
       case ADD_KEYFRAME:
         try {
-          this.addKeyFrameFromEventInstruction(this.view.getDeleteDropDownString(),
-                  this.view.getKeyEventParams());
+          this.edit(() -> this.addKeyFrameFromEventInstruction(
+                  this.view.getDeleteDropDownString(), this.view.getKeyEventParams()));
         } catch (Exception exception) {
           //do nothing
         }
@@ -204,9 +326,9 @@ public class InteractiveControllerImpl implements IAnimationController, ActionLi
         break;
       case DELETE_KEYFRAME:
         try {
-          this.model.removeKeyFrame(
+          this.edit(() -> this.model.removeKeyFrame(
                   this.view.getDeleteDropDownString(),
-                  this.view.selectedKeyFrame());
+                  this.view.selectedKeyFrame()));
           this.view.updateComboBox();
         } catch (Exception exception) {
           this.view.showDialogBox("Cannot Delete\n" + exception.getMessage());
@@ -214,14 +336,16 @@ public class InteractiveControllerImpl implements IAnimationController, ActionLi
         break;
       case ADD_SHAPE:
         try {
-          this.model.placeAnimatedShape(new AnimatedShape(
-                  this.buildIShape(
-                          this.view.shapeTypeDropDown(),
-                          this.view.shapeNameToAdd(),
-                          this.view.getKeyEventParams()
-                  )));
-          this.addKeyFrameFromEventInstruction(
-                  this.view.shapeNameToAdd(), this.view.getKeyEventParams());
+          this.edit(() -> {
+            this.model.placeAnimatedShape(new AnimatedShape(
+                    this.buildIShape(
+                            this.view.shapeTypeDropDown(),
+                            this.view.shapeNameToAdd(),
+                            this.view.getKeyEventParams()
+                    )));
+            this.addKeyFrameFromEventInstruction(
+                    this.view.shapeNameToAdd(), this.view.getKeyEventParams());
+          });
           this.view.updateComboBox();
         } catch (Exception exception) {
           //do nothing
@@ -229,7 +353,7 @@ public class InteractiveControllerImpl implements IAnimationController, ActionLi
         break;
       case ADD_LAYER:
         try {
-          this.model.addLayer();
+          this.edit(this.model::addLayer);
           this.view.updateComboBox();
         } catch (Exception exception) {
           this.view.showDialogBox(exception.getMessage());
@@ -245,14 +369,15 @@ public class InteractiveControllerImpl implements IAnimationController, ActionLi
         break;
       case SET_VISIBLE:
         try {
-          this.model.setLayerState(this.view.getSelectedLayer(), this.view.getVisibleIndicator());
+          this.edit(() -> this.model.setLayerState(
+                  this.view.getSelectedLayer(), this.view.getVisibleIndicator()));
         } catch (Exception exception) {
           this.view.showDialogBox(exception.getMessage());
         }
         break;
       case DELETE_LAYER:
         try {
-          this.model.deleteLayer(this.view.getSelectedLayer());
+          this.edit(() -> this.model.deleteLayer(this.view.getSelectedLayer()));
           this.view.updateComboBox();
         } catch (Exception exception) {
           this.view.showDialogBox(exception.getMessage());
@@ -261,16 +386,20 @@ public class InteractiveControllerImpl implements IAnimationController, ActionLi
 
       case MOVE_LAYER_DOWN:
         try {
-          this.model.setCurrentLayer(this.view.getSelectedLayer());
-          this.model.moveCurrentLayer(-1);
+          this.edit(() -> {
+            this.model.setCurrentLayer(this.view.getSelectedLayer());
+            this.model.moveCurrentLayer(-1);
+          });
         } catch (Exception exception) {
           this.view.showDialogBox(exception.getMessage());
         }
         break;
       case MOVE_LAYER_UP:
         try {
-          this.model.setCurrentLayer(this.view.getSelectedLayer());
-          this.model.moveCurrentLayer(1);
+          this.edit(() -> {
+            this.model.setCurrentLayer(this.view.getSelectedLayer());
+            this.model.moveCurrentLayer(1);
+          });
         } catch (Exception exception) {
           this.view.showDialogBox(exception.getMessage());
         }
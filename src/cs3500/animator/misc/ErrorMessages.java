@@ -17,7 +17,10 @@ public enum ErrorMessages {
   ShapeNotInModel("The shape doesn't exist at this time!"),
   KeyFrameBadTick("Bad tick value preventing new keyframe.\nEvent probably exists at this frame!"),
   UnsupportedActionEvent("The action event passed in is not a valid action"),
-  DoesNotSupportLayer("This model does not support layers");
+  DoesNotSupportLayer("This model does not support layers"),
+  ReadOnlyShape("This shape is read only, copy it to change it"),
+  BadSnapshot("This snapshot was not taken from this kind of model"),
+  StillLoading("The animation is still loading, try again once it has loaded");
 
 
 
@@ -0,0 +1,81 @@
+package cs3500.animator.misc;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Interns names and hands each distinct name a small integer id, counting up from 0. Every copy
+ * of a name that goes through the table comes out as the one string the table keeps, so a name
+ * read many times over costs its memory once, and code that has the id can look things up by
+ * indexing an array instead of hashing or comparing strings.
+ *
+ * <p>Ids are never taken back, so an id means the same name for as long as the table is kept.
+ * Each table belongs to whatever made it, such as a builder reading one file, and goes away with
+ * it, so its ids count only the names that owner has seen. A table is not safe to use from more
+ * than one thread at once.</p>
+ */
+public final class SymbolTable {
+  private final HashMap<String, Integer> ids = new HashMap<>();
+  private String[] names = new String[16];
+  private int size;
+
+  /**
+   * Constructs an empty table.
+   */
+  public SymbolTable() {
+    // nothing is interned yet
+  }
+
+  /**
+   * Gets the id of the name, handing it the next id if the table hasn't seen it before.
+   *
+   * @param name the name to intern.
+   * @return the id of the name.
+   * @throws IllegalArgumentException if the name is null.
+   */
+  public int intern(String name) {
+    Utils.requireNonNull(name);
+    Integer id = this.ids.get(name);
+    if (id != null) {
+      return id;
+    }
+    if (this.size == this.names.length) {
+      this.names = Arrays.copyOf(this.names, this.size * 2);
+    }
+    this.names[this.size] = name;
+    this.ids.put(name, this.size);
+    return this.size++;
+  }
+
+  /**
+   * Gets the id of the name without handing out a new one.
+   *
+   * @param name the name to look up.
+   * @return the id of the name, or -1 if the name was never interned.
+   */
+  public int idOf(String name) {
+    Integer id = this.ids.get(name);
+    return id == null ? -1 : id;
+  }
+
+  /**
+   * Gets the name with the given id, which is the one string the table keeps for it.
+   *
+   * @param id the id of the name.
+   * @return the name.
+   * @throws IllegalArgumentException if no name has the id.
+   */
+  public String nameOf(int id) {
+    if (id < 0 || id >= this.size) {
+      throw new IllegalArgumentException("No name has the id " + id);
+    }
+    return this.names[id];
+  }
+
+  /**
+   * The number of names interned, which is also one more than the largest id handed out.
+   */
+  public int size() {
+    return this.size;
+  }
+}
@@ -15,8 +15,34 @@ import cs3500.animator.shapes.IShape;
  * executeInstructions method. This class is final as it is immutable.
  */
 public final class AnimatedShape implements IAnimatedShape {
+  /**
+   * The alpha bits of a fully opaque packed color. PrimitiveAnimatedShape uses this too.
+   */
+  static final int OPAQUE = 0xFF000000;
+
   private final IShape shape;
-  private final ArrayList<EventInstructions> events;
+  private final EventTrack events;
+
+  /**
+   * The index of the event that the last call to getShapeAtTick landed in. Playback asks for one
+   * tick after another, so the next tick is almost always in this event or the one after it. This
+   * is only a hint and is checked before it is used, so readers on different threads that race on
+   * it only cost each other a search.
+   */
+  private int lastSegment;
+
+  /**
+   * The extent of this shape, or null if it has to be worked out again. A model works it out
+   * when it indexes the shape, so readers of a published model only ever read it.
+   */
+  private java.awt.Rectangle extent;
+
+  /**
+   * The area swept by each event, or null if it has to be worked out again. Readers of a
+   * published model may build it from any thread. The bounds have only final fields and are
+   * never changed, so a racing reader sees either null, and builds its own, or complete bounds.
+   */
+  private SegmentBounds bounds;
 
   /**
    * Constructs an animated shape object.
@@ -26,7 +52,7 @@ public final class AnimatedShape implements IAnimatedShape {
    */
   public AnimatedShape(IShape shape, ArrayList<EventInstructions> events) {
     this.shape = Objects.requireNonNull(shape).copy();
-    this.events = new ArrayList<EventInstructions>();
+    this.events = new EventTrack();
     events.stream().forEach(e -> this.addEvent(e));
   }
 
@@ -37,7 +63,7 @@ public final class AnimatedShape implements IAnimatedShape {
    */
   public AnimatedShape(IShape shape) {
     this.shape = Objects.requireNonNull(shape).copy();
-    this.events = new ArrayList<EventInstructions>();
+    this.events = new EventTrack();
   }
 
   /**
@@ -47,7 +73,7 @@ public final class AnimatedShape implements IAnimatedShape {
    */
   public AnimatedShape(IAnimatedShape animatedShape) {
     this.shape = Objects.requireNonNull(animatedShape.getShape().copy());
-    this.events = Objects.requireNonNull(animatedShape.getEvents());
+    this.events = new EventTrack(Objects.requireNonNull(animatedShape.getEvents()));
   }
 
   /**
@@ -61,22 +87,156 @@ public final class AnimatedShape implements IAnimatedShape {
   }
 
   /**
-   * Gets a copy of the events this animation represents.
+   * Gets a copy of the events this animation represents. EventInstructions can't be changed, so
+   * the events themselves are shared and only the list is new.
    *
    * @return a new ArrayList of EventInstructions.
    */
   @Override
   public ArrayList<EventInstructions> getEvents() {
-    ArrayList<EventInstructions> temp = new ArrayList<EventInstructions>();
-    for (EventInstructions event : this.events) {
-      temp.add(new EventInstructions(event));
+    return this.events.toList();
+  }
+
+  @Override
+  public ArrayList<EventInstructions> getEventsBetween(int fromTick, int toTick) {
+    return new ArrayList<>(this.events.eventsBetween(fromTick, toTick));
+  }
+
+  @Override
+  public int getId() {
+    // only the views a model hands out have ids
+    return -1;
+  }
+
+  @Override
+  public IAnimatedShape copy() {
+    return new AnimatedShape(this);
+  }
+
+  @Override
+  public IAnimatedShape copyWithEvents(ArrayList<EventInstructions> events) {
+    return new AnimatedShape(this.shape, events);
+  }
+
+  @Override
+  public int getStartTick() {
+    return this.events.isEmpty() ? -1 : this.events.first().getStartTick();
+  }
+
+  @Override
+  public int getEndTick() {
+    return this.events.isEmpty() ? -1 : this.events.last().getEndTick();
+  }
+
+  @Override
+  public java.awt.Rectangle getExtent() {
+    if (this.extent == null) {
+      if (this.events.isEmpty()) {
+        return new java.awt.Rectangle();
+      }
+      java.awt.Rectangle r = extentOf(this.shape.getX(), this.shape.getY(),
+              this.shape.getWidth(), this.shape.getHeight());
+      for (int i = 0; i < this.events.size(); i++) {
+        EventInstructions e = this.events.get(i);
+        r.add(extentOf(e.getEndX(), e.getEndY(), e.getEndWidth(), e.getEndHeight()));
+      }
+      this.extent = r;
     }
-    return temp;
+    return new java.awt.Rectangle(this.extent);
+  }
+
+  @Override
+  public java.awt.Rectangle getSegmentExtent(int segment) {
+    return this.bounds().extentOf(segment);
+  }
+
+  @Override
+  public int getSegmentCount() {
+    return this.events.size();
+  }
+
+  @Override
+  public int getSegmentStartTick(int segment) {
+    return this.segment(segment).getStartTick();
+  }
+
+  @Override
+  public int getSegmentEndTick(int segment) {
+    return this.segment(segment).getEndTick();
+  }
+
+  /**
+   * Gets the event at the given index, checking it is one of the events.
+   */
+  private EventInstructions segment(int segment) {
+    if (segment < 0 || segment >= this.events.size()) {
+      throw new IndexOutOfBoundsException("Index: " + segment + " Size: " + this.events.size());
+    }
+    return this.events.get(segment);
+  }
+
+  @Override
+  public boolean mayOverlap(int fromTick, int toTick, java.awt.Rectangle region) {
+    Utils.requireNonNull(region);
+    return this.bounds().mayOverlap(fromTick, toTick, region);
+  }
+
+  /**
+   * Gets the area swept by each event, working it out again if the events changed.
+   */
+  private SegmentBounds bounds() {
+    SegmentBounds b = this.bounds;
+    if (b == null) {
+      int n = this.events.size();
+      int[] ticks = new int[n + 1];
+      double[] x = new double[n + 1];
+      double[] y = new double[n + 1];
+      int[] w = new int[n + 1];
+      int[] h = new int[n + 1];
+      double[] angle = new double[n + 1];
+      x[0] = this.shape.getX();
+      y[0] = this.shape.getY();
+      w[0] = this.shape.getWidth();
+      h[0] = this.shape.getHeight();
+      angle[0] = this.shape.getAngle();
+      for (int i = 0; i < n; i++) {
+        EventInstructions e = this.events.get(i);
+        ticks[i] = e.getStartTick();
+        ticks[i + 1] = e.getEndTick();
+        x[i + 1] = e.getEndX();
+        y[i + 1] = e.getEndY();
+        w[i + 1] = e.getEndWidth();
+        h[i + 1] = e.getEndHeight();
+        angle[i + 1] = e.getEndAngle();
+      }
+      b = new SegmentBounds(n, ticks, x, y, w, h, angle);
+      this.bounds = b;
+    }
+    return b;
+  }
+
+  /**
+   * The smallest whole-pixel rectangle that holds a shape with the given position and size.
+   * PrimitiveAnimatedShape uses this too.
+   *
+   * @param x the x position of the shape.
+   * @param y the y position of the shape.
+   * @param w the width of the shape.
+   * @param h the height of the shape.
+   * @return the rectangle around the shape.
+   */
+  static java.awt.Rectangle extentOf(double x, double y, int w, int h) {
+    int x0 = (int) Math.floor(x);
+    int y0 = (int) Math.floor(y);
+    int x1 = (int) Math.ceil(x + w);
+    int y1 = (int) Math.ceil(y + h);
+    return new java.awt.Rectangle(x0, y0, x1 - x0, y1 - y0);
   }
 
   /**
    * Tweening method given to us in assignment 6 that will help us get a value at a certain tick,
-   * withing a bounds of ticks.
+   * withing a bounds of ticks. PrimitiveAnimatedShape uses this too so both kinds of animated
+   * shape tween to the exact same values.
    *
    * @param startVal  the value at time = startTick.
    * @param endVal    the calue at time = endTick.
@@ -86,17 +246,128 @@ public final class AnimatedShape implements IAnimatedShape {
    * @return the calculated tweened value.
    * @throws IllegalArgumentException if the currTick is not within start and end tick.
    */
-  private double tween(double startVal, double endVal, int startTick, int endTick, int currTick) {
+  static double tween(double startVal, double endVal, int startTick, int endTick, int currTick) {
     Utils.requireNonNegative(startTick, endTick, currTick);
-    int deltaTick = endTick - startTick;
-    double tweenVal = (startVal * ((double) (endTick - currTick) / (double) deltaTick)
-            + endVal * ((double) (currTick - startTick) / (double) deltaTick));
+    return interpolate(startVal, endVal, startTick, endTick, currTick);
+  }
+
+  /**
+   * The tweening formula itself, without checking the ticks. Only for callers that already know
+   * the ticks are valid, such as sampling a frame where the ticks come from an existing event.
+   *
+   * @param startVal  the value at time = startTick.
+   * @param endVal    the value at time = endTick.
+   * @param startTick the beginning of the event.
+   * @param endTick   the end tick value at the end of the event.
+   * @param currTick  the tick inbetween start and end that we want to calculate.
+   * @return the calculated tweened value.
+   */
+  static double interpolate(double startVal, double endVal, int startTick, int endTick,
+                            int currTick) {
+    return blend(startVal, endVal, startWeight(startTick, endTick, currTick),
+            endWeight(startTick, endTick, currTick));
+  }
+
+  /**
+   * How much of the start value of an event goes into the tweened value at a tick. Every
+   * attribute of a shape is tweened at the same tick with the same two weights, so they only need
+   * to be divided out once per tick rather than once per attribute.
+   *
+   * @param startTick the beginning of the event.
+   * @param endTick   the end of the event.
+   * @param currTick  the tick we want to tween at.
+   * @return the weight, which is NaN for an event that starts and ends on the same tick.
+   */
+  static double startWeight(int startTick, int endTick, int currTick) {
+    return (double) (endTick - currTick) / (double) (endTick - startTick);
+  }
+
+  /**
+   * How much of the end value of an event goes into the tweened value at a tick.
+   *
+   * @param startTick the beginning of the event.
+   * @param endTick   the end of the event.
+   * @param currTick  the tick we want to tween at.
+   * @return the weight, which is NaN for an event that starts and ends on the same tick.
+   */
+  static double endWeight(int startTick, int endTick, int currTick) {
+    return (double) (currTick - startTick) / (double) (endTick - startTick);
+  }
+
+  /**
+   * Tweens a value with weights from startWeight and endWeight. Gives exactly the same value as
+   * interpolate does for the ticks the weights came from, bit for bit, since it does the same
+   * operations in the same order.
+   *
+   * @param startVal    the value at the start of the event.
+   * @param endVal      the value at the end of the event.
+   * @param startWeight the weight of the start value.
+   * @param endWeight   the weight of the end value.
+   * @return the tweened value, rounded to three decimal places.
+   */
+  static double blend(double startVal, double endVal, double startWeight, double endWeight) {
+    double tweenVal = startVal * startWeight + endVal * endWeight;
     // used to solve java's rounding bug
     // issue reference - https://www.geeksforgeeks.org/rounding-off-errors-java/
     // Solution - https://stackoverflow.com/questions/8825209/rounding-decimal-points
     return Math.round(tweenVal * 1000) / 1000.0;
   }
 
+  /**
+   * Tweens an int value with weights from startWeight and endWeight and truncates it, like casting
+   * blend to an int. A value that doesn't change over the event tweens back to itself once it is
+   * rounded, so that case skips the arithmetic. An event that starts and ends on the same tick
+   * still tweens to 0, as NaN weights do in blend.
+   */
+  static int blendInt(int startVal, int endVal, double startWeight, double endWeight) {
+    if (startVal == endVal && !Double.isNaN(startWeight)) {
+      return startVal;
+    }
+    return (int) blend(startVal, endVal, startWeight, endWeight);
+  }
+
+  /**
+   * Finds the first event whose span contains the tick. Tries the event the last lookup landed in
+   * and the one after it first, and otherwise binary searches the events. The events are
+   * contiguous, so their ticks only ever increase and the first event that has not ended by the
+   * tick is the only one that can contain it.
+   *
+   * @param tick the tick that we want the event for.
+   * @return the index of the event, or -1 if no event contains the tick.
+   */
+  private int findSegment(int tick) {
+    int hint = this.lastSegment;
+    if (this.isFirstSegmentAt(hint, tick)) {
+      return hint;
+    }
+    if (this.isFirstSegmentAt(hint + 1, tick)) {
+      this.lastSegment = hint + 1;
+      return hint + 1;
+    }
+    int lo = this.events.firstEndingAtOrAfter(tick);
+    if (lo < this.events.size() && this.events.get(lo).getStartTick() <= tick) {
+      this.lastSegment = lo;
+      return lo;
+    }
+    return -1;
+  }
+
+  /**
+   * Determines if the event at index i is the first event whose span contains the tick.
+   *
+   * @param i    the index of the event.
+   * @param tick the tick we are looking for.
+   * @return true if getShapeAtTick should tween the tick with this event.
+   */
+  private boolean isFirstSegmentAt(int i, int tick) {
+    if (i < 0 || i >= this.events.size()) {
+      return false;
+    }
+    EventInstructions event = this.events.get(i);
+    return event.getStartTick() <= tick && tick <= event.getEndTick()
+            && (i == 0 || this.events.get(i - 1).getEndTick() < tick);
+  }
+
   /**
    * Gets a version of this shape at a given tick.
    *
@@ -108,60 +379,159 @@ public final class AnimatedShape implements IAnimatedShape {
     if (tick < 0) {
       throw new IllegalArgumentException(ErrorMessages.BadTickValue.errorMessage());
     }
-    for (int i = 0; i < this.events.size(); i++) {
-      EventInstructions event = this.events.get(i);
-      if (event.getStartTick() <= tick && tick <= event.getEndTick()) {
+    int i = this.findSegment(tick);
+    if (i < 0) {
+      throw new IllegalArgumentException(ErrorMessages.BadTickValue.errorMessage());
+    }
+    EventInstructions event = this.events.get(i);
+
+    boolean startEventIsPosition = i == 0;
+
+    double startX;
+    double startY;
+    int startHeight;
+    int startWidth;
+    int startRgb;
+    int startAngle;
+    if (startEventIsPosition) {
+      startX = this.shape.getX();
+      startY = this.shape.getY();
+      startHeight = this.shape.getHeight();
+      startWidth = this.shape.getWidth();
+      startRgb = this.shape.getRgb();
+      startAngle = (int)this.shape.getAngle();
+    } else {
+      EventInstructions prev = this.events.get(i - 1);
+      startX = prev.getEndX();
+      startY = prev.getEndY();
+      startHeight = prev.getEndHeight();
+      startWidth = prev.getEndWidth();
+      startRgb = prev.getEndRgb();
+      startAngle = (int)prev.getEndAngle();
+    }
+
+    double startWeight = startWeight(event.getStartTick(), event.getEndTick(), tick);
+    double endWeight = endWeight(event.getStartTick(), event.getEndTick(), tick);
+    TweenLambda tweenLambda = (double a, double b) -> blend(a, b, startWeight, endWeight);
 
-        boolean startEventIsPosition = i == 0;
 
-        Position2D startPosn;
-        int startHeight;
-        int startWidth;
-        Color startColor;
-        int startAngle;
-        if (startEventIsPosition) {
-          startPosn = this.shape.getPosition();
-          startHeight = this.shape.getHeight();
-          startWidth = this.shape.getWidth();
-          startColor = this.shape.getColor();
-          startAngle = (int)this.shape.getAngle();
-        } else {
-          startPosn = this.events.get(i - 1).getEndPosn();
-          startHeight = this.events.get(i - 1).getEndHeight();
-          startWidth = this.events.get(i - 1).getEndWidth();
-          startColor = this.events.get(i - 1).getEndColor();
-          startAngle = (int)this.events.get(i - 1).getEndAngle();
-        }
+    double x = tweenLambda.tween(startX, event.getEndX());
 
-        TweenLambda tweenLambda = (double a, double b) ->
-                tween(a, b, event.getStartTick(), event.getEndTick(), tick);
+    double y = tweenLambda.tween(startY, event.getEndY());
 
+    int height = (int) tweenLambda.tween(startHeight, event.getEndHeight());
 
-        double x = tweenLambda.tween(startPosn.getX(), event.getEndPosn().getX());
+    int width = (int) tweenLambda.tween(startWidth, event.getEndWidth());
 
-        double y = tweenLambda.tween(startPosn.getY(), event.getEndPosn().getY());
+    int r = (int) tweenLambda.tween(red(startRgb), red(event.getEndRgb()));
 
-        int height = (int) tweenLambda.tween(startHeight, event.getEndHeight());
+    int g = (int) tweenLambda.tween(green(startRgb), green(event.getEndRgb()));
 
-        int width = (int) tweenLambda.tween(startWidth, event.getEndWidth());
+    int b = (int) tweenLambda.tween(blue(startRgb), blue(event.getEndRgb()));
 
-        int r = (int) tweenLambda.tween(startColor.getRed(), event.getEndColor().getRed());
+    int a = (int) tweenLambda.tween(startAngle, event.getEndAngle());
 
-        int g = (int) tweenLambda.tween(startColor.getGreen(), event.getEndColor().getGreen());
+    EventInstructions eventStateAtTick =
+            new EventInstructions(tick, tick, x, y,
+                    width, height, OPAQUE | (r << 16) | (g << 8) | b, a);
+    IShape newShape = this.shape.copy();
+    newShape.executeInstructions(eventStateAtTick);
+    return newShape;
+  }
 
-        int b = (int) tweenLambda.tween(startColor.getBlue(), event.getEndColor().getBlue());
+  @Override
+  public boolean sampleInto(int tick, FrameBuffer frame) {
+    int i = tick < 0 ? -1 : this.findSegment(tick);
+    if (i < 0) {
+      return false;
+    }
+    this.sampleSegmentInto(i, tick, frame);
+    return true;
+  }
 
-        int a = (int) tweenLambda.tween(startAngle, event.getEndAngle());
+  @Override
+  public void sampleSegmentInto(int i, int tick, FrameBuffer frame) {
+    EventInstructions event = this.events.get(i);
+
+    double startX;
+    double startY;
+    int startHeight;
+    int startWidth;
+    int startRgb;
+    int startAngle;
+    if (i == 0) {
+      startX = this.shape.getX();
+      startY = this.shape.getY();
+      startHeight = this.shape.getHeight();
+      startWidth = this.shape.getWidth();
+      startRgb = this.shape.getRgb();
+      startAngle = (int) this.shape.getAngle();
+    } else {
+      EventInstructions prev = this.events.get(i - 1);
+      startX = prev.getEndX();
+      startY = prev.getEndY();
+      startHeight = prev.getEndHeight();
+      startWidth = prev.getEndWidth();
+      startRgb = prev.getEndRgb();
+      startAngle = (int) prev.getEndAngle();
+    }
+    sample(frame, this.shape, tick, event.getStartTick(), event.getEndTick(),
+            startX, startY, startWidth, startHeight, startRgb, startAngle,
+            event.getEndX(), event.getEndY(), event.getEndWidth(), event.getEndHeight(),
+            event.getEndRgb(), event.getEndAngle());
+  }
 
-        EventInstructions eventStateAtTick =
-                new EventInstructions(tick, tick, new Position2D(x, y),
-                        width, height, new Color(r, g, b), a);
-        IShape newShape = this.shape.copy();
-        newShape.executeInstructions(eventStateAtTick);
-        return newShape;
-      }
+  /**
+   * Tweens a shape between two states the same way getShapeAtTick does and adds the result to
+   * the frame. PrimitiveAnimatedShape samples through this too.
+   *
+   * @param frame the frame to add the shape to.
+   * @param shape the shape whose id, name and type are added.
+   * @param tick  the tick we want the shape at, between start and end.
+   * @param start the start tick of the event the tick is in.
+   * @param end   the end tick of the event the tick is in.
+   */
+  static void sample(FrameBuffer frame, IShape shape, int tick, int start, int end,
+                     double x0, double y0, int w0, int h0, int rgb0, int angle0,
+                     double x1, double y1, int w1, int h1, int rgb1, double angle1) {
+    double wa = startWeight(start, end, tick);
+    double wb = endWeight(start, end, tick);
+    int rgb;
+    if (rgb0 == rgb1 && !Double.isNaN(wa)) {
+      rgb = rgb0 & 0xFFFFFF;
+    } else {
+      rgb = (blendInt(red(rgb0), red(rgb1), wa, wb) << 16)
+              | (blendInt(green(rgb0), green(rgb1), wa, wb) << 8)
+              | blendInt(blue(rgb0), blue(rgb1), wa, wb);
     }
-    throw new IllegalArgumentException(ErrorMessages.BadTickValue.errorMessage());
+    frame.add(shape.getName(), shape.asString(),
+            blend(x0, x1, wa, wb),
+            blend(y0, y1, wa, wb),
+            blendInt(w0, w1, wa, wb),
+            blendInt(h0, h1, wa, wb),
+            rgb,
+            (int) blend(angle0, angle1, wa, wb));
+  }
+
+  /**
+   * The red component of a packed color.
+   */
+  static int red(int rgb) {
+    return (rgb >> 16) & 0xFF;
+  }
+
+  /**
+   * The green component of a packed color.
+   */
+  static int green(int rgb) {
+    return (rgb >> 8) & 0xFF;
+  }
+
+  /**
+   * The blue component of a packed color.
+   */
+  static int blue(int rgb) {
+    return rgb & 0xFF;
   }
 
   /**
@@ -173,47 +543,26 @@ public final class AnimatedShape implements IAnimatedShape {
    */
   @Override
   public void addEvent(EventInstructions event) {
-    boolean isInvalidInput = this.events.size() != 0 &&
-            this.events.get(this.events.size() - 1).getEndTick() != event.getStartTick();
+    boolean isInvalidInput = !this.events.isEmpty() &&
+            this.events.last().getEndTick() != event.getStartTick();
     if (isInvalidInput) {
       throw new IllegalArgumentException(
               ErrorMessages.InvalidEventAdded.errorMessage("End: " +
-                      this.events.get(this.events.size() - 1).getEndTick() +
+                      this.events.last().getEndTick() +
                       " Start: " + event.getStartTick()));
     }
     this.events.add(new EventInstructions(Objects.requireNonNull(event)));
-  }
-
-  /**
-   * Splits a single event instruction and adds the KeyFrame params in between the start and end
-   * ticks.
-   *
-   * @param event instruct that we want to split.
-   * @param t     the tick at which we want to add the key frame.
-   * @param p     Position.
-   * @param w     Width.
-   * @param h     Height.
-   * @param c     Color.
-   * @return array of two events.
-   */
-  private ArrayList<EventInstructions> splitAndInsert(
-          EventInstructions event, int t, Position2D p, int w, int h, Color c) {
-    ArrayList<EventInstructions> splitEvents = new ArrayList<>();
-    splitEvents.add(new EventInstructions(event.getStartTick(), t, p, w, h, c));
-
-    splitEvents.add(
-            new EventInstructions(
-                    t,
-                    event.getEndTick(),
-                    event.getEndPosn(),
-                    event.getEndWidth(),
-                    event.getEndHeight(),
-                    event.getEndColor()));
-    return splitEvents;
+    this.bounds = null;
+    if (this.extent != null) {
+      this.extent.add(extentOf(event.getEndX(), event.getEndY(),
+              event.getEndWidth(), event.getEndHeight()));
+    }
   }
 
   @Override
   public void placeKeyFrame(int t, Position2D p, int w, int h, Color c) {
+    this.extent = null;
+    this.bounds = null;
     if (this.events.size() == 0) {
       this.events.add(new EventInstructions(t, t, p, w, h, c));
       return;
@@ -255,24 +604,51 @@ public final class AnimatedShape implements IAnimatedShape {
               t, p, w, h, c
       ));
     } else {
-      for (EventInstructions event : this.events) {
-        if (event.getStartTick() < t && t < event.getEndTick()) {
-          int i = this.events.indexOf(event);
-          this.events.addAll(i, splitAndInsert(event, t, p, w, h, c));
-          this.events.remove(event);
-          return;
-        } else if (event.getStartTick() == t || event.getEndTick() == t) {
-          throw new IllegalArgumentException(ErrorMessages.KeyFrameBadTick.errorMessage());
-        }
+      // every event before i ends before t, so i is the only event t can split or land on
+      int i = this.events.firstEndingAtOrAfter(t);
+      EventInstructions event = this.events.get(i);
+      if (event.getStartTick() < t && t < event.getEndTick()) {
+        this.events.set(i, new EventInstructions(event.getStartTick(), t, p, w, h, c));
+        this.events.add(i + 1,
+                new EventInstructions(
+                        t,
+                        event.getEndTick(),
+                        event.getEndPosn(),
+                        event.getEndWidth(),
+                        event.getEndHeight(),
+                        event.getEndColor()));
+      } else if (event.getStartTick() == t || event.getEndTick() == t) {
+        throw new IllegalArgumentException(ErrorMessages.KeyFrameBadTick.errorMessage());
+      } else {
+        throw new IllegalArgumentException(ErrorMessages.BadTickValue.errorMessage());
       }
-      throw new IllegalArgumentException(ErrorMessages.BadTickValue.errorMessage());
     }
 
   }
 
 
+  @Override
+  public int simplify(double pixelTolerance, int colorTolerance) {
+    Utils.requireNonNegative(pixelTolerance, colorTolerance);
+    ArrayList<EventInstructions> simplified =
+            new EventSimplifier(pixelTolerance, colorTolerance).simplify(this.shape,
+                    this.events.toList());
+    int removed = this.events.size() - simplified.size();
+    if (removed > 0) {
+      this.events.clear();
+      for (EventInstructions event : simplified) {
+        this.events.add(event);
+      }
+      this.extent = null;
+      this.bounds = null;
+    }
+    return removed;
+  }
+
   @Override
   public void removeKeyFrame(int index) {
+    this.extent = null;
+    this.bounds = null;
     Utils.requireNonNegative(index);
     if (index == 0 && this.events.size() == 0) {
       throw new IllegalArgumentException("The shape must have 1 keyframe to know it's start");
@@ -284,8 +660,7 @@ public final class AnimatedShape implements IAnimatedShape {
 
     if (index == 1 && this.events.size() == 1) {
       EventInstructions curr = this.events.get(index - 1);
-      this.events.remove(curr);
-      this.events.add(
+      this.events.set(index - 1,
               new EventInstructions(
                       curr.getStartTick(),
                       curr.getStartTick(),
@@ -304,9 +679,8 @@ public final class AnimatedShape implements IAnimatedShape {
 
       EventInstructions curr = this.events.get(index - 1);
       EventInstructions next = this.events.get(index);
-      this.events.remove(curr);
-      this.events.remove(next);
-      this.events.add(index - 1,
+      this.events.remove(index);
+      this.events.set(index - 1,
               new EventInstructions(
                       curr.getStartTick(),
                       next.getEndTick(),
@@ -2,7 +2,9 @@ package cs3500.animator.model;
 
 import java.awt.Color;
 import java.util.ArrayList;
-import java.util.stream.Collectors;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
 
 import cs3500.animator.misc.ErrorMessages;
 import cs3500.animator.misc.Position2D;
@@ -18,19 +20,67 @@ import cs3500.animator.shapes.IShape;
  */
 public class AnimationModelImpl implements IAnimationModel {
   /**
-   * We decided to use an AnimatedShape object over a hashmap to avoid potential key issues. Key
-   * issues could arise from any mutations that we might do in the future
+   * Shapes keyed by their name. A shape's name can never change once it is constructed, so the
+   * keys are safe from mutation.
    */
-  private ArrayList<IAnimatedShape> listOfAnimatedShapes;
+  private PersistentTreeMap<String, Entry> shapesByName;
+
+  /**
+   * The same shapes indexed by their ids. A shape's id is handed out when it is placed and never
+   * given to another shape, and ids count up, so they are also the order the shapes are drawn in.
+   */
+  private PersistentIdArray<Entry> shapesById;
+
+  /**
+   * The lifetimes of the shapes in this model, used to find the shapes alive at a tick without
+   * looking at every shape. Shapes without any events are not in the index.
+   */
+  private ShapeLifetimeIndex lifetimes;
+
+  /**
+   * The id handed to the next shape placed in this model.
+   */
+  private int nextId;
 
   private java.awt.Rectangle bounds = new java.awt.Rectangle(1000, 1000);
 
+  /**
+   * Marks the entries this model may change in place. The maps and the lifetime index are never
+   * changed once built, so a snapshot just keeps the ones the model has. Taking a snapshot gives
+   * the model a new owner, and from then on an entry made before the snapshot is copied the first
+   * time it is changed, leaving the one in the snapshot alone.
+   */
+  private Object owner = new Object();
+
+  /**
+   * Goes up by one every time this model is changed.
+   */
+  private long version;
+
+  /**
+   * The grid over the shapes at the tick last asked about by getShapesInRegionAt, or null. It is
+   * dropped on every change, and is only used while its version is this model's. Readers of a
+   * published snapshot replace it from any thread, which is safe since a grid is built whole and
+   * never changed, so a reader sees either its own grid or another reader's complete one.
+   */
+  private volatile SpatialGrid regionGrid;
+
+  private final ArrayList<IModelListener> listeners = new ArrayList<>();
+
+  /**
+   * The batch being made by applyAll, or null if there isn't one.
+   */
+  private Batch batch;
+
 
   /**
    * Constructor for an abstract animation model. This will never be created or instantiated.
    */
   public AnimationModelImpl() {
-    this.listOfAnimatedShapes = new ArrayList<>();
+    this.shapesByName = PersistentTreeMap.empty();
+    this.shapesById = PersistentIdArray.empty();
+    this.lifetimes = new ShapeLifetimeIndex();
+    this.nextId = 0;
   }
 
   /**
@@ -39,94 +89,415 @@ public class AnimationModelImpl implements IAnimationModel {
    * @param model the animation model we want to copy
    */
   public AnimationModelImpl(IAnimationModel model) {
-    Utils.requireNonNull();
-    this.listOfAnimatedShapes = model.getAllAnimatedShapes();
+    this();
+    Utils.requireNonNull(model);
+    ArrayList<IAnimatedShape> copies = new ArrayList<>();
+    for (IAnimatedShape shape : model.getAllAnimatedShapes()) {
+      copies.add(shape.copy());
+    }
+    this.setListOfAnimatedShapes(copies);
     this.bounds = model.getBounds();
   }
 
+  /**
+   * Sets the list of animated shapes in the model to the passed in array list of animated shapes.
+   * The shapes are drawn in the order of the list.
+   *
+   * @throws IllegalArgumentException if the arrayList passed in is a null object, or if two of its
+   *                                  shapes share a name
+   */
   @Override
   public void setListOfAnimatedShapes(ArrayList<IAnimatedShape> animatedShapes) {
     Utils.requireNonNull(animatedShapes);
-    this.listOfAnimatedShapes = animatedShapes;
+    PersistentTreeMap<String, Entry> byName = PersistentTreeMap.empty();
+    PersistentIdArray<Entry> byId = PersistentIdArray.empty();
+    ArrayList<Entry> newShapes = new ArrayList<>();
+    for (IAnimatedShape animatedShape : animatedShapes) {
+      Utils.requireNonNull(animatedShape);
+      String name = animatedShape.getShape().getName();
+      if (byName.containsKey(name)) {
+        throw new IllegalArgumentException(ErrorMessages.DuplicateShape.errorMessage());
+      }
+      Entry entry = new Entry(name, owned(animatedShape), this.nextId++, this.owner);
+      byName = byName.put(name, entry);
+      byId = byId.put(entry.id, entry);
+      newShapes.add(entry);
+    }
+    if (this.batch != null) {
+      this.batch.dirty.addAll(this.shapesById.values());
+      this.batch.dirty.addAll(newShapes);
+      this.shapesByName = byName;
+      this.shapesById = byId;
+    } else {
+      this.shapesByName = byName;
+      this.shapesById = byId;
+      this.lifetimes = new ShapeLifetimeIndex();
+      for (Entry entry : newShapes) {
+        this.reindex(entry);
+      }
+    }
+    this.fire(ModelEvent.Type.SHAPES_REPLACED, null);
+  }
+
+  /**
+   * Moves this model to its next version and tells every listener about the change.
+   *
+   * @param type      what kind of change was made
+   * @param shapeName the shape that changed, or null if the change isn't about one shape
+   */
+  private void fire(ModelEvent.Type type, String shapeName) {
+    // dropped even inside a batch, since the batch changes the shapes without a new version
+    this.regionGrid = null;
+    if (this.batch != null) {
+      this.batch.changed = true;
+      return;
+    }
+    this.version++;
+    if (this.listeners.isEmpty()) {
+      return;
+    }
+    ModelEvent event = new ModelEvent(type, 0, shapeName, this.version);
+    // copied so a listener can remove itself while being told
+    for (IModelListener listener : new ArrayList<>(this.listeners)) {
+      listener.modelChanged(event);
+    }
+  }
+
+  /**
+   * Gets a shape this model can change. Read only views handed out by a model are copied, any
+   * other shape is kept as is.
+   *
+   * @param animatedShape the shape being placed in this model
+   * @return the shape to store
+   */
+  private static IAnimatedShape owned(IAnimatedShape animatedShape) {
+    if (animatedShape instanceof ReadOnlyAnimatedShape) {
+      return animatedShape.copy();
+    }
+    return animatedShape;
+  }
+
+  /**
+   * Finds the shape with the given name in this model.
+   *
+   * @param name the name of the shape we are looking for
+   * @return the entry for the shape, or null if no shape in this model has that name
+   */
+  private Entry findShape(String name) {
+    return this.shapesByName.get(name);
+  }
+
+  /**
+   * Puts the entry in both maps, replacing any entry with the same name.
+   *
+   * @param entry the entry to put
+   */
+  private void putEntry(Entry entry) {
+    this.shapesByName = this.shapesByName.put(entry.name, entry);
+    this.shapesById = this.shapesById.put(entry.id, entry);
+  }
+
+  /**
+   * Gets an entry for the shape that this model can change in place. An entry shared with a
+   * snapshot is copied, along with its shape, and the copy takes its place in this model.
+   *
+   * @param entry the entry whose shape is about to change
+   * @return the entry to change
+   */
+  private Entry own(Entry entry) {
+    Entry owned = this.ownable(entry);
+    if (owned != entry) {
+      this.putEntry(owned);
+    }
+    return owned;
+  }
+
+  /**
+   * Gets an entry for the shape that this model can change in place, without putting it in this
+   * model. An entry shared with a snapshot is copied, along with its shape.
+   *
+   * @param entry the entry whose shape is about to change
+   * @return the entry itself if this model owns it, or else a copy of it
+   */
+  private Entry ownable(Entry entry) {
+    if (entry.owner == this.owner) {
+      return entry;
+    }
+    return this.withShape(entry, entry.shape.copy());
   }
 
+  /**
+   * Makes an entry this model owns that takes the given entry's place with a different shape,
+   * without putting it in this model.
+   *
+   * @param entry the entry to take the place of
+   * @param shape the shape the new entry holds
+   * @return the new entry
+   */
+  private Entry withShape(Entry entry, IAnimatedShape shape) {
+    Entry copy = new Entry(entry.name, shape, entry.id, this.owner);
+    // the copy is indexed the same way until it is reindexed
+    copy.start = entry.start;
+    copy.end = entry.end;
+    copy.extent = entry.extent;
+    copy.indexed = entry.indexed;
+    return copy;
+  }
+
+  /**
+   * Updates the lifetime index after the entry's shape may have changed, or been added to or
+   * removed from this model. In a batch, this waits until the batch is committed.
+   *
+   * @param entry the entry that may have changed
+   */
+  private void edited(Entry entry) {
+    if (this.batch != null) {
+      this.batch.dirty.add(entry);
+    } else if (this.shapesByName.get(entry.name) == entry) {
+      this.reindex(entry);
+    } else {
+      this.unindex(entry);
+    }
+  }
+
+  /**
+   * Updates the lifetime index after the events of the entry's shape may have changed.
+   *
+   * @param entry the entry that we want to reindex
+   */
+  private void reindex(Entry entry) {
+    int start = entry.shape.getStartTick();
+    int end = entry.shape.getEndTick();
+    java.awt.Rectangle extent = entry.shape.getExtent();
+    if (start == entry.start && end == entry.end && extent.equals(entry.extent)
+            && entry.indexed == entry.shape) {
+      return;
+    }
+    this.unindex(entry);
+    if (start >= 0) {
+      this.lifetimes.insert(start, end, entry.id, entry.shape, extent);
+    }
+    entry.indexed = entry.shape;
+    entry.start = start;
+    entry.end = end;
+    entry.extent = extent;
+  }
+
+  /**
+   * Removes the entry's shape from the lifetime index. An entry shared with a snapshot still
+   * describes how the snapshot indexes it, so it is left as it is.
+   *
+   * @param entry the entry that we want to remove from the index
+   */
+  private void unindex(Entry entry) {
+    if (entry.start >= 0) {
+      this.lifetimes.remove(entry.start, entry.id);
+    }
+    if (entry.owner != this.owner) {
+      return;
+    }
+    entry.indexed = null;
+    entry.start = -1;
+    entry.end = -1;
+    entry.extent = null;
+  }
 
   @Override
   public void deleteShape(String id) {
     Utils.requireNonNull(id);
-    for (int i = 0; i < this.listOfAnimatedShapes.size(); i++) {
-      if (this.listOfAnimatedShapes.get(i).getShape().getName().equals(id)) {
-        this.listOfAnimatedShapes.remove(i);
-        break;
-      } else {
-        // don't do anything
-      }
+    Entry entry = this.shapesByName.get(id);
+    if (entry != null) {
+      this.shapesByName = this.shapesByName.remove(id);
+      this.shapesById = this.shapesById.remove(entry.id);
+      this.edited(entry);
+      this.fire(ModelEvent.Type.SHAPE_REMOVED, id);
     }
   }
 
   /**
    * Places the passed in shape in the list of shapes. A newly added shape must not have the same
-   * name as a shape already added to this model.
+   * name as a shape already added to this model. Once placed, the shape should only be changed
+   * through this model so that the model can keep track of when the shape is alive.
    *
    * @param animatedShape the shape that we are adding to the list of shapes
+   * @return the id given to the shape
    */
   @Override
-  public void placeAnimatedShape(IAnimatedShape animatedShape) {
+  public int placeAnimatedShape(IAnimatedShape animatedShape) {
     Utils.requireNonNull(animatedShape);
-    boolean localListContainAnimatedShape = this.listOfAnimatedShapes
-            .stream()
-            .filter(as -> as.getShape()
-                    .getName()
-                    .equals(animatedShape.getShape().getName()))
-            .collect(Collectors.toList()).size() != 0;
-    if (localListContainAnimatedShape) {
+    String name = animatedShape.getShape().getName();
+    if (this.shapesByName.containsKey(name)) {
       throw new IllegalArgumentException(ErrorMessages.DuplicateShape.errorMessage());
     }
-    listOfAnimatedShapes.add(animatedShape);
+    Entry entry = new Entry(name, owned(animatedShape), this.nextId++, this.owner);
+    this.putEntry(entry);
+    this.edited(entry);
+    this.fire(ModelEvent.Type.SHAPE_ADDED, name);
+    return entry.id;
   }
 
   @Override
   public void addEventInstructionToShape(String name, EventInstructions e) {
     Utils.requireNonNull(name, e);
-    for (IAnimatedShape animatedShape : listOfAnimatedShapes) {
-      if (animatedShape.getShape().getName().equals(name)) {
-        animatedShape.addEvent(e);
-        break;
-      }
+    this.addEvent(this.findShape(name), e);
+  }
+
+  @Override
+  public void addEventInstructionToShape(int id, EventInstructions e) {
+    Utils.requireNonNull(e);
+    this.addEvent(this.shapesById.get(id), e);
+  }
+
+  /**
+   * Adds the event to the entry's shape, if there is an entry.
+   *
+   * @param entry the entry for the shape, or null if there is no such shape
+   * @param e     the event to add
+   */
+  private void addEvent(Entry entry, EventInstructions e) {
+    if (entry != null) {
+      entry = this.own(entry);
+      entry.shape.addEvent(e);
+      this.edited(entry);
+      this.fire(ModelEvent.Type.SHAPE_CHANGED, entry.name);
     }
   }
 
   @Override
   public void setBounds(int x, int y, int width, int height) {
     this.bounds = new java.awt.Rectangle(x, y, width, height);
+    this.fire(ModelEvent.Type.BOUNDS_CHANGED, null);
   }
 
   @Override
   public void placeKeyFrame(String name, int t, Position2D p, int w, int h, Color c) {
     Utils.requireNonNull(name, p, c);
-    for (IAnimatedShape s : this.listOfAnimatedShapes) {
-      if (s.getShape().getName().equals(name)) {
-        s.placeKeyFrame(t, p, w, h, c);
-        return;
-      } else {
-        // nothing to do here
-      }
+    Entry entry = this.findShape(name);
+    if (entry == null) {
+      throw new IllegalArgumentException(ErrorMessages.ShapeNotInModel.errorMessage());
     }
-
-    throw new IllegalArgumentException(ErrorMessages.ShapeNotInModel.errorMessage());
+    // the shape checks the keyframe before changing anything, so a copy that throws is dropped
+    Entry owned = this.ownable(entry);
+    owned.shape.placeKeyFrame(t, p, w, h, c);
+    this.changed(entry, owned);
   }
 
   @Override
   public void removeKeyFrame(String name, int index) {
-    for (IAnimatedShape shape : this.listOfAnimatedShapes) {
-      if (name.equals(shape.getShape().getName())) {
-        shape.removeKeyFrame(index);
-        return;
+    Entry entry = this.findShape(name);
+    if (entry == null) {
+      throw new IllegalArgumentException("Shape doesn't exist in model");
+    }
+    Entry owned = this.ownable(entry);
+    owned.shape.removeKeyFrame(index);
+    this.changed(entry, owned);
+  }
+
+  /**
+   * Puts an entry whose shape was changed in place of the entry it was made from, and tells every
+   * listener the shape changed.
+   *
+   * @param entry the entry in this model before the change
+   * @param owned the entry with the changed shape, which may be the same entry
+   */
+  private void changed(Entry entry, Entry owned) {
+    if (owned != entry) {
+      this.putEntry(owned);
+    }
+    this.edited(owned);
+    this.fire(ModelEvent.Type.SHAPE_CHANGED, entry.name);
+  }
+
+  @Override
+  public int simplify(double pixelTolerance, int colorTolerance) {
+    Utils.requireNonNegative(pixelTolerance, colorTolerance);
+    EventSimplifier simplifier = new EventSimplifier(pixelTolerance, colorTolerance);
+    int[] removed = new int[1];
+    this.applyAll(Collections.singletonList(m -> {
+      for (Entry entry : this.shapesById.values()) {
+        ArrayList<EventInstructions> events = entry.shape.getEvents();
+        ArrayList<EventInstructions> simplified =
+                simplifier.simplify(entry.shape.getShape(), events);
+        if (simplified.size() == events.size()) {
+          continue;
+        }
+        // only a shape that got shorter is replaced, by a new one built from the simplified events
+        removed[0] += events.size() - simplified.size();
+        this.changed(entry, this.withShape(entry, entry.shape.copyWithEvents(simplified)));
+      }
+    }));
+    return removed[0];
+  }
+
+  @Override
+  public void applyAll(List<ModelEdit> edits) {
+    Utils.requireNonNull(edits);
+    if (this.batch != null) {
+      for (ModelEdit edit : edits) {
+        edit.apply(this);
       }
+      return;
+    }
+    Batch started = new Batch(this.snapshot());
+    this.batch = started;
+    try {
+      for (ModelEdit edit : edits) {
+        edit.apply(this);
+      }
+    } catch (RuntimeException e) {
+      // the lifetime index isn't changed during a batch, so this puts back all of it
+      this.batch = null;
+      this.restoreState(started.before);
+      throw e;
+    }
+    this.batch = null;
+    for (Entry entry : started.dirty) {
+      this.edited(entry);
+    }
+    if (started.changed) {
+      this.fire(ModelEvent.Type.BATCH_APPLIED, null);
     }
-    throw new IllegalArgumentException("Shape doesn't exist in model");
   }
 
+  /**
+   * Takes a snapshot of this model in constant time. Nothing is copied until this model changes a
+   * shape the snapshot shares, and then only that shape is copied.
+   */
+  @Override
+  public ModelSnapshot snapshot() {
+    this.owner = new Object();
+    return new State(this.shapesByName, this.shapesById, this.lifetimes.copy(), this.bounds,
+            this.nextId);
+  }
+
+  @Override
+  public void restore(ModelSnapshot snapshot) {
+    Utils.requireNonNull(snapshot);
+    if (!(snapshot instanceof State)) {
+      throw new IllegalArgumentException(ErrorMessages.BadSnapshot.errorMessage());
+    }
+    this.restoreState((State) snapshot);
+    if (this.batch != null) {
+      // the restored index already matches the restored shapes
+      this.batch.dirty.clear();
+    }
+    this.fire(ModelEvent.Type.RESTORED, null);
+  }
+
+  /**
+   * Points this model at the state in the snapshot, without telling anyone.
+   *
+   * @param state the state to point at
+   */
+  private void restoreState(State state) {
+    this.shapesByName = state.shapesByName;
+    this.shapesById = state.shapesById;
+    this.lifetimes = state.lifetimes.copy();
+    this.bounds = state.bounds;
+    this.nextId = state.nextId;
+    // every entry is now shared with the snapshot
+    this.owner = new Object();
+  }
 
   @Override
   public java.awt.Rectangle getBounds() {
@@ -135,31 +506,19 @@ public class AnimationModelImpl implements IAnimationModel {
 
 
   /**
-   * Checks to see if the shape is visible at the given tick.
+   * Gets the shapes visible at the given tick, in the order they are drawn. Only the shapes whose
+   * lifetime contains the tick are looked at.
    *
-   * @param shape the shape that we want to check
-   * @param tick  the tick that we want to check if the shape exists at
-   * @return a boolean if the shape exists at the tick
+   * @param tick time tick at which we want to get the list of shapes at.
+   * @return a copy of an ArrayList of shapes.
+   * @throws IllegalArgumentException if the tick is negative
    */
-  private boolean shapeExistsAt(IAnimatedShape shape, int tick) {
-    Utils.requireNonNull(shape);
-    Utils.requireNonNegative(tick);
-    ArrayList<EventInstructions> events = shape.getEvents();
-    return events.size() != 0
-            && events.get(0).getStartTick() <= tick
-            && events.get(events.size() - 1).getEndTick() >= tick;
-  }
-
   @Override
   public ArrayList<IShape> getShapesAt(int tick) {
+    Utils.requireNonNegative(tick);
     ArrayList<IShape> shapesAtGivenTick = new ArrayList<>();
-
-    for (IAnimatedShape shape : this.listOfAnimatedShapes) {
-      if (this.shapeExistsAt(shape, tick)) {
-        shapesAtGivenTick.add(shape.getShapeAtTick(tick));
-      } else {
-        // do nothing if the shape doesn't exist at a given time
-      }
+    for (IAnimatedShape shape : this.lifetimes.shapesAt(tick)) {
+      shapesAtGivenTick.add(shape.getShapeAtTick(tick));
     }
     return shapesAtGivenTick;
   }
@@ -169,15 +528,87 @@ public class AnimationModelImpl implements IAnimationModel {
     return this.getShapesAt(tick);
   }
 
+  @Override
+  public void sampleLayerAtTick(int layer, int tick, FrameBuffer frame) {
+    // checked by hand since this runs every frame and the varargs checks allocate
+    if (frame == null) {
+      throw new IllegalArgumentException(ErrorMessages.NullParameter.errorMessage());
+    }
+    if (tick < 0) {
+      throw new IllegalArgumentException(ErrorMessages.BadTickValue.errorMessage());
+    }
+    frame.clear();
+    this.lifetimes.sampleAt(tick, frame);
+  }
+
+  @Override
+  public void sampleLayerAtTick(int layer, int tick, FrameBuffer frame, FrameSampler sampler) {
+    Utils.requireNonNull(frame, sampler);
+    if (tick < 0) {
+      throw new IllegalArgumentException(ErrorMessages.BadTickValue.errorMessage());
+    }
+    frame.clear();
+    this.lifetimes.sampleAt(tick, frame, sampler);
+  }
+
+  @Override
+  public ArrayList<IShape> getShapesInRegionAt(int layer, int tick, java.awt.Rectangle region) {
+    Utils.requireNonNull(region);
+    Utils.requireNonNegative(tick);
+    SpatialGrid grid = this.regionGrid;
+    if (grid == null || grid.tick() != tick || grid.version() != this.version) {
+      FrameBuffer frame = new FrameBuffer();
+      this.lifetimes.sampleAt(tick, frame);
+      grid = new SpatialGrid(frame, tick, this.version);
+      this.regionGrid = grid;
+    }
+    ArrayList<IShape> shapes = new ArrayList<>();
+    for (int i : grid.query(region)) {
+      shapes.add(this.shapesById.get(grid.frame().getId(i)).shape.getShapeAtTick(tick));
+    }
+    return shapes;
+  }
+
+  @Override
+  public ArrayList<IAnimatedShape> getAnimatedShapesInRegion(int layer, int fromTick, int toTick,
+                                                             java.awt.Rectangle region) {
+    Utils.requireNonNull(region);
+    Utils.requireNonNegative(fromTick, toTick - fromTick);
+    ArrayList<IAnimatedShape> shapes = new ArrayList<>();
+    for (int id : this.lifetimes.shapesIn(fromTick, toTick, region)) {
+      shapes.add(this.shapesById.get(id).view);
+    }
+    return shapes;
+  }
+
+  /**
+   * Gets read only views of all the shapes in this model, in the order they are drawn. The views
+   * are made once per shape and shared, so this only costs the list. Use copy on a view to get a
+   * shape that can be changed. A shape that is shared with a snapshot gets a new view when it is
+   * next changed, and the old view keeps showing the shape as it is in the snapshot.
+   *
+   * @return an ArrayList of read only IAnimatedShapes.
+   */
   @Override
   public ArrayList<IAnimatedShape> getAllAnimatedShapes() {
-    ArrayList<IAnimatedShape> returnShapes = new ArrayList<>();
-    for (IAnimatedShape shape : listOfAnimatedShapes) {
-      returnShapes.add(new AnimatedShape(shape));
+    ArrayList<IAnimatedShape> returnShapes = new ArrayList<>(this.shapesById.size());
+    for (Entry entry : this.shapesById.values()) {
+      returnShapes.add(entry.view);
     }
     return returnShapes;
   }
 
+  @Override
+  public ArrayList<IAnimatedShape> getLayerAnimatedShapes(int layer) {
+    return this.getAllAnimatedShapes();
+  }
+
+  @Override
+  public IAnimatedShape getAnimatedShape(int layer, int id) {
+    Entry entry = this.shapesById.get(id);
+    return entry == null ? null : entry.view;
+  }
+
 
   @Override
   public void setCurrentLayer(int layer) {
@@ -206,6 +637,21 @@ public class AnimationModelImpl implements IAnimationModel {
     throw new UnsupportedOperationException(ErrorMessages.DoesNotSupportLayer.errorMessage());
   }
 
+  @Override
+  public void moveLayer(int from, int to) {
+    if (from != 0 || to != 0) {
+      throw new UnsupportedOperationException(ErrorMessages.DoesNotSupportLayer.errorMessage());
+    }
+  }
+
+  @Override
+  public void reorderLayers(int[] ids) {
+    Utils.requireNonNull(ids);
+    if (ids.length != 1 || ids[0] != 0) {
+      throw new UnsupportedOperationException(ErrorMessages.DoesNotSupportLayer.errorMessage());
+    }
+  }
+
   @Override
   public int getCurrentLayer() {
     return 0;
@@ -220,4 +666,145 @@ public class AnimationModelImpl implements IAnimationModel {
   public boolean isEnabled(int layer) {
     return true;
   }
+
+  @Override
+  public int getLayerId(int layer) {
+    if (layer != 0) {
+      throw new IndexOutOfBoundsException("Invalid Layer");
+    }
+    return 0;
+  }
+
+  @Override
+  public int getLayerIndex(int id) {
+    return id == 0 ? 0 : -1;
+  }
+
+  @Override
+  public int getStartTick() {
+    return this.lifetimes.startTick();
+  }
+
+  @Override
+  public int getEndTick() {
+    return this.lifetimes.endTick();
+  }
+
+  @Override
+  public java.awt.Rectangle getExtent() {
+    return this.lifetimes.extent();
+  }
+
+  @Override
+  public int getLayerStartTick(int layer) {
+    return this.getStartTick();
+  }
+
+  @Override
+  public int getLayerEndTick(int layer) {
+    return this.getEndTick();
+  }
+
+  @Override
+  public java.awt.Rectangle getLayerExtent(int layer) {
+    return this.getExtent();
+  }
+
+  @Override
+  public long getVersion() {
+    return this.version;
+  }
+
+  @Override
+  public ReadOnlyIAnimationModel consistentView() {
+    return this;
+  }
+
+  @Override
+  public void addModelListener(IModelListener listener) {
+    Utils.requireNonNull(listener);
+    this.listeners.add(listener);
+  }
+
+  @Override
+  public void removeModelListener(IModelListener listener) {
+    this.listeners.remove(listener);
+  }
+
+  /**
+   * The state of this model before a batch, and what the batch has changed so far.
+   */
+  private static final class Batch {
+    private final State before;
+    // entries that were added, removed or changed, and so need reindexing
+    private final LinkedHashSet<Entry> dirty = new LinkedHashSet<>();
+    private boolean changed;
+
+    /**
+     * Starts a batch on a model in the given state.
+     *
+     * @param before the state of the model before the batch
+     */
+    private Batch(ModelSnapshot before) {
+      this.before = (State) before;
+    }
+  }
+
+  /**
+   * Everything a model holds, none of which is changed once a snapshot has it.
+   */
+  private static final class State implements ModelSnapshot {
+    private final PersistentTreeMap<String, Entry> shapesByName;
+    private final PersistentIdArray<Entry> shapesById;
+    private final ShapeLifetimeIndex lifetimes;
+    private final java.awt.Rectangle bounds;
+    private final int nextId;
+
+    /**
+     * Builds the state of a model.
+     */
+    private State(PersistentTreeMap<String, Entry> shapesByName,
+                  PersistentIdArray<Entry> shapesById, ShapeLifetimeIndex lifetimes,
+                  java.awt.Rectangle bounds, int nextId) {
+      this.shapesByName = shapesByName;
+      this.shapesById = shapesById;
+      this.lifetimes = lifetimes;
+      this.bounds = bounds;
+      this.nextId = nextId;
+    }
+  }
+
+  /**
+   * A shape in this model along with its read only view, its id, the model that may
+   * change it, and the shape, lifetime and extent it is indexed with.
+   */
+  private static final class Entry {
+    private final String name;
+    private final IAnimatedShape shape;
+    private final IAnimatedShape view;
+    private final int id;
+    private final Object owner;
+    private IAnimatedShape indexed;
+    private int start;
+    private int end;
+    private java.awt.Rectangle extent;
+
+    /**
+     * Builds an entry that is not in the lifetime index yet.
+     *
+     * @param name  the name of the shape
+     * @param shape the shape in the model
+     * @param id    the id of the shape, which is also its draw order
+     * @param owner the owner of the model the entry is made for
+     */
+    private Entry(String name, IAnimatedShape shape, int id, Object owner) {
+      this.name = name;
+      this.shape = shape;
+      this.view = new ReadOnlyAnimatedShape(shape, id);
+      this.id = id;
+      this.owner = owner;
+      this.start = -1;
+      this.end = -1;
+    }
+  }
 }
@@ -0,0 +1,341 @@
+package cs3500.animator.model;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import cs3500.animator.misc.Position2D;
+import cs3500.animator.misc.Utils;
+import cs3500.animator.shapes.IShape;
+
+/**
+ * A layered model that can be read from any number of threads while another thread edits it.
+ * Readers see a snapshot of the model that is never changed once it is published, and snapshots
+ * are published through one atomic reference, so reading never takes a lock and never sees an
+ * edit half made. Each edit is made to a copy of the current snapshot, one edit at a time, and the
+ * copy is only published once the edit is done. An edit that throws publishes nothing, so a failed
+ * edit leaves the model as it was. The copy shares everything with the snapshot it is taken from
+ * and only copies the shapes the edit changes.
+ *
+ * <p>Each read method reads whichever snapshot is current when it is called. A reader that needs
+ * several reads to agree with each other, such as a frame being drawn, should read from
+ * consistentView instead.</p>
+ *
+ * <p>Readers do write to a few caches inside a published snapshot, which are worked out from the
+ * tick or region asked about and so can't be filled in ahead of time without working them out for
+ * every shape on every publish. Those are the grid getShapesInRegionAt keeps, the area each
+ * shape's events sweep, and the event each shape last sampled. Racing on them is safe: the grid
+ * and the swept areas are built whole before they are stored and have only final fields, so a
+ * reader sees either none, and builds its own, or a complete one, and the last event sampled is a
+ * single int that is only a hint and is checked before it is used. None of them changes what a
+ * read returns.</p>
+ */
+public final class ConcurrentAnimationModel implements IAnimationModel {
+  private final AtomicReference<LayeredModelImpl> current;
+  private final CopyOnWriteArrayList<IModelListener> listeners = new CopyOnWriteArrayList<>();
+
+  /**
+   * Goes up by one for every change published, and is only written while holding the write lock.
+   */
+  private volatile long version;
+
+  /**
+   * Constructs a concurrent model holding a copy of the given model.
+   *
+   * @param model the model to copy.
+   * @throws IllegalArgumentException if the model is null.
+   */
+  public ConcurrentAnimationModel(IAnimationModel model) {
+    Utils.requireNonNull(model);
+    LayeredModelImpl first = model instanceof LayeredModelImpl
+            ? ((LayeredModelImpl) model).copy() : new LayeredModelImpl(model);
+    this.current = new AtomicReference<>(publishable(first));
+  }
+
+  /**
+   * Fills in the tick range and extent a layered model works out lazily, so that readers on other
+   * threads only read them. The caches readers may still fill in are described above.
+   *
+   * @param model the model about to be published.
+   * @return the same model.
+   */
+  private static LayeredModelImpl publishable(LayeredModelImpl model) {
+    model.getEndTick();
+    return model;
+  }
+
+  /**
+   * Makes an edit to a copy of the current snapshot and publishes the copy if the edit changed
+   * it. Listeners are told about every change the edit made, in order, after the copy is
+   * published.
+   *
+   * @param edit the edit to make.
+   */
+  private synchronized void write(ModelEdit edit) {
+    LayeredModelImpl working = this.current.get().copy();
+    ArrayList<ModelEvent> events = new ArrayList<>();
+    working.addModelListener(events::add);
+    edit.apply(working);
+    if (events.isEmpty()) {
+      return;
+    }
+    this.current.set(publishable(working));
+    for (ModelEvent event : events) {
+      this.version++;
+      ModelEvent published = new ModelEvent(event.getType(), event.getLayer(),
+              event.getShapeName(), this.version);
+      for (IModelListener listener : this.listeners) {
+        listener.modelChanged(published);
+      }
+    }
+  }
+
+  @Override
+  public void setListOfAnimatedShapes(ArrayList<IAnimatedShape> animatedShapeArrayList) {
+    Utils.requireNonNull(animatedShapeArrayList);
+    ArrayList<IAnimatedShape> copies = new ArrayList<>();
+    for (IAnimatedShape animatedShape : animatedShapeArrayList) {
+      Utils.requireNonNull(animatedShape);
+      copies.add(animatedShape.copy());
+    }
+    this.write(m -> m.setListOfAnimatedShapes(copies));
+  }
+
+  @Override
+  public void deleteShape(String id) {
+    this.write(m -> m.deleteShape(id));
+  }
+
+  @Override
+  public int placeAnimatedShape(IAnimatedShape animatedShape) {
+    Utils.requireNonNull(animatedShape);
+    // copied so the caller can't change a published snapshot through the shape it passed in
+    IAnimatedShape copy = animatedShape.copy();
+    int[] id = new int[1];
+    this.write(m -> id[0] = m.placeAnimatedShape(copy));
+    return id[0];
+  }
+
+  @Override
+  public void addEventInstructionToShape(String name, EventInstructions e) {
+    this.write(m -> m.addEventInstructionToShape(name, e));
+  }
+
+  @Override
+  public void addEventInstructionToShape(int id, EventInstructions e) {
+    this.write(m -> m.addEventInstructionToShape(id, e));
+  }
+
+  @Override
+  public void setBounds(int x, int y, int width, int height) {
+    this.write(m -> m.setBounds(x, y, width, height));
+  }
+
+  @Override
+  public void placeKeyFrame(String name, int t, Position2D p, int w, int h, Color c) {
+    this.write(m -> m.placeKeyFrame(name, t, p, w, h, c));
+  }
+
+  @Override
+  public void removeKeyFrame(String name, int index) {
+    this.write(m -> m.removeKeyFrame(name, index));
+  }
+
+  @Override
+  public void setCurrentLayer(int layer) {
+    this.write(m -> m.setCurrentLayer(layer));
+  }
+
+  @Override
+  public void addLayer() {
+    this.write(IAnimationModel::addLayer);
+  }
+
+  @Override
+  public void setLayerState(int layer, boolean enabled) {
+    this.write(m -> m.setLayerState(layer, enabled));
+  }
+
+  @Override
+  public void deleteLayer(int layer) {
+    this.write(m -> m.deleteLayer(layer));
+  }
+
+  @Override
+  public void moveCurrentLayer(int direction) {
+    this.write(m -> m.moveCurrentLayer(direction));
+  }
+
+  @Override
+  public void moveLayer(int from, int to) {
+    this.write(m -> m.moveLayer(from, to));
+  }
+
+  @Override
+  public void reorderLayers(int[] ids) {
+    Utils.requireNonNull(ids);
+    int[] copy = ids.clone();
+    this.write(m -> m.reorderLayers(copy));
+  }
+
+  @Override
+  public int simplify(double pixelTolerance, int colorTolerance) {
+    int[] removed = new int[1];
+    this.write(m -> removed[0] = m.simplify(pixelTolerance, colorTolerance));
+    return removed[0];
+  }
+
+  @Override
+  public void applyAll(List<ModelEdit> edits) {
+    Utils.requireNonNull(edits);
+    this.write(m -> m.applyAll(edits));
+  }
+
+  /**
+   * Takes a snapshot of the current state. Published states are never changed, so this takes no
+   * copies.
+   */
+  @Override
+  public synchronized ModelSnapshot snapshot() {
+    return this.current.get().snapshot();
+  }
+
+  @Override
+  public void restore(ModelSnapshot snapshot) {
+    Utils.requireNonNull(snapshot);
+    this.write(m -> m.restore(snapshot));
+  }
+
+  @Override
+  public ArrayList<IShape> getShapesAt(int tick) {
+    return this.current.get().getShapesAt(tick);
+  }
+
+  @Override
+  public ArrayList<IShape> getShapesFromLayerAtTick(int layer, int tick) {
+    return this.current.get().getShapesFromLayerAtTick(layer, tick);
+  }
+
+  @Override
+  public void sampleLayerAtTick(int layer, int tick, FrameBuffer frame) {
+    this.current.get().sampleLayerAtTick(layer, tick, frame);
+  }
+
+  @Override
+  public void sampleLayerAtTick(int layer, int tick, FrameBuffer frame, FrameSampler sampler) {
+    this.current.get().sampleLayerAtTick(layer, tick, frame, sampler);
+  }
+
+  @Override
+  public ArrayList<IShape> getShapesInRegionAt(int layer, int tick, java.awt.Rectangle region) {
+    return this.current.get().getShapesInRegionAt(layer, tick, region);
+  }
+
+  @Override
+  public ArrayList<IAnimatedShape> getAnimatedShapesInRegion(int layer, int fromTick, int toTick,
+                                                             java.awt.Rectangle region) {
+    return this.current.get().getAnimatedShapesInRegion(layer, fromTick, toTick, region);
+  }
+
+  @Override
+  public ArrayList<IAnimatedShape> getAllAnimatedShapes() {
+    return this.current.get().getAllAnimatedShapes();
+  }
+
+  @Override
+  public ArrayList<IAnimatedShape> getLayerAnimatedShapes(int layer) {
+    return this.current.get().getLayerAnimatedShapes(layer);
+  }
+
+  @Override
+  public IAnimatedShape getAnimatedShape(int layer, int id) {
+    return this.current.get().getAnimatedShape(layer, id);
+  }
+
+  @Override
+  public java.awt.Rectangle getBounds() {
+    return this.current.get().getBounds();
+  }
+
+  @Override
+  public int getStartTick() {
+    return this.current.get().getStartTick();
+  }
+
+  @Override
+  public int getEndTick() {
+    return this.current.get().getEndTick();
+  }
+
+  @Override
+  public java.awt.Rectangle getExtent() {
+    return this.current.get().getExtent();
+  }
+
+  @Override
+  public int getLayerStartTick(int layer) {
+    return this.current.get().getLayerStartTick(layer);
+  }
+
+  @Override
+  public int getLayerEndTick(int layer) {
+    return this.current.get().getLayerEndTick(layer);
+  }
+
+  @Override
+  public java.awt.Rectangle getLayerExtent(int layer) {
+    return this.current.get().getLayerExtent(layer);
+  }
+
+  @Override
+  public int getCurrentLayer() {
+    return this.current.get().getCurrentLayer();
+  }
+
+  @Override
+  public int layerCount() {
+    return this.current.get().layerCount();
+  }
+
+  @Override
+  public boolean isEnabled(int layer) {
+    return this.current.get().isEnabled(layer);
+  }
+
+  @Override
+  public int getLayerId(int layer) {
+    return this.current.get().getLayerId(layer);
+  }
+
+  @Override
+  public int getLayerIndex(int id) {
+    return this.current.get().getLayerIndex(id);
+  }
+
+  /**
+   * Gets the snapshot of this model that is current right now. The snapshot is never changed, so
+   * every read from it agrees with every other.
+   */
+  @Override
+  public ReadOnlyIAnimationModel consistentView() {
+    return this.current.get();
+  }
+
+  @Override
+  public long getVersion() {
+    return this.version;
+  }
+
+  @Override
+  public void addModelListener(IModelListener listener) {
+    Utils.requireNonNull(listener);
+    this.listeners.add(listener);
+  }
+
+  @Override
+  public void removeModelListener(IModelListener listener) {
+    this.listeners.remove(listener);
+  }
+}
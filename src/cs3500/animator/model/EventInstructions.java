@@ -11,13 +11,15 @@ import cs3500.animator.misc.Utils;
  * during an event.
  */
 public final class EventInstructions {
+  private static final int OPAQUE = 0xFF000000; // the alpha bits of a fully opaque color
+
   private final int startTick; // INVARIANT: must be greater than or equal to zero
   private final int endTick; // INVARIANT: must be greater than or equal to zero
-  private final Position2D endPosn;
-  // INVARIANT: X and Y fields must be greater than or equal to zero
+  private final double endX; // INVARIANT: must be greater than or equal to zero
+  private final double endY; // INVARIANT: must be greater than or equal to zero
   private final int endWidth; // INVARIANT: must be greater than zero
   private final int endHeight; // INVARIANT: must be greater than zero
-  private final Color endColor;
+  private final int endRgb; // the end color packed as ARGB
   private final double endAngle;
 
   /**
@@ -39,10 +41,11 @@ public final class EventInstructions {
 
     this.startTick = startTick;
     this.endTick = endTick;
-    this.endPosn = Objects.requireNonNull(endPosn);
+    this.endX = Objects.requireNonNull(endPosn).getX();
+    this.endY = endPosn.getY();
     this.endWidth = endWidth;
     this.endHeight = endHeight;
-    this.endColor = Objects.requireNonNull(endColor);
+    this.endRgb = Objects.requireNonNull(endColor).getRGB();
     this.endAngle = 0;
   }
 
@@ -60,6 +63,25 @@ public final class EventInstructions {
   public EventInstructions(int startTick, int endTick,
                            Position2D endPosn, int endWidth, int endHeight,
                            Color endColor, double endAngle) {
+    this(startTick, endTick, Objects.requireNonNull(endPosn).getX(), endPosn.getY(),
+            endWidth, endHeight, Objects.requireNonNull(endColor).getRGB(), endAngle);
+  }
+
+  /**
+   * Constructor for the event instructions that takes the end position as raw coordinates and
+   * the end color as a packed ARGB int, so nothing has to be allocated to build one.
+   *
+   * @param startTick the start time
+   * @param endTick   the end time
+   * @param endX      the end x position of the shape
+   * @param endY      the end y position of the shape
+   * @param endWidth  the end width of the shape
+   * @param endHeight the end height of the shape
+   * @param endRgb    the end color of the shape, packed as ARGB
+   * @param endAngle  the end Angle of the shape
+   */
+  public EventInstructions(int startTick, int endTick, double endX, double endY,
+                           int endWidth, int endHeight, int endRgb, double endAngle) {
     Utils.requireNonNegative(startTick, endTick);
     if (endTick < startTick) {
       throw new IllegalArgumentException("The end tick must be greater than the start tick.");
@@ -67,26 +89,23 @@ public final class EventInstructions {
 
     this.startTick = startTick;
     this.endTick = endTick;
-    this.endPosn = Objects.requireNonNull(endPosn);
+    this.endX = endX;
+    this.endY = endY;
     this.endWidth = endWidth;
     this.endHeight = endHeight;
-    this.endColor = Objects.requireNonNull(endColor);
+    this.endRgb = endRgb;
     this.endAngle = endAngle;
   }
 
   /**
-   * Copy constructor that copies the fields of e.
+   * Copy constructor that copies the fields of e. Like the color getter, the copy's color is
+   * fully opaque.
    *
    * @param e EventInstruction to make a copy of.
    */
   public EventInstructions(EventInstructions e) {
-    this(e.startTick,
-            e.endTick,
-            new Position2D(e.endPosn),
-            e.endWidth,
-            e.endHeight,
-            new Color(e.endColor.getRGB()),
-            e.endAngle);
+    this(e.startTick, e.endTick, e.endX, e.endY, e.endWidth, e.endHeight,
+            OPAQUE | e.endRgb, e.endAngle);
   }
 
   /**
@@ -107,7 +126,28 @@ public final class EventInstructions {
    * End Position.
    */
   public Position2D getEndPosn() {
-    return new Position2D(this.endPosn);
+    return new Position2D(this.endX, this.endY);
+  }
+
+  /**
+   * End x position, without building a position.
+   */
+  public double getEndX() {
+    return this.endX;
+  }
+
+  /**
+   * End y position, without building a position.
+   */
+  public double getEndY() {
+    return this.endY;
+  }
+
+  /**
+   * End color as a packed ARGB int, without building a color.
+   */
+  public int getEndRgb() {
+    return this.endRgb;
   }
 
   /**
@@ -128,7 +168,7 @@ public final class EventInstructions {
    * Gets a copy for the end color.
    */
   public Color getEndColor() {
-    return new Color(this.endColor.getRGB());
+    return new Color(this.endRgb);
   }
 
   /**
@@ -0,0 +1,166 @@
+package cs3500.animator.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import cs3500.animator.shapes.IShape;
+
+/**
+ * Merges runs of events that a single event could stand in for. A run is merged when tweening
+ * straight from the start of its first event to the end of its last gives, at every tick of the
+ * run, a shape within the tolerances of the one the events themselves give. The values compared
+ * are the ones drawn, after tweening has rounded and truncated them, so with no tolerance only
+ * runs that draw exactly the same are merged.
+ *
+ * <p>Events that start and end on the same tick are never merged, since they tween to 0 instead
+ * of to a value in between.</p>
+ */
+final class EventSimplifier {
+  // the attributes of a state, in the order they are kept in a state array
+  private static final int X = 0;
+  private static final int Y = 1;
+  private static final int W = 2;
+  private static final int H = 3;
+  private static final int RGB = 4;
+  private static final int ANGLE = 5;
+
+  private final double pixelTolerance;
+  private final int colorTolerance;
+
+  /**
+   * Constructs a simplifier.
+   *
+   * @param pixelTolerance how far the position and size may move, in pixels.
+   * @param colorTolerance how far each of red, green and blue may move.
+   */
+  EventSimplifier(double pixelTolerance, int colorTolerance) {
+    this.pixelTolerance = pixelTolerance;
+    this.colorTolerance = colorTolerance;
+  }
+
+  /**
+   * Simplifies the events of a shape.
+   *
+   * @param start  the shape as it is before its first event.
+   * @param events the events of the shape, in order.
+   * @return the events with every run that can be merged replaced by one event. Events that
+   *         aren't merged are the same objects as were given.
+   */
+  ArrayList<EventInstructions> simplify(IShape start, List<EventInstructions> events) {
+    ArrayList<EventInstructions> simplified = new ArrayList<>(events.size());
+    double[] from = {start.getX(), start.getY(), start.getWidth(),
+        start.getHeight(), start.getRgb(), start.getAngle()};
+    int i = 0;
+    while (i < events.size()) {
+      int last = i;
+      if (!isInstant(events.get(i))) {
+        while (last + 1 < events.size() && !isInstant(events.get(last + 1))
+                && this.canMerge(from, events, i, last + 1)) {
+          last++;
+        }
+      }
+      if (last == i) {
+        simplified.add(events.get(i));
+      } else {
+        EventInstructions end = events.get(last);
+        simplified.add(new EventInstructions(events.get(i).getStartTick(), end.getEndTick(),
+                end.getEndX(), end.getEndY(), end.getEndWidth(), end.getEndHeight(),
+                end.getEndRgb(), end.getEndAngle()));
+      }
+      from = stateOf(events.get(last));
+      i = last + 1;
+    }
+    return simplified;
+  }
+
+  /**
+   * Determines if an event starts and ends on the same tick.
+   */
+  private static boolean isInstant(EventInstructions event) {
+    return event.getStartTick() == event.getEndTick();
+  }
+
+  /**
+   * The state a shape is in at the end of an event.
+   */
+  private static double[] stateOf(EventInstructions event) {
+    return new double[]{event.getEndX(), event.getEndY(), event.getEndWidth(),
+        event.getEndHeight(), event.getEndRgb(), event.getEndAngle()};
+  }
+
+  /**
+   * Determines if the events from first to last, inclusive, can be replaced by one event.
+   *
+   * @param from   the state before the first event.
+   * @param events the events.
+   * @param first  the first event of the run.
+   * @param last   the last event of the run.
+   * @return true if one event draws the whole run within the tolerances.
+   */
+  private boolean canMerge(double[] from, List<EventInstructions> events, int first, int last) {
+    int start = events.get(first).getStartTick();
+    int end = events.get(last).getEndTick();
+    double[] to = stateOf(events.get(last));
+    double[] segmentFrom = from;
+    for (int k = first; k <= last; k++) {
+      EventInstructions event = events.get(k);
+      double[] segmentTo = stateOf(event);
+      // the first tick of an event after the first belongs to the event before it
+      int tick = k == first ? event.getStartTick() : event.getStartTick() + 1;
+      for (; tick <= event.getEndTick(); tick++) {
+        double wa = AnimatedShape.startWeight(event.getStartTick(), event.getEndTick(), tick);
+        double wb = AnimatedShape.endWeight(event.getStartTick(), event.getEndTick(), tick);
+        double ma = AnimatedShape.startWeight(start, end, tick);
+        double mb = AnimatedShape.endWeight(start, end, tick);
+        if (!this.close(segmentFrom, segmentTo, wa, wb, from, to, ma, mb)) {
+          return false;
+        }
+      }
+      segmentFrom = segmentTo;
+    }
+    return true;
+  }
+
+  /**
+   * Determines if two tweens draw the shape close enough to each other at one tick.
+   *
+   * @param a0 the start state of the first tween.
+   * @param a1 the end state of the first tween.
+   * @param wa the start weight of the first tween at the tick.
+   * @param wb the end weight of the first tween at the tick.
+   * @param b0 the start state of the second tween.
+   * @param b1 the end state of the second tween.
+   * @param ma the start weight of the second tween at the tick.
+   * @param mb the end weight of the second tween at the tick.
+   * @return true if every attribute is within the tolerances, and the angles are the same.
+   */
+  private boolean close(double[] a0, double[] a1, double wa, double wb,
+                        double[] b0, double[] b1, double ma, double mb) {
+    if (Math.abs(AnimatedShape.blend(a0[X], a1[X], wa, wb)
+            - AnimatedShape.blend(b0[X], b1[X], ma, mb)) > this.pixelTolerance
+            || Math.abs(AnimatedShape.blend(a0[Y], a1[Y], wa, wb)
+            - AnimatedShape.blend(b0[Y], b1[Y], ma, mb)) > this.pixelTolerance) {
+      return false;
+    }
+    for (int attribute = W; attribute <= H; attribute++) {
+      int a = AnimatedShape.blendInt((int) a0[attribute], (int) a1[attribute], wa, wb);
+      int b = AnimatedShape.blendInt((int) b0[attribute], (int) b1[attribute], ma, mb);
+      if (Math.abs(a - b) > this.pixelTolerance) {
+        return false;
+      }
+    }
+    int rgbA0 = (int) a0[RGB];
+    int rgbA1 = (int) a1[RGB];
+    int rgbB0 = (int) b0[RGB];
+    int rgbB1 = (int) b1[RGB];
+    for (int shift = 0; shift <= 16; shift += 8) {
+      int a = AnimatedShape.blendInt((rgbA0 >> shift) & 0xFF, (rgbA1 >> shift) & 0xFF, wa, wb);
+      int b = AnimatedShape.blendInt((rgbB0 >> shift) & 0xFF, (rgbB1 >> shift) & 0xFF, ma, mb);
+      if (Math.abs(a - b) > this.colorTolerance) {
+        return false;
+      }
+    }
+    return (int) AnimatedShape.blend((int) a0[ANGLE], a1[ANGLE], wa, wb)
+            == (int) AnimatedShape.blend((int) b0[ANGLE], b1[ANGLE], ma, mb);
+  }
+}
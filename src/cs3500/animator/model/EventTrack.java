@@ -0,0 +1,269 @@
+package cs3500.animator.model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The events of an animated shape, kept in tick order in a gap buffer. The buffer keeps a run of
+ * free slots (the gap) where the last edit happened, so inserting or removing next to the last
+ * edit only moves the events between the two, and a run of edits around the same keyframe costs
+ * constant time each. Reading an event by its index is a plain array read, and finding the event
+ * for a tick is a binary search, since the events are contiguous and their ticks never go down.
+ *
+ * <p>An edit far from the last one moves every event in between, so a single edit is not
+ * logarithmic in the worst case the way it would be in a balanced tree. The buffer is used anyway
+ * because sampling reads events by index every frame, which a tree would make logarithmic too,
+ * while keyframe edits tend to come in runs around the same tick.</p>
+ */
+final class EventTrack {
+  private static final int INITIAL_CAPACITY = 8;
+
+  private EventInstructions[] buffer;
+  private int gapStart; // first free slot
+  private int gapEnd; // first used slot after the gap
+
+  /**
+   * Constructs an empty track.
+   */
+  EventTrack() {
+    this.buffer = new EventInstructions[INITIAL_CAPACITY];
+    this.gapStart = 0;
+    this.gapEnd = INITIAL_CAPACITY;
+  }
+
+  /**
+   * Constructs a track holding the given events, in the order given.
+   *
+   * @param events the events to hold.
+   */
+  EventTrack(List<EventInstructions> events) {
+    int capacity = Math.max(INITIAL_CAPACITY, events.size() * 2);
+    this.buffer = events.toArray(new EventInstructions[capacity]);
+    Arrays.fill(this.buffer, events.size(), capacity, null);
+    this.gapStart = events.size();
+    this.gapEnd = capacity;
+  }
+
+  /**
+   * Removes every event, keeping the space the track has grown to.
+   */
+  void clear() {
+    Arrays.fill(this.buffer, null);
+    this.gapStart = 0;
+    this.gapEnd = this.buffer.length;
+  }
+
+  /**
+   * How many events are in the track.
+   */
+  int size() {
+    return this.buffer.length - (this.gapEnd - this.gapStart);
+  }
+
+  /**
+   * Determines if the track has no events.
+   */
+  boolean isEmpty() {
+    return this.size() == 0;
+  }
+
+  /**
+   * Gets the event at the given index.
+   *
+   * @param i the index of the event.
+   * @return the event.
+   * @throws IndexOutOfBoundsException if there is no event at that index.
+   */
+  EventInstructions get(int i) {
+    return this.buffer[this.slot(i)];
+  }
+
+  /**
+   * Gets the first event in the track.
+   */
+  EventInstructions first() {
+    return this.get(0);
+  }
+
+  /**
+   * Gets the last event in the track.
+   */
+  EventInstructions last() {
+    return this.get(this.size() - 1);
+  }
+
+  /**
+   * Replaces the event at the given index.
+   *
+   * @param i the index of the event.
+   * @param e the new event.
+   */
+  void set(int i, EventInstructions e) {
+    this.buffer[this.slot(i)] = e;
+  }
+
+  /**
+   * Adds an event to the end of the track.
+   *
+   * @param e the event to add.
+   */
+  void add(EventInstructions e) {
+    this.add(this.size(), e);
+  }
+
+  /**
+   * Inserts an event at the given index, shifting the events after it along by one.
+   *
+   * @param i the index the event will have.
+   * @param e the event to add.
+   */
+  void add(int i, EventInstructions e) {
+    if (i < 0 || i > this.size()) {
+      throw new IndexOutOfBoundsException("Index: " + i + " Size: " + this.size());
+    }
+    if (this.gapStart == this.gapEnd) {
+      this.grow();
+    }
+    this.moveGap(i);
+    this.buffer[this.gapStart++] = e;
+  }
+
+  /**
+   * Removes the event at the given index.
+   *
+   * @param i the index of the event.
+   * @return the removed event.
+   */
+  EventInstructions remove(int i) {
+    EventInstructions removed = this.get(i);
+    this.moveGap(i);
+    this.buffer[this.gapEnd++] = null;
+    return removed;
+  }
+
+  /**
+   * Finds the first event that hasn't ended before the given tick.
+   *
+   * @param tick the tick we are looking for.
+   * @return the index of the first event whose end tick is at or after the tick, or the size of
+   *         the track if every event ends before it.
+   */
+  int firstEndingAtOrAfter(int tick) {
+    int lo = 0;
+    int hi = this.size();
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (this.get(mid).getEndTick() < tick) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    return lo;
+  }
+
+  /**
+   * Finds the first event that starts after the given tick.
+   *
+   * @param tick the tick we are looking for.
+   * @return the index of the first event whose start tick is after the tick, or the size of the
+   *         track if no event starts after it.
+   */
+  int firstStartingAfter(int tick) {
+    int lo = 0;
+    int hi = this.size();
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (this.get(mid).getStartTick() <= tick) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    return lo;
+  }
+
+  /**
+   * Gets the events whose spans overlap the ticks from start to end, inclusive, in order. Both
+   * ends of the run are found by binary search and the list is a view of the track rather than a
+   * copy, so this takes logarithmic time however many events are in the run. The view is only
+   * good until the track is next changed.
+   *
+   * @param start the first tick of the range.
+   * @param end   the last tick of the range.
+   * @return a read only view of the overlapping events.
+   */
+  List<EventInstructions> eventsBetween(int start, int end) {
+    int from = this.firstEndingAtOrAfter(start);
+    int count = Math.max(0, this.firstStartingAfter(end) - from);
+    return new AbstractList<EventInstructions>() {
+      @Override
+      public EventInstructions get(int i) {
+        if (i < 0 || i >= count) {
+          throw new IndexOutOfBoundsException("Index: " + i + " Size: " + count);
+        }
+        return EventTrack.this.get(from + i);
+      }
+
+      @Override
+      public int size() {
+        return count;
+      }
+    };
+  }
+
+  /**
+   * Copies the events into a new list, in order.
+   */
+  ArrayList<EventInstructions> toList() {
+    ArrayList<EventInstructions> list = new ArrayList<>(this.size());
+    list.addAll(Arrays.asList(this.buffer).subList(0, this.gapStart));
+    list.addAll(Arrays.asList(this.buffer).subList(this.gapEnd, this.buffer.length));
+    return list;
+  }
+
+  /**
+   * The slot in the buffer holding the event at the given index.
+   */
+  private int slot(int i) {
+    if (i < 0 || i >= this.size()) {
+      throw new IndexOutOfBoundsException("Index: " + i + " Size: " + this.size());
+    }
+    return i < this.gapStart ? i : i + (this.gapEnd - this.gapStart);
+  }
+
+  /**
+   * Moves the gap so that it starts at the given index.
+   */
+  private void moveGap(int i) {
+    if (i < this.gapStart) {
+      int moved = this.gapStart - i;
+      System.arraycopy(this.buffer, i, this.buffer, this.gapEnd - moved, moved);
+      Arrays.fill(this.buffer, i, Math.min(this.gapStart, this.gapEnd - moved), null);
+      this.gapStart -= moved;
+      this.gapEnd -= moved;
+    } else if (i > this.gapStart) {
+      int moved = i - this.gapStart;
+      System.arraycopy(this.buffer, this.gapEnd, this.buffer, this.gapStart, moved);
+      Arrays.fill(this.buffer, Math.max(this.gapEnd, this.gapStart + moved),
+              this.gapEnd + moved, null);
+      this.gapStart += moved;
+      this.gapEnd += moved;
+    }
+  }
+
+  /**
+   * Doubles the size of the buffer, keeping the gap where it is.
+   */
+  private void grow() {
+    int capacity = Math.max(INITIAL_CAPACITY, this.buffer.length * 2);
+    EventInstructions[] bigger = new EventInstructions[capacity];
+    int after = this.buffer.length - this.gapEnd;
+    System.arraycopy(this.buffer, 0, bigger, 0, this.gapStart);
+    System.arraycopy(this.buffer, this.gapEnd, bigger, capacity - after, after);
+    this.gapEnd = capacity - after;
+    this.buffer = bigger;
+  }
+}
@@ -0,0 +1,401 @@
+package cs3500.animator.model;
+
+import java.util.Arrays;
+
+/**
+ * A reusable buffer that holds the shapes of a single frame as columns of primitives. A view keeps
+ * one of these and hands it to ReadOnlyIAnimationModel.sampleLayerAtTick every frame, so drawing
+ * a frame does not build an IShape, a Position2D or a Color for every shape on screen. The buffer
+ * only grows, so once it is big enough for the busiest frame sampling into it allocates nothing.
+ *
+ * <p>Entry i of the buffer is the i-th shape to draw. Shapes are identified by their name, and by
+ * the id the model they were sampled from gave them, which can be handed back to
+ * ReadOnlyIAnimationModel.getAnimatedShape to get the shape without looking its name up. Their
+ * type is the three letter string from IShape.asString.</p>
+ */
+public final class FrameBuffer {
+  private static final int INITIAL_CAPACITY = 16;
+
+  private int size;
+  private String[] names;
+  private String[] types;
+  private double[] x;
+  private double[] y;
+  private int[] w;
+  private int[] h;
+  private int[] rgb;
+  private double[] angle;
+  private int[] ids; // also the draw order, used by the model to sort the frame
+
+  /**
+   * Constructs an empty frame buffer.
+   */
+  public FrameBuffer() {
+    this.size = 0;
+    this.names = new String[INITIAL_CAPACITY];
+    this.types = new String[INITIAL_CAPACITY];
+    this.x = new double[INITIAL_CAPACITY];
+    this.y = new double[INITIAL_CAPACITY];
+    this.w = new int[INITIAL_CAPACITY];
+    this.h = new int[INITIAL_CAPACITY];
+    this.rgb = new int[INITIAL_CAPACITY];
+    this.angle = new double[INITIAL_CAPACITY];
+    this.ids = new int[INITIAL_CAPACITY];
+  }
+
+  /**
+   * Empties the buffer, keeping the space it has already grown to.
+   */
+  public void clear() {
+    // drop the names so the buffer doesn't keep deleted shapes' names alive
+    Arrays.fill(this.names, 0, this.size, null);
+    this.size = 0;
+  }
+
+  /**
+   * How many shapes are in this frame.
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Adds a shape to the end of the frame.
+   *
+   * @param name  the name of the shape.
+   * @param type  the type of the shape, as given by IShape.asString.
+   * @param x     the x position of the shape.
+   * @param y     the y position of the shape.
+   * @param w     the width of the shape.
+   * @param h     the height of the shape.
+   * @param rgb   the color of the shape packed as 0xRRGGBB.
+   * @param angle the rotation of the shape in degrees.
+   */
+  public void add(String name, String type, double x, double y, int w, int h, int rgb,
+                  double angle) {
+    if (this.size == this.names.length) {
+      this.grow();
+    }
+    int i = this.size++;
+    this.names[i] = name;
+    this.types[i] = type;
+    this.x[i] = x;
+    this.y[i] = y;
+    this.w[i] = w;
+    this.h[i] = h;
+    this.rgb[i] = rgb;
+    this.angle[i] = angle;
+    // set by the model once the shape has been added
+    this.ids[i] = -1;
+  }
+
+  /**
+   * Doubles the space in every column.
+   */
+  private void grow() {
+    int capacity = this.names.length * 2;
+    this.names = Arrays.copyOf(this.names, capacity);
+    this.types = Arrays.copyOf(this.types, capacity);
+    this.x = Arrays.copyOf(this.x, capacity);
+    this.y = Arrays.copyOf(this.y, capacity);
+    this.w = Arrays.copyOf(this.w, capacity);
+    this.h = Arrays.copyOf(this.h, capacity);
+    this.rgb = Arrays.copyOf(this.rgb, capacity);
+    this.angle = Arrays.copyOf(this.angle, capacity);
+    this.ids = Arrays.copyOf(this.ids, capacity);
+  }
+
+  /**
+   * The name of the i-th shape.
+   */
+  public String getName(int i) {
+    this.checkIndex(i);
+    return this.names[i];
+  }
+
+  /**
+   * The id of the i-th shape in the model it was sampled from, or -1 if it wasn't sampled from a
+   * model.
+   */
+  public int getId(int i) {
+    this.checkIndex(i);
+    return this.ids[i];
+  }
+
+  /**
+   * The type of the i-th shape, as given by IShape.asString.
+   */
+  public String getType(int i) {
+    this.checkIndex(i);
+    return this.types[i];
+  }
+
+  /**
+   * The x position of the i-th shape.
+   */
+  public double getX(int i) {
+    this.checkIndex(i);
+    return this.x[i];
+  }
+
+  /**
+   * The y position of the i-th shape.
+   */
+  public double getY(int i) {
+    this.checkIndex(i);
+    return this.y[i];
+  }
+
+  /**
+   * The width of the i-th shape.
+   */
+  public int getWidth(int i) {
+    this.checkIndex(i);
+    return this.w[i];
+  }
+
+  /**
+   * The height of the i-th shape.
+   */
+  public int getHeight(int i) {
+    this.checkIndex(i);
+    return this.h[i];
+  }
+
+  /**
+   * The color of the i-th shape packed as 0xRRGGBB.
+   */
+  public int getRgb(int i) {
+    this.checkIndex(i);
+    return this.rgb[i];
+  }
+
+  /**
+   * The rotation of the i-th shape in degrees.
+   */
+  public double getAngle(int i) {
+    this.checkIndex(i);
+    return this.angle[i];
+  }
+
+  /**
+   * Determines if the box around the i-th shape, as it is drawn turned by its angle, overlaps the
+   * region. Shapes are turned about the point views turn them about, x + width / 2 and
+   * y + height / 2 with the halves rounded down. The box is exact for rectangles and holds the
+   * whole of an ellipse.
+   *
+   * @param i      the shape to check.
+   * @param region the region to check against.
+   * @return true if the shape's box and the region share some area.
+   */
+  public boolean intersects(int i, java.awt.Rectangle region) {
+    this.checkIndex(i);
+    return this.minX(i) < region.x + region.width && this.maxX(i) > region.x
+            && this.minY(i) < region.y + region.height && this.maxY(i) > region.y;
+  }
+
+  /**
+   * The left edge of the box around the i-th shape as it is drawn.
+   */
+  double minX(int i) {
+    if (this.angle[i] == 0) {
+      return this.x[i];
+    }
+    double cos = Math.cos(Math.toRadians(this.angle[i]));
+    double sin = Math.sin(Math.toRadians(this.angle[i]));
+    return this.centerX(i) + Math.min(this.left(i) * cos, this.right(i) * cos)
+            + Math.min(-this.top(i) * sin, -this.bottom(i) * sin);
+  }
+
+  /**
+   * The right edge of the box around the i-th shape as it is drawn.
+   */
+  double maxX(int i) {
+    if (this.angle[i] == 0) {
+      return this.x[i] + this.w[i];
+    }
+    double cos = Math.cos(Math.toRadians(this.angle[i]));
+    double sin = Math.sin(Math.toRadians(this.angle[i]));
+    return this.centerX(i) + Math.max(this.left(i) * cos, this.right(i) * cos)
+            + Math.max(-this.top(i) * sin, -this.bottom(i) * sin);
+  }
+
+  /**
+   * The top edge of the box around the i-th shape as it is drawn.
+   */
+  double minY(int i) {
+    if (this.angle[i] == 0) {
+      return this.y[i];
+    }
+    double cos = Math.cos(Math.toRadians(this.angle[i]));
+    double sin = Math.sin(Math.toRadians(this.angle[i]));
+    return this.centerY(i) + Math.min(this.left(i) * sin, this.right(i) * sin)
+            + Math.min(this.top(i) * cos, this.bottom(i) * cos);
+  }
+
+  /**
+   * The bottom edge of the box around the i-th shape as it is drawn.
+   */
+  double maxY(int i) {
+    if (this.angle[i] == 0) {
+      return this.y[i] + this.h[i];
+    }
+    double cos = Math.cos(Math.toRadians(this.angle[i]));
+    double sin = Math.sin(Math.toRadians(this.angle[i]));
+    return this.centerY(i) + Math.max(this.left(i) * sin, this.right(i) * sin)
+            + Math.max(this.top(i) * cos, this.bottom(i) * cos);
+  }
+
+  /**
+   * The x of the point the i-th shape is turned about.
+   */
+  private double centerX(int i) {
+    return this.x[i] + this.w[i] / 2;
+  }
+
+  /**
+   * The y of the point the i-th shape is turned about.
+   */
+  private double centerY(int i) {
+    return this.y[i] + this.h[i] / 2;
+  }
+
+  /**
+   * How far the left edge of the i-th shape is from the point it is turned about.
+   */
+  private double left(int i) {
+    return -(this.w[i] / 2);
+  }
+
+  /**
+   * How far the right edge of the i-th shape is from the point it is turned about.
+   */
+  private double right(int i) {
+    return this.w[i] - this.w[i] / 2;
+  }
+
+  /**
+   * How far the top edge of the i-th shape is from the point it is turned about.
+   */
+  private double top(int i) {
+    return -(this.h[i] / 2);
+  }
+
+  /**
+   * How far the bottom edge of the i-th shape is from the point it is turned about.
+   */
+  private double bottom(int i) {
+    return this.h[i] - this.h[i] / 2;
+  }
+
+  /**
+   * Makes sure i is an entry in this frame.
+   *
+   * @throws IndexOutOfBoundsException if it isn't.
+   */
+  private void checkIndex(int i) {
+    if (i < 0 || i >= this.size) {
+      throw new IndexOutOfBoundsException("Index: " + i + " Size: " + this.size);
+    }
+  }
+
+  /**
+   * Adds every shape in the other frame to the end of this one, in the same order.
+   *
+   * @param other the frame to copy the shapes from.
+   */
+  void addAll(FrameBuffer other) {
+    while (this.names.length < this.size + other.size) {
+      this.grow();
+    }
+    System.arraycopy(other.names, 0, this.names, this.size, other.size);
+    System.arraycopy(other.types, 0, this.types, this.size, other.size);
+    System.arraycopy(other.x, 0, this.x, this.size, other.size);
+    System.arraycopy(other.y, 0, this.y, this.size, other.size);
+    System.arraycopy(other.w, 0, this.w, this.size, other.size);
+    System.arraycopy(other.h, 0, this.h, this.size, other.size);
+    System.arraycopy(other.rgb, 0, this.rgb, this.size, other.size);
+    System.arraycopy(other.angle, 0, this.angle, this.size, other.size);
+    System.arraycopy(other.ids, 0, this.ids, this.size, other.size);
+    this.size += other.size;
+  }
+
+  /**
+   * Sets the id of the last shape added.
+   */
+  void setLastId(int id) {
+    this.ids[this.size - 1] = id;
+  }
+
+  /**
+   * Sorts the shapes from the given entry on by their ids, which is their draw order, in place. Heapsort, so it needs
+   * no extra space.
+   *
+   * @param from the first entry to sort.
+   */
+  void sortById(int from) {
+    int n = this.size - from;
+    for (int i = n / 2 - 1; i >= 0; i--) {
+      this.siftDown(from, i, n);
+    }
+    for (int end = n - 1; end > 0; end--) {
+      this.swap(from, from + end);
+      this.siftDown(from, 0, end);
+    }
+  }
+
+  /**
+   * Restores the max-heap below node i of the heap that starts at entry from and has n entries.
+   */
+  private void siftDown(int from, int i, int n) {
+    while (true) {
+      int largest = i;
+      int left = 2 * i + 1;
+      int right = left + 1;
+      if (left < n && this.ids[from + left] > this.ids[from + largest]) {
+        largest = left;
+      }
+      if (right < n && this.ids[from + right] > this.ids[from + largest]) {
+        largest = right;
+      }
+      if (largest == i) {
+        return;
+      }
+      this.swap(from + i, from + largest);
+      i = largest;
+    }
+  }
+
+  /**
+   * Swaps two entries in every column.
+   */
+  private void swap(int a, int b) {
+    String s = this.names[a];
+    this.names[a] = this.names[b];
+    this.names[b] = s;
+    s = this.types[a];
+    this.types[a] = this.types[b];
+    this.types[b] = s;
+    double d = this.x[a];
+    this.x[a] = this.x[b];
+    this.x[b] = d;
+    d = this.y[a];
+    this.y[a] = this.y[b];
+    this.y[b] = d;
+    d = this.angle[a];
+    this.angle[a] = this.angle[b];
+    this.angle[b] = d;
+    int k = this.w[a];
+    this.w[a] = this.w[b];
+    this.w[b] = k;
+    k = this.h[a];
+    this.h[a] = this.h[b];
+    this.h[b] = k;
+    k = this.rgb[a];
+    this.rgb[a] = this.rgb[b];
+    this.rgb[b] = k;
+    k = this.ids[a];
+    this.ids[a] = this.ids[b];
+    this.ids[b] = k;
+  }
+}
@@ -0,0 +1,196 @@
+package cs3500.animator.model;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import cs3500.animator.misc.Utils;
+
+/**
+ * Samples whole frames, every enabled layer bottom first, by splitting the work across the threads
+ * of a fork/join pool. Layers are sampled side by side, and a layer with many shapes alive at the
+ * tick has its shapes split into runs that are sampled side by side too. Each run is sampled into
+ * a frame of its own and the runs are joined back together in order, so the frame ends up in
+ * exactly the order sampling one layer after another on one thread would give.
+ *
+ * <p>Forking costs more than it saves on small frames, so layers and runs smaller than the
+ * threshold are sampled on the calling thread, just like sampleLayerAtTick would.</p>
+ *
+ * <p>A sampler keeps a frame for each layer that it reuses from frame to frame, so it should only
+ * be used by one thread at a time, like the frame it fills.</p>
+ */
+public final class FrameSampler {
+  /**
+   * The number of shapes below which a sampler works on one thread, unless told otherwise.
+   */
+  public static final int DEFAULT_THRESHOLD = 8192;
+
+  private final ForkJoinPool pool;
+  private final int threshold;
+  private final ArrayList<FrameBuffer> layerFrames = new ArrayList<>();
+  private int lastSize; // how many shapes the last frame had, to guess the size of the next
+
+  /**
+   * Constructs a sampler that uses the common pool and the default threshold.
+   */
+  public FrameSampler() {
+    this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+  }
+
+  /**
+   * Constructs a sampler.
+   *
+   * @param pool      the pool to sample in.
+   * @param threshold the number of shapes below which sampling stays on one thread.
+   * @throws IllegalArgumentException if the pool is null or the threshold is negative.
+   */
+  public FrameSampler(ForkJoinPool pool, int threshold) {
+    Utils.requireNonNull(pool);
+    Utils.requireNonNegative(threshold);
+    this.pool = pool;
+    this.threshold = threshold;
+  }
+
+  /**
+   * Samples every enabled layer of the model at the given tick into the frame, bottom layer
+   * first and each layer in draw order.
+   *
+   * @param model the model to sample, which nothing may change while it is being sampled.
+   * @param tick  the tick to sample at.
+   * @param frame the frame to fill, its old contents are cleared first.
+   * @throws IllegalArgumentException if the model or frame is null, or the tick is negative.
+   */
+  public void sampleFrame(ReadOnlyIAnimationModel model, int tick, FrameBuffer frame) {
+    Utils.requireNonNull(model, frame);
+    Utils.requireNonNegative(tick);
+    int layers = model.layerCount();
+    ArrayList<Integer> enabled = new ArrayList<>(layers);
+    for (int i = 0; i < layers; i++) {
+      if (model.isEnabled(i)) {
+        enabled.add(i);
+      }
+    }
+    frame.clear();
+    if (enabled.size() == 1) {
+      model.sampleLayerAtTick(enabled.get(0), tick, frame, this);
+      this.lastSize = frame.size();
+      return;
+    }
+    while (this.layerFrames.size() < layers) {
+      this.layerFrames.add(new FrameBuffer());
+    }
+    if (this.lastSize < this.threshold) {
+      for (int i : enabled) {
+        model.sampleLayerAtTick(i, tick, this.layerFrames.get(i), this);
+      }
+    } else {
+      ArrayList<ForkJoinTask<?>> tasks = new ArrayList<>(enabled.size());
+      for (int i : enabled) {
+        FrameBuffer layerFrame = this.layerFrames.get(i);
+        tasks.add(ForkJoinTask.adapt(() -> model.sampleLayerAtTick(i, tick, layerFrame, this)));
+      }
+      this.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+    }
+    for (int i : enabled) {
+      frame.addAll(this.layerFrames.get(i));
+      this.layerFrames.get(i).clear();
+    }
+    this.lastSize = frame.size();
+  }
+
+  /**
+   * The number of shapes below which sampling stays on one thread.
+   */
+  int threshold() {
+    return this.threshold;
+  }
+
+  /**
+   * Samples one shape of a run of shapes that are already in draw order.
+   */
+  interface ShapeRun {
+    /**
+     * Adds the i-th shape of the run to the end of the frame, if it is there at all.
+     *
+     * @param i     the index of the shape in the run.
+     * @param frame the frame to add it to.
+     */
+    void sampleInto(int i, FrameBuffer frame);
+  }
+
+  /**
+   * Adds the count shapes of the run to the end of the frame, in order. Runs longer than the
+   * threshold are split in half and the halves sampled side by side, each into a frame of its own
+   * that is joined back on in order.
+   *
+   * @param count the number of shapes in the run.
+   * @param run   samples each shape.
+   * @param frame the frame to add the shapes to.
+   */
+  void sampleAll(int count, ShapeRun run, FrameBuffer frame) {
+    if (count <= this.threshold) {
+      for (int i = 0; i < count; i++) {
+        run.sampleInto(i, frame);
+      }
+    } else {
+      frame.addAll(this.invoke(new RunTask(run, 0, count, Math.max(1, this.threshold))));
+    }
+  }
+
+  /**
+   * Samples part of a run into a frame of its own.
+   */
+  private static final class RunTask extends RecursiveTask<FrameBuffer> {
+    private static final long serialVersionUID = 1L;
+
+    private final ShapeRun run;
+    private final int from;
+    private final int to;
+    private final int threshold;
+
+    /**
+     * Builds a task to sample the shapes of the run from from, inclusive, to to, exclusive.
+     */
+    private RunTask(ShapeRun run, int from, int to, int threshold) {
+      this.run = run;
+      this.from = from;
+      this.to = to;
+      this.threshold = threshold;
+    }
+
+    @Override
+    protected FrameBuffer compute() {
+      if (this.to - this.from <= this.threshold) {
+        FrameBuffer part = new FrameBuffer();
+        for (int i = this.from; i < this.to; i++) {
+          this.run.sampleInto(i, part);
+        }
+        return part;
+      }
+      int mid = (this.from + this.to) >>> 1;
+      RunTask first = new RunTask(this.run, this.from, mid, this.threshold);
+      RunTask second = new RunTask(this.run, mid, this.to, this.threshold);
+      first.fork();
+      FrameBuffer rest = second.compute();
+      FrameBuffer part = first.join();
+      part.addAll(rest);
+      return part;
+    }
+  }
+
+  /**
+   * Runs the task in this sampler's pool and waits for it. A task that is already running in the
+   * pool runs the new task itself rather than waiting on another thread.
+   *
+   * @param task the task to run.
+   * @param <T>  the type of the task's result.
+   * @return the task's result.
+   */
+  <T> T invoke(ForkJoinTask<T> task) {
+    if (ForkJoinTask.getPool() == this.pool) {
+      return task.invoke();
+    }
+    return this.pool.invoke(task);
+  }
+}
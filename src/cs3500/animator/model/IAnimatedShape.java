@@ -18,6 +18,16 @@ public interface IAnimatedShape {
    */
   IShape getShape();
 
+  /**
+   * Gets the id the model holding this shape gave it. Ids are small and count up from 0 within
+   * each model (each layer of a layered model), so callers can keep things about a shape in arrays
+   * indexed by its id, and hand the id back to ReadOnlyIAnimationModel.getAnimatedShape instead
+   * of looking the shape up by name.
+   *
+   * @return the id of this shape in its model, or -1 if this shape isn't one handed out by a model.
+   */
+  int getId();
+
   /**
    * Gets a copy of the events this animation represents.
    *
@@ -25,6 +35,90 @@ public interface IAnimatedShape {
    */
   ArrayList<EventInstructions> getEvents();
 
+  /**
+   * Gets a copy of the events whose spans overlap the ticks from fromTick to toTick, inclusive, in
+   * order. The first and last of them are found by binary search, so only the events in the range
+   * are looked at.
+   *
+   * @param fromTick the first tick of the range.
+   * @param toTick   the last tick of the range.
+   * @return a new ArrayList of the overlapping events, empty if toTick is before fromTick.
+   */
+  ArrayList<EventInstructions> getEventsBetween(int fromTick, int toTick);
+
+  /**
+   * Gets the first tick this shape is animated at, without copying the events.
+   *
+   * @return the start tick of the first event, or -1 if this shape has no events.
+   */
+  int getStartTick();
+
+  /**
+   * Gets the last tick this shape is animated at, without copying the events.
+   *
+   * @return the end tick of the last event, or -1 if this shape has no events.
+   */
+  int getEndTick();
+
+  /**
+   * Gets the smallest rectangle that holds this shape at every tick it is animated at. Rotation is
+   * ignored. Shapes tween in straight lines between keyframes, so this is the rectangle around
+   * the shape's keyframes.
+   *
+   * @return a copy of the extent, or an empty rectangle at the origin if there are no events.
+   */
+  java.awt.Rectangle getExtent();
+
+  /**
+   * Gets the smallest rectangle that holds this shape at every tick of one of its events, as it
+   * is drawn turned by its angle. The rectangle holds the shape at the start and at the end of
+   * the event, which holds it in between too.
+   *
+   * @param segment the index of the event.
+   * @return the rectangle the shape sweeps through during the event.
+   * @throws IndexOutOfBoundsException if there is no such event.
+   */
+  java.awt.Rectangle getSegmentExtent(int segment);
+
+  /**
+   * Gets how many events this shape has, without copying them the way getEvents does. Events are
+   * indexed from 0 in order of their start ticks, the same indexes getSegmentExtent and
+   * sampleSegmentInto take.
+   *
+   * @return the number of events.
+   */
+  int getSegmentCount();
+
+  /**
+   * Gets the tick one of this shape's events starts at, without copying the event.
+   *
+   * @param segment the index of the event.
+   * @return the start tick of the event.
+   * @throws IndexOutOfBoundsException if there is no such event.
+   */
+  int getSegmentStartTick(int segment);
+
+  /**
+   * Gets the tick one of this shape's events ends at, without copying the event.
+   *
+   * @param segment the index of the event.
+   * @return the end tick of the event.
+   * @throws IndexOutOfBoundsException if there is no such event.
+   */
+  int getSegmentEndTick(int segment);
+
+  /**
+   * Determines if this shape might be drawn in the region at some tick from fromTick to toTick,
+   * inclusive, without sampling it. The rectangles each event sweeps through are kept in a tree,
+   * so a run of events that stays out of the region is skipped all at once.
+   *
+   * @param fromTick the first tick to look at.
+   * @param toTick   the last tick to look at.
+   * @param region   the region to look in.
+   * @return false only if the shape is drawn outside the region at every one of the ticks.
+   * @throws IllegalArgumentException if the region is null.
+   */
+  boolean mayOverlap(int fromTick, int toTick, java.awt.Rectangle region);
 
   /**
    * Gets a version of this shape at a given tick.
@@ -35,6 +129,44 @@ public interface IAnimatedShape {
    */
   IShape getShapeAtTick(int tick);
 
+  /**
+   * Adds this shape as it is at the given tick to the end of the frame, with the same values that
+   * getShapeAtTick would give it, but without building a shape.
+   *
+   * @param tick  the tick that we want the shape at.
+   * @param frame the frame to add the shape to.
+   * @return true if the shape exists at the tick and was added, false if it doesn't exist then.
+   */
+  boolean sampleInto(int tick, FrameBuffer frame);
+
+  /**
+   * Adds this shape as it is at the given tick to the end of the frame, tweened within the given
+   * event, for a caller that already knows which event the tick is in. Gives the same values as
+   * sampleInto when the event is the one sampleInto would pick, without looking for it.
+   *
+   * @param segment the index of the event the tick is in.
+   * @param tick    the tick that we want the shape at.
+   * @param frame   the frame to add the shape to.
+   */
+  void sampleSegmentInto(int segment, int tick, FrameBuffer frame);
+
+  /**
+   * Gets a copy of this animated shape that can be changed without changing this one.
+   *
+   * @return a new animated shape with the same shape and events.
+   */
+  IAnimatedShape copy();
+
+  /**
+   * Gets a copy of this animated shape with the given events in place of this one's. The shape
+   * starts out the same, and this shape's events are not copied.
+   *
+   * @param events the events the copy has, each starting where the one before it ends.
+   * @return a new animated shape with the same shape and the given events.
+   * @throws IllegalArgumentException if an event doesn't start where the one before it ends.
+   */
+  IAnimatedShape copyWithEvents(ArrayList<EventInstructions> events);
+
   /**
    * Adds a copy of the event to the list of events.
    *
@@ -62,4 +194,16 @@ public interface IAnimatedShape {
    */
   void removeKeyFrame(int index);
 
+  /**
+   * Merges runs of this shape's events that one event could stand in for, where tweening
+   * straight across the run draws the shape within the given tolerances of how the events draw
+   * it at every tick. Events that start and end on the same tick are left alone.
+   *
+   * @param pixelTolerance how far the position and size may move, in pixels.
+   * @param colorTolerance how far each of red, green and blue may move.
+   * @return the number of events removed.
+   * @throws IllegalArgumentException if either tolerance is negative.
+   */
+  int simplify(double pixelTolerance, int colorTolerance);
+
 }
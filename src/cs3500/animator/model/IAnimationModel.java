@@ -2,6 +2,7 @@ package cs3500.animator.model;
 
 import java.awt.Color;
 import java.util.ArrayList;
+import java.util.List;
 
 import cs3500.animator.misc.Position2D;
 
@@ -34,9 +35,10 @@ public interface IAnimationModel extends ReadOnlyIAnimationModel {
    * Adds an animated shape to the list of shapes in this model.
    *
    * @param animatedShape the shape that we want to call the event instruction on.
+   * @return the id this model gave the shape, which its views will report from getId.
    * @throws IllegalArgumentException if the shape exists, or object is null.
    */
-  void placeAnimatedShape(IAnimatedShape animatedShape);
+  int placeAnimatedShape(IAnimatedShape animatedShape);
 
   /**
    * Adds the given event instructions to the appropriate shape based on its shape name.
@@ -47,6 +49,16 @@ public interface IAnimationModel extends ReadOnlyIAnimationModel {
    */
   void addEventInstructionToShape(String name, EventInstructions e);
 
+  /**
+   * Adds the given event instructions to the shape with the given id in the current layer,
+   * without looking its name up.
+   *
+   * @param id the id of the shape, as given by placeAnimatedShape.
+   * @param e  the event instructions that we want to add to the shape
+   * @throws IllegalArgumentException if the event instructions are null.
+   */
+  void addEventInstructionToShape(int id, EventInstructions e);
+
   /**
    * Specify the bounding box to be used for the animation.
    *
@@ -112,6 +124,68 @@ public interface IAnimationModel extends ReadOnlyIAnimationModel {
    */
   void moveCurrentLayer(int direction);
 
+  /**
+   * Moves one layer to another position, shifting the layers in between over by one. The current
+   * layer stays the same layer, even if its position changes.
+   * @param from the position of the layer to move.
+   * @param to the position the layer should end up at.
+   * @throws IllegalArgumentException if either position isn't a layer.
+   * @throws UnsupportedOperationException if the model doesn't implement layers.
+   */
+  void moveLayer(int from, int to);
+
+  /**
+   * Puts every layer in a new order at once. The current layer stays the same layer, even if its
+   * position changes.
+   * @param ids the id of every layer, bottom layer first.
+   * @throws IllegalArgumentException if the ids are null or aren't the ids of every layer once.
+   * @throws UnsupportedOperationException if the model doesn't implement layers.
+   */
+  void reorderLayers(int[] ids);
+
+  /**
+   * Merges runs of events in every shape of every layer that one event could stand in for, as
+   * IAnimatedShape.simplify does, as one change to this model. Listeners are told once with a
+   * BATCH_APPLIED event, and only if some event was removed.
+   *
+   * @param pixelTolerance how far the position and size of a shape may move, in pixels.
+   * @param colorTolerance how far each of red, green and blue may move.
+   * @return the number of events removed.
+   * @throws IllegalArgumentException if either tolerance is negative.
+   */
+  int simplify(double pixelTolerance, int colorTolerance);
+
+  /**
+   * Makes all of the edits, in order, as one change to this model. The shapes alive at each tick,
+   * the timeline and the extent are only worked out again once every edit is made, and listeners
+   * are told once with a BATCH_APPLIED event, so reads made by the edits themselves see the
+   * timeline as it was before the batch. If any edit throws, the model is put back the way it was
+   * before the batch and the exception is thrown on. Edits may call applyAll again, which just
+   * makes those edits as part of the outer batch.
+   *
+   * @param edits the edits to make.
+   * @throws IllegalArgumentException if edits is null, or if any edit can't be made.
+   */
+  void applyAll(List<ModelEdit> edits);
+
+  /**
+   * Takes a snapshot of the state of this model, which can be given back to restore to put this
+   * model back the way it is now. Taking a snapshot doesn't copy the model, the snapshot and the
+   * model share everything until the model changes it.
+   *
+   * @return the snapshot.
+   */
+  ModelSnapshot snapshot();
+
+  /**
+   * Puts this model back to the state in the snapshot. The snapshot isn't changed, so it can be
+   * restored again later.
+   *
+   * @param snapshot a snapshot taken from this kind of model.
+   * @throws IllegalArgumentException if the snapshot is null or from another kind of model.
+   */
+  void restore(ModelSnapshot snapshot);
+
   /**
    * Inherits from ReadOnly:
    *
@@ -0,0 +1,15 @@
+package cs3500.animator.model;
+
+/**
+ * Listens for changes to an animation model, so that views can update only what changed instead
+ * of rebuilding everything or polling the model.
+ */
+public interface IModelListener {
+
+  /**
+   * Called after the model has been changed.
+   *
+   * @param event what was changed.
+   */
+  void modelChanged(ModelEvent event);
+}
@@ -3,8 +3,11 @@ package cs3500.animator.model;
 import java.awt.Color;
 import java.awt.Rectangle;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 
+import cs3500.animator.misc.ErrorMessages;
 import cs3500.animator.misc.Position2D;
 import cs3500.animator.misc.Utils;
 import cs3500.animator.shapes.IShape;
@@ -12,22 +15,29 @@ import cs3500.animator.shapes.IShape;
 /**
  * The design approach behind this model is to have multiple models composed into this model so that
  * each model is treated as an independent layer.
+ *
+ * <p>The layers are kept as a stack in one array list, bottom layer first, so a layer is looked up
+ * by its position in constant time. Each layer also has an id that it keeps for as long as it
+ * exists, however the stack is reordered.</p>
  */
 public class LayeredModelImpl implements IAnimationModel {
   /**
    * Represents a single layer, basically a model with an enabled flag.
    */
   private class Layer {
+    private final int id;
     private final IAnimationModel model;
     private boolean enabled;
 
     /**
      * Builds a layer and populates it with the params.
      *
+     * @param id      the id of the layer, which no other layer in this model has.
      * @param model   the model we want to represent for the data of the layer.
      * @param enabled the flag for determining if this model is enabled
      */
-    public Layer(IAnimationModel model, boolean enabled) {
+    public Layer(int id, IAnimationModel model, boolean enabled) {
+      this.id = id;
       this.model = model;
       this.enabled = enabled;
     }
@@ -60,17 +70,87 @@ public class LayeredModelImpl implements IAnimationModel {
 
   }
 
-  private HashMap<Integer, Layer> layers;
+  /**
+   * The layers this model had before a batch, and whether the batch has changed this model.
+   */
+  private class Batch {
+    private final ArrayList<Layer> layers;
+    private final HashMap<Layer, Boolean> enabled = new HashMap<>();
+    private final int currentLayer;
+    private boolean changed;
+
+    /**
+     * Starts a batch on a model with the given layers.
+     *
+     * @param layers       the layers of the model, which are copied.
+     * @param currentLayer the current layer of the model.
+     */
+    private Batch(ArrayList<Layer> layers, int currentLayer) {
+      this.layers = new ArrayList<>(layers);
+      this.currentLayer = currentLayer;
+      for (Layer layer : layers) {
+        this.enabled.put(layer, layer.getEnabled());
+      }
+    }
+  }
+
+  /**
+   * A snapshot of every layer along with its id and whether it was enabled, and the current layer.
+   */
+  private static final class State implements ModelSnapshot {
+    private final ArrayList<ModelSnapshot> models;
+    private final int[] ids;
+    private final boolean[] enabled;
+    private final int currentLayer;
+    private final int nextLayerId;
+
+    /**
+     * Builds the state of a layered model.
+     */
+    private State(ArrayList<ModelSnapshot> models, int[] ids, boolean[] enabled,
+                  int currentLayer, int nextLayerId) {
+      this.models = models;
+      this.ids = ids;
+      this.enabled = enabled;
+      this.currentLayer = currentLayer;
+      this.nextLayerId = nextLayerId;
+    }
+  }
+
+  private ArrayList<Layer> layers;
   private int currentLayer;
 
+  /**
+   * The id the next layer added will get. Ids are never given out twice.
+   */
+  private int nextLayerId;
+
+  /**
+   * Goes up by one every time this model or any of its layers is changed.
+   */
+  private long version;
+
+  private final ArrayList<IModelListener> listeners = new ArrayList<>();
+
+  // the tick range and extent over all layers, worked out again when the version moves on
+  private long timelineVersion = -1;
+  private int startTick;
+  private int endTick;
+  private Rectangle extent;
+
+  /**
+   * The batch being made by applyAll, or null if there isn't one.
+   */
+  private Batch batch;
+
 
   /**
    * Constructs a Layered Model implementation that holds models as layers.
    */
   public LayeredModelImpl() {
-    this.layers = new HashMap<>();
+    this.layers = new ArrayList<>();
     this.currentLayer = 0;
-    this.layers.put(this.currentLayer, new Layer(new AnimationModelImpl(), true));
+    this.layers.add(this.newLayer(new AnimationModelImpl()));
 
   }
 
@@ -78,18 +158,130 @@ public class LayeredModelImpl implements IAnimationModel {
    * A copy constructor that will duplicate the model passed in.
    */
   public LayeredModelImpl(IAnimationModel model) {
-    this.layers = new HashMap<>();
+    this.layers = new ArrayList<>();
     this.currentLayer = 0;
     for (int i = 0; i < model.layerCount(); i++) {
       this.addLayer();
       this.setCurrentLayer(i);
       model.setCurrentLayer(i);
       for (IAnimatedShape as : model.getAllAnimatedShapes()) {
-        this.placeAnimatedShape(new AnimatedShape(as));
+        this.placeAnimatedShape(as.copy());
       }
     }
   }
 
+  /**
+   * Copies this model without changing it, unlike the copy constructor which has to move the
+   * current layer of the model it copies. The copy has the same layers, shapes and current layer,
+   * but no listeners.
+   *
+   * @return a new model that can be changed without changing this one.
+   */
+  LayeredModelImpl copy() {
+    LayeredModelImpl copy = new LayeredModelImpl();
+    copy.restoreState((State) this.snapshot());
+    return copy;
+  }
+
+  /**
+   * Takes a snapshot of every layer. Each layer's snapshot takes constant time, so this only
+   * costs as much as the number of layers.
+   */
+  @Override
+  public ModelSnapshot snapshot() {
+    ArrayList<ModelSnapshot> models = new ArrayList<>();
+    int[] ids = new int[this.layerCount()];
+    boolean[] enabled = new boolean[this.layerCount()];
+    for (int i = 0; i < this.layerCount(); i++) {
+      Layer layer = this.layers.get(i);
+      models.add(layer.getModel().snapshot());
+      ids[i] = layer.id;
+      enabled[i] = layer.getEnabled();
+    }
+    return new State(models, ids, enabled, this.currentLayer, this.nextLayerId);
+  }
+
+  @Override
+  public void restore(ModelSnapshot snapshot) {
+    Utils.requireNonNull(snapshot);
+    if (!(snapshot instanceof State)) {
+      throw new IllegalArgumentException(ErrorMessages.BadSnapshot.errorMessage());
+    }
+    this.restoreState((State) snapshot);
+    this.fire(ModelEvent.Type.RESTORED, this.currentLayer, null);
+  }
+
+  /**
+   * Replaces the layers of this model with layers restored from the snapshot, without telling
+   * anyone.
+   *
+   * @param state the state to restore.
+   */
+  private void restoreState(State state) {
+    ArrayList<Layer> restored = new ArrayList<>(state.models.size());
+    for (int i = 0; i < state.models.size(); i++) {
+      IAnimationModel m = new AnimationModelImpl();
+      m.restore(state.models.get(i));
+      restored.add(new Layer(state.ids[i], m, state.enabled[i]));
+    }
+    this.layers = restored;
+    this.currentLayer = state.currentLayer;
+    // ids taken out of use since the snapshot was taken must still never be given out again
+    this.nextLayerId = Math.max(this.nextLayerId, state.nextLayerId);
+  }
+
+  /**
+   * Builds an enabled layer around the given model, with an id no other layer has had.
+   *
+   * @param model the model of the layer.
+   * @return the new layer.
+   */
+  private Layer newLayer(IAnimationModel model) {
+    return new Layer(this.nextLayerId++, model, true);
+  }
+
+  /**
+   * Moves this model to its next version and tells every listener about the change.
+   *
+   * @param type      what kind of change was made.
+   * @param layer     the layer the change was made in.
+   * @param shapeName the shape that changed, or null if the change isn't about one shape.
+   */
+  private void fire(ModelEvent.Type type, int layer, String shapeName) {
+    if (this.batch != null) {
+      this.batch.changed = true;
+      return;
+    }
+    this.version++;
+    if (this.listeners.isEmpty()) {
+      return;
+    }
+    ModelEvent event = new ModelEvent(type, layer, shapeName, this.version);
+    // copied so a listener can remove itself while being told
+    for (IModelListener listener : new ArrayList<>(this.listeners)) {
+      listener.modelChanged(event);
+    }
+  }
+
+  /**
+   * Runs an edit on the current layer, and reports it if the layer actually changed. The layer
+   * is checked even if the edit throws, since it may have changed part way through.
+   *
+   * @param type      what kind of change the edit makes.
+   * @param shapeName the shape the edit changes, or null if it isn't about one shape.
+   * @param edit      the edit to run on the current layer.
+   */
+  private void editCurrent(ModelEvent.Type type, String shapeName, Runnable edit) {
+    IAnimationModel model = this.currentModel();
+    long before = model.getVersion();
+    try {
+      edit.run();
+    } finally {
+      if (model.getVersion() != before) {
+        this.fire(type, this.currentLayer, shapeName);
+      }
+    }
+  }
 
   /**
    * Gets the current model based on the currentLayer variable.
@@ -110,7 +302,10 @@ public class LayeredModelImpl implements IAnimationModel {
     if (layer >= this.layerCount()) {
       throw new IllegalArgumentException("Invalid Layer");
     }
-    this.currentLayer = layer;
+    if (layer != this.currentLayer) {
+      this.currentLayer = layer;
+      this.fire(ModelEvent.Type.CURRENT_LAYER_CHANGED, layer, null);
+    }
   }
 
   @Override
@@ -123,21 +318,124 @@ public class LayeredModelImpl implements IAnimationModel {
     return this.layers.get(layer).getEnabled();
   }
 
+  /**
+   * Works out the tick range and extent over all layers again if the model changed since they
+   * were last worked out. Each layer keeps its own, so this only looks at the layers.
+   */
+  private void updateTimeline() {
+    if (this.timelineVersion == this.version) {
+      return;
+    }
+    int start = -1;
+    int end = -1;
+    Rectangle area = null;
+    for (Layer layer : this.layers) {
+      IAnimationModel m = layer.getModel();
+      if (m.getEndTick() < 0) {
+        continue;
+      }
+      start = start < 0 ? m.getStartTick() : Math.min(start, m.getStartTick());
+      end = Math.max(end, m.getEndTick());
+      if (area == null) {
+        area = m.getExtent();
+      } else {
+        area.add(m.getExtent());
+      }
+    }
+    this.startTick = start;
+    this.endTick = end;
+    this.extent = area == null ? new Rectangle() : area;
+    this.timelineVersion = this.version;
+  }
+
+  @Override
+  public int getStartTick() {
+    this.updateTimeline();
+    return this.startTick;
+  }
+
+  @Override
+  public int getEndTick() {
+    this.updateTimeline();
+    return this.endTick;
+  }
+
+  @Override
+  public Rectangle getExtent() {
+    this.updateTimeline();
+    return new Rectangle(this.extent);
+  }
+
+  @Override
+  public int getLayerStartTick(int layer) {
+    return this.layers.get(layer).getModel().getStartTick();
+  }
+
+  @Override
+  public int getLayerEndTick(int layer) {
+    return this.layers.get(layer).getModel().getEndTick();
+  }
+
+  @Override
+  public Rectangle getLayerExtent(int layer) {
+    return this.layers.get(layer).getModel().getExtent();
+  }
+
+  @Override
+  public int getLayerId(int layer) {
+    return this.layers.get(layer).id;
+  }
+
+  @Override
+  public int getLayerIndex(int id) {
+    for (int i = 0; i < this.layers.size(); i++) {
+      if (this.layers.get(i).id == id) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public long getVersion() {
+    return this.version;
+  }
+
+  @Override
+  public ReadOnlyIAnimationModel consistentView() {
+    return this;
+  }
+
+  @Override
+  public void addModelListener(IModelListener listener) {
+    Utils.requireNonNull(listener);
+    this.listeners.add(listener);
+  }
+
+  @Override
+  public void removeModelListener(IModelListener listener) {
+    this.listeners.remove(listener);
+  }
+
   @Override
   public void addLayer() {
     if (this.layerCount() == 0) {
-      this.layers.put(this.currentLayer, new Layer(new AnimationModelImpl(), true));
+      this.layers.add(this.newLayer(new AnimationModelImpl()));
+      this.fire(ModelEvent.Type.LAYER_CHANGED, this.currentLayer, null);
       return;
     }
     IAnimationModel m = new AnimationModelImpl();
     java.awt.Rectangle b = this.getBounds();
     m.setBounds((int) b.getX(), (int) b.getY(), b.width, b.height);
-    this.layers.put(this.layerCount(), new Layer(m, true));
+    int layer = this.layerCount();
+    this.layers.add(this.newLayer(m));
+    this.fire(ModelEvent.Type.LAYER_CHANGED, layer, null);
   }
 
   @Override
   public void setLayerState(int layer, boolean enabled) {
     this.layers.get(layer).setEnabled(enabled);
+    this.fire(ModelEvent.Type.LAYER_CHANGED, layer, null);
   }
 
   @Override
@@ -146,13 +444,8 @@ public class LayeredModelImpl implements IAnimationModel {
     if (layer >= this.layerCount()) {
       throw new IllegalArgumentException("invalid layer");
     }
-    int count = this.layerCount();
     this.layers.remove(layer);
-    for (int i = layer + 1; i < count; i++) {
-      Layer temp = this.layers.get(i);
-      this.layers.remove(i);
-      this.layers.put(i - 1, temp);
-    }
+    this.fire(ModelEvent.Type.LAYER_CHANGED, layer, null);
     if (this.layerCount() == 0) {
       this.addLayer();
       this.setCurrentLayer(0);
@@ -167,50 +460,190 @@ public class LayeredModelImpl implements IAnimationModel {
   @Override
   public void moveCurrentLayer(int direction) {
     int total = this.currentLayer + direction;
-    if (!this.layers.containsKey(total)) {
+    if (total < 0 || total >= this.layerCount()) {
       throw new IllegalArgumentException("invalid direction");
     }
 
-    Layer temp = this.layers.get(total);
-    this.layers.replace(total, this.layers.get(this.currentLayer));
-    this.layers.replace(this.currentLayer, temp);
+    Collections.swap(this.layers, total, this.currentLayer);
+    this.fire(ModelEvent.Type.LAYER_CHANGED, this.currentLayer, null);
+  }
+
+  @Override
+  public void moveLayer(int from, int to) {
+    if (from < 0 || from >= this.layerCount() || to < 0 || to >= this.layerCount()) {
+      throw new IllegalArgumentException("Invalid Layer");
+    }
+    if (from == to) {
+      return;
+    }
+    Layer current = this.layers.get(this.currentLayer);
+    this.layers.add(to, this.layers.remove(from));
+    this.currentLayer = this.layers.indexOf(current);
+    this.fire(ModelEvent.Type.LAYER_CHANGED, Math.min(from, to), null);
+  }
+
+  @Override
+  public void reorderLayers(int[] ids) {
+    Utils.requireNonNull(ids);
+    if (ids.length != this.layerCount()) {
+      throw new IllegalArgumentException("Invalid Layer");
+    }
+    HashMap<Integer, Layer> byId = new HashMap<>();
+    for (Layer layer : this.layers) {
+      byId.put(layer.id, layer);
+    }
+    ArrayList<Layer> reordered = new ArrayList<>(ids.length);
+    for (int id : ids) {
+      Layer layer = byId.remove(id);
+      if (layer == null) {
+        throw new IllegalArgumentException("Invalid Layer");
+      }
+      reordered.add(layer);
+    }
+    if (reordered.equals(this.layers)) {
+      return;
+    }
+    Layer current = this.layers.get(this.currentLayer);
+    this.layers = reordered;
+    this.currentLayer = reordered.indexOf(current);
+    this.fire(ModelEvent.Type.LAYER_CHANGED, 0, null);
   }
 
   @Override
   public void setListOfAnimatedShapes(ArrayList<IAnimatedShape> animatedShapeArrayList) {
-    this.currentModel().setListOfAnimatedShapes(animatedShapeArrayList);
+    this.editCurrent(ModelEvent.Type.SHAPES_REPLACED, null,
+            () -> this.currentModel().setListOfAnimatedShapes(animatedShapeArrayList));
   }
 
   @Override
   public void deleteShape(String id) {
-    this.currentModel().deleteShape(id);
+    this.editCurrent(ModelEvent.Type.SHAPE_REMOVED, id,
+            () -> this.currentModel().deleteShape(id));
   }
 
   @Override
-  public void placeAnimatedShape(IAnimatedShape animatedShape) {
-    this.currentModel().placeAnimatedShape(animatedShape);
+  public int placeAnimatedShape(IAnimatedShape animatedShape) {
+    Utils.requireNonNull(animatedShape);
+    int[] id = new int[1];
+    this.editCurrent(ModelEvent.Type.SHAPE_ADDED, animatedShape.getShape().getName(),
+            () -> id[0] = this.currentModel().placeAnimatedShape(animatedShape));
+    return id[0];
   }
 
   @Override
   public void addEventInstructionToShape(String name, EventInstructions e) {
-    this.currentModel().addEventInstructionToShape(name, e);
+    this.editCurrent(ModelEvent.Type.SHAPE_CHANGED, name,
+            () -> this.currentModel().addEventInstructionToShape(name, e));
+  }
+
+  /**
+   * Adds the event to a shape in the current layer like editCurrent would, but only looks the
+   * shape's name up for the event when someone is listening, since getting it copies the shape.
+   */
+  @Override
+  public void addEventInstructionToShape(int id, EventInstructions e) {
+    IAnimationModel model = this.currentModel();
+    long before = model.getVersion();
+    try {
+      model.addEventInstructionToShape(id, e);
+    } finally {
+      if (model.getVersion() != before) {
+        this.fire(ModelEvent.Type.SHAPE_CHANGED, this.currentLayer, this.listeners.isEmpty()
+                ? null : model.getAnimatedShape(0, id).getShape().getName());
+      }
+    }
   }
 
   @Override
   public void setBounds(int x, int y, int width, int height) {
-    this.currentModel().setBounds(x, y, width, height);
+    this.editCurrent(ModelEvent.Type.BOUNDS_CHANGED, null,
+            () -> this.currentModel().setBounds(x, y, width, height));
   }
 
   @Override
   public void placeKeyFrame(String name, int t, Position2D p, int w, int h, Color c) {
-    this.currentModel().placeKeyFrame(name, t, p, w, h, c);
+    this.editCurrent(ModelEvent.Type.SHAPE_CHANGED, name,
+            () -> this.currentModel().placeKeyFrame(name, t, p, w, h, c));
   }
 
   @Override
   public void removeKeyFrame(String name, int index) {
-    this.currentModel().removeKeyFrame(name, index);
+    this.editCurrent(ModelEvent.Type.SHAPE_CHANGED, name,
+            () -> this.currentModel().removeKeyFrame(name, index));
+  }
+
+  @Override
+  public int simplify(double pixelTolerance, int colorTolerance) {
+    Utils.requireNonNegative(pixelTolerance, colorTolerance);
+    int[] removed = new int[1];
+    this.applyAll(Collections.singletonList(m -> {
+      for (Layer layer : this.layers) {
+        removed[0] += layer.getModel().simplify(pixelTolerance, colorTolerance);
+      }
+    }));
+    return removed[0];
   }
 
+  /**
+   * Makes the edits as one change to this model. Each layer makes its share of the edits in a
+   * batch of its own, so a layer that fails rolls itself back, and the layers themselves are put
+   * back the way they were here.
+   */
+  @Override
+  public void applyAll(List<ModelEdit> edits) {
+    Utils.requireNonNull(edits);
+    if (this.batch != null) {
+      for (ModelEdit edit : edits) {
+        edit.apply(this);
+      }
+      return;
+    }
+    Batch started = new Batch(this.layers, this.currentLayer);
+    ArrayList<IAnimationModel> models = new ArrayList<>();
+    long[] versions = new long[this.layerCount()];
+    for (int i = 0; i < this.layerCount(); i++) {
+      models.add(this.layers.get(i).getModel());
+      versions[i] = models.get(i).getVersion();
+    }
+    this.batch = started;
+    try {
+      this.applyWithin(models, 0, edits);
+    } catch (RuntimeException e) {
+      this.batch = null;
+      this.layers = started.layers;
+      this.currentLayer = started.currentLayer;
+      for (Layer layer : started.layers) {
+        layer.setEnabled(started.enabled.get(layer));
+      }
+      throw e;
+    }
+    this.batch = null;
+    boolean changed = started.changed;
+    for (int i = 0; i < models.size(); i++) {
+      changed |= models.get(i).getVersion() != versions[i];
+    }
+    if (changed) {
+      this.fire(ModelEvent.Type.BATCH_APPLIED, this.currentLayer, null);
+    }
+  }
+
+  /**
+   * Opens a batch on each of the given layers in turn, and makes the edits to this model once
+   * they are all open.
+   *
+   * @param models the models of the layers this model had when the batch started.
+   * @param i      the first model that doesn't have a batch open yet.
+   * @param edits  the edits to make.
+   */
+  private void applyWithin(List<IAnimationModel> models, int i, List<ModelEdit> edits) {
+    if (i == models.size()) {
+      for (ModelEdit edit : edits) {
+        edit.apply(this);
+      }
+      return;
+    }
+    models.get(i).applyAll(Collections.singletonList(m -> this.applyWithin(models, i + 1, edits)));
+  }
 
   @Override
   public ArrayList<IShape> getShapesAt(int tick) {
@@ -222,11 +655,43 @@ public class LayeredModelImpl implements IAnimationModel {
     return this.layers.get(layer).getModel().getShapesAt(tick);
   }
 
+  @Override
+  public void sampleLayerAtTick(int layer, int tick, FrameBuffer frame) {
+    this.layers.get(layer).getModel().sampleLayerAtTick(0, tick, frame);
+  }
+
+  @Override
+  public void sampleLayerAtTick(int layer, int tick, FrameBuffer frame, FrameSampler sampler) {
+    this.layers.get(layer).getModel().sampleLayerAtTick(0, tick, frame, sampler);
+  }
+
+  @Override
+  public ArrayList<IShape> getShapesInRegionAt(int layer, int tick, Rectangle region) {
+    return this.layers.get(layer).getModel().getShapesInRegionAt(0, tick, region);
+  }
+
+  @Override
+  public ArrayList<IAnimatedShape> getAnimatedShapesInRegion(int layer, int fromTick, int toTick,
+                                                             Rectangle region) {
+    return this.layers.get(layer).getModel().getAnimatedShapesInRegion(0, fromTick, toTick,
+            region);
+  }
+
   @Override
   public ArrayList<IAnimatedShape> getAllAnimatedShapes() {
     return this.currentModel().getAllAnimatedShapes();
   }
 
+  @Override
+  public ArrayList<IAnimatedShape> getLayerAnimatedShapes(int layer) {
+    return this.layers.get(layer).getModel().getAllAnimatedShapes();
+  }
+
+  @Override
+  public IAnimatedShape getAnimatedShape(int layer, int id) {
+    return this.layers.get(layer).getModel().getAnimatedShape(0, id);
+  }
+
   @Override
   public Rectangle getBounds() {
     return this.currentModel().getBounds();
@@ -0,0 +1,26 @@
+package cs3500.animator.model;
+
+/**
+ * How far a model being loaded in the background has got, so that views can play the part of the
+ * animation that has loaded while the rest is still being read. Both methods may be called from
+ * any thread.
+ */
+public interface LoadProgress {
+
+  /**
+   * Gets the last tick that has fully loaded. Every shape in the model is as it will be at every
+   * tick up to and including this one, as far as what has been read shows. What is read later can
+   * show that a tick counted as loaded was not, and then the loaded tick goes back to before it.
+   *
+   * @return the last loaded tick, or -1 if no tick has loaded yet.
+   */
+  int getLoadedTick();
+
+  /**
+   * Determines if loading has stopped, either because everything was loaded or because the rest
+   * couldn't be. Once it has, the whole model is as loaded as it will get.
+   *
+   * @return true if nothing more will be loaded.
+   */
+  boolean isDone();
+}
@@ -0,0 +1,16 @@
+package cs3500.animator.model;
+
+/**
+ * A single change to an animation model, made through the model's own methods. Edits are handed
+ * to IAnimationModel.applyAll so that many of them can be made to a model as one change.
+ */
+public interface ModelEdit {
+
+  /**
+   * Makes this edit to the given model.
+   *
+   * @param model the model to change.
+   * @throws IllegalArgumentException if the edit can't be made to the model.
+   */
+  void apply(IAnimationModel model);
+}
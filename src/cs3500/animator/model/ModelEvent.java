@@ -0,0 +1,72 @@
+package cs3500.animator.model;
+
+/**
+ * Describes a single change made to an animation model, handed to every IModelListener of the
+ * model right after the change is made.
+ */
+public final class ModelEvent {
+
+  /**
+   * The kinds of change a model can report.
+   */
+  public enum Type {
+    SHAPE_ADDED,
+    SHAPE_REMOVED,
+    SHAPE_CHANGED, // events or keyframes of a shape were added or removed
+    SHAPES_REPLACED, // the whole list of shapes was set at once
+    BOUNDS_CHANGED,
+    LAYER_CHANGED, // a layer was added, deleted, moved, enabled or disabled
+    CURRENT_LAYER_CHANGED,
+    BATCH_APPLIED, // any number of the changes above were made at once by applyAll
+    RESTORED // the model was put back to a snapshot
+  }
+
+  private final Type type;
+  private final int layer;
+  private final String shapeName;
+  private final long version;
+
+  /**
+   * Constructs a model event.
+   *
+   * @param type      what kind of change was made.
+   * @param layer     the layer the change was made in.
+   * @param shapeName the name of the shape that changed, or null if the change isn't about one
+   *                  shape.
+   * @param version   the version of the model after the change.
+   */
+  public ModelEvent(Type type, int layer, String shapeName, long version) {
+    this.type = type;
+    this.layer = layer;
+    this.shapeName = shapeName;
+    this.version = version;
+  }
+
+  /**
+   * What kind of change was made.
+   */
+  public Type getType() {
+    return this.type;
+  }
+
+  /**
+   * The layer the change was made in.
+   */
+  public int getLayer() {
+    return this.layer;
+  }
+
+  /**
+   * The name of the shape that changed, or null if the change isn't about one shape.
+   */
+  public String getShapeName() {
+    return this.shapeName;
+  }
+
+  /**
+   * The version of the model after the change.
+   */
+  public long getVersion() {
+    return this.version;
+  }
+}
@@ -0,0 +1,9 @@
+package cs3500.animator.model;
+
+/**
+ * A saved state of an animation model, taken with IAnimationModel.snapshot and handed back to the
+ * same kind of model with restore. A snapshot never changes, even as the model it was taken from
+ * goes on being edited, and it can be restored any number of times.
+ */
+public interface ModelSnapshot {
+}
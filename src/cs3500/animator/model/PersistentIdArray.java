@@ -0,0 +1,163 @@
+package cs3500.animator.model;
+
+import java.util.ArrayList;
+
+/**
+ * An array indexed by small ids that is never changed once it is built. Putting and removing give
+ * back a new array that shares every node with this one except for the path to the slot that
+ * changed, so keeping an old version of an array around costs nothing.
+ *
+ * <p>The array is a trie that splits an id into groups of five bits, so a slot is found by
+ * indexing at most seven arrays of 32, one per group, without comparing anything. It grows a
+ * level at the top whenever an id too big for it is put in, and it works best when ids are handed
+ * out counting up from 0, as the models do.</p>
+ *
+ * @param <V> the type of the values.
+ */
+final class PersistentIdArray<V> {
+  private static final int BITS = 5;
+  private static final int WIDTH = 1 << BITS;
+  private static final int MASK = WIDTH - 1;
+
+  private static final PersistentIdArray<?> EMPTY = new PersistentIdArray<>(null, 0, 0);
+
+  // each node is an array of WIDTH children, the values themselves in the bottom level
+  private final Object[] root;
+  // how far the id is shifted to find the child of the root, 0 if the root holds values
+  private final int shift;
+  private final int size;
+
+  /**
+   * Constructs an array with the given root.
+   */
+  private PersistentIdArray(Object[] root, int shift, int size) {
+    this.root = root;
+    this.shift = shift;
+    this.size = size;
+  }
+
+  /**
+   * Gets the empty array.
+   *
+   * @param <V> the type of the values.
+   * @return an array with nothing in it.
+   */
+  @SuppressWarnings("unchecked")
+  static <V> PersistentIdArray<V> empty() {
+    return (PersistentIdArray<V>) EMPTY;
+  }
+
+  /**
+   * How many ids have a value in this array.
+   */
+  int size() {
+    return this.size;
+  }
+
+  /**
+   * How many ids this array has room for without growing.
+   */
+  private long capacity() {
+    return this.root == null ? 0 : (long) WIDTH << this.shift;
+  }
+
+  /**
+   * Gets the value for the given id.
+   *
+   * @param id the id to look for.
+   * @return the value, or null if the id has no value in this array.
+   */
+  @SuppressWarnings("unchecked")
+  V get(int id) {
+    if (id < 0 || id >= this.capacity()) {
+      return null;
+    }
+    Object[] node = this.root;
+    for (int shift = this.shift; shift > 0 && node != null; shift -= BITS) {
+      node = (Object[]) node[(id >>> shift) & MASK];
+    }
+    return node == null ? null : (V) node[id & MASK];
+  }
+
+  /**
+   * Gets an array with the given id set to the given value, and every other id as it is in this
+   * array.
+   *
+   * @param id    the id to set, which must not be negative.
+   * @param value the value to set it to, which must not be null.
+   * @return the new array.
+   */
+  PersistentIdArray<V> put(int id, V value) {
+    boolean added = this.get(id) == null;
+    Object[] root = this.root == null ? new Object[WIDTH] : this.root;
+    int shift = this.shift;
+    while (id >= (long) WIDTH << shift) {
+      Object[] grown = new Object[WIDTH];
+      grown[0] = root;
+      root = grown;
+      shift += BITS;
+    }
+    return new PersistentIdArray<>(set(root, shift, id, value), shift,
+            added ? this.size + 1 : this.size);
+  }
+
+  /**
+   * Gets an array without a value for the given id, and every other id as it is in this array.
+   *
+   * @param id the id to remove.
+   * @return the new array, or this array if the id has no value in it.
+   */
+  PersistentIdArray<V> remove(int id) {
+    if (this.get(id) == null) {
+      return this;
+    }
+    return new PersistentIdArray<>(set(this.root, this.shift, id, null), this.shift,
+            this.size - 1);
+  }
+
+  /**
+   * Gets the values in this array in the order of their ids.
+   *
+   * @return a new list of the values.
+   */
+  ArrayList<V> values() {
+    ArrayList<V> values = new ArrayList<>(this.size);
+    collect(this.root, this.shift, values);
+    return values;
+  }
+
+  /**
+   * Adds the values under the node to the list in id order.
+   */
+  @SuppressWarnings("unchecked")
+  private static <V> void collect(Object[] node, int shift, ArrayList<V> values) {
+    if (node == null) {
+      return;
+    }
+    for (Object child : node) {
+      if (shift == 0) {
+        if (child != null) {
+          values.add((V) child);
+        }
+      } else {
+        collect((Object[]) child, shift - BITS, values);
+      }
+    }
+  }
+
+  /**
+   * Copies the path from the node down to the id's slot, with the slot set to the value.
+   *
+   * @return the copy of the node
+   */
+  private static Object[] set(Object[] node, int shift, int id, Object value) {
+    Object[] copy = node == null ? new Object[WIDTH] : node.clone();
+    int i = (id >>> shift) & MASK;
+    if (shift == 0) {
+      copy[i] = value;
+    } else {
+      copy[i] = set((Object[]) copy[i], shift - BITS, id, value);
+    }
+    return copy;
+  }
+}
@@ -0,0 +1,224 @@
+package cs3500.animator.model;
+
+import java.util.ArrayList;
+
+/**
+ * A sorted map that is never changed once it is built. Putting and removing give back a new map
+ * that shares every node with this one except for the path to the key that changed, so keeping an
+ * old version of a map around costs nothing and both versions can be read in logarithmic time.
+ *
+ * <p>Like ShapeLifetimeIndex, the map is a treap, with the priority of each node worked out from
+ * the hash of its key so the shape of the tree doesn't depend on the order keys are put in.</p>
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values.
+ */
+final class PersistentTreeMap<K extends Comparable<K>, V> {
+
+  /**
+   * A single key and value in the treap.
+   */
+  private static final class Node<K, V> {
+    private final K key;
+    private final V value;
+    private final int priority;
+    private final Node<K, V> left;
+    private final Node<K, V> right;
+
+    /**
+     * Builds a node.
+     */
+    private Node(K key, V value, int priority, Node<K, V> left, Node<K, V> right) {
+      this.key = key;
+      this.value = value;
+      this.priority = priority;
+      this.left = left;
+      this.right = right;
+    }
+
+    /**
+     * A copy of this node with different children.
+     */
+    private Node<K, V> withChildren(Node<K, V> left, Node<K, V> right) {
+      return new Node<>(this.key, this.value, this.priority, left, right);
+    }
+  }
+
+  private static final PersistentTreeMap<?, ?> EMPTY = new PersistentTreeMap<>(null, 0);
+
+  private final Node<K, V> root;
+  private final int size;
+
+  /**
+   * Constructs a map with the given root.
+   */
+  private PersistentTreeMap(Node<K, V> root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  /**
+   * Gets the empty map.
+   *
+   * @param <K> the type of the keys.
+   * @param <V> the type of the values.
+   * @return a map with no keys.
+   */
+  @SuppressWarnings("unchecked")
+  static <K extends Comparable<K>, V> PersistentTreeMap<K, V> empty() {
+    return (PersistentTreeMap<K, V>) EMPTY;
+  }
+
+  /**
+   * How many keys are in this map.
+   */
+  int size() {
+    return this.size;
+  }
+
+  /**
+   * Gets the value for the given key.
+   *
+   * @param key the key to look for.
+   * @return the value, or null if the key isn't in this map.
+   */
+  V get(K key) {
+    Node<K, V> n = this.root;
+    while (n != null) {
+      int cmp = key.compareTo(n.key);
+      if (cmp == 0) {
+        return n.value;
+      }
+      n = cmp < 0 ? n.left : n.right;
+    }
+    return null;
+  }
+
+  /**
+   * Determines if the given key is in this map.
+   */
+  boolean containsKey(K key) {
+    return this.get(key) != null;
+  }
+
+  /**
+   * Gets a map with the given key set to the given value, and every other key as it is in this
+   * map.
+   *
+   * @param key   the key to set.
+   * @param value the value to set it to, which must not be null.
+   * @return the new map.
+   */
+  PersistentTreeMap<K, V> put(K key, V value) {
+    boolean added = !this.containsKey(key);
+    return new PersistentTreeMap<>(put(this.root, key, value, priorityOf(key)),
+            added ? this.size + 1 : this.size);
+  }
+
+  /**
+   * Gets a map without the given key, and every other key as it is in this map.
+   *
+   * @param key the key to remove.
+   * @return the new map, or this map if the key isn't in it.
+   */
+  PersistentTreeMap<K, V> remove(K key) {
+    if (!this.containsKey(key)) {
+      return this;
+    }
+    return new PersistentTreeMap<>(remove(this.root, key), this.size - 1);
+  }
+
+  /**
+   * Gets the values in this map in the order of their keys.
+   *
+   * @return a new list of the values.
+   */
+  ArrayList<V> values() {
+    ArrayList<V> values = new ArrayList<>(this.size);
+    collect(this.root, values);
+    return values;
+  }
+
+  /**
+   * Adds the values under n to the list in key order.
+   */
+  private static <K, V> void collect(Node<K, V> n, ArrayList<V> values) {
+    while (n != null) {
+      collect(n.left, values);
+      values.add(n.value);
+      n = n.right;
+    }
+  }
+
+  /**
+   * Sets the key to the value in the treap rooted at n.
+   *
+   * @return the new root of the treap
+   */
+  private static <K extends Comparable<K>, V> Node<K, V> put(Node<K, V> n, K key, V value,
+                                                           int priority) {
+    if (n == null) {
+      return new Node<>(key, value, priority, null, null);
+    }
+    int cmp = key.compareTo(n.key);
+    if (cmp == 0) {
+      return new Node<>(key, value, n.priority, n.left, n.right);
+    }
+    if (cmp < 0) {
+      Node<K, V> left = put(n.left, key, value, priority);
+      if (left.priority > n.priority) {
+        return left.withChildren(left.left, n.withChildren(left.right, n.right));
+      }
+      return n.withChildren(left, n.right);
+    } else {
+      Node<K, V> right = put(n.right, key, value, priority);
+      if (right.priority > n.priority) {
+        return right.withChildren(n.withChildren(n.left, right.left), right.right);
+      }
+      return n.withChildren(n.left, right);
+    }
+  }
+
+  /**
+   * Removes the key from the treap rooted at n, which must contain it.
+   *
+   * @return the new root of the treap
+   */
+  private static <K extends Comparable<K>, V> Node<K, V> remove(Node<K, V> n, K key) {
+    int cmp = key.compareTo(n.key);
+    if (cmp == 0) {
+      return merge(n.left, n.right);
+    }
+    if (cmp < 0) {
+      return n.withChildren(remove(n.left, key), n.right);
+    }
+    return n.withChildren(n.left, remove(n.right, key));
+  }
+
+  /**
+   * Merges two treaps where every key in a is smaller than every key in b.
+   */
+  private static <K, V> Node<K, V> merge(Node<K, V> a, Node<K, V> b) {
+    if (a == null) {
+      return b;
+    }
+    if (b == null) {
+      return a;
+    }
+    if (a.priority > b.priority) {
+      return a.withChildren(a.left, merge(a.right, b));
+    }
+    return b.withChildren(merge(a, b.left), b.right);
+  }
+
+  /**
+   * Scrambles the hash of the key into a heap priority, so that keys that hash close together
+   * still end up with unrelated priorities.
+   */
+  private static int priorityOf(Object key) {
+    int z = key.hashCode() * 0x9E3779B9;
+    z ^= z >>> 16;
+    z *= 0x85EBCA6B;
+    return z ^ (z >>> 13);
+  }
+}
@@ -0,0 +1,300 @@
+package cs3500.animator.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import cs3500.animator.misc.ErrorMessages;
+import cs3500.animator.misc.Utils;
+
+/**
+ * A plan for playing a model one tick after another. Asking the model for the shapes at every
+ * tick looks up which shapes are alive and which event each one is in all over again, even though
+ * from one tick to the next almost nothing changes. The plan instead works out once, for every
+ * event of every shape, the tick the shape moves into that event and the tick it stops being
+ * drawn, and keeps those changes in one array sorted by tick. Playback keeps the set of shapes
+ * alive now along with the event each is in, and moving on a tick only applies the changes at
+ * the ticks passed, so it costs as much as the number of changes rather than the number of shapes.
+ *
+ * <p>The plan is worked out again the next time it is used after the model changes. Moving back
+ * in time starts again from the first change. While the model is loading it changes every time
+ * more of it is published, so the plan is then worked out again only once enough time has passed
+ * since it last was, and keeps playing the model as it was until then. The ticks that had loaded
+ * when it was last known to be up to date are the ones it can be trusted to play.</p>
+ *
+ * <p>A plan is only meant to be used by one thread at a time, like the frame it fills.</p>
+ */
+public final class PlaybackPlan {
+  // while loading, the time since the plan was last worked out must be this many times as long as
+  // working it out took, so that no more than about a tenth of the time goes into working it out
+  private static final int LOADING_BUILD_SPACING = 10;
+
+  private final ReadOnlyIAnimationModel model;
+  private long builtVersion = -1;
+  private LoadProgress loading; // how far the model has loaded, or null once it all has
+  private int builtLoadedTick = -1; // the loaded tick when the plan was last known up to date
+  private long builtAt; // System.nanoTime when the plan was last worked out
+  private long buildNanos; // how long that took
+
+  // every shape of every layer, layer by layer, each layer in draw order
+  private IAnimatedShape[] shapes = new IAnimatedShape[0];
+  private int[] layerStart = new int[1]; // index of each layer's first shape, then the total
+  private boolean[] enabled = new boolean[0];
+
+  // the changes, sorted by tick: from changeTicks[c] on, shape changeShapes[c] is in event
+  // changeSegments[c], or isn't drawn at all if that is -1
+  private int[] changeTicks = new int[0];
+  private int[] changeShapes = new int[0];
+  private int[] changeSegments = new int[0];
+
+  // where playback is
+  private int tick = -1;
+  private int nextChange;
+  private int[] segmentOf = new int[0];
+  private final BitSet alive = new BitSet();
+  private int[] aliveScratch = new int[0];
+
+  /**
+   * Constructs a plan for the given model. Nothing is worked out until the plan is first used.
+   *
+   * @param model the model to play.
+   * @throws IllegalArgumentException if the model is null.
+   */
+  public PlaybackPlan(ReadOnlyIAnimationModel model) {
+    Utils.requireNonNull(model);
+    this.model = model;
+  }
+
+  /**
+   * Tells the plan the model is being loaded, so that it isn't worked out again every time more
+   * of the model is published.
+   *
+   * @param loading how far the model has loaded, or null if it already has.
+   */
+  public void setLoadProgress(LoadProgress loading) {
+    this.loading = loading;
+  }
+
+  /**
+   * Gets the last tick the plan plays as the loaded model has it, working the plan out again
+   * first if the model changed and it may be. The plan may be behind the model while it loads,
+   * and then this is the tick that had loaded when the plan was last known to be up to date.
+   *
+   * @return the loaded tick, Integer.MAX_VALUE if the model isn't loading, or -1 if no tick has
+   *         loaded yet.
+   */
+  public int getLoadedTick() {
+    this.update();
+    // read before the version, so if the plan is up to date every tick up to it is in the plan
+    int loaded = this.loading == null ? Integer.MAX_VALUE : this.loading.getLoadedTick();
+    if (this.builtVersion == this.model.getVersion()) {
+      this.builtLoadedTick = loaded;
+    }
+    return this.builtLoadedTick;
+  }
+
+  /**
+   * The tick playback is at, which is the last tick sampled.
+   *
+   * @return the tick, or -1 if nothing has been sampled since the plan was last worked out.
+   */
+  public int getTick() {
+    return this.tick;
+  }
+
+  /**
+   * Samples every enabled layer at the given tick into the frame, bottom layer first and each
+   * layer in draw order, giving the same frame as sampling the layers one by one would.
+   *
+   * @param tick  the tick to sample at.
+   * @param frame the frame to fill, its old contents are cleared first.
+   * @throws IllegalArgumentException if the tick is negative or the frame is null.
+   */
+  public void sampleAt(int tick, FrameBuffer frame) {
+    Utils.requireNonNull(frame);
+    this.moveTo(tick);
+    frame.clear();
+    for (int layer = 0; layer < this.enabled.length; layer++) {
+      if (!this.enabled[layer]) {
+        continue;
+      }
+      int end = this.layerStart[layer + 1];
+      for (int s = this.alive.nextSetBit(this.layerStart[layer]); s >= 0 && s < end;
+           s = this.alive.nextSetBit(s + 1)) {
+        this.shapes[s].sampleSegmentInto(this.segmentOf[s], tick, frame);
+      }
+    }
+  }
+
+  /**
+   * Samples the frame just like the other sampleAt, but splits the shapes across the sampler's
+   * pool if more of them are alive than the sampler's threshold.
+   *
+   * @param tick    the tick to sample at.
+   * @param frame   the frame to fill, its old contents are cleared first.
+   * @param sampler the sampler to split the work with.
+   * @throws IllegalArgumentException if the tick is negative or the frame or sampler is null.
+   */
+  public void sampleAt(int tick, FrameBuffer frame, FrameSampler sampler) {
+    Utils.requireNonNull(frame, sampler);
+    this.moveTo(tick);
+    frame.clear();
+    int count = 0;
+    for (int layer = 0; layer < this.enabled.length; layer++) {
+      if (!this.enabled[layer]) {
+        continue;
+      }
+      int end = this.layerStart[layer + 1];
+      for (int s = this.alive.nextSetBit(this.layerStart[layer]); s >= 0 && s < end;
+           s = this.alive.nextSetBit(s + 1)) {
+        this.aliveScratch[count++] = s;
+      }
+    }
+    int[] ids = this.aliveScratch;
+    sampler.sampleAll(count,
+        (i, part) -> this.shapes[ids[i]].sampleSegmentInto(this.segmentOf[ids[i]], tick, part),
+        frame);
+  }
+
+  /**
+   * Moves playback to the given tick, working the plan out again first if the model changed and
+   * it may be.
+   *
+   * @param tick the tick to move to.
+   */
+  private void moveTo(int tick) {
+    if (tick < 0) {
+      throw new IllegalArgumentException(ErrorMessages.BadTickValue.errorMessage());
+    }
+    this.update();
+    if (tick < this.tick) {
+      this.rewind();
+    }
+    int c = this.nextChange;
+    while (c < this.changeTicks.length && this.changeTicks[c] <= tick) {
+      int s = this.changeShapes[c];
+      this.segmentOf[s] = this.changeSegments[c];
+      this.alive.set(s, this.changeSegments[c] >= 0);
+      c++;
+    }
+    this.nextChange = c;
+    this.tick = tick;
+  }
+
+  /**
+   * Moves playback back to before the first change.
+   */
+  private void rewind() {
+    this.alive.clear();
+    this.nextChange = 0;
+    this.tick = -1;
+  }
+
+  /**
+   * Works the plan out again if the model changed, unless the model is still loading and the plan
+   * was worked out too recently.
+   */
+  private void update() {
+    if (this.builtVersion == this.model.getVersion()) {
+      return;
+    }
+    if (this.loading != null && this.loading.isDone()) {
+      this.loading = null;
+    }
+    if (this.loading == null || this.builtVersion < 0
+            || System.nanoTime() - this.builtAt >= LOADING_BUILD_SPACING * this.buildNanos) {
+      this.build();
+    }
+  }
+
+  /**
+   * Works the plan out from the model as it is now.
+   */
+  private void build() {
+    long started = System.nanoTime();
+    // the loaded tick is read before the model, so every tick up to it has loaded in what is read
+    int loadedTick = this.loading == null ? Integer.MAX_VALUE : this.loading.getLoadedTick();
+    // the version is read first, so an edit made while building makes the next use build again
+    long version = this.model.getVersion();
+    ReadOnlyIAnimationModel view = this.model.consistentView();
+    int layers = view.layerCount();
+    List<List<IAnimatedShape>> byLayer = new ArrayList<>(layers);
+    this.layerStart = new int[layers + 1];
+    this.enabled = new boolean[layers];
+    for (int layer = 0; layer < layers; layer++) {
+      byLayer.add(view.getLayerAnimatedShapes(layer));
+      this.enabled[layer] = view.isEnabled(layer);
+      this.layerStart[layer + 1] = this.layerStart[layer] + byLayer.get(layer).size();
+    }
+    this.shapes = new IAnimatedShape[this.layerStart[layers]];
+
+    // each change is packed as its tick over the order it was made in, so sorting the packed
+    // changes sorts them by tick and leaves each shape's own changes in the order they were made
+    int[] ticks = new int[16];
+    int[] shapeOf = new int[16];
+    int[] segments = new int[16];
+    int count = 0;
+    int s = 0;
+    for (List<IAnimatedShape> layer : byLayer) {
+      for (IAnimatedShape shape : layer) {
+        this.shapes[s] = shape;
+        // the events are read by index, since copying them all out would cost as much again
+        int events = shape.getSegmentCount();
+        int lastEnd = Integer.MIN_VALUE;
+        for (int k = 0; k < events; k++) {
+          // a tick on the boundary of two events belongs to the earlier one
+          int from = k == 0 ? shape.getSegmentStartTick(k)
+                  : Math.max(shape.getSegmentStartTick(k), lastEnd + 1);
+          int to = shape.getSegmentEndTick(k);
+          if (from > to) {
+            continue;
+          }
+          if (count + 2 > ticks.length) {
+            ticks = Arrays.copyOf(ticks, ticks.length * 2);
+            shapeOf = Arrays.copyOf(shapeOf, shapeOf.length * 2);
+            segments = Arrays.copyOf(segments, segments.length * 2);
+          }
+          if (count > 0 && shapeOf[count - 1] == s && segments[count - 1] < 0
+                  && ticks[count - 1] == from) {
+            // this event starts right as the last one ended, so it replaces that stop
+            count--;
+          }
+          ticks[count] = from;
+          shapeOf[count] = s;
+          segments[count] = k;
+          count++;
+          ticks[count] = to + 1;
+          shapeOf[count] = s;
+          segments[count] = -1;
+          count++;
+          lastEnd = Math.max(lastEnd, to);
+        }
+        s++;
+      }
+    }
+
+    long[] packed = new long[count];
+    for (int c = 0; c < count; c++) {
+      packed[c] = ((long) ticks[c] << 32) | c;
+    }
+    Arrays.sort(packed);
+    this.changeTicks = new int[count];
+    this.changeShapes = new int[count];
+    this.changeSegments = new int[count];
+    for (int c = 0; c < count; c++) {
+      int made = (int) packed[c];
+      this.changeTicks[c] = ticks[made];
+      this.changeShapes[c] = shapeOf[made];
+      this.changeSegments[c] = segments[made];
+    }
+
+    this.segmentOf = new int[this.shapes.length];
+    this.aliveScratch = new int[this.shapes.length];
+    this.builtVersion = version;
+    this.builtLoadedTick = loadedTick;
+    this.builtAt = System.nanoTime();
+    this.buildNanos = this.builtAt - started;
+    this.rewind();
+  }
+}
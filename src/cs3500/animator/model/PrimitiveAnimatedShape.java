@@ -0,0 +1,537 @@
+package cs3500.animator.model;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Objects;
+
+import cs3500.animator.misc.ErrorMessages;
+import cs3500.animator.misc.Position2D;
+import cs3500.animator.misc.Utils;
+import cs3500.animator.shapes.IShape;
+
+/**
+ * An animated shape that stores its keyframes in parallel arrays of primitives instead of a list
+ * of EventInstructions. Reading a keyframe never allocates, and a keyframe costs a few dozen bytes
+ * instead of an EventInstructions, a Position2D and a Color each. Behaves exactly like
+ * AnimatedShape, including how it tweens and how it places and removes keyframes.
+ *
+ * <p>Slot 0 of the state arrays holds the state of the shape itself, which is where the first
+ * event starts from. Slot k holds the end state of event k - 1. Event i runs from ticks[i] to
+ * ticks[i + 1], so events are contiguous by construction.</p>
+ */
+public final class PrimitiveAnimatedShape implements IAnimatedShape {
+  private static final int INITIAL_CAPACITY = 4;
+
+  private final IShape template; // only used for its name and type
+  private int eventCount;
+  private int[] ticks;
+  private double[] x;
+  private double[] y;
+  private int[] w;
+  private int[] h;
+  private int[] rgb;
+  private double[] angle;
+
+  /**
+   * The event that the last call to getShapeAtTick landed in. Only a hint, checked before use, so
+   * readers on different threads that race on it only cost each other a search.
+   */
+  private int lastSegment;
+
+  /**
+   * The extent of this shape, or null if it has to be worked out again. A model works it out
+   * when it indexes the shape, so readers of a published model only ever read it.
+   */
+  private java.awt.Rectangle extent;
+
+  /**
+   * The area swept by each event, or null if it has to be worked out again. Readers of a
+   * published model may build it from any thread. The bounds have only final fields and are
+   * never changed, so a racing reader sees either null, and builds its own, or complete bounds.
+   */
+  private SegmentBounds bounds;
+
+  /**
+   * Constructs an animated shape with no events, starting at the state of the given shape.
+   *
+   * @param shape shape that we want to animate.
+   */
+  public PrimitiveAnimatedShape(IShape shape) {
+    this.template = Objects.requireNonNull(shape).copy();
+    this.eventCount = 0;
+    this.ticks = new int[INITIAL_CAPACITY];
+    this.x = new double[INITIAL_CAPACITY];
+    this.y = new double[INITIAL_CAPACITY];
+    this.w = new int[INITIAL_CAPACITY];
+    this.h = new int[INITIAL_CAPACITY];
+    this.rgb = new int[INITIAL_CAPACITY];
+    this.angle = new double[INITIAL_CAPACITY];
+    this.setState(0, shape.getX(), shape.getY(),
+            shape.getWidth(), shape.getHeight(), shape.getRgb(), shape.getAngle());
+  }
+
+  /**
+   * Constructs a copy of the given animated shape.
+   *
+   * @param animatedShape object we want to copy.
+   */
+  public PrimitiveAnimatedShape(IAnimatedShape animatedShape) {
+    this(Objects.requireNonNull(animatedShape).getShape());
+    for (EventInstructions e : animatedShape.getEvents()) {
+      this.addEvent(e);
+    }
+  }
+
+  /**
+   * Constructs a copy of the given primitive animated shape, copying its arrays directly.
+   *
+   * @param other the shape we want to copy.
+   */
+  private PrimitiveAnimatedShape(PrimitiveAnimatedShape other) {
+    this.template = other.template.copy();
+    this.eventCount = other.eventCount;
+    int slots = other.eventCount + 1;
+    this.ticks = Arrays.copyOf(other.ticks, slots);
+    this.x = Arrays.copyOf(other.x, slots);
+    this.y = Arrays.copyOf(other.y, slots);
+    this.w = Arrays.copyOf(other.w, slots);
+    this.h = Arrays.copyOf(other.h, slots);
+    this.rgb = Arrays.copyOf(other.rgb, slots);
+    this.angle = Arrays.copyOf(other.angle, slots);
+  }
+
+  /**
+   * Makes sure the arrays can hold the given number of slots.
+   */
+  private void ensureCapacity(int slots) {
+    if (slots <= this.ticks.length) {
+      return;
+    }
+    int capacity = Math.max(slots, this.ticks.length * 2);
+    this.ticks = Arrays.copyOf(this.ticks, capacity);
+    this.x = Arrays.copyOf(this.x, capacity);
+    this.y = Arrays.copyOf(this.y, capacity);
+    this.w = Arrays.copyOf(this.w, capacity);
+    this.h = Arrays.copyOf(this.h, capacity);
+    this.rgb = Arrays.copyOf(this.rgb, capacity);
+    this.angle = Arrays.copyOf(this.angle, capacity);
+  }
+
+  /**
+   * Writes a state into the given slot.
+   */
+  private void setState(int slot, double x, double y, int w, int h, int rgb, double angle) {
+    this.x[slot] = x;
+    this.y[slot] = y;
+    this.w[slot] = w;
+    this.h[slot] = h;
+    this.rgb[slot] = rgb;
+    this.angle[slot] = angle;
+  }
+
+  /**
+   * Writes the end state of the event into the given slot.
+   */
+  private void setState(int slot, EventInstructions e) {
+    // getEndColor is always fully opaque
+    this.setState(slot, e.getEndX(), e.getEndY(), e.getEndWidth(), e.getEndHeight(),
+            AnimatedShape.OPAQUE | e.getEndRgb(), e.getEndAngle());
+  }
+
+  /**
+   * Opens a gap of one slot at the given index, shifting the later slots up.
+   */
+  private void openSlot(int slot) {
+    int slots = this.eventCount + 1;
+    this.ensureCapacity(slots + 1);
+    int moved = slots - slot;
+    System.arraycopy(this.ticks, slot, this.ticks, slot + 1, moved);
+    System.arraycopy(this.x, slot, this.x, slot + 1, moved);
+    System.arraycopy(this.y, slot, this.y, slot + 1, moved);
+    System.arraycopy(this.w, slot, this.w, slot + 1, moved);
+    System.arraycopy(this.h, slot, this.h, slot + 1, moved);
+    System.arraycopy(this.rgb, slot, this.rgb, slot + 1, moved);
+    System.arraycopy(this.angle, slot, this.angle, slot + 1, moved);
+    this.eventCount++;
+  }
+
+  /**
+   * Closes the slot at the given index, shifting the later slots down.
+   */
+  private void closeSlot(int slot) {
+    int slots = this.eventCount + 1;
+    int moved = slots - slot - 1;
+    System.arraycopy(this.ticks, slot + 1, this.ticks, slot, moved);
+    System.arraycopy(this.x, slot + 1, this.x, slot, moved);
+    System.arraycopy(this.y, slot + 1, this.y, slot, moved);
+    System.arraycopy(this.w, slot + 1, this.w, slot, moved);
+    System.arraycopy(this.h, slot + 1, this.h, slot, moved);
+    System.arraycopy(this.rgb, slot + 1, this.rgb, slot, moved);
+    System.arraycopy(this.angle, slot + 1, this.angle, slot, moved);
+    this.eventCount--;
+  }
+
+  /**
+   * Builds the event that ends at the given slot.
+   */
+  private EventInstructions eventEndingAt(int slot) {
+    return new EventInstructions(this.ticks[slot - 1], this.ticks[slot],
+            this.x[slot], this.y[slot], this.w[slot], this.h[slot],
+            AnimatedShape.OPAQUE | this.rgb[slot], this.angle[slot]);
+  }
+
+  @Override
+  public IShape getShape() {
+    IShape s = this.template.copy();
+    s.executeInstructions(new EventInstructions(0, 0, this.x[0], this.y[0],
+            this.w[0], this.h[0], this.rgb[0], this.angle[0]));
+    return s;
+  }
+
+  @Override
+  public ArrayList<EventInstructions> getEvents() {
+    ArrayList<EventInstructions> events = new ArrayList<>(this.eventCount);
+    for (int slot = 1; slot <= this.eventCount; slot++) {
+      events.add(this.eventEndingAt(slot));
+    }
+    return events;
+  }
+
+  @Override
+  public ArrayList<EventInstructions> getEventsBetween(int fromTick, int toTick) {
+    // the first event ending at or after fromTick, where the end tick of event i is ticks[i + 1]
+    int lo = 0;
+    int hi = this.eventCount;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (this.ticks[mid + 1] < fromTick) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    ArrayList<EventInstructions> events = new ArrayList<>();
+    for (int i = lo; i < this.eventCount && this.ticks[i] <= toTick; i++) {
+      events.add(this.eventEndingAt(i + 1));
+    }
+    return events;
+  }
+
+  @Override
+  public int getId() {
+    // only the views a model hands out have ids
+    return -1;
+  }
+
+  @Override
+  public IAnimatedShape copy() {
+    return new PrimitiveAnimatedShape(this);
+  }
+
+  @Override
+  public IAnimatedShape copyWithEvents(ArrayList<EventInstructions> events) {
+    PrimitiveAnimatedShape copy = new PrimitiveAnimatedShape(this.getShape());
+    for (EventInstructions e : events) {
+      copy.addEvent(e);
+    }
+    return copy;
+  }
+
+  @Override
+  public java.awt.Rectangle getExtent() {
+    if (this.eventCount == 0) {
+      return new java.awt.Rectangle();
+    }
+    if (this.extent == null) {
+      java.awt.Rectangle r = AnimatedShape.extentOf(this.x[0], this.y[0], this.w[0], this.h[0]);
+      for (int slot = 1; slot <= this.eventCount; slot++) {
+        r.add(AnimatedShape.extentOf(this.x[slot], this.y[slot], this.w[slot], this.h[slot]));
+      }
+      this.extent = r;
+    }
+    return new java.awt.Rectangle(this.extent);
+  }
+
+  @Override
+  public java.awt.Rectangle getSegmentExtent(int segment) {
+    return this.bounds().extentOf(segment);
+  }
+
+  @Override
+  public int getSegmentCount() {
+    return this.eventCount;
+  }
+
+  @Override
+  public int getSegmentStartTick(int segment) {
+    this.checkSegment(segment);
+    return this.ticks[segment];
+  }
+
+  @Override
+  public int getSegmentEndTick(int segment) {
+    this.checkSegment(segment);
+    return this.ticks[segment + 1];
+  }
+
+  /**
+   * Checks the index is one of the events.
+   */
+  private void checkSegment(int segment) {
+    if (segment < 0 || segment >= this.eventCount) {
+      throw new IndexOutOfBoundsException("Index: " + segment + " Size: " + this.eventCount);
+    }
+  }
+
+  @Override
+  public boolean mayOverlap(int fromTick, int toTick, java.awt.Rectangle region) {
+    Utils.requireNonNull(region);
+    return this.bounds().mayOverlap(fromTick, toTick, region);
+  }
+
+  /**
+   * Gets the area swept by each event, working it out again if the keyframes changed. The state
+   * arrays are already laid out the way the bounds want them.
+   */
+  private SegmentBounds bounds() {
+    SegmentBounds b = this.bounds;
+    if (b == null) {
+      b = new SegmentBounds(this.eventCount, this.ticks, this.x, this.y, this.w, this.h,
+              this.angle);
+      this.bounds = b;
+    }
+    return b;
+  }
+
+  @Override
+  public int getStartTick() {
+    return this.eventCount == 0 ? -1 : this.ticks[0];
+  }
+
+  @Override
+  public int getEndTick() {
+    return this.eventCount == 0 ? -1 : this.ticks[this.eventCount];
+  }
+
+  /**
+   * Finds the first event whose span contains the tick, the same way AnimatedShape does.
+   *
+   * @param tick the tick that we want the event for.
+   * @return the index of the event, or -1 if no event contains the tick.
+   */
+  private int findSegment(int tick) {
+    int hint = this.lastSegment;
+    if (this.isFirstSegmentAt(hint, tick)) {
+      return hint;
+    }
+    if (this.isFirstSegmentAt(hint + 1, tick)) {
+      this.lastSegment = hint + 1;
+      return hint + 1;
+    }
+    // the end tick of event i is ticks[i + 1]
+    int lo = 0;
+    int hi = this.eventCount;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (this.ticks[mid + 1] < tick) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    if (lo < this.eventCount && this.ticks[lo] <= tick) {
+      this.lastSegment = lo;
+      return lo;
+    }
+    return -1;
+  }
+
+  /**
+   * Determines if event i is the first event whose span contains the tick.
+   */
+  private boolean isFirstSegmentAt(int i, int tick) {
+    return i >= 0 && i < this.eventCount
+            && this.ticks[i] <= tick && tick <= this.ticks[i + 1]
+            && (i == 0 || this.ticks[i] < tick);
+  }
+
+  @Override
+  public IShape getShapeAtTick(int tick) {
+    if (tick < 0) {
+      throw new IllegalArgumentException(ErrorMessages.BadTickValue.errorMessage());
+    }
+    int i = this.findSegment(tick);
+    if (i < 0) {
+      throw new IllegalArgumentException(ErrorMessages.BadTickValue.errorMessage());
+    }
+    int start = this.ticks[i];
+    int end = this.ticks[i + 1];
+    int from = i;
+    int to = i + 1;
+
+    double wa = AnimatedShape.startWeight(start, end, tick);
+    double wb = AnimatedShape.endWeight(start, end, tick);
+
+    double x = AnimatedShape.blend(this.x[from], this.x[to], wa, wb);
+    double y = AnimatedShape.blend(this.y[from], this.y[to], wa, wb);
+    int height = AnimatedShape.blendInt(this.h[from], this.h[to], wa, wb);
+    int width = AnimatedShape.blendInt(this.w[from], this.w[to], wa, wb);
+    int r = AnimatedShape.blendInt(AnimatedShape.red(this.rgb[from]),
+            AnimatedShape.red(this.rgb[to]), wa, wb);
+    int g = AnimatedShape.blendInt(AnimatedShape.green(this.rgb[from]),
+            AnimatedShape.green(this.rgb[to]), wa, wb);
+    int b = AnimatedShape.blendInt(AnimatedShape.blue(this.rgb[from]),
+            AnimatedShape.blue(this.rgb[to]), wa, wb);
+    int a = (int) AnimatedShape.blend((int) this.angle[from], this.angle[to], wa, wb);
+
+    IShape newShape = this.template.copy();
+    newShape.executeInstructions(new EventInstructions(tick, tick, x, y,
+            width, height, AnimatedShape.OPAQUE | (r << 16) | (g << 8) | b, a));
+    return newShape;
+  }
+
+  @Override
+  public boolean sampleInto(int tick, FrameBuffer frame) {
+    int i = tick < 0 ? -1 : this.findSegment(tick);
+    if (i < 0) {
+      return false;
+    }
+    this.sampleSegmentInto(i, tick, frame);
+    return true;
+  }
+
+  @Override
+  public void sampleSegmentInto(int i, int tick, FrameBuffer frame) {
+    AnimatedShape.sample(frame, this.template, tick, this.ticks[i], this.ticks[i + 1],
+            this.x[i], this.y[i], this.w[i], this.h[i], this.rgb[i], (int) this.angle[i],
+            this.x[i + 1], this.y[i + 1], this.w[i + 1], this.h[i + 1], this.rgb[i + 1],
+            this.angle[i + 1]);
+  }
+
+  @Override
+  public void addEvent(EventInstructions event) {
+    Objects.requireNonNull(event);
+    if (this.eventCount != 0 && this.ticks[this.eventCount] != event.getStartTick()) {
+      throw new IllegalArgumentException(
+              ErrorMessages.InvalidEventAdded.errorMessage("End: " +
+                      this.ticks[this.eventCount] + " Start: " + event.getStartTick()));
+    }
+    this.ensureCapacity(this.eventCount + 2);
+    this.ticks[this.eventCount] = event.getStartTick();
+    this.eventCount++;
+    this.ticks[this.eventCount] = event.getEndTick();
+    this.setState(this.eventCount, event);
+    this.bounds = null;
+    if (this.extent != null) {
+      this.extent.add(AnimatedShape.extentOf(this.x[this.eventCount], this.y[this.eventCount],
+              this.w[this.eventCount], this.h[this.eventCount]));
+    }
+  }
+
+  @Override
+  public int simplify(double pixelTolerance, int colorTolerance) {
+    Utils.requireNonNegative(pixelTolerance, colorTolerance);
+    ArrayList<EventInstructions> simplified =
+            new EventSimplifier(pixelTolerance, colorTolerance).simplify(this.getShape(),
+                    this.getEvents());
+    int removed = this.eventCount - simplified.size();
+    if (removed > 0) {
+      this.eventCount = 0;
+      this.extent = null;
+      this.bounds = null;
+      for (EventInstructions event : simplified) {
+        this.addEvent(event);
+      }
+    }
+    return removed;
+  }
+
+  @Override
+  public void placeKeyFrame(int t, Position2D p, int w, int h, Color c) {
+    this.extent = null;
+    this.bounds = null;
+    int color = c.getRGB();
+    if (this.eventCount == 0) {
+      this.ensureCapacity(2);
+      this.ticks[0] = t;
+      this.ticks[1] = t;
+      this.setState(1, p.getX(), p.getY(), w, h, color, 0);
+      this.eventCount = 1;
+      return;
+    }
+
+    if (this.eventCount == 1 && this.ticks[0] == this.ticks[1]) {
+      int only = this.ticks[0];
+      if (t < only) {
+        // the new keyframe becomes the shape's state, the old one the end of the event
+        this.setState(0, p.getX(), p.getY(), w, h, color, 0);
+        this.angle[1] = 0;
+        this.ticks[0] = t;
+      } else {
+        // the old keyframe becomes the shape's state, the new one the end of the event
+        this.setState(0, this.x[1], this.y[1], this.w[1], this.h[1], this.rgb[1], this.angle[1]);
+        this.setState(1, p.getX(), p.getY(), w, h, color, 0);
+        this.ticks[1] = t;
+      }
+      return;
+    }
+
+    if (t < this.ticks[0]) {
+      // a new first event that ends at the old start tick with the new keyframe's values
+      this.openSlot(1);
+      this.ticks[1] = this.ticks[0];
+      this.ticks[0] = t;
+      this.setState(1, p.getX(), p.getY(), w, h, color, 0);
+    } else if (t > this.ticks[this.eventCount]) {
+      this.ensureCapacity(this.eventCount + 2);
+      this.eventCount++;
+      this.ticks[this.eventCount] = t;
+      this.setState(this.eventCount, p.getX(), p.getY(), w, h, color, 0);
+    } else {
+      for (int i = 0; i < this.eventCount; i++) {
+        int start = this.ticks[i];
+        int end = this.ticks[i + 1];
+        if (start < t && t < end) {
+          this.openSlot(i + 1);
+          this.ticks[i + 1] = t;
+          this.setState(i + 1, p.getX(), p.getY(), w, h, color, 0);
+          this.angle[i + 2] = 0;
+          return;
+        } else if (start == t || end == t) {
+          throw new IllegalArgumentException(ErrorMessages.KeyFrameBadTick.errorMessage());
+        }
+      }
+      throw new IllegalArgumentException(ErrorMessages.BadTickValue.errorMessage());
+    }
+  }
+
+  @Override
+  public void removeKeyFrame(int index) {
+    this.extent = null;
+    this.bounds = null;
+    Utils.requireNonNegative(index);
+    if (index == 0 && this.eventCount == 0) {
+      throw new IllegalArgumentException("The shape must have 1 keyframe to know it's start");
+    }
+
+    if (index > this.eventCount) {
+      throw new IllegalArgumentException("KeyEvent Doesn't exist at this time");
+    }
+
+    if (index == 1 && this.eventCount == 1) {
+      // the only event collapses onto its start tick, ending at the shape's own state
+      this.ticks[1] = this.ticks[0];
+      this.setState(1, this.x[0], this.y[0], this.w[0], this.h[0], this.rgb[0], 0);
+    } else if (index == 0) {
+      // the end of the first event becomes the shape's state, and the next event starts there
+      this.closeSlot(0);
+    } else if (index == this.eventCount) {
+      this.eventCount--;
+    } else {
+      // events index - 1 and index merge, ending at the end of event index
+      this.closeSlot(index);
+      this.angle[index] = 0;
+    }
+  }
+}
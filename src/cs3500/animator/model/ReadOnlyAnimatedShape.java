@@ -0,0 +1,135 @@
+package cs3500.animator.model;
+
+import java.awt.Color;
+import java.util.ArrayList;
+
+import cs3500.animator.misc.ErrorMessages;
+import cs3500.animator.misc.Position2D;
+import cs3500.animator.shapes.IShape;
+
+/**
+ * A read only view of an animated shape that lives in a model. Handing one out costs nothing, the
+ * view reads straight from the shape in the model and so shows its current state, until the model
+ * copies the shape to leave it to a snapshot. Anything that would change the shape throws, callers
+ * that want a shape they can change should ask for one with copy.
+ */
+final class ReadOnlyAnimatedShape implements IAnimatedShape {
+  private final IAnimatedShape shape;
+  private final int id;
+
+  /**
+   * Constructs a read only view of the given shape.
+   *
+   * @param shape the shape to view.
+   * @param id    the id the model gave the shape.
+   */
+  ReadOnlyAnimatedShape(IAnimatedShape shape, int id) {
+    this.shape = shape;
+    this.id = id;
+  }
+
+  @Override
+  public IShape getShape() {
+    return this.shape.getShape();
+  }
+
+  @Override
+  public int getId() {
+    return this.id;
+  }
+
+  @Override
+  public ArrayList<EventInstructions> getEvents() {
+    return this.shape.getEvents();
+  }
+
+  @Override
+  public ArrayList<EventInstructions> getEventsBetween(int fromTick, int toTick) {
+    return this.shape.getEventsBetween(fromTick, toTick);
+  }
+
+  @Override
+  public int getStartTick() {
+    return this.shape.getStartTick();
+  }
+
+  @Override
+  public int getEndTick() {
+    return this.shape.getEndTick();
+  }
+
+  @Override
+  public java.awt.Rectangle getExtent() {
+    return this.shape.getExtent();
+  }
+
+  @Override
+  public java.awt.Rectangle getSegmentExtent(int segment) {
+    return this.shape.getSegmentExtent(segment);
+  }
+
+  @Override
+  public int getSegmentCount() {
+    return this.shape.getSegmentCount();
+  }
+
+  @Override
+  public int getSegmentStartTick(int segment) {
+    return this.shape.getSegmentStartTick(segment);
+  }
+
+  @Override
+  public int getSegmentEndTick(int segment) {
+    return this.shape.getSegmentEndTick(segment);
+  }
+
+  @Override
+  public boolean mayOverlap(int fromTick, int toTick, java.awt.Rectangle region) {
+    return this.shape.mayOverlap(fromTick, toTick, region);
+  }
+
+  @Override
+  public IShape getShapeAtTick(int tick) {
+    return this.shape.getShapeAtTick(tick);
+  }
+
+  @Override
+  public boolean sampleInto(int tick, FrameBuffer frame) {
+    return this.shape.sampleInto(tick, frame);
+  }
+
+  @Override
+  public int simplify(double pixelTolerance, int colorTolerance) {
+    throw new UnsupportedOperationException(ErrorMessages.ReadOnlyShape.errorMessage());
+  }
+
+  @Override
+  public void sampleSegmentInto(int segment, int tick, FrameBuffer frame) {
+    this.shape.sampleSegmentInto(segment, tick, frame);
+  }
+
+  @Override
+  public IAnimatedShape copy() {
+    return this.shape.copy();
+  }
+
+  @Override
+  public IAnimatedShape copyWithEvents(ArrayList<EventInstructions> events) {
+    return this.shape.copyWithEvents(events);
+  }
+
+  @Override
+  public void addEvent(EventInstructions event) {
+    throw new UnsupportedOperationException(ErrorMessages.ReadOnlyShape.errorMessage());
+  }
+
+  @Override
+  public void placeKeyFrame(int t, Position2D p, int w, int h, Color c) {
+    throw new UnsupportedOperationException(ErrorMessages.ReadOnlyShape.errorMessage());
+  }
+
+  @Override
+  public void removeKeyFrame(int index) {
+    throw new UnsupportedOperationException(ErrorMessages.ReadOnlyShape.errorMessage());
+  }
+}
@@ -27,12 +27,91 @@ public interface ReadOnlyIAnimationModel {
   ArrayList<IShape> getShapesFromLayerAtTick(int layer, int tick);
 
   /**
-   * Gets all the animated shapes from the model. Copies a each element in the list.
+   * Samples the shapes of a layer at a given tick into a frame the caller owns, instead of
+   * building a list of shapes. The frame ends up with the same shapes, in the same order and with
+   * the same values, as getShapesFromLayerAtTick would give. Reusing one frame for every tick
+   * means playing an animation doesn't make garbage.
    *
-   * @return an ArrayList of IAnimatedShape.
+   * @param layer the layer we want the shapes from.
+   * @param tick  time tick at which we want the shapes.
+   * @param frame the frame to fill, its old contents are cleared first.
+   * @throws IllegalArgumentException if the tick is negative or the frame is null.
+   */
+  void sampleLayerAtTick(int layer, int tick, FrameBuffer frame);
+
+  /**
+   * Samples the shapes of a layer at a given tick into a frame, just like the other
+   * sampleLayerAtTick, but splits the shapes across the sampler's pool if the layer has more of
+   * them than the sampler's threshold.
+   *
+   * @param layer   the layer we want the shapes from.
+   * @param tick    time tick at which we want the shapes.
+   * @param frame   the frame to fill, its old contents are cleared first.
+   * @param sampler the sampler to split the work with.
+   * @throws IllegalArgumentException if the tick is negative or the frame or sampler is null.
+   */
+  void sampleLayerAtTick(int layer, int tick, FrameBuffer frame, FrameSampler sampler);
+
+  /**
+   * Gets the shapes of a layer that overlap a region at a given tick, in the order they are
+   * drawn. A shape overlaps the region if the box around it, as it is drawn turned by its angle,
+   * shares some area with the region. The shapes of the tick are put in a grid the first time
+   * they are asked about, so asking about many regions at the same tick only samples once.
+   *
+   * @param layer  the layer we want the shapes from.
+   * @param tick   time tick at which we want the shapes.
+   * @param region the region to look in.
+   * @return the shapes overlapping the region, the same as getShapesFromLayerAtTick gives them.
+   * @throws IllegalArgumentException if the tick is negative or the region is null.
+   */
+  ArrayList<IShape> getShapesInRegionAt(int layer, int tick, java.awt.Rectangle region);
+
+  /**
+   * Gets the animated shapes of a layer that might be drawn in a region at some tick from
+   * fromTick to toTick, inclusive, as read only views in the order they are drawn. Each shape is
+   * checked with the rectangles its events sweep through rather than by sampling it, so a shape
+   * can be left out for a whole range of ticks at once. No shape drawn in the region is ever left
+   * out, but a shape that only passes near it may be kept.
+   *
+   * @param layer    the layer we want the shapes from.
+   * @param fromTick the first tick to look at.
+   * @param toTick   the last tick to look at.
+   * @param region   the region to look in.
+   * @return the shapes that might be in the region during the ticks.
+   * @throws IllegalArgumentException if a tick is negative, the ticks are out of order or the
+   *                                  region is null.
+   */
+  ArrayList<IAnimatedShape> getAnimatedShapesInRegion(int layer, int fromTick, int toTick,
+                                                      java.awt.Rectangle region);
+
+  /**
+   * Gets all the animated shapes from the model as read only views. The views are shared rather
+   * than copied, and changing one throws an UnsupportedOperationException. Call copy on a shape to
+   * get one that can be changed.
+   *
+   * @return an ArrayList of read only IAnimatedShape.
    */
   ArrayList<IAnimatedShape> getAllAnimatedShapes();
 
+  /**
+   * Gets all the animated shapes of a layer as read only views, in the order they are drawn, like
+   * getAllAnimatedShapes does for the current layer.
+   *
+   * @param layer the layer we want the shapes from.
+   * @return an ArrayList of read only IAnimatedShape.
+   */
+  ArrayList<IAnimatedShape> getLayerAnimatedShapes(int layer);
+
+  /**
+   * Gets a shape of a layer by the id the layer gave it, as a read only view. The id is used as an
+   * index, so no names are compared.
+   *
+   * @param layer the layer the shape is in.
+   * @param id    the id of the shape, as given by IAnimatedShape.getId or FrameBuffer.getId.
+   * @return the shape, or null if no shape in the layer has that id.
+   */
+  IAnimatedShape getAnimatedShape(int layer, int id);
+
   /**
    * Gets the specified the bounding box to be used for the animation.
    *
@@ -40,6 +119,57 @@ public interface ReadOnlyIAnimationModel {
    */
   java.awt.Rectangle getBounds();
 
+  /**
+   * The first tick any shape in any layer is animated at. Kept up to date as the model changes,
+   * so this doesn't look at the shapes.
+   *
+   * @return the first tick of the animation, or -1 if no shape has any events.
+   */
+  int getStartTick();
+
+  /**
+   * The last tick any shape in any layer is animated at. Kept up to date as the model changes,
+   * so this doesn't look at the shapes.
+   *
+   * @return the last tick of the animation, or -1 if no shape has any events.
+   */
+  int getEndTick();
+
+  /**
+   * The smallest rectangle that holds every shape in every layer at every tick, ignoring
+   * rotation. Kept up to date as the model changes, so this doesn't look at the shapes.
+   *
+   * @return the extent of the animation, or an empty rectangle at the origin if no shape has any
+   *         events.
+   */
+  java.awt.Rectangle getExtent();
+
+  /**
+   * The first tick any shape in the given layer is animated at.
+   *
+   * @param layer the layer we want the first tick of.
+   * @return the first tick of the layer, or -1 if no shape in it has any events.
+   */
+  int getLayerStartTick(int layer);
+
+  /**
+   * The last tick any shape in the given layer is animated at.
+   *
+   * @param layer the layer we want the last tick of.
+   * @return the last tick of the layer, or -1 if no shape in it has any events.
+   */
+  int getLayerEndTick(int layer);
+
+  /**
+   * The smallest rectangle that holds every shape in the given layer at every tick, ignoring
+   * rotation.
+   *
+   * @param layer the layer we want the extent of.
+   * @return the extent of the layer, or an empty rectangle at the origin if no shape in it has
+   *         any events.
+   */
+  java.awt.Rectangle getLayerExtent(int layer);
+
   /**
    * The current layer that the model is set to.
    * Default is 0.
@@ -55,10 +185,58 @@ public interface ReadOnlyIAnimationModel {
    */
   int layerCount();
 
+  /**
+   * Gets the id of the layer at the given position. A layer keeps its id when layers are moved,
+   * added or deleted around it, and no two layers of a model ever get the same id.
+   * @param layer the position of the layer, 0 being the bottom.
+   * @return the id of that layer.
+   * @throws IndexOutOfBoundsException if there is no layer at that position.
+   */
+  int getLayerId(int layer);
+
+  /**
+   * Finds where the layer with the given id is in the stack of layers.
+   * @param id the id of the layer, as given by getLayerId.
+   * @return the position of the layer, or -1 if no layer has that id.
+   */
+  int getLayerIndex(int id);
+
+  /**
+   * A number that goes up every time the model is changed, and never goes down. If two calls
+   * return the same version then nothing in the model changed between them.
+   *
+   * @return the current version of the model.
+   */
+  long getVersion();
+
+  /**
+   * Adds a listener that is told about every change made to the model from now on.
+   *
+   * @param listener the listener to add.
+   * @throws IllegalArgumentException if the listener is null.
+   */
+  void addModelListener(IModelListener listener);
+
+  /**
+   * Removes a listener added with addModelListener. Does nothing if it was never added.
+   *
+   * @param listener the listener to remove.
+   */
+  void removeModelListener(IModelListener listener);
+
   /**
    * Determines if the layer passed in is enabled or not.
    * @param layer the layer in question.
    * @return which lay is enabled or disabled.
    */
   boolean isEnabled(int layer);
+
+  /**
+   * Gets a view of this model whose reads all agree with each other, for a reader that makes
+   * several reads that have to describe the same state, like drawing every layer of a frame. A
+   * model that is only ever used from one thread can return itself.
+   *
+   * @return a view of this model as it is now.
+   */
+  ReadOnlyIAnimationModel consistentView();
 }
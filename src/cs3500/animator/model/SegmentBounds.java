@@ -0,0 +1,162 @@
+package cs3500.animator.model;
+
+import java.util.Arrays;
+
+/**
+ * The area a shape sweeps through during each of its events, kept as a tree so a whole range of
+ * ticks can be checked against a region at once. A shape tweens in a straight line from the
+ * start of an event to its end, position and size alike, so the box around it at the start and
+ * the box around it at the end hold it at every tick in between. Each leaf of the tree is that
+ * box for one event, and each node above holds the boxes and ticks of the events below it.
+ *
+ * <p>A shape that is turned during an event is given, at both ends, the square around the
+ * circle it can turn in, which holds it at any angle. Its center and size tween in straight
+ * lines, so those squares hold it in between as well. The squares are a pixel wider than they
+ * need be, since views turn shapes about a center rounded down to the pixel.</p>
+ *
+ * <p>An event that starts and ends on the same tick tweens the shape to 0, so its box also holds
+ * the origin.</p>
+ *
+ * <p>Bounds are never changed after they are built, so they can be shared between threads.</p>
+ */
+final class SegmentBounds {
+  private final int leaves; // the number of leaves, a power of two at least the number of events
+  private final int events;
+
+  // node n has children 2n and 2n + 1, node 1 is the root and event i is leaf leaves + i
+  private final int[] firstTick;
+  private final int[] lastTick;
+  private final double[] minX;
+  private final double[] minY;
+  private final double[] maxX;
+  private final double[] maxY;
+
+  /**
+   * Builds the bounds of a shape's events from its keyframes. Slot 0 of the arrays holds the
+   * shape before its first event and slot k the end of event k - 1, like PrimitiveAnimatedShape
+   * keeps them. Event i runs from ticks[i] to ticks[i + 1].
+   *
+   * @param events the number of events.
+   * @param ticks  the tick of each slot.
+   * @param x      the x position at each slot.
+   * @param y      the y position at each slot.
+   * @param w      the width at each slot.
+   * @param h      the height at each slot.
+   * @param angle  the angle at each slot.
+   */
+  SegmentBounds(int events, int[] ticks, double[] x, double[] y, int[] w, int[] h,
+                double[] angle) {
+    this.events = events;
+    int leaves = 1;
+    while (leaves < events) {
+      leaves *= 2;
+    }
+    this.leaves = leaves;
+    this.firstTick = new int[2 * leaves];
+    this.lastTick = new int[2 * leaves];
+    this.minX = new double[2 * leaves];
+    this.minY = new double[2 * leaves];
+    this.maxX = new double[2 * leaves];
+    this.maxY = new double[2 * leaves];
+    // nodes with no events under them cover no ticks, so every query skips them
+    Arrays.fill(this.firstTick, Integer.MAX_VALUE);
+    Arrays.fill(this.lastTick, Integer.MIN_VALUE);
+    Arrays.fill(this.minX, Double.POSITIVE_INFINITY);
+    Arrays.fill(this.minY, Double.POSITIVE_INFINITY);
+    Arrays.fill(this.maxX, Double.NEGATIVE_INFINITY);
+    Arrays.fill(this.maxY, Double.NEGATIVE_INFINITY);
+
+    for (int i = 0; i < events; i++) {
+      int n = leaves + i;
+      this.firstTick[n] = ticks[i];
+      this.lastTick[n] = ticks[i + 1];
+      boolean turned = angle[i] != 0 || angle[i + 1] != 0;
+      for (int slot = i; slot <= i + 1; slot++) {
+        double halfX = w[slot] / 2.0;
+        double halfY = h[slot] / 2.0;
+        if (turned) {
+          halfX = Math.sqrt((double) w[slot] * w[slot] + (double) h[slot] * h[slot]) / 2 + 1;
+          halfY = halfX;
+        }
+        double centerX = x[slot] + w[slot] / 2.0;
+        double centerY = y[slot] + h[slot] / 2.0;
+        this.minX[n] = Math.min(this.minX[n], centerX - halfX);
+        this.minY[n] = Math.min(this.minY[n], centerY - halfY);
+        this.maxX[n] = Math.max(this.maxX[n], centerX + halfX);
+        this.maxY[n] = Math.max(this.maxY[n], centerY + halfY);
+      }
+      if (ticks[i] == ticks[i + 1]) {
+        this.minX[n] = Math.min(this.minX[n], 0);
+        this.minY[n] = Math.min(this.minY[n], 0);
+        this.maxX[n] = Math.max(this.maxX[n], 0);
+        this.maxY[n] = Math.max(this.maxY[n], 0);
+      }
+    }
+    for (int n = leaves - 1; n >= 1; n--) {
+      int a = 2 * n;
+      int b = a + 1;
+      this.firstTick[n] = Math.min(this.firstTick[a], this.firstTick[b]);
+      this.lastTick[n] = Math.max(this.lastTick[a], this.lastTick[b]);
+      this.minX[n] = Math.min(this.minX[a], this.minX[b]);
+      this.minY[n] = Math.min(this.minY[a], this.minY[b]);
+      this.maxX[n] = Math.max(this.maxX[a], this.maxX[b]);
+      this.maxY[n] = Math.max(this.maxY[a], this.maxY[b]);
+    }
+  }
+
+  /**
+   * The smallest whole-pixel rectangle that holds the shape at every tick of one event.
+   *
+   * @param segment the index of the event.
+   * @return the rectangle around the event.
+   * @throws IndexOutOfBoundsException if there is no such event.
+   */
+  java.awt.Rectangle extentOf(int segment) {
+    if (segment < 0 || segment >= this.events) {
+      throw new IndexOutOfBoundsException("Index: " + segment + " Size: " + this.events);
+    }
+    return this.rectangleOf(this.leaves + segment);
+  }
+
+  /**
+   * The smallest whole-pixel rectangle around the box of a node.
+   */
+  private java.awt.Rectangle rectangleOf(int n) {
+    int x0 = (int) Math.floor(this.minX[n]);
+    int y0 = (int) Math.floor(this.minY[n]);
+    int x1 = (int) Math.ceil(this.maxX[n]);
+    int y1 = (int) Math.ceil(this.maxY[n]);
+    return new java.awt.Rectangle(x0, y0, x1 - x0, y1 - y0);
+  }
+
+  /**
+   * Determines if the shape might be in the region at some tick from fromTick to toTick,
+   * inclusive. Only events that overlap the ticks are looked at, and a whole run of them is
+   * skipped at once when the box around the run misses the region.
+   *
+   * @param fromTick the first tick to look at.
+   * @param toTick   the last tick to look at.
+   * @param region   the region to look in.
+   * @return false only if the shape is outside the region at every one of the ticks.
+   */
+  boolean mayOverlap(int fromTick, int toTick, java.awt.Rectangle region) {
+    // a pixel of slack, since tweening rounds positions a little past the keyframes
+    return this.events > 0 && this.mayOverlap(1, fromTick, toTick, region.getMinX() - 1,
+            region.getMinY() - 1, region.getMaxX() + 1, region.getMaxY() + 1);
+  }
+
+  /**
+   * Determines if any event under node n might put the shape in the region during the ticks.
+   */
+  private boolean mayOverlap(int n, int fromTick, int toTick, double x0, double y0, double x1,
+                             double y1) {
+    if (this.firstTick[n] > toTick || this.lastTick[n] < fromTick
+            || this.minX[n] > x1 || this.maxX[n] < x0
+            || this.minY[n] > y1 || this.maxY[n] < y0) {
+      return false;
+    }
+    return n >= this.leaves
+            || this.mayOverlap(2 * n, fromTick, toTick, x0, y0, x1, y1)
+            || this.mayOverlap(2 * n + 1, fromTick, toTick, x0, y0, x1, y1);
+  }
+}
@@ -0,0 +1,406 @@
+package cs3500.animator.model;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * An interval index over the lifetimes of the shapes in a model. Each shape is stored with the
+ * first and last tick it is animated at, so asking which shapes are alive at a tick only visits
+ * the shapes whose lifetimes could contain that tick instead of every shape in the model.
+ *
+ * <p>The index is a treap ordered by start tick (ties broken by the ids the model gave the
+ * shapes, which count up in the order they were placed) where every node also remembers the
+ * largest end tick in its subtree. A query skips any subtree whose largest end tick is before the
+ * tick, and any subtree that starts after it.</p>
+ *
+ * <p>Every node also keeps the smallest start tick and the area covered by the shapes in its
+ * subtree, so the start tick, end tick and extent of the whole index can be read off the root.</p>
+ *
+ * <p>Nodes are never changed after they are built; inserting and removing copy the path from the
+ * root instead.</p>
+ */
+final class ShapeLifetimeIndex {
+
+  /**
+   * A single shape's lifetime in the treap.
+   */
+  private static final class Node {
+    private final int start;
+    private final int end;
+    private final int id;
+    private final IAnimatedShape shape;
+    private final Rectangle extent;
+    private final long priority;
+    private final Node left;
+    private final Node right;
+    private final int maxEnd;
+    private final int minStart;
+    private final int minX;
+    private final int minY;
+    private final int maxX;
+    private final int maxY;
+
+    /**
+     * Builds a node and computes the tick range and area of the subtree it roots.
+     */
+    private Node(int start, int end, int id, IAnimatedShape shape, Rectangle extent,
+                 long priority, Node left, Node right) {
+      this.start = start;
+      this.end = end;
+      this.id = id;
+      this.shape = shape;
+      this.extent = extent;
+      this.priority = priority;
+      this.left = left;
+      this.right = right;
+      // keyed by start tick, so the smallest start is always down the left
+      this.minStart = left == null ? start : left.minStart;
+      this.maxEnd = Math.max(end, Math.max(maxEnd(left), maxEnd(right)));
+      this.minX = Math.min(extent.x, Math.min(minX(left), minX(right)));
+      this.minY = Math.min(extent.y, Math.min(minY(left), minY(right)));
+      this.maxX = Math.max(extent.x + extent.width, Math.max(maxX(left), maxX(right)));
+      this.maxY = Math.max(extent.y + extent.height, Math.max(maxY(left), maxY(right)));
+    }
+
+    /**
+     * The largest end tick under n, or Integer.MIN_VALUE if there is no subtree.
+     */
+    private static int maxEnd(Node n) {
+      return n == null ? Integer.MIN_VALUE : n.maxEnd;
+    }
+
+    /**
+     * The smallest x under n, or Integer.MAX_VALUE if there is no subtree.
+     */
+    private static int minX(Node n) {
+      return n == null ? Integer.MAX_VALUE : n.minX;
+    }
+
+    /**
+     * The smallest y under n, or Integer.MAX_VALUE if there is no subtree.
+     */
+    private static int minY(Node n) {
+      return n == null ? Integer.MAX_VALUE : n.minY;
+    }
+
+    /**
+     * The largest x under n, or Integer.MIN_VALUE if there is no subtree.
+     */
+    private static int maxX(Node n) {
+      return n == null ? Integer.MIN_VALUE : n.maxX;
+    }
+
+    /**
+     * The largest y under n, or Integer.MIN_VALUE if there is no subtree.
+     */
+    private static int maxY(Node n) {
+      return n == null ? Integer.MIN_VALUE : n.maxY;
+    }
+
+    /**
+     * A copy of this node with different children.
+     */
+    private Node withChildren(Node left, Node right) {
+      return new Node(this.start, this.end, this.id, this.shape, this.extent, this.priority,
+              left, right);
+    }
+
+    /**
+     * Compares the key of this node with the given key.
+     */
+    private int compareTo(int start, int id) {
+      if (this.start != start) {
+        return Integer.compare(this.start, start);
+      }
+      return Integer.compare(this.id, id);
+    }
+  }
+
+  private Node root;
+  private int size;
+
+  /**
+   * Constructs an empty index.
+   */
+  ShapeLifetimeIndex() {
+    this.root = null;
+    this.size = 0;
+  }
+
+  /**
+   * Copies this index. Nodes are never changed, so the copy shares every node with this index and
+   * this only costs the new index object.
+   *
+   * @return an index that can be changed without changing this one
+   */
+  ShapeLifetimeIndex copy() {
+    ShapeLifetimeIndex copy = new ShapeLifetimeIndex();
+    copy.root = this.root;
+    copy.size = this.size;
+    return copy;
+  }
+
+  /**
+   * How many shapes are in this index.
+   */
+  int size() {
+    return this.size;
+  }
+
+  /**
+   * The first tick any shape in this index is animated at.
+   *
+   * @return the smallest start tick, or -1 if the index is empty
+   */
+  int startTick() {
+    return this.root == null ? -1 : this.root.minStart;
+  }
+
+  /**
+   * The last tick any shape in this index is animated at.
+   *
+   * @return the largest end tick, or -1 if the index is empty
+   */
+  int endTick() {
+    return this.root == null ? -1 : this.root.maxEnd;
+  }
+
+  /**
+   * The smallest rectangle holding the extents of every shape in this index.
+   *
+   * @return the extent, or an empty rectangle at the origin if the index is empty
+   */
+  Rectangle extent() {
+    if (this.root == null) {
+      return new Rectangle();
+    }
+    return new Rectangle(this.root.minX, this.root.minY,
+            this.root.maxX - this.root.minX, this.root.maxY - this.root.minY);
+  }
+
+  /**
+   * Adds a shape that lives from start to end, inclusive.
+   *
+   * @param start  the first tick the shape is animated at
+   * @param end    the last tick the shape is animated at
+   * @param id     the id of the shape, unique within the model and also its draw order
+   * @param shape  the shape itself
+   * @param extent the area the shape covers while it is animated, not changed afterwards
+   */
+  void insert(int start, int end, int id, IAnimatedShape shape, Rectangle extent) {
+    this.root = insert(this.root, new Node(start, end, id, shape, extent, priorityOf(id),
+            null, null));
+    this.size++;
+  }
+
+  /**
+   * Removes the shape with the given start tick and id, if it is in the index.
+   *
+   * @param start the start tick the shape was inserted with
+   * @param id    the id the shape was inserted with
+   */
+  void remove(int start, int id) {
+    Node[] removed = new Node[1];
+    this.root = remove(this.root, start, id, removed);
+    if (removed[0] != null) {
+      this.size--;
+    }
+  }
+
+  /**
+   * Gets the shapes alive at the given tick, in draw order.
+   *
+   * @param tick the tick we want the shapes at
+   * @return the shapes whose lifetime contains the tick
+   */
+  ArrayList<IAnimatedShape> shapesAt(int tick) {
+    ArrayList<Node> found = new ArrayList<>();
+    collect(this.root, tick, found);
+    found.sort((a, b) -> Integer.compare(a.id, b.id));
+    ArrayList<IAnimatedShape> shapes = new ArrayList<>(found.size());
+    for (Node n : found) {
+      shapes.add(n.shape);
+    }
+    return shapes;
+  }
+
+  /**
+   * Finds the shapes that might be drawn in the region at some tick from fromTick to toTick,
+   * inclusive. Only shapes whose lifetimes overlap the ticks are looked at, and
+   * those are checked against the region with the areas their events sweep, without sampling.
+   *
+   * @param fromTick the first tick to look at
+   * @param toTick   the last tick to look at
+   * @param region   the region to look in
+   * @return the ids of the shapes that might be in the region during the ticks, sorted, which is
+   *         also their draw order
+   */
+  int[] shapesIn(int fromTick, int toTick, Rectangle region) {
+    ArrayList<Node> found = new ArrayList<>();
+    collect(this.root, fromTick, toTick, found);
+    int[] ids = new int[found.size()];
+    int count = 0;
+    for (Node n : found) {
+      if (n.shape.mayOverlap(fromTick, toTick, region)) {
+        ids[count++] = n.id;
+      }
+    }
+    ids = Arrays.copyOf(ids, count);
+    Arrays.sort(ids);
+    return ids;
+  }
+
+  /**
+   * Adds the shapes alive at the given tick to the end of the frame, in draw order. Allocates
+   * nothing beyond what the frame needs to grow.
+   *
+   * @param tick  the tick we want the shapes at
+   * @param frame the frame to add the shapes to
+   */
+  void sampleAt(int tick, FrameBuffer frame) {
+    int from = frame.size();
+    sample(this.root, tick, frame);
+    frame.sortById(from);
+  }
+
+  /**
+   * Adds the shapes alive at the given tick to the end of the frame, in draw order, splitting the
+   * shapes across the sampler's pool when there are enough of them.
+   *
+   * @param tick    the tick we want the shapes at
+   * @param frame   the frame to add the shapes to
+   * @param sampler the sampler whose pool and threshold to use
+   */
+  void sampleAt(int tick, FrameBuffer frame, FrameSampler sampler) {
+    if (this.size <= sampler.threshold()) {
+      this.sampleAt(tick, frame);
+      return;
+    }
+    ArrayList<Node> found = new ArrayList<>();
+    collect(this.root, tick, found);
+    found.sort((a, b) -> Integer.compare(a.id, b.id));
+    sampler.sampleAll(found.size(), (i, part) -> {
+      Node n = found.get(i);
+      if (n.shape.sampleInto(tick, part)) {
+        part.setLastId(n.id);
+      }
+    }, frame);
+  }
+
+  /**
+   * Samples every shape under n whose lifetime contains the tick into the frame.
+   */
+  private static void sample(Node n, int tick, FrameBuffer frame) {
+    while (n != null && n.maxEnd >= tick) {
+      sample(n.left, tick, frame);
+      if (n.start > tick) {
+        return;
+      }
+      if (n.end >= tick && n.shape.sampleInto(tick, frame)) {
+        frame.setLastId(n.id);
+      }
+      n = n.right;
+    }
+  }
+
+  /**
+   * Adds every node under n whose lifetime contains the tick to found.
+   */
+  private static void collect(Node n, int tick, ArrayList<Node> found) {
+    collect(n, tick, tick, found);
+  }
+
+  /**
+   * Adds every node under n whose lifetime overlaps the ticks from fromTick to toTick, inclusive,
+   * to found.
+   */
+  private static void collect(Node n, int fromTick, int toTick, ArrayList<Node> found) {
+    while (n != null && n.maxEnd >= fromTick) {
+      collect(n.left, fromTick, toTick, found);
+      if (n.start > toTick) {
+        // everything to the right starts even later
+        return;
+      }
+      if (n.end >= fromTick) {
+        found.add(n);
+      }
+      n = n.right;
+    }
+  }
+
+  /**
+   * Inserts the node into the treap rooted at n.
+   *
+   * @return the new root of the treap
+   */
+  private static Node insert(Node n, Node node) {
+    if (n == null) {
+      return node;
+    }
+    if (node.compareTo(n.start, n.id) < 0) {
+      Node left = insert(n.left, node);
+      if (left.priority > n.priority) {
+        return left.withChildren(left.left, n.withChildren(left.right, n.right));
+      }
+      return n.withChildren(left, n.right);
+    } else {
+      Node right = insert(n.right, node);
+      if (right.priority > n.priority) {
+        return right.withChildren(n.withChildren(n.left, right.left), right.right);
+      }
+      return n.withChildren(n.left, right);
+    }
+  }
+
+  /**
+   * Removes the node with the given key from the treap rooted at n.
+   *
+   * @param removed holds the removed node, if there was one
+   * @return the new root of the treap
+   */
+  private static Node remove(Node n, int start, int id, Node[] removed) {
+    if (n == null) {
+      return null;
+    }
+    int cmp = n.compareTo(start, id);
+    if (cmp == 0) {
+      removed[0] = n;
+      return merge(n.left, n.right);
+    }
+    if (cmp > 0) {
+      Node left = remove(n.left, start, id, removed);
+      return left == n.left ? n : n.withChildren(left, n.right);
+    } else {
+      Node right = remove(n.right, start, id, removed);
+      return right == n.right ? n : n.withChildren(n.left, right);
+    }
+  }
+
+  /**
+   * Merges two treaps where every key in a is smaller than every key in b.
+   */
+  private static Node merge(Node a, Node b) {
+    if (a == null) {
+      return b;
+    }
+    if (b == null) {
+      return a;
+    }
+    if (a.priority > b.priority) {
+      return a.withChildren(a.left, merge(a.right, b));
+    }
+    return b.withChildren(merge(a, b.left), b.right);
+  }
+
+  /**
+   * Scrambles the id into a heap priority so the treap stays balanced no matter what
+   * order the shapes are inserted in.
+   */
+  private static long priorityOf(int id) {
+    long z = id + 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
@@ -80,12 +80,12 @@ public class SourceToProviderModel extends SimpleAnimationImpl {
                             time,
                             shape.getHeight(),
                             shape.getWidth(),
-                            (int) shape.getPosition().getX(),
-                            (int) shape.getPosition().getY(),
+                            (int) shape.getX(),
+                            (int) shape.getY(),
                             new cs3500.animator.provider.util.Color(
-                                    shape.getColor().getRed(),
-                                    shape.getColor().getGreen(),
-                                    shape.getColor().getBlue()
+                                    AnimatedShape.red(shape.getRgb()),
+                                    AnimatedShape.green(shape.getRgb()),
+                                    AnimatedShape.blue(shape.getRgb())
                             ),
                             this.convertShapeType(shape.asString()))
             )
@@ -99,10 +99,7 @@ public class SourceToProviderModel extends SimpleAnimationImpl {
    */
   @Override
   public int getFinalTime() {
-    return this.srcModel.getAllAnimatedShapes()
-            .stream()
-            .map(s -> s.getEvents().get(s.getEvents().size() - 1).getEndTick())
-            .max(Integer::compare).get();
+    return this.srcModel.getEndTick();
   }
 
   /**
@@ -271,44 +268,50 @@ public class SourceToProviderModel extends SimpleAnimationImpl {
 
     for (IAnimatedShape shape : this.srcModel.getAllAnimatedShapes()) {
 
-      for (int i = 0; i < shape.getEvents().size(); i++) {
-        EventInstructions e = shape.getEvents().get(i);
+      ArrayList<EventInstructions> events = shape.getEvents();
+      IShape start = shape.getShape();
+      for (int i = 0; i < events.size(); i++) {
+        EventInstructions e = events.get(i);
 
         boolean startEventIsPosition = i == 0;
-        Position2D startPosn;
+        double startX;
+        double startY;
         int startHeight;
         int startWidth;
-        Color startColor;
+        int startRgb;
         if (startEventIsPosition) {
-          startPosn = shape.getShape().getPosition();
-          startHeight = shape.getShape().getHeight();
-          startWidth = shape.getShape().getWidth();
-          startColor = shape.getShape().getColor();
+          startX = start.getX();
+          startY = start.getY();
+          startHeight = start.getHeight();
+          startWidth = start.getWidth();
+          startRgb = start.getRgb();
         } else {
-          startPosn = shape.getEvents().get(i - 1).getEndPosn();
-          startHeight = shape.getEvents().get(i - 1).getEndHeight();
-          startWidth = shape.getEvents().get(i - 1).getEndWidth();
-          startColor = shape.getEvents().get(i - 1).getEndColor();
+          EventInstructions prev = events.get(i - 1);
+          startX = prev.getEndX();
+          startY = prev.getEndY();
+          startHeight = prev.getEndHeight();
+          startWidth = prev.getEndWidth();
+          startRgb = prev.getEndRgb();
         }
 
         motions.add(
                 new Motion(
-                        shape.getShape().getName(),
+                        start.getName(),
                         e.getStartTick(),
                         e.getEndTick(),
-                        (int) startPosn.getX(),
-                        (int) startPosn.getY(),
-                        (int) e.getEndPosn().getX(),
-                        (int) e.getEndPosn().getY(),
+                        (int) startX,
+                        (int) startY,
+                        (int) e.getEndX(),
+                        (int) e.getEndY(),
                         new cs3500.animator.provider.util.Color(
-                                startColor.getRed(),
-                                startColor.getGreen(),
-                                startColor.getBlue()
+                                AnimatedShape.red(startRgb),
+                                AnimatedShape.green(startRgb),
+                                AnimatedShape.blue(startRgb)
                         ),
                         new cs3500.animator.provider.util.Color(
-                                e.getEndColor().getRed(),
-                                e.getEndColor().getGreen(),
-                                e.getEndColor().getBlue()
+                                AnimatedShape.red(e.getEndRgb()),
+                                AnimatedShape.green(e.getEndRgb()),
+                                AnimatedShape.blue(e.getEndRgb())
                         ),
                         startWidth,
                         startHeight,
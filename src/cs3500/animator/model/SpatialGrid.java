@@ -0,0 +1,205 @@
+package cs3500.animator.model;
+
+import java.awt.Rectangle;
+import java.util.Arrays;
+
+/**
+ * A uniform grid over the shapes of one sampled frame, used to find the shapes that overlap a
+ * region without checking every shape. The area the frame covers is cut into about as many cells
+ * as there are shapes, and each shape is listed in every cell its box touches. A query only looks
+ * at the shapes listed in the cells the region touches.
+ *
+ * <p>A shape whose box touches more than a handful of cells, like a background, is kept out of
+ * the cells and checked by every query instead, so a few big shapes can't fill the grid.</p>
+ *
+ * <p>A grid is never changed after it is built, so it can be shared between threads.</p>
+ */
+final class SpatialGrid {
+  // no side of the grid is cut into more cells than this
+  private static final int MAX_CELLS_PER_SIDE = 1024;
+  // a shape touching more cells than this is checked by every query rather than listed
+  private static final int MAX_CELLS_PER_SHAPE = 64;
+
+  private final FrameBuffer frame;
+  private final int tick;
+  private final long version;
+
+  private final double originX;
+  private final double originY;
+  private final double cellWidth;
+  private final double cellHeight;
+  private final int columns;
+  private final int rows;
+
+  // the shapes listed in cell c are cellShapes[cellStart[c]] up to cellShapes[cellStart[c + 1]]
+  private final int[] cellStart;
+  private final int[] cellShapes;
+  private final int[] bigShapes;
+
+  /**
+   * Builds a grid over the shapes of the frame. The grid keeps the frame, which must not be
+   * changed afterwards.
+   *
+   * @param frame   the sampled frame.
+   * @param tick    the tick the frame was sampled at.
+   * @param version the version of the model the frame was sampled from.
+   */
+  SpatialGrid(FrameBuffer frame, int tick, long version) {
+    this.frame = frame;
+    this.tick = tick;
+    this.version = version;
+    int n = frame.size();
+
+    double minX = Double.POSITIVE_INFINITY;
+    double minY = Double.POSITIVE_INFINITY;
+    double maxX = Double.NEGATIVE_INFINITY;
+    double maxY = Double.NEGATIVE_INFINITY;
+    for (int i = 0; i < n; i++) {
+      minX = Math.min(minX, frame.minX(i));
+      minY = Math.min(minY, frame.minY(i));
+      maxX = Math.max(maxX, frame.maxX(i));
+      maxY = Math.max(maxY, frame.maxY(i));
+    }
+    if (n == 0) {
+      minX = minY = maxX = maxY = 0;
+    }
+    // cells about square, and about one for every shape
+    double side = Math.sqrt(Math.max(1, (maxX - minX) * (maxY - minY)) / Math.max(1, n));
+    this.columns = clamp((int) Math.ceil((maxX - minX) / side), 1, MAX_CELLS_PER_SIDE);
+    this.rows = clamp((int) Math.ceil((maxY - minY) / side), 1, MAX_CELLS_PER_SIDE);
+    this.originX = minX;
+    this.originY = minY;
+    this.cellWidth = Math.max(Double.MIN_NORMAL, (maxX - minX) / this.columns);
+    this.cellHeight = Math.max(Double.MIN_NORMAL, (maxY - minY) / this.rows);
+
+    // count the shapes in each cell, then lay the cells out one after another and fill them
+    int[] counts = new int[this.columns * this.rows + 1];
+    int big = 0;
+    for (int i = 0; i < n; i++) {
+      if (this.isBig(i)) {
+        big++;
+        continue;
+      }
+      for (int row = this.row(frame.minY(i)); row <= this.row(frame.maxY(i)); row++) {
+        for (int col = this.column(frame.minX(i)); col <= this.column(frame.maxX(i)); col++) {
+          counts[row * this.columns + col + 1]++;
+        }
+      }
+    }
+    for (int c = 1; c < counts.length; c++) {
+      counts[c] += counts[c - 1];
+    }
+    this.cellStart = counts.clone();
+    this.cellShapes = new int[counts[counts.length - 1]];
+    this.bigShapes = new int[big];
+    big = 0;
+    for (int i = 0; i < n; i++) {
+      if (this.isBig(i)) {
+        this.bigShapes[big++] = i;
+        continue;
+      }
+      for (int row = this.row(frame.minY(i)); row <= this.row(frame.maxY(i)); row++) {
+        for (int col = this.column(frame.minX(i)); col <= this.column(frame.maxX(i)); col++) {
+          this.cellShapes[counts[row * this.columns + col]++] = i;
+        }
+      }
+    }
+  }
+
+  /**
+   * The tick the grid's frame was sampled at.
+   */
+  int tick() {
+    return this.tick;
+  }
+
+  /**
+   * The version of the model the grid's frame was sampled from.
+   */
+  long version() {
+    return this.version;
+  }
+
+  /**
+   * The frame the grid was built over.
+   */
+  FrameBuffer frame() {
+    return this.frame;
+  }
+
+  /**
+   * Finds the shapes whose boxes overlap the region.
+   *
+   * @param region the region to look in.
+   * @return the entries of the frame that overlap it, in draw order.
+   */
+  int[] query(Rectangle region) {
+    int[] found = new int[8];
+    int count = 0;
+    for (int i : this.bigShapes) {
+      if (this.frame.intersects(i, region)) {
+        if (count == found.length) {
+          found = Arrays.copyOf(found, count * 2);
+        }
+        found[count++] = i;
+      }
+    }
+    int firstRow = this.row(region.y);
+    int lastRow = this.row(region.y + region.height);
+    int firstColumn = this.column(region.x);
+    int lastColumn = this.column(region.x + region.width);
+    for (int row = firstRow; row <= lastRow; row++) {
+      for (int col = firstColumn; col <= lastColumn; col++) {
+        int cell = row * this.columns + col;
+        for (int k = this.cellStart[cell]; k < this.cellStart[cell + 1]; k++) {
+          int i = this.cellShapes[k];
+          // a shape listed in several cells the region touches is only taken from the first
+          // of them, the one at its own top left or the region's, whichever is further in
+          if (row != Math.max(firstRow, this.row(this.frame.minY(i)))
+                  || col != Math.max(firstColumn, this.column(this.frame.minX(i)))
+                  || !this.frame.intersects(i, region)) {
+            continue;
+          }
+          if (count == found.length) {
+            found = Arrays.copyOf(found, count * 2);
+          }
+          found[count++] = i;
+        }
+      }
+    }
+    // entries are numbered in draw order
+    found = Arrays.copyOf(found, count);
+    Arrays.sort(found);
+    return found;
+  }
+
+  /**
+   * Determines if the i-th shape touches too many cells to be listed in them.
+   */
+  private boolean isBig(int i) {
+    long cells = (long) (this.row(this.frame.maxY(i)) - this.row(this.frame.minY(i)) + 1)
+            * (this.column(this.frame.maxX(i)) - this.column(this.frame.minX(i)) + 1);
+    return cells > MAX_CELLS_PER_SHAPE;
+  }
+
+  /**
+   * The column of the grid the given x is in, or the nearest one if it is outside the grid.
+   */
+  private int column(double x) {
+    return clamp((int) Math.floor((x - this.originX) / this.cellWidth), 0, this.columns - 1);
+  }
+
+  /**
+   * The row of the grid the given y is in, or the nearest one if it is outside the grid.
+   */
+  private int row(double y) {
+    return clamp((int) Math.floor((y - this.originY) / this.cellHeight), 0, this.rows - 1);
+  }
+
+  /**
+   * Clamps the value to the range from min to max, inclusive.
+   */
+  private static int clamp(int value, int min, int max) {
+    return Math.max(min, Math.min(max, value));
+  }
+}
@@ -310,9 +310,10 @@ public class SimpleAnimationImpl implements ISimpleAnimation {
    * @return the final time of the animation.
    */
   public int getFinalTime() {
-    ArrayList<Motion> endTimeSorted = new ArrayList<>(changes);
-    Comparator<Motion> byEndTime = Comparator.comparing(Motion::getEndTime);
-    endTimeSorted.sort(byEndTime);
-    return endTimeSorted.get(endTimeSorted.size() - 1).getEndTime();
+    int finalTime = changes.get(0).getEndTime();
+    for (Motion change : changes) {
+      finalTime = Math.max(finalTime, change.getEndTime());
+    }
+    return finalTime;
   }
 }
\ No newline at end of file
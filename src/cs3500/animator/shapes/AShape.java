@@ -22,10 +22,13 @@ import cs3500.animator.model.EventInstructions;
  * </pre>
  */
 public abstract class AShape implements IShape {
-  private Position2D position; // INVARIANT: Position must be positive
+  private static final int OPAQUE = 0xFF000000; // the alpha bits of a fully opaque color
+
+  private double x; // INVARIANT: Position must be positive
+  private double y; // INVARIANT: Position must be positive
   private int width; // INVARIANT: Position must be positive
   private int height; // INVARIANT: Position must be positive
-  private Color color;
+  private int rgb; // the color packed as ARGB
   private String name; // INVARIANT: Name must not be null or non empty
   private double angle;
   // INVARIANTS: Width and height are greater than or equal to zero
@@ -46,10 +49,12 @@ public abstract class AShape implements IShape {
       throw new IllegalArgumentException("Please pass in a valid name");
     }
     this.name = name;
-    this.position = position;
+    Utils.requireNonNull(position, color);
+    this.x = position.getX();
+    this.y = position.getY();
     this.width = width;
     this.height = height;
-    this.color = color;
+    this.rgb = color.getRGB();
   }
 
 
@@ -69,10 +74,28 @@ public abstract class AShape implements IShape {
       throw new IllegalArgumentException("Please pass in a valid name");
     }
     this.name = name;
-    this.position = position;
+    Utils.requireNonNull(position, color);
+    this.x = position.getX();
+    this.y = position.getY();
     this.width = width;
     this.height = height;
-    this.color = color;
+    this.rgb = color.getRGB();
+    this.angle = angle;
+  }
+
+  /**
+   * Copy constructor, duplicates the shape passed in. The copy shares the name string.
+   *
+   * @param other the shape we want to copy.
+   * @param angle the angle the copy is rotated by.
+   */
+  AShape(AShape other, double angle) {
+    this.name = other.name;
+    this.x = other.x;
+    this.y = other.y;
+    this.width = other.width;
+    this.height = other.height;
+    this.rgb = OPAQUE | other.rgb; // like new Color(int), the copy is fully opaque
     this.angle = angle;
   }
 
@@ -86,10 +109,11 @@ public abstract class AShape implements IShape {
     if (Objects.isNull(e)) {
       throw new IllegalArgumentException("Please pass in a non-null event instructions");
     }
-    this.position = e.getEndPosn();
+    this.x = e.getEndX();
+    this.y = e.getEndY();
     this.width = e.getEndWidth();
     this.height = e.getEndHeight();
-    this.color = e.getEndColor();
+    this.rgb = OPAQUE | e.getEndRgb(); // getEndColor is always fully opaque
     this.angle = e.getEndAngle();
   }
 
@@ -99,7 +123,17 @@ public abstract class AShape implements IShape {
    * @return the current position
    */
   public Position2D getPosition() {
-    return this.position;
+    return new Position2D(this.x, this.y);
+  }
+
+  @Override
+  public double getX() {
+    return this.x;
+  }
+
+  @Override
+  public double getY() {
+    return this.y;
   }
 
   /**
@@ -136,7 +170,12 @@ public abstract class AShape implements IShape {
    * @return the color of the shape
    */
   public Color getColor() {
-    return this.color;
+    return new Color(this.rgb, true);
+  }
+
+  @Override
+  public int getRgb() {
+    return this.rgb;
   }
 
   /**
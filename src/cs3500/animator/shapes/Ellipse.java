@@ -44,14 +44,7 @@ public class Ellipse extends AShape {
    * @param ellipse object we want to copy.
    */
   public Ellipse(Ellipse ellipse) {
-    this(
-            ellipse.getName(),
-            new Position2D(ellipse.getPosition()),
-            ellipse.getWidth(),
-            ellipse.getHeight(),
-            new Color(ellipse.getColor().getRGB()),
-            ellipse.getAngle()
-    );
+    super(ellipse, ellipse.getAngle());
   }
 
   /**
@@ -18,6 +18,20 @@ public interface IShape {
    */
   Position2D getPosition();
 
+  /**
+   * The current x position of the shape, without building a position.
+   *
+   * @return the current x position
+   */
+  double getX();
+
+  /**
+   * The current y position of the shape, without building a position.
+   *
+   * @return the current y position
+   */
+  double getY();
+
   /**
    * Gets the width of the shape.
    *
@@ -46,6 +60,13 @@ public interface IShape {
    */
   Color getColor();
 
+  /**
+   * Gets the color of the shape packed as an ARGB int, without building a color.
+   *
+   * @return the color of the shape
+   */
+  int getRgb();
+
   /**
    * Executes the given event instructions on the shape.
    *
@@ -40,14 +40,7 @@ public class Rectangle extends AShape {
    * Copy constructor, duplicates the object passed in.
    */
   public Rectangle(Rectangle rectangle) {
-    this(
-            rectangle.getName(),
-            new Position2D(rectangle.getPosition()),
-            rectangle.getWidth(),
-            rectangle.getHeight(),
-            new Color(rectangle.getColor().getRGB()),
-            rectangle.getAngle()
-    );
+    super(rectangle, rectangle.getAngle());
   }
 
   /**
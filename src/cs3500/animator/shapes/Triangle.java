@@ -28,13 +28,8 @@ public class Triangle extends AShape {
    * @param triangle object we want to copy.
    */
   public Triangle(Triangle triangle) {
-    this(
-            triangle.getName(),
-            new Position2D(triangle.getPosition()),
-            triangle.getWidth(),
-            triangle.getHeight(),
-            new Color(triangle.getColor().getRGB())
-    );
+    // triangles have never kept their angle when copied
+    super(triangle, 0);
   }
 
   /**
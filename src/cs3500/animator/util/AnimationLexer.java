@@ -0,0 +1,231 @@
+package cs3500.animator.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+
+/**
+ * Splits animation input into tokens the way a Scanner splitting at whitespace and # comments
+ * would, without regular expressions. Integers are read straight out of the characters of their
+ * token, and a string is only made for a token that is asked for as one. The strings for the last
+ * few distinct tokens are kept and handed out again, so a keyword or a shape name that comes up
+ * line after line is only made once.
+ *
+ * <p>Whitespace is a space, tab, line feed, vertical tab, form feed or carriage return. A # ends
+ * the token it is in, if any, and starts a comment running to the end of its line.</p>
+ *
+ * <p>Subclasses find the tokens in their kind of input and copy each into the token array; this
+ * class works out what the tokens read as.</p>
+ */
+abstract class AnimationLexer implements ITokenStream {
+  private static final int RECENT_TOKENS = 16; // a power of two
+
+  // the token that has been looked at but not taken, valid while peeked is set
+  private char[] token = new char[64];
+  private int tokenLength;
+  private boolean peeked;
+
+  // what the peeked token reads as, valid while parsed is set
+  private boolean parsed;
+  private boolean isInt;
+  private boolean overflowed;
+  private int intValue;
+
+  private final String[] recent = new String[RECENT_TOKENS];
+
+  @Override
+  public boolean hasNext() {
+    return this.peeked || this.peek();
+  }
+
+  @Override
+  public String next() {
+    if (!this.hasNext()) {
+      throw new NoSuchElementException();
+    }
+    this.peeked = false;
+    int hash = 0;
+    for (int i = 0; i < this.tokenLength; i++) {
+      hash = 31 * hash + this.token[i];
+    }
+    int slot = (hash ^ (hash >>> 16)) & (RECENT_TOKENS - 1);
+    String s = this.recent[slot];
+    if (s == null || !this.tokenEquals(s)) {
+      s = new String(this.token, 0, this.tokenLength);
+      this.recent[slot] = s;
+    }
+    return s;
+  }
+
+  @Override
+  public boolean hasNextInt() {
+    return this.hasNext() && this.parse();
+  }
+
+  @Override
+  public int nextInt() {
+    if (!this.hasNext()) {
+      throw new NoSuchElementException();
+    }
+    if (!this.parse()) {
+      // a token that looks like an integer but is out of range, as a Scanner reports it
+      throw this.overflowed
+              ? new InputMismatchException("For input string: \""
+                      + new String(this.token, 0, this.tokenLength) + "\"")
+              : new InputMismatchException();
+    }
+    this.peeked = false;
+    return this.intValue;
+  }
+
+  /**
+   * Skips whitespace and comments, then copies the next token into the token array with
+   * startToken and append.
+   *
+   * @return false if the input ended before another token.
+   */
+  abstract boolean readToken();
+
+  /**
+   * Starts copying a new token, throwing away the one before it.
+   */
+  final void startToken() {
+    this.tokenLength = 0;
+  }
+
+  /**
+   * Adds a character to the end of the token being copied.
+   */
+  final void append(char c) {
+    if (this.tokenLength == this.token.length) {
+      this.token = Arrays.copyOf(this.token, this.tokenLength * 2);
+    }
+    this.token[this.tokenLength++] = c;
+  }
+
+  /**
+   * Decodes the token being copied as UTF-8, for lexers that copy a token in a byte at a time.
+   * Each character of the token must hold one byte.
+   */
+  final void decodeToken() {
+    byte[] bytes = new byte[this.tokenLength];
+    for (int i = 0; i < this.tokenLength; i++) {
+      bytes[i] = (byte) this.token[i];
+    }
+    String s = new String(bytes, StandardCharsets.UTF_8);
+    this.startToken();
+    for (int i = 0; i < s.length(); i++) {
+      this.append(s.charAt(i));
+    }
+  }
+
+  /**
+   * Looks at the next token without taking it.
+   */
+  private boolean peek() {
+    if (!this.readToken()) {
+      return false;
+    }
+    this.peeked = true;
+    this.parsed = false;
+    return true;
+  }
+
+  /**
+   * Works out whether the peeked token is an integer, and its value if so.
+   */
+  private boolean parse() {
+    if (this.parsed) {
+      return this.isInt;
+    }
+    this.parsed = true;
+    this.isInt = false;
+    this.overflowed = false;
+    int i = 0;
+    boolean negative = false;
+    if (this.tokenLength > 0 && (this.token[0] == '-' || this.token[0] == '+')) {
+      negative = this.token[0] == '-';
+      i = 1;
+    }
+    if (i == this.tokenLength) {
+      return false;
+    }
+    long value = 0;
+    for (; i < this.tokenLength; i++) {
+      char c = this.token[i];
+      if (c < '0' || c > '9') {
+        return this.parseLikeScanner();
+      }
+      if (value <= Integer.MAX_VALUE + 1L) {
+        value = value * 10 + (c - '0');
+      }
+    }
+    if (negative) {
+      value = -value;
+    }
+    if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+      this.overflowed = true;
+      return false;
+    }
+    this.intValue = (int) value;
+    this.isInt = true;
+    return true;
+  }
+
+  /**
+   * Works out whether the peeked token is an integer the slow way, by asking a Scanner. Only
+   * tokens made of signs, digits and commas come here, which covers the digits of other scripts
+   * and the grouped numbers like 1,000 a Scanner also reads as integers.
+   */
+  private boolean parseLikeScanner() {
+    for (int i = 0; i < this.tokenLength; i++) {
+      char c = this.token[i];
+      if (c != '-' && c != '+' && c != ',' && !Character.isDigit(c)) {
+        return false;
+      }
+    }
+    Scanner s = new Scanner(new String(this.token, 0, this.tokenLength));
+    if (s.hasNextInt()) {
+      this.intValue = s.nextInt();
+      this.isInt = true;
+      return true;
+    }
+    try {
+      s.nextInt();
+    } catch (InputMismatchException e) {
+      this.overflowed = e.getMessage() != null;
+    }
+    return false;
+  }
+
+  /**
+   * Determines if the peeked token is made of the same characters as the string.
+   */
+  private boolean tokenEquals(String s) {
+    if (s.length() != this.tokenLength) {
+      return false;
+    }
+    for (int i = 0; i < this.tokenLength; i++) {
+      if (s.charAt(i) != this.token[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Determines if the character is whitespace between tokens.
+   */
+  static boolean isSpace(char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+  }
+
+  /**
+   * Determines if the character ends a line.
+   */
+  static boolean isLineBreak(char c) {
+    return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+  }
+}
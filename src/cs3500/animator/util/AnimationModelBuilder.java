@@ -1,13 +1,17 @@
 package cs3500.animator.util;
 
 import java.awt.Color;
-import java.util.HashMap;
+import java.util.Arrays;
 
+import cs3500.animator.misc.ErrorMessages;
 import cs3500.animator.misc.Position2D;
-import cs3500.animator.model.AnimatedShape;
+import cs3500.animator.misc.SymbolTable;
+import cs3500.animator.misc.Utils;
 import cs3500.animator.model.EventInstructions;
+import cs3500.animator.model.IAnimatedShape;
 import cs3500.animator.model.IAnimationModel;
 import cs3500.animator.model.LayeredModelImpl;
+import cs3500.animator.model.PrimitiveAnimatedShape;
 import cs3500.animator.shapes.Ellipse;
 import cs3500.animator.shapes.IShape;
 import cs3500.animator.shapes.Rectangle;
@@ -22,17 +26,34 @@ public class AnimationModelBuilder implements AnimationBuilder<IAnimationModel>
   private final String RECTANGLE = "rectangle";
 
   private IAnimationModel model;
-  private HashMap<String, String> declaredShapes;
-  private HashMap<String, Integer> shapeToLayer;
+  // the names of the shapes declared to this builder, each with an id counting up from 0
+  private final SymbolTable names = new SymbolTable();
+  // all indexed by the id of a shape's name: the type of a shape declared but not placed yet,
+  // the layer a shape was declared in, or -1 if it was never declared, and the id the layer gave
+  // the shape once it was placed, which its motions are added by
+  private String[] declaredTypes;
+  private int[] shapeToLayer;
+  private int[] modelIds;
 
   /**
    * Initializes local state variables for the Builder object.
    */
   public AnimationModelBuilder() {
-    this.model = new LayeredModelImpl();
-    this.declaredShapes = new HashMap<>();
-    this.shapeToLayer = new HashMap<>();
+    this(new LayeredModelImpl());
+  }
 
+  /**
+   * Initializes a builder that builds into the given model instead of a new one.
+   *
+   * @param model the model to build into.
+   * @throws IllegalArgumentException if the model is null.
+   */
+  public AnimationModelBuilder(IAnimationModel model) {
+    Utils.requireNonNull(model);
+    this.model = model;
+    this.declaredTypes = new String[0];
+    this.shapeToLayer = new int[0];
+    this.modelIds = new int[0];
   }
 
   @Override
@@ -72,26 +93,67 @@ public class AnimationModelBuilder implements AnimationBuilder<IAnimationModel>
 
   @Override
   public AnimationBuilder<IAnimationModel> declareShape(String name, String type) {
-    this.declaredShapes.put(name, type);
-    this.shapeToLayer.put(name, this.model.getCurrentLayer());
+    int id = this.names.intern(name);
+    if (id >= this.shapeToLayer.length) {
+      int capacity = Math.max(id + 1, 2 * this.shapeToLayer.length);
+      this.declaredTypes = Arrays.copyOf(this.declaredTypes, capacity);
+      int old = this.shapeToLayer.length;
+      this.shapeToLayer = Arrays.copyOf(this.shapeToLayer, capacity);
+      Arrays.fill(this.shapeToLayer, old, capacity, -1);
+      this.modelIds = Arrays.copyOf(this.modelIds, capacity);
+    }
+    this.declaredTypes[id] = type;
+    this.shapeToLayer[id] = this.model.getCurrentLayer();
     return this;
   }
 
+  /**
+   * Gets the id of a declared shape's name.
+   *
+   * @param name the name of the shape.
+   * @return the id of the name.
+   * @throws IllegalArgumentException if no shape with that name was declared.
+   */
+  private int declaredId(String name) {
+    int id = this.names.idOf(name);
+    if (id < 0 || id >= this.shapeToLayer.length || this.shapeToLayer[id] < 0) {
+      throw new IllegalArgumentException(ErrorMessages.ShapeNotInModel.errorMessage());
+    }
+    return id;
+  }
+
+  /**
+   * Gets a declared shape as it is in the model so far, found by the id the model gave it.
+   *
+   * @param name the name of the shape.
+   * @return a read only view of the shape, or null if it hasn't been placed in the model yet.
+   * @throws IllegalArgumentException if no shape with that name was declared.
+   */
+  IAnimatedShape placedShape(String name) {
+    int id = this.declaredId(name);
+    if (this.declaredTypes[id] != null) {
+      return null;
+    }
+    return this.model.getAnimatedShape(this.shapeToLayer[id], this.modelIds[id]);
+  }
+
   @Override
   public AnimationBuilder<IAnimationModel> addMotion(
           String name, int t1, int x1, int y1, int w1, int h1, int r1, int g1, int b1, int a1,
           int t2, int x2, int y2, int w2, int h2, int r2, int g2, int b2, int a2) {
-    this.model.setCurrentLayer(this.shapeToLayer.get(name));
-    if (this.declaredShapes.containsKey(name)) {
-      this.model.placeAnimatedShape(
-              new AnimatedShape(
-                      this.iShapeBuilder(name,
-                              this.declaredShapes.get(name),
+    int id = this.declaredId(name);
+    this.model.setCurrentLayer(this.shapeToLayer[id]);
+    if (this.declaredTypes[id] != null) {
+      // the shape keeps the table's copy of the name, so the file's copies can be let go
+      this.modelIds[id] = this.model.placeAnimatedShape(
+              new PrimitiveAnimatedShape(
+                      this.iShapeBuilder(this.names.nameOf(id),
+                              this.declaredTypes[id],
                               new Position2D(x1, y1), w1, h1,
                               new Color(r1, g1, b1), a1)));
-      this.declaredShapes.remove(name);
+      this.declaredTypes[id] = null;
     }
-    this.model.addEventInstructionToShape(name,
+    this.model.addEventInstructionToShape(this.modelIds[id],
             new EventInstructions(t1, t2, new Position2D(x2, y2), w2, h2,
                     new Color(r2, g2, b2), a2));
 
@@ -101,7 +163,7 @@ public class AnimationModelBuilder implements AnimationBuilder<IAnimationModel>
   @Override
   public AnimationBuilder<IAnimationModel> addKeyframe(String name, int t, int x, int y,
                                                        int w, int h, int r, int g, int b) {
-    this.model.setCurrentLayer(this.shapeToLayer.get(name));
+    this.model.setCurrentLayer(this.shapeToLayer[this.declaredId(name)]);
     this.model.placeKeyFrame(name, t, new Position2D(x, y), w, h, new Color(r, g, b));
     return null;
   }
@@ -1,10 +1,12 @@
 package cs3500.animator.util;
 
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Objects;
-import java.util.Scanner;
-import java.util.regex.Pattern;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * A helper to read animation data and construct an animation from it. Basically all this do is
@@ -13,6 +15,7 @@ import java.util.regex.Pattern;
  */
 public class AnimationReader {
   private static final int VALS_FOR_ANGLE = 18;
+  private static final int PARALLEL_CHUNK_SIZE = 1 << 22;
 
   /**
    * A factory for producing new animations, given a source of shapes and a builder for constructing
@@ -39,9 +42,100 @@ public class AnimationReader {
   public static <Doc> Doc parseFile(Readable readable, AnimationBuilder<Doc> builder) {
     Objects.requireNonNull(readable, "Must have non-null readable source");
     Objects.requireNonNull(builder, "Must provide a non-null AnimationBuilder");
-    Scanner s = new Scanner(readable);
+    return parse(new ReadableLexer(readable), builder);
+  }
+
+  /**
+   * Reads the animation in the file the same way {@link #parseFile(Readable, AnimationBuilder)}
+   * reads one, but maps the file into memory and reads its bytes in place instead of decoding it
+   * into characters, which is much faster for big files. Files bigger than can be mapped at once
+   * are mapped a window at a time. Names in the file are read as UTF-8.
+   *
+   * @param path    the file with the animation
+   * @param builder A builder for helping to construct a new animation
+   * @param <Doc>   The main model interface type describing animations
+   * @throws IOException if the file can't be read
+   */
+  public static <Doc> Doc parseFile(Path path, AnimationBuilder<Doc> builder)
+          throws IOException {
+    return parseFile(path, builder, MappedFileLexer.WINDOW_SIZE);
+  }
+
+  /**
+   * Reads the animation in the file like {@link #parseFile(Path, AnimationBuilder)}, mapping at
+   * most the given number of bytes of it at once.
+   *
+   * @param path       the file with the animation
+   * @param builder    A builder for helping to construct a new animation
+   * @param windowSize the most bytes of the file to map at once, which must be positive
+   * @param <Doc>      The main model interface type describing animations
+   * @throws IOException if the file can't be read
+   */
+  public static <Doc> Doc parseFile(Path path, AnimationBuilder<Doc> builder, int windowSize)
+          throws IOException {
+    Objects.requireNonNull(path, "Must have non-null path");
+    Objects.requireNonNull(builder, "Must provide a non-null AnimationBuilder");
+    if (windowSize <= 0) {
+      throw new IllegalArgumentException("Windows must be at least one byte");
+    }
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      return parse(new MappedFileLexer(channel, 0, channel.size(), windowSize), builder);
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * Reads the animation in the file the same way {@link #parseFile(Path, AnimationBuilder)}
+   * does, but splits the file into tokens on the common fork/join pool, many chunks of the file
+   * at once. The builder is still handed every line in the order it is in the file, on the
+   * calling thread, so it builds exactly what a parse on one thread would, and bad input is
+   * reported the same way.
+   *
+   * @param path    the file with the animation
+   * @param builder A builder for helping to construct a new animation
+   * @param <Doc>   The main model interface type describing animations
+   * @throws IOException if the file can't be read
+   */
+  public static <Doc> Doc parseFileInParallel(Path path, AnimationBuilder<Doc> builder)
+          throws IOException {
+    return parseFileInParallel(path, builder, ForkJoinPool.commonPool(), PARALLEL_CHUNK_SIZE);
+  }
+
+  /**
+   * Reads the animation in the file like {@link #parseFileInParallel(Path, AnimationBuilder)},
+   * splitting it into tokens on the given pool a chunk of about the given size at a time.
+   *
+   * @param path      the file with the animation
+   * @param builder   A builder for helping to construct a new animation
+   * @param pool      the pool to split the file into tokens on
+   * @param chunkSize about how many bytes of the file to split at a time, which must be positive
+   * @param <Doc>     The main model interface type describing animations
+   * @throws IOException if the file can't be read
+   */
+  public static <Doc> Doc parseFileInParallel(Path path, AnimationBuilder<Doc> builder,
+                                              ForkJoinPool pool, int chunkSize)
+          throws IOException {
+    Objects.requireNonNull(path, "Must have non-null path");
+    Objects.requireNonNull(builder, "Must provide a non-null AnimationBuilder");
+    Objects.requireNonNull(pool, "Must provide a non-null pool");
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("Chunks must be at least one byte");
+    }
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+         ParallelTokenStream tokens = new ParallelTokenStream(channel, pool, chunkSize)) {
+      return parse(tokens, builder);
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * Reads every line the lexer finds, handing each to the builder.
+   */
+  private static <Doc> Doc parse(ITokenStream s, AnimationBuilder<Doc> builder) {
     // Split at whitespace, and ignore # comment lines
-    s.useDelimiter(Pattern.compile("(\\p{Space}+|#.*)+"));
+    int[] vals = new int[VALS_FOR_ANGLE];
     while (s.hasNext()) {
       String word = s.next();
       switch (word) {
@@ -52,13 +146,13 @@ public class AnimationReader {
           readShape(s, builder);
           break;
         case "motion":
-          readMotion(s, builder);
+          readMotion(s, builder, vals);
           break;
         case "layer":
           readLayer(s, builder);
           break;
         default:
-          throw new IllegalStateException("Unexpected keyword: " + word + s.nextLine());
+          throw new IllegalStateException("Unexpected keyword: " + word + s.restOfLine());
       }
     }
     return builder.build();
@@ -67,7 +161,7 @@ public class AnimationReader {
   /**
    * Reads and sets the current layer at which we are building our object from.
    */
-  private static <Doc> void readLayer(Scanner s, AnimationBuilder<Doc> builder) {
+  private static <Doc> void readLayer(ITokenStream s, AnimationBuilder<Doc> builder) {
     if (s.hasNext()) {
       builder.setLayer(s.nextInt());
     } else {
@@ -75,7 +169,7 @@ public class AnimationReader {
     }
   }
 
-  private static <Doc> void readCanvas(Scanner s, AnimationBuilder<Doc> builder) {
+  private static <Doc> void readCanvas(ITokenStream s, AnimationBuilder<Doc> builder) {
     int[] vals = new int[4];
     String[] fieldNames = {"left", "top", "width", "height"};
     for (int i = 0; i < 4; i++) {
@@ -84,7 +178,7 @@ public class AnimationReader {
     builder.setBounds(vals[0], vals[1], vals[2], vals[3]);
   }
 
-  private static <Doc> void readShape(Scanner s, AnimationBuilder<Doc> builder) {
+  private static <Doc> void readShape(ITokenStream s, AnimationBuilder<Doc> builder) {
     String name;
     String type;
     if (s.hasNext()) {
@@ -100,76 +194,46 @@ public class AnimationReader {
     builder.declareShape(name, type);
   }
 
-  private static <Doc> void readMotion(Scanner s, AnimationBuilder<Doc> builder) {
-
-    ArrayList<String> fieldNames = new ArrayList<>(Arrays.asList(new String[]{
-        "initial time",
-        "initial x-coordinate", "initial y-coordinate",
-        "initial width", "initial height",
-        "initial red value", "initial green value", "initial blue value", "initial angle",
-        "final time",
-        "final x-coordinate", "final y-coordinate",
-        "final width", "final height",
-        "final red value", "final green value", "final blue value", "final angle",
-    }));
-
+  /**
+   * Reads a motion, taking every integer that follows the shape's name. Eighteen integers give
+   * the angles too, and otherwise the first sixteen are used and the angles are 0.
+   *
+   * @param vals room for the integers, reused from one motion to the next.
+   */
+  private static <Doc> void readMotion(ITokenStream s, AnimationBuilder<Doc> builder,
+                                       int[] vals) {
     String name;
     if (s.hasNext()) {
       name = s.next();
     } else {
       throw new IllegalStateException("Motion: Expected a shape name, but no more input available");
     }
-    ArrayList<Integer> valsList = new ArrayList<>();
-
+    int count = 0;
     while (s.hasNextInt()) {
-      valsList.add(s.nextInt());
+      int val = s.nextInt();
+      if (count < vals.length) {
+        vals[count] = val;
+      }
+      count++;
     }
-    if (valsList.size() != VALS_FOR_ANGLE) {
-      fieldNames.remove("initial angle");
-      fieldNames.remove("final angle");
+    if (count != VALS_FOR_ANGLE) {
+      if (count < VALS_FOR_ANGLE - 2) {
+        // as reading the missing value out of a list of the values would report it
+        throw new IndexOutOfBoundsException(
+                "Index " + count + " out of bounds for length " + count);
+      }
       builder.addMotion(name,
-              valsList.get(0),
-              valsList.get(1),
-              valsList.get(2),
-              valsList.get(3),
-              valsList.get(4),
-              valsList.get(5),
-              valsList.get(6),
-              valsList.get(7),
-              0,
-              valsList.get(8),
-              valsList.get(9),
-              valsList.get(10),
-              valsList.get(11),
-              valsList.get(12),
-              valsList.get(13),
-              valsList.get(14),
-              valsList.get(15),
-              0);
+              vals[0], vals[1], vals[2], vals[3], vals[4], vals[5], vals[6], vals[7], 0,
+              vals[8], vals[9], vals[10], vals[11], vals[12], vals[13], vals[14], vals[15], 0);
     } else {
       builder.addMotion(name,
-              valsList.get(0),
-              valsList.get(1),
-              valsList.get(2),
-              valsList.get(3),
-              valsList.get(4),
-              valsList.get(5),
-              valsList.get(6),
-              valsList.get(7),
-              valsList.get(8),
-              valsList.get(9),
-              valsList.get(10),
-              valsList.get(11),
-              valsList.get(12),
-              valsList.get(13),
-              valsList.get(14),
-              valsList.get(15),
-              valsList.get(16),
-              valsList.get(17));
+              vals[0], vals[1], vals[2], vals[3], vals[4], vals[5], vals[6], vals[7], vals[8],
+              vals[9], vals[10], vals[11], vals[12], vals[13], vals[14], vals[15], vals[16],
+              vals[17]);
     }
   }
 
-  private static int getInt(Scanner s, String label, String fieldName) {
+  private static int getInt(ITokenStream s, String label, String fieldName) {
     if (s.hasNextInt()) {
       return s.nextInt();
     } else if (s.hasNext()) {
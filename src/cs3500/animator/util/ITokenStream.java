@@ -0,0 +1,46 @@
+package cs3500.animator.util;
+
+/**
+ * The tokens of animation input, taken one at a time. A token can be taken as a string or, if it
+ * reads as one, as an integer, with the same results a Scanner splitting at whitespace and #
+ * comments would give.
+ */
+interface ITokenStream {
+
+  /**
+   * Determines if there is another token.
+   */
+  boolean hasNext();
+
+  /**
+   * Takes the next token.
+   *
+   * @return the token.
+   * @throws java.util.NoSuchElementException if there are no more tokens.
+   */
+  String next();
+
+  /**
+   * Determines if there is another token and it is an integer a Scanner would read.
+   */
+  boolean hasNextInt();
+
+  /**
+   * Takes the next token as an integer.
+   *
+   * @return the integer.
+   * @throws java.util.NoSuchElementException if there are no more tokens.
+   * @throws java.util.InputMismatchException if the next token isn't an integer, which is left
+   *                                          untaken.
+   */
+  int nextInt();
+
+  /**
+   * Takes what is left of the current line, leaving out the line break, the way
+   * Scanner.nextLine does. Tokens looked at but not taken are not counted.
+   *
+   * @return the rest of the line.
+   * @throws java.util.NoSuchElementException if the input has ended.
+   */
+  String restOfLine();
+}
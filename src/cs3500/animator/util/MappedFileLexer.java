@@ -0,0 +1,179 @@
+package cs3500.animator.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+
+/**
+ * A lexer that reads a file's bytes out of memory the file is mapped into, without decoding them
+ * into characters first. Bytes are copied out of the mapping a block at a time, since reading an
+ * array is quicker than reading a mapped buffer a byte at a time. The grammar is all ASCII, so
+ * whitespace, comments and integers are found by looking at single bytes. Bytes of a token that
+ * aren't ASCII are decoded as UTF-8, which is safe to do a token at a time since no byte of a
+ * UTF-8 character outside ASCII looks like an ASCII one.
+ *
+ * <p>The file is mapped a window at a time, each window starting where the one before it ends,
+ * so files bigger than one mapping can hold are read the same way. A token can straddle two
+ * windows. The lexer can be given just part of a file, and several lexers can read parts of the
+ * same file at once.</p>
+ *
+ * <p>Unlike the Readable lexer, a comment only ends at a line feed or carriage return, not at
+ * the line breaks outside ASCII.</p>
+ */
+final class MappedFileLexer extends AnimationLexer {
+  static final int WINDOW_SIZE = 1 << 28;
+  private static final int CHUNK_SIZE = 1 << 16;
+
+  private final FileChannel channel;
+  private final long start;
+  private final long end;
+  private final int windowSize;
+  private long windowStart; // where in the file the window starts
+  private MappedByteBuffer window;
+  // the bytes being read, copied out of the window a block at a time
+  private final byte[] chunk = new byte[CHUNK_SIZE];
+  private int position;
+  private int limit;
+
+  // where in the file the last token looked at starts and ends
+  private long tokenStart;
+  private long tokenEnd;
+
+  /**
+   * Constructs a lexer over part of an open file. The file must stay open while the lexer is
+   * used.
+   *
+   * @param channel    the file.
+   * @param start      where in the file to start reading.
+   * @param end        where in the file to stop reading.
+   * @param windowSize the most bytes of the file to map at once.
+   */
+  MappedFileLexer(FileChannel channel, long start, long end, int windowSize) {
+    this.channel = channel;
+    this.start = start;
+    this.end = end;
+    this.windowSize = windowSize;
+  }
+
+  /**
+   * Where in the file the last token looked at starts.
+   */
+  long tokenStart() {
+    return this.tokenStart;
+  }
+
+  /**
+   * Where in the file the last token looked at ends, which is just past its last byte.
+   */
+  long tokenEnd() {
+    return this.tokenEnd;
+  }
+
+  @Override
+  public String restOfLine() {
+    ByteArrayOutputStream line = new ByteArrayOutputStream();
+    boolean any = false;
+    while (this.position < this.limit || this.fill()) {
+      byte b = this.chunk[this.position++];
+      any = true;
+      if (b == '\n' || b == '\r') {
+        break;
+      }
+      line.write(b);
+    }
+    if (!any) {
+      throw new NoSuchElementException("No line found");
+    }
+    String s = new String(line.toByteArray(), StandardCharsets.UTF_8);
+    for (int i = 0; i < s.length(); i++) {
+      if (isLineBreak(s.charAt(i))) {
+        return s.substring(0, i);
+      }
+    }
+    return s;
+  }
+
+  @Override
+  boolean readToken() {
+    this.skipDelimiters();
+    if (this.position >= this.limit) {
+      return false;
+    }
+    this.startToken();
+    this.tokenStart = this.offset();
+    boolean ascii = true;
+    while (this.position < this.limit || this.fill()) {
+      byte b = this.chunk[this.position];
+      if (b == '#' || (b >= 0 && isSpace((char) b))) {
+        break;
+      }
+      ascii &= b >= 0;
+      this.append((char) (b & 0xFF));
+      this.position++;
+    }
+    this.tokenEnd = this.offset();
+    if (!ascii) {
+      this.decodeToken();
+    }
+    return true;
+  }
+
+  /**
+   * Moves past whitespace and comments, leaving the position at the start of the next token or
+   * at the end of the window if the file has ended.
+   */
+  private void skipDelimiters() {
+    boolean inComment = false;
+    while (this.position < this.limit || this.fill()) {
+      byte b = this.chunk[this.position];
+      if (inComment) {
+        inComment = b != '\n' && b != '\r';
+      } else if (b == '#') {
+        inComment = true;
+      } else if (b < 0 || !isSpace((char) b)) {
+        return;
+      }
+      this.position++;
+    }
+  }
+
+  /**
+   * Where in the file the next byte to be read is.
+   */
+  private long offset() {
+    return this.window == null
+            ? this.start : this.windowStart + this.window.position() - this.limit + this.position;
+  }
+
+  /**
+   * Copies the next block of the window into the chunk once the chunk has been used up, mapping
+   * the next window of the file once the window has been used up too.
+   *
+   * @return false if the file has ended.
+   * @throws UncheckedIOException if the file can't be mapped.
+   */
+  private boolean fill() {
+    if (this.window == null || !this.window.hasRemaining()) {
+      long next = this.window == null ? this.start : this.windowStart + this.window.limit();
+      if (next >= this.end) {
+        this.position = this.limit;
+        return false;
+      }
+      int length = (int) Math.min(this.windowSize, this.end - next);
+      try {
+        this.window = this.channel.map(FileChannel.MapMode.READ_ONLY, next, length);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      this.windowStart = next;
+    }
+    this.limit = Math.min(this.chunk.length, this.window.remaining());
+    this.window.get(this.chunk, 0, this.limit);
+    this.position = 0;
+    return true;
+  }
+}
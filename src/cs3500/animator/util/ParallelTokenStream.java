@@ -0,0 +1,218 @@
+package cs3500.animator.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * The tokens of a file, split into tokens on many threads at once. The file is cut into chunks
+ * that each end just after a line feed, and each chunk is split by its own MappedFileLexer on a
+ * worker thread. Neither a token nor a comment can run past a line feed, so the chunks hold
+ * exactly the tokens a single lexer over the whole file would find. The tokens are then handed
+ * out in the order they are in the file, so whoever takes them sees the same stream either way.
+ *
+ * <p>Only a few chunks are split ahead of the one being taken from, which bounds how much of the
+ * file is held as tokens at once.</p>
+ *
+ * <p>Workers read integers as they go, so taking an integer is an array read. The text of a token
+ * that was read as an integer, and the rest of a line, are read from the file again in the rare
+ * case they are asked for.</p>
+ */
+final class ParallelTokenStream implements ITokenStream, Closeable {
+  private final FileChannel channel;
+  private final ForkJoinPool pool;
+  private final int chunkSize;
+  private final int lookahead;
+  private final long size;
+
+  private final ArrayDeque<ForkJoinTask<Chunk>> pending = new ArrayDeque<>();
+  private long nextChunkStart; // where the next chunk to hand to a worker starts
+  private Chunk current;
+  private int index; // the index in the current chunk of the next token
+  private volatile boolean closed; // tells workers to stop early
+
+  /**
+   * The tokens found in one chunk of the file.
+   */
+  private final class Chunk {
+    private final long start;
+    private int count;
+    private int[] ints = new int[1024];
+    private String[] words = new String[1024]; // null where the token is an integer
+    private long[] starts = new long[1024]; // where each token starts in the file
+    private long[] ends = new long[1024]; // where each token ends in the file
+
+    /**
+     * Splits the part of the file from start to end into tokens, stopping early if the stream
+     * is closed.
+     */
+    private Chunk(long start, long end) {
+      this.start = start;
+      MappedFileLexer lexer = new MappedFileLexer(ParallelTokenStream.this.channel, start, end,
+              MappedFileLexer.WINDOW_SIZE);
+      while (!ParallelTokenStream.this.closed && lexer.hasNext()) {
+        if (this.count == this.ints.length) {
+          int capacity = this.count * 2;
+          this.ints = Arrays.copyOf(this.ints, capacity);
+          this.words = Arrays.copyOf(this.words, capacity);
+          this.starts = Arrays.copyOf(this.starts, capacity);
+          this.ends = Arrays.copyOf(this.ends, capacity);
+        }
+        this.starts[this.count] = lexer.tokenStart();
+        this.ends[this.count] = lexer.tokenEnd();
+        if (lexer.hasNextInt()) {
+          this.ints[this.count] = lexer.nextInt();
+        } else {
+          this.words[this.count] = lexer.next();
+        }
+        this.count++;
+      }
+    }
+  }
+
+  /**
+   * Starts splitting the file into tokens. The file must stay open while the stream is used.
+   *
+   * @param channel   the file.
+   * @param pool      the pool to split chunks of the file on.
+   * @param chunkSize about how many bytes of the file each worker splits at a time.
+   * @throws IOException if the file can't be read.
+   */
+  ParallelTokenStream(FileChannel channel, ForkJoinPool pool, int chunkSize)
+          throws IOException {
+    this.channel = channel;
+    this.pool = pool;
+    this.chunkSize = chunkSize;
+    this.lookahead = Math.max(2, 2 * pool.getParallelism());
+    this.size = channel.size();
+    try {
+      while (this.pending.size() < this.lookahead && this.submitChunk()) {
+        // keep the workers busy
+      }
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (this.current == null || this.index == this.current.count) {
+      if (this.pending.isEmpty()) {
+        return false;
+      }
+      this.current = this.pending.removeFirst().join();
+      this.index = 0;
+      this.submitChunk();
+    }
+    return true;
+  }
+
+  @Override
+  public String next() {
+    if (!this.hasNext()) {
+      throw new NoSuchElementException();
+    }
+    String word = this.current.words[this.index];
+    if (word == null) {
+      // the token was read as an integer, so read its text from the file again
+      word = new MappedFileLexer(this.channel, this.current.starts[this.index],
+              this.current.ends[this.index], MappedFileLexer.WINDOW_SIZE).next();
+    }
+    this.index++;
+    return word;
+  }
+
+  @Override
+  public boolean hasNextInt() {
+    return this.hasNext() && this.current.words[this.index] == null;
+  }
+
+  @Override
+  public int nextInt() {
+    if (!this.hasNext()) {
+      throw new NoSuchElementException();
+    }
+    String word = this.current.words[this.index];
+    if (word != null) {
+      // fails the way taking the word as an integer from a lexer does
+      new ReadableLexer(new StringReader(word)).nextInt();
+    }
+    return this.current.ints[this.index++];
+  }
+
+  @Override
+  public String restOfLine() {
+    long from = this.index == 0 ? this.current.start : this.current.ends[this.index - 1];
+    return new MappedFileLexer(this.channel, from, this.size, MappedFileLexer.WINDOW_SIZE)
+            .restOfLine();
+  }
+
+  /**
+   * Tells the workers to stop and waits for them to, so nothing reads the file once this
+   * returns.
+   */
+  @Override
+  public void close() {
+    this.closed = true;
+    for (ForkJoinTask<Chunk> task : this.pending) {
+      task.quietlyJoin();
+    }
+    this.pending.clear();
+  }
+
+  /**
+   * Hands the next chunk of the file to a worker.
+   *
+   * @return false if the whole file has been handed out.
+   * @throws UncheckedIOException if the file can't be read.
+   */
+  private boolean submitChunk() {
+    long start = this.nextChunkStart;
+    if (start >= this.size) {
+      return false;
+    }
+    long end = this.lineEndAfter(Math.min(this.size, start + this.chunkSize));
+    this.nextChunkStart = end;
+    this.pending.addLast(this.pool.submit(
+            ForkJoinTask.adapt(() -> new Chunk(start, end))));
+    return true;
+  }
+
+  /**
+   * Finds where the line that the byte just before the given place in the file is in ends, just
+   * past its line feed.
+   *
+   * @return the end of the line, or the end of the file if the line is the last one.
+   */
+  private long lineEndAfter(long from) {
+    ByteBuffer bytes = ByteBuffer.allocate(4096);
+    // the line feed may be the byte just before, which ends the line there
+    long at = from - 1;
+    try {
+      while (at < this.size) {
+        bytes.clear();
+        int n = this.channel.read(bytes, at);
+        if (n <= 0) {
+          break;
+        }
+        for (int i = 0; i < n; i++) {
+          if (bytes.get(i) == '\n') {
+            return at + i + 1;
+          }
+        }
+        at += n;
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return this.size;
+  }
+}
@@ -0,0 +1,273 @@
+package cs3500.animator.util;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+
+import cs3500.animator.misc.Utils;
+import cs3500.animator.model.ConcurrentAnimationModel;
+import cs3500.animator.model.IAnimatedShape;
+import cs3500.animator.model.IAnimationModel;
+import cs3500.animator.model.LayeredModelImpl;
+import cs3500.animator.model.LoadProgress;
+
+/**
+ * Loads an animation file on a background thread into a model that can be read while it loads,
+ * so that an animation can start playing long before a big file has been read. The file is read
+ * into a model only the loading thread sees, and every so often a snapshot of it is published to
+ * a ConcurrentAnimationModel, which readers on any thread see whole. Snapshots share everything
+ * with the model they are taken from, so publishing costs next to nothing however much has loaded.
+ *
+ * <p>Which ticks have loaded can only be known early for a file that lists its motions in the
+ * order they start, where a tick is done once a motion starting after it has been read. A keyframe
+ * changes its shape from the shape's keyframe before it on, so it is taken to start there. The
+ * loader takes a file to be in that order for as long as it is, and counts no tick as loaded until
+ * motions for at least two shapes have been read, since a file that lists each shape's motions
+ * together looks to be in order while it is still on its first shape. Once a motion starts before
+ * one read earlier the file is not in that order, and nothing later in it can be trusted not to
+ * change any tick, so no tick counts as loaded again until the whole file is read. Once it is,
+ * every tick counts as loaded.</p>
+ *
+ * <p>If the file can't be read, or is badly formed part of the way through, the part before the
+ * problem stays loaded and loading stops.</p>
+ */
+public final class ProgressiveLoader implements LoadProgress {
+  // how often what has loaded is published, in nanoseconds
+  private static final long PUBLISH_INTERVAL = 200_000_000L;
+  // how many lines are read between looks at the clock
+  private static final int LINES_PER_CLOCK_CHECK = 1024;
+
+  private final Path path;
+  private final long publishInterval;
+  private final int linesPerClockCheck;
+  private final LayeredModelImpl working = new LayeredModelImpl();
+  private final ConcurrentAnimationModel model =
+          new ConcurrentAnimationModel(new LayeredModelImpl());
+  private final CountDownLatch published = new CountDownLatch(1);
+  private final Thread thread;
+
+  private volatile int loadedTick = -1;
+  private volatile boolean done;
+  private volatile String failure;
+
+  // only used by the loading thread
+  private int latestStart = Integer.MIN_VALUE; // the latest tick any motion read starts at
+  private boolean inStartOrder = true; // whether every motion read starts at or after the last
+  private String firstMoved; // the shape the first motion read was for
+  private boolean severalMoved; // whether motions have been read for more than one shape
+  private int lines;
+  private long lastPublished;
+
+  /**
+   * A builder that builds into the model only the loading thread sees, publishing what it has
+   * built every so often.
+   */
+  private final class Feed implements AnimationBuilder<IAnimationModel> {
+    private final AnimationModelBuilder builder =
+            new AnimationModelBuilder(ProgressiveLoader.this.working);
+
+    @Override
+    public IAnimationModel build() {
+      return ProgressiveLoader.this.model;
+    }
+
+    @Override
+    public AnimationBuilder<IAnimationModel> setBounds(int x, int y, int width, int height) {
+      this.builder.setBounds(x, y, width, height);
+      // published straight away, so views can size themselves before anything else loads
+      ProgressiveLoader.this.publish();
+      return this;
+    }
+
+    @Override
+    public AnimationBuilder<IAnimationModel> declareShape(String name, String type) {
+      this.builder.declareShape(name, type);
+      return this;
+    }
+
+    @Override
+    public AnimationBuilder<IAnimationModel> addMotion(
+            String name, int t1, int x1, int y1, int w1, int h1, int r1, int g1, int b1, int a1,
+            int t2, int x2, int y2, int w2, int h2, int r2, int g2, int b2, int a2) {
+      this.builder.addMotion(name, t1, x1, y1, w1, h1, r1, g1, b1, a1,
+              t2, x2, y2, w2, h2, r2, g2, b2, a2);
+      ProgressiveLoader.this.changeRead(name, t1);
+      ProgressiveLoader.this.publishIfDue();
+      return this;
+    }
+
+    @Override
+    public AnimationBuilder<IAnimationModel> addKeyframe(String name, int t, int x, int y,
+                                                         int w, int h, int r, int g, int b) {
+      IAnimatedShape shape = this.builder.placedShape(name);
+      int start = shape == null ? -1 : shape.getStartTick();
+      int end = shape == null ? -1 : shape.getEndTick();
+      this.builder.addKeyframe(name, t, x, y, w, h, r, g, b);
+      // a keyframe after the shape's last one changes the shape like a motion from there would,
+      // and any other can change it from its first keyframe on, or from its own tick if earlier
+      int from = end < 0 ? t : (t > end ? end : Math.min(t, start));
+      ProgressiveLoader.this.changeRead(name, from);
+      ProgressiveLoader.this.publishIfDue();
+      return this;
+    }
+
+    @Override
+    public void setLayer(int layer) {
+      this.builder.setLayer(layer);
+    }
+  }
+
+  /**
+   * Constructs a loader for the animation in the given file. Nothing is read until it is started.
+   *
+   * @param path the file with the animation.
+   * @throws IllegalArgumentException if the path is null.
+   */
+  public ProgressiveLoader(Path path) {
+    this(path, PUBLISH_INTERVAL, LINES_PER_CLOCK_CHECK);
+  }
+
+  /**
+   * Constructs a loader that publishes what has loaded as often as given, such as after every
+   * motion for a publish interval of 0 and one line per clock check.
+   *
+   * @param path               the file with the animation.
+   * @param publishInterval    the least time between publishes, in nanoseconds.
+   * @param linesPerClockCheck how many motions are read between looks at the clock.
+   * @throws IllegalArgumentException if the path is null, the interval is negative or fewer than
+   *                                  one line is read between looks at the clock.
+   */
+  public ProgressiveLoader(Path path, long publishInterval, int linesPerClockCheck) {
+    Utils.requireNonNull(path);
+    Utils.requireNonNegative(publishInterval);
+    if (linesPerClockCheck <= 0) {
+      throw new IllegalArgumentException("At least one line must be read between looks at the "
+              + "clock");
+    }
+    this.path = path;
+    this.publishInterval = publishInterval;
+    this.linesPerClockCheck = linesPerClockCheck;
+    this.thread = new Thread(this::load, "animation loader");
+    this.thread.setDaemon(true);
+  }
+
+  /**
+   * Starts loading the file on a background thread.
+   */
+  public void start() {
+    this.thread.start();
+  }
+
+  /**
+   * Gets the model the file is loaded into. It starts out empty and has more of the file every
+   * time what has loaded is published.
+   *
+   * @return the model being loaded.
+   */
+  public IAnimationModel getModel() {
+    return this.model;
+  }
+
+  @Override
+  public int getLoadedTick() {
+    return this.loadedTick;
+  }
+
+  @Override
+  public boolean isDone() {
+    return this.done;
+  }
+
+  /**
+   * Waits until some of the file has been published, which is as soon as the canvas has been
+   * read, or until loading stops if that comes first.
+   */
+  public void awaitStart() {
+    try {
+      this.published.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Waits until loading stops.
+   *
+   * @return the model the file was loaded into.
+   * @throws IllegalArgumentException if the whole file couldn't be loaded.
+   */
+  public IAnimationModel await() {
+    try {
+      this.thread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (this.failure != null) {
+      throw new IllegalArgumentException(this.failure);
+    }
+    return this.model;
+  }
+
+  /**
+   * Reads the whole file, publishing what has loaded as it goes and everything once it is done.
+   */
+  private void load() {
+    this.lastPublished = System.nanoTime();
+    try {
+      AnimationReader.parseFile(this.path, new Feed());
+    } catch (IOException | RuntimeException e) {
+      this.failure = e.getMessage() != null ? e.getMessage() : e.toString();
+    }
+    this.model.restore(this.working.snapshot());
+    // every tick is as loaded as it will get, even if the rest of the file couldn't be read
+    this.loadedTick = this.model.getEndTick();
+    this.done = true;
+    this.published.countDown();
+  }
+
+  /**
+   * Keeps track of whether the file is in the order its motions start, given the next motion or
+   * keyframe read from it. The change hasn't been published yet, so a loaded tick it shows to be
+   * wrong is taken back before any reader can see the change.
+   *
+   * @param name the shape the change is for.
+   * @param from the first tick the change can change.
+   */
+  private void changeRead(String name, int from) {
+    if (from < this.latestStart) {
+      // stays -1 until the whole file is read, since publish only counts ticks in start order
+      this.inStartOrder = false;
+      this.loadedTick = -1;
+    }
+    this.latestStart = Math.max(this.latestStart, from);
+    if (this.firstMoved == null) {
+      this.firstMoved = name;
+    } else if (!this.severalMoved && !this.firstMoved.equals(name)) {
+      this.severalMoved = true;
+    }
+  }
+
+  /**
+   * Publishes what has loaded if it has been a while since it last was.
+   */
+  private void publishIfDue() {
+    if (++this.lines % this.linesPerClockCheck == 0
+            && System.nanoTime() - this.lastPublished >= this.publishInterval) {
+      this.publish();
+    }
+  }
+
+  /**
+   * Publishes a snapshot of what has loaded, then moves the loaded tick up to just before the
+   * latest motion read if the file is in the order its motions start. The snapshot goes first so
+   * readers never see a tick counted as loaded before it is in the model.
+   */
+  private void publish() {
+    this.model.restore(this.working.snapshot());
+    if (this.inStartOrder && this.severalMoved) {
+      this.loadedTick = Math.max(this.loadedTick, this.latestStart - 1);
+    }
+    this.lastPublished = System.nanoTime();
+    this.published.countDown();
+  }
+}
@@ -0,0 +1,128 @@
+package cs3500.animator.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.util.NoSuchElementException;
+
+/**
+ * A lexer over any Readable. The input is read a large block at a time, straight into an array
+ * when it is a Reader.
+ *
+ * <p>Like a Scanner, the lexer treats an input that can't be read any further as having ended.
+ * </p>
+ */
+final class ReadableLexer extends AnimationLexer {
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final Readable source;
+  private final char[] buffer = new char[BUFFER_SIZE];
+  private final CharBuffer window = CharBuffer.wrap(this.buffer);
+  private int position;
+  private int limit;
+  private boolean ended;
+
+  /**
+   * Constructs a lexer over the given input.
+   *
+   * @param source the input to split into tokens.
+   */
+  ReadableLexer(Readable source) {
+    this.source = source;
+  }
+
+  @Override
+  public String restOfLine() {
+    StringBuilder line = new StringBuilder();
+    boolean any = false;
+    while (this.position < this.limit || this.fill()) {
+      char c = this.buffer[this.position++];
+      any = true;
+      if (isLineBreak(c)) {
+        if (c == '\r' && (this.position < this.limit || this.fill())
+                && this.buffer[this.position] == '\n') {
+          this.position++;
+        }
+        break;
+      }
+      line.append(c);
+    }
+    if (!any) {
+      throw new NoSuchElementException("No line found");
+    }
+    return line.toString();
+  }
+
+  @Override
+  boolean readToken() {
+    this.skipDelimiters();
+    if (this.position >= this.limit) {
+      return false;
+    }
+    this.startToken();
+    while (this.position < this.limit || this.fill()) {
+      char c = this.buffer[this.position];
+      if (c == '#' || isSpace(c)) {
+        break;
+      }
+      this.append(c);
+      this.position++;
+    }
+    return true;
+  }
+
+  /**
+   * Moves past whitespace and comments, leaving the position at the start of the next token or
+   * at the end of the buffer if the input has ended.
+   */
+  private void skipDelimiters() {
+    boolean inComment = false;
+    while (this.position < this.limit || this.fill()) {
+      char c = this.buffer[this.position];
+      if (inComment) {
+        if (isLineBreak(c)) {
+          // the comment ends before the line break, which is only skipped if it is whitespace
+          inComment = false;
+          continue;
+        }
+      } else if (c == '#') {
+        inComment = true;
+      } else if (!isSpace(c)) {
+        return;
+      }
+      this.position++;
+    }
+  }
+
+  /**
+   * Reads the next block of input into the buffer once the buffer has been used up.
+   *
+   * @return false if the input has ended.
+   */
+  private boolean fill() {
+    while (!this.ended) {
+      int n;
+      try {
+        if (this.source instanceof Reader) {
+          // Reader.read(CharBuffer) would copy through a new array on every call
+          n = ((Reader) this.source).read(this.buffer, 0, BUFFER_SIZE);
+        } else {
+          this.window.clear();
+          n = this.source.read(this.window);
+        }
+      } catch (IOException e) {
+        n = -1;
+      }
+      if (n < 0) {
+        this.ended = true;
+      } else if (n > 0) {
+        this.position = 0;
+        this.limit = n;
+        return true;
+      }
+    }
+    this.position = 0;
+    this.limit = 0;
+    return false;
+  }
+}
@@ -3,15 +3,18 @@ package cs3500.animator.view;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.Graphics;
-import java.util.ArrayList;
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
 import java.util.Objects;
 
 import javax.swing.JPanel;
 
 import cs3500.animator.misc.Utils;
-import cs3500.animator.model.IAnimatedShape;
+import cs3500.animator.model.FrameBuffer;
+import cs3500.animator.model.FrameSampler;
+import cs3500.animator.model.LoadProgress;
+import cs3500.animator.model.PlaybackPlan;
 import cs3500.animator.model.ReadOnlyIAnimationModel;
-import cs3500.animator.shapes.IShape;
 
 /**
  * Represents the window inside of the animation that will display the shapes in the
@@ -27,12 +30,17 @@ public class AnimationPanel extends JPanel {
 
   private static final String ELLIPSE = "ell";
   private static final String RECTANGLE = "rec";
-  private final int REFRESH_MAX_TICK_AT = 100;
   private final double DEGREE_TO_RADIAN = Math.PI / 180;
   private ReadOnlyIAnimationModel model;
   private int curTick;
   private int maxTick;
+  private long maxTickVersion; // the model version maxTick was calculated at
   private Looping isLooping;
+  private LoadProgress loading; // how far the model has loaded, or null once it all has
+  private final FrameBuffer frame = new FrameBuffer();
+  private final FrameSampler sampler = new FrameSampler();
+  private final PlaybackPlan plan;
+  private Color lastColor;
 
 
   /**
@@ -44,6 +52,7 @@ public class AnimationPanel extends JPanel {
     super();
     Utils.requireNonNull(model);
     this.model = model;
+    this.plan = new PlaybackPlan(model);
     this.curTick = 0;
     this.maxTick = this.calcMaxTick();
     this.isLooping = Looping.ENABLED;
@@ -59,17 +68,37 @@ public class AnimationPanel extends JPanel {
   }
 
   /**
-   * Calculates the max tick of the animation by going through the list of animated shapes.
+   * Plays only the ticks that have loaded while the model is still loading. Playing waits at the
+   * last loaded tick for the next one instead of looping, and goes back to it if the loaded tick
+   * goes back, until everything has loaded.
+   *
+   * @param loading how far the model has loaded, or null if it already has.
+   */
+  public void setLoadProgress(LoadProgress loading) {
+    this.loading = loading;
+    this.plan.setLoadProgress(loading);
+    this.maxTick = this.calcMaxTick();
+  }
+
+  /**
+   * Calculates the max tick of the animation, which the model keeps track of for every layer.
+   * While the model is loading this is the last tick that has loaded and that the plan plays as
+   * loaded, since the plan isn't worked out again every time more of the model is published.
    *
    * @return an integer representing the last tick in the animation.
    */
   private int calcMaxTick() {
-    int x = 0;
-    for (IAnimatedShape shape : model.getAllAnimatedShapes()) {
-      int endTick = shape.getEvents().get(shape.getEvents().size() - 1).getEndTick();
-      x = (endTick > x) ? endTick : x;
+    this.maxTickVersion = this.model.getVersion();
+    int end = Math.max(0, this.model.getEndTick());
+    if (this.loading != null) {
+      if (this.loading.isDone()) {
+        this.loading = null;
+      } else {
+        int loaded = Math.min(this.loading.getLoadedTick(), this.plan.getLoadedTick());
+        end = Math.min(end, Math.max(0, loaded));
+      }
     }
-    return x;
+    return end;
   }
 
   /**
@@ -78,6 +107,9 @@ public class AnimationPanel extends JPanel {
    * @return max tick value.
    */
   public int getMaxTick() {
+    if (this.loading != null || this.maxTickVersion != this.model.getVersion()) {
+      this.maxTick = this.calcMaxTick();
+    }
     return this.maxTick;
   }
 
@@ -104,13 +136,21 @@ public class AnimationPanel extends JPanel {
    * enabled, start the animation over again. If looping is disabled, end the animation.
    */
   public void increment() {
+    if (this.loading != null) {
+      this.maxTick = this.calcMaxTick();
+      if (this.loading != null && this.curTick + 1 > this.maxTick) {
+        // wait here for the next tick to load, going back if this one turned out not to have
+        this.curTick = Math.min(this.curTick, this.maxTick);
+        return;
+      }
+    }
     if (this.curTick + 1 > this.maxTick && isLooping == Looping.ENABLED) {
       this.setCurTick(0);
     } else {
       this.curTick++;
     }
-    // on every 300th tick lets update our max tick for Looping purposes
-    if (this.isLooping == Looping.ENABLED && this.curTick % REFRESH_MAX_TICK_AT == 0) {
+    // only look at the shapes again if the model changed since we last did
+    if (this.maxTickVersion != this.model.getVersion()) {
       this.maxTick = this.calcMaxTick();
     }
   }
@@ -125,35 +165,53 @@ public class AnimationPanel extends JPanel {
     super.paintComponent(Objects.requireNonNull(g));
     Graphics2D g2d = (Graphics2D) g;
 
-    for (int i = 0; i < this.model.layerCount(); i++) {
-      if (this.model.isEnabled(i)) {
-        // copy of shapes
-        ArrayList<IShape> shapes = this.model.getShapesFromLayerAtTick(i, this.curTick);
-        for (IShape shape : shapes) {
-          g2d.setColor(shape.getColor());
-          g2d.rotate(shape.getAngle() * DEGREE_TO_RADIAN,
-                  shape.getPosition().getX() + shape.getWidth() / 2,
-                  shape.getPosition().getY() + shape.getHeight() / 2);
-
-          switch (shape.asString()) {
-            case ELLIPSE:
-              g2d.fillOval((int) shape.getPosition().getX(),
-                      (int) shape.getPosition().getY(),
-                      shape.getWidth(),
-                      shape.getHeight());
-              break;
-            case RECTANGLE:
-              g2d.fillRect((int) shape.getPosition().getX(),
-                      (int) shape.getPosition().getY(),
-                      shape.getWidth(),
-                      shape.getHeight());
-              break;
-            default:
-              throw new IllegalArgumentException("Does not support given Shape!");
-          }
-        }
+    // the plan draws every layer from the same state, even if the model is edited on another
+    // thread, and reuses the same frame every time so playing doesn't make garbage
+    this.plan.sampleAt(this.curTick, this.frame, this.sampler);
+    // only the shapes that overlap the part of the panel being painted are drawn, which in a
+    // scrolled view is just what is on screen
+    Rectangle visible = g.getClipBounds();
+    AffineTransform unturned = g2d.getTransform();
+    for (int s = 0; s < this.frame.size(); s++) {
+      if (visible != null && !this.frame.intersects(s, visible)) {
+        continue;
+      }
+      double x = this.frame.getX(s);
+      double y = this.frame.getY(s);
+      int width = this.frame.getWidth(s);
+      int height = this.frame.getHeight(s);
+      g2d.setColor(this.colorOf(this.frame.getRgb(s)));
+      // each shape is turned about its own center only, not about the ones drawn before it
+      g2d.setTransform(unturned);
+      g2d.rotate(this.frame.getAngle(s) * DEGREE_TO_RADIAN,
+              x + width / 2,
+              y + height / 2);
+
+      switch (this.frame.getType(s)) {
+        case ELLIPSE:
+          g2d.fillOval((int) x, (int) y, width, height);
+          break;
+        case RECTANGLE:
+          g2d.fillRect((int) x, (int) y, width, height);
+          break;
+        default:
+          throw new IllegalArgumentException("Does not support given Shape!");
       }
     }
+    g2d.setTransform(unturned);
+  }
+
+  /**
+   * Gets a color for the packed rgb value, reusing the last one when it is the same color.
+   *
+   * @param rgb the color packed as 0xRRGGBB.
+   * @return the color.
+   */
+  private Color colorOf(int rgb) {
+    if (this.lastColor == null || this.lastColor.getRGB() != (0xFF000000 | rgb)) {
+      this.lastColor = new Color(rgb);
+    }
+    return this.lastColor;
   }
 
   /**
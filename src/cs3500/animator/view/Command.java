@@ -22,7 +22,9 @@ public enum Command {
   MOVE_LAYER_DOWN("Move down Layer"),
   SET_VISIBLE("Set Visible"),
   OPEN("Open"),
-  SAVE("Save");
+  SAVE("Save"),
+  UNDO("Undo"),
+  REDO("Redo");
 
   /**
    * String representation of the command.
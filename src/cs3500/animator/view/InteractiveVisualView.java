@@ -7,6 +7,11 @@ import java.awt.event.ActionListener;
 import java.awt.BorderLayout;
 import java.awt.FlowLayout;
 import java.awt.GridLayout;
+import java.awt.Rectangle;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseListener;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 
@@ -19,6 +24,7 @@ import javax.swing.JTabbedPane;
 import javax.swing.JPanel;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
+import javax.swing.JProgressBar;
 import javax.swing.JScrollPane;
 import javax.swing.JSlider;
 import javax.swing.event.ChangeListener;
@@ -28,6 +34,9 @@ import javax.swing.JCheckBox;
 import cs3500.animator.misc.Position2D;
 import cs3500.animator.misc.Utils;
 import cs3500.animator.model.EventInstructions;
+import cs3500.animator.model.IAnimatedShape;
+import cs3500.animator.model.LoadProgress;
+import cs3500.animator.model.ModelEvent;
 import cs3500.animator.model.ReadOnlyIAnimationModel;
 import cs3500.animator.shapes.IShape;
 
@@ -42,6 +51,7 @@ import cs3500.animator.shapes.IShape;
 public class InteractiveVisualView extends JFrame implements IInteractiveView, ActionListener {
   private final int DEFAULT_SPEED = 1;
   private final int TEXT_LEN = 10;
+  private final int LOAD_BAR_DELAY = 100;
   JComboBox keyFrames;
   private Timer timer;
   private AnimationPanel animationPanel;
@@ -60,16 +70,29 @@ public class InteractiveVisualView extends JFrame implements IInteractiveView, A
 
   private JTabbedPane tabbedPane;
   private JComboBox listOfShapes;
+  // the id the model gave each shape in listOfShapes, in the same order
+  private int[] shapeIds = new int[0];
   private JComboBox shapesToAdd;
   private int tempo;
   private ReadOnlyIAnimationModel model;
   private JComboBox listOfLayers;
   private JCheckBox visibleCheckbox;
 
+  // which combo boxes are out of date with the model, set by the model listener
+  private boolean layersStale = true;
+  private boolean shapesStale = true;
+  private boolean keyFramesStale = true;
+
   private final Dimension rightPanelDimension = new Dimension(380, 250);
 
   private JSlider scrubber;
 
+  // how far the model has loaded, or null if it already had when the view was displayed, and the
+  // bar under the scrubber that shows it along with the timer that keeps the bar up to date
+  private LoadProgress loading;
+  private JProgressBar loadBar;
+  private Timer loadTimer;
+
 
   /**
    * We are hashing the commands to buttons to guarantee that every button has a command. This map
@@ -95,11 +118,22 @@ public class InteractiveVisualView extends JFrame implements IInteractiveView, A
     this.visibleCheckbox = new JCheckBox();
   }
 
+  /**
+   * Lets the view be displayed while the model is still loading. Only the ticks that have loaded
+   * play and can be scrubbed to, and a bar under the scrubber shows how far loading has got until
+   * everything has loaded. Must be called before the view is displayed.
+   *
+   * @param loading how far the model has loaded, or null if it already has.
+   */
+  public void setLoadProgress(LoadProgress loading) {
+    this.loading = loading;
+  }
+
   @Override
   public void display(ReadOnlyIAnimationModel model) {
     Utils.requireNonNull(model);
     this.model = model;
-
+    this.model.addModelListener(this::markStale);
 
     this.setTitle("Excellence");
     this.setLayout(new BorderLayout());
@@ -116,7 +150,9 @@ public class InteractiveVisualView extends JFrame implements IInteractiveView, A
             Command.ENABLE,
             Command.DISABLE,
             Command.OPEN,
-            Command.SAVE
+            Command.SAVE,
+            Command.UNDO,
+            Command.REDO
     );
     this.initTabEditingPanel();
     this.timer = new Timer((int) (1000 * (1 / (double) tempo)), this);
@@ -293,20 +329,68 @@ public class InteractiveVisualView extends JFrame implements IInteractiveView, A
    * @return the function that will execute when the ActionListener is triggered.
    */
   private ActionListener buildListOfShapesActionListener() {
-    return (e) -> {
-      this.keyFrames.removeAllItems();
-      this.model.getAllAnimatedShapes().stream()
-              .filter(s -> s.getShape().getName().equals(listOfShapes.getSelectedItem()))
-              .forEach(shape -> {
-                String keyAt = "Keyframe at: ";
-                if (shape.getEvents().size() > 0) {
-                  keyFrames.addItem(keyAt + shape.getEvents().get(0).getStartTick());
-                }
-                for (EventInstructions event : shape.getEvents()) {
-                  keyFrames.addItem(keyAt + event.getEndTick());
-                }
-              });
-    };
+    return (e) -> this.refreshKeyFrames();
+  }
+
+  /**
+   * Fills the keyFrames ComboBox with the keyframes of the selected shape.
+   */
+  private void refreshKeyFrames() {
+    this.keyFrames.removeAllItems();
+    IAnimatedShape shape = this.selectedShape();
+    if (shape == null) {
+      return;
+    }
+    String keyAt = "Keyframe at: ";
+    ArrayList<EventInstructions> events = shape.getEvents();
+    if (events.size() > 0) {
+      keyFrames.addItem(keyAt + events.get(0).getStartTick());
+    }
+    for (EventInstructions event : events) {
+      keyFrames.addItem(keyAt + event.getEndTick());
+    }
+  }
+
+  /**
+   * Gets the shape selected in the list of shapes, looked up by the id the model gave it rather
+   * than by its name.
+   *
+   * @return the selected shape, or null if no shape is selected.
+   */
+  private IAnimatedShape selectedShape() {
+    int i = this.listOfShapes.getSelectedIndex();
+    if (i < 0 || i >= this.shapeIds.length) {
+      return null;
+    }
+    return this.model.getAnimatedShape(this.model.getCurrentLayer(), this.shapeIds[i]);
+  }
+
+  /**
+   * Marks the combo boxes that a change to the model made out of date, so the next call to
+   * updateComboBox only rebuilds those.
+   *
+   * @param event the change made to the model.
+   */
+  private void markStale(ModelEvent event) {
+    switch (event.getType()) {
+      case SHAPE_CHANGED:
+        this.keyFramesStale = true;
+        break;
+      case BOUNDS_CHANGED:
+        break;
+      case LAYER_CHANGED:
+        this.layersStale = true;
+        this.shapesStale = true;
+        break;
+      case BATCH_APPLIED:
+      case RESTORED:
+        this.layersStale = true;
+        this.shapesStale = true;
+        this.keyFramesStale = true;
+        break;
+      default:
+        this.shapesStale = true;
+    }
   }
 
   /**
@@ -317,30 +401,30 @@ public class InteractiveVisualView extends JFrame implements IInteractiveView, A
    */
   private ActionListener viewKeyFrameListener() {
     return (z) -> {
-      this.model.getAllAnimatedShapes().stream()
-              .filter(s -> s.getShape().getName().equals(listOfShapes.getSelectedItem()))
-              .forEach(shape -> {
-                if (keyFrames.getSelectedIndex() == 0) {
-                  IShape s = shape.getShape();
-                  this.tickTextFieldKF.setText("" + shape.getEvents().get(0).getStartTick());
-                  this.positionTextFieldKF.setText(
-                          s.getPosition().getX() + "," + s.getPosition().getY());
-                  this.dimensionTextFieldKF.setText(s.getWidth() + "," + s.getHeight());
-                  this.colorTextFieldKF.setText(s.getColor().getRed() + ","
-                          + s.getColor().getGreen() + "," + s.getColor().getBlue());
-                } else {
-                  EventInstructions e = shape
-                          .getEvents()
-                          .get(keyFrames.getSelectedIndex() - 1);
-                  this.tickTextFieldKF.setText("" + e.getEndTick());
-                  this.positionTextFieldKF.setText(
-                          e.getEndPosn().getX() + "," + e.getEndPosn().getY());
-                  this.dimensionTextFieldKF.setText(e.getEndWidth() + "," + e.getEndHeight());
-                  this.colorTextFieldKF.setText(
-                          e.getEndColor().getRed() + "," + e.getEndColor().getGreen()
-                                  + "," + e.getEndColor().getBlue());
-                }
-              });
+      IAnimatedShape shape = this.selectedShape();
+      if (shape == null) {
+        return;
+      }
+      if (keyFrames.getSelectedIndex() == 0) {
+        IShape s = shape.getShape();
+        this.tickTextFieldKF.setText("" + shape.getEvents().get(0).getStartTick());
+        this.positionTextFieldKF.setText(
+                s.getPosition().getX() + "," + s.getPosition().getY());
+        this.dimensionTextFieldKF.setText(s.getWidth() + "," + s.getHeight());
+        this.colorTextFieldKF.setText(s.getColor().getRed() + ","
+                + s.getColor().getGreen() + "," + s.getColor().getBlue());
+      } else {
+        EventInstructions e = shape
+                .getEvents()
+                .get(keyFrames.getSelectedIndex() - 1);
+        this.tickTextFieldKF.setText("" + e.getEndTick());
+        this.positionTextFieldKF.setText(
+                e.getEndPosn().getX() + "," + e.getEndPosn().getY());
+        this.dimensionTextFieldKF.setText(e.getEndWidth() + "," + e.getEndHeight());
+        this.colorTextFieldKF.setText(
+                e.getEndColor().getRed() + "," + e.getEndColor().getGreen()
+                        + "," + e.getEndColor().getBlue());
+      }
     };
   }
 
@@ -491,14 +575,25 @@ public class InteractiveVisualView extends JFrame implements IInteractiveView, A
 
     int temp = this.listOfLayers.getSelectedIndex();
     try {
-      this.listOfLayers.removeAllItems();
-      for (int i = 0; i < this.model.layerCount(); i++) {
-        this.listOfLayers.addItem("" + i);
+      if (this.layersStale) {
+        this.layersStale = false;
+        this.listOfLayers.removeAllItems();
+        for (int i = 0; i < this.model.layerCount(); i++) {
+          this.listOfLayers.addItem("" + i);
+        }
+        this.listOfLayers.setSelectedIndex(temp);
       }
-      this.listOfLayers.setSelectedIndex(temp);
-      this.listOfShapes.removeAllItems();
-      for (String s : initListOfShapesArray(model)) {
-        this.listOfShapes.addItem(s);
+      if (this.shapesStale) {
+        // selecting the first shape again refreshes the keyframes as well
+        this.shapesStale = false;
+        this.keyFramesStale = false;
+        this.listOfShapes.removeAllItems();
+        for (String s : initListOfShapesArray(model)) {
+          this.listOfShapes.addItem(s);
+        }
+      } else if (this.keyFramesStale) {
+        this.keyFramesStale = false;
+        this.refreshKeyFrames();
       }
     } catch (Exception e) {
       this.showDialogBox(e.getMessage());
@@ -509,15 +604,18 @@ public class InteractiveVisualView extends JFrame implements IInteractiveView, A
 
 
   /**
-   * Initializes the array of strings representing the id's of the shapes in the animation.
+   * Initializes the array of strings representing the id's of the shapes in the animation, and
+   * keeps the id the model gave each of them so the selected shape can be found without its name.
    *
    * @return an array of strings containing the string id's
    */
   private String[] initListOfShapesArray(ReadOnlyIAnimationModel model) {
-    int size = model.getAllAnimatedShapes().size();
-    String[] temp = new String[size];
-    for (int i = 0; i < size; i++) {
-      temp[i] = model.getAllAnimatedShapes().get(i).getShape().getName();
+    ArrayList<IAnimatedShape> shapes = model.getAllAnimatedShapes();
+    String[] temp = new String[shapes.size()];
+    this.shapeIds = new int[shapes.size()];
+    for (int i = 0; i < shapes.size(); i++) {
+      temp[i] = shapes.get(i).getShape().getName();
+      this.shapeIds[i] = shapes.get(i).getId();
     }
     return temp;
   }
@@ -536,6 +634,50 @@ public class InteractiveVisualView extends JFrame implements IInteractiveView, A
     };
   }
 
+  /**
+   * Gets a mouse listener that selects the shape clicked on for editing. The shape drawn on top
+   * at the click, in the top enabled layer that has one there, is picked, and its layer and the
+   * shape itself are selected in the combo boxes.
+   *
+   * @return a MouseListener for picking shapes.
+   */
+  private MouseListener selectOnClick() {
+    return new MouseAdapter() {
+      @Override
+      public void mouseClicked(MouseEvent e) {
+        Rectangle at = new Rectangle(e.getX(), e.getY(), 1, 1);
+        int tick = animationPanel.getCurTick();
+        for (int layer = model.layerCount() - 1; layer >= 0; layer--) {
+          if (!model.isEnabled(layer)) {
+            continue;
+          }
+          ArrayList<IShape> hit = model.getShapesInRegionAt(layer, tick, at);
+          if (!hit.isEmpty()) {
+            select(layer, hit.get(hit.size() - 1).getName());
+            return;
+          }
+        }
+      }
+    };
+  }
+
+  /**
+   * Selects a shape for editing, switching to its layer first if it isn't the selected one.
+   *
+   * @param layer the layer the shape is in.
+   * @param name  the name of the shape.
+   */
+  private void select(int layer, String name) {
+    this.updateComboBox();
+    if (this.listOfLayers.getSelectedIndex() != layer) {
+      // tells the controller, which makes the layer current and so changes the list of shapes
+      this.listOfLayers.setSelectedIndex(layer);
+      this.updateComboBox();
+    }
+    this.tabbedPane.setSelectedIndex(1);
+    this.listOfShapes.setSelectedItem(name);
+  }
+
   /**
    * Initializes the bottom panel containing the animation edit functions.
    */
@@ -545,12 +687,43 @@ public class InteractiveVisualView extends JFrame implements IInteractiveView, A
             this.animationPanel.getMaxTick(), this.animationPanel.getCurTick());
 
     this.scrubber.addChangeListener(this.moveScrubber());
+    this.animationPanel.addMouseListener(this.selectOnClick());
     Box scrubBox = Box.createVerticalBox();
     scrubBox.add(this.animationPanel);
     scrubBox.add(this.scrubber);
+    if (this.loading != null) {
+      this.animationPanel.setLoadProgress(this.loading);
+      this.loadBar = new JProgressBar();
+      this.loadBar.setStringPainted(true);
+      scrubBox.add(this.loadBar);
+      // kept up to date on its own timer, so the bar moves even while playing is paused
+      this.loadTimer = new Timer(LOAD_BAR_DELAY, e -> this.showLoadProgress());
+      this.showLoadProgress();
+      this.loadTimer.start();
+    }
     this.add(new JScrollPane(scrubBox), BorderLayout.CENTER);
   }
 
+  /**
+   * Shows how far the model has loaded on the bar under the scrubber, out of the last tick read
+   * so far, and lets the scrubber reach every tick that has loaded. Once everything has loaded the
+   * bar is taken away.
+   */
+  private void showLoadProgress() {
+    boolean done = this.loading.isDone();
+    this.scrubber.setMaximum(this.animationPanel.getMaxTick());
+    if (done) {
+      this.loadTimer.stop();
+      this.loadBar.setVisible(false);
+      return;
+    }
+    int loaded = Math.max(0, this.loading.getLoadedTick());
+    int end = Math.max(loaded, this.model.getEndTick());
+    this.loadBar.setMaximum(end);
+    this.loadBar.setValue(loaded);
+    this.loadBar.setString("Loaded to tick " + loaded + " of " + end + " so far");
+  }
+
   @Override
   public void pause() {
     this.timer.stop();
@@ -626,6 +799,10 @@ public class InteractiveVisualView extends JFrame implements IInteractiveView, A
     this.animationPanel.increment();
     this.animationPanel.repaint();
     this.animationPanel.revalidate();
+    if (this.loading != null) {
+      // the tick played may have only just loaded
+      this.scrubber.setMaximum(this.animationPanel.getMaxTick());
+    }
     this.scrubber.setValue(this.animationPanel.getCurTick());
   }
 }
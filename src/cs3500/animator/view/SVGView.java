@@ -113,12 +113,12 @@ public class SVGView implements IAnimationView {
     StringBuilder xml = new StringBuilder();
 
     xml.append(generateAnimateTag("x", begin, duration,
-            Double.toString(shape.getPosition().getX()),
-            Double.toString(instruction.getEndPosn().getX())));
+            Double.toString(shape.getX()),
+            Double.toString(instruction.getEndX())));
 
     xml.append(generateAnimateTag("y", begin, duration,
-            Double.toString(shape.getPosition().getY()),
-            Double.toString(instruction.getEndPosn().getY())));
+            Double.toString(shape.getY()),
+            Double.toString(instruction.getEndY())));
 
     xml.append(generateAnimateTag("width", begin, duration,
             Integer.toString(shape.getWidth()),
@@ -134,11 +134,11 @@ public class SVGView implements IAnimationView {
 
     xml.append("\t<animateTransform attributeName=\"transform\" type=\"rotate\" " +
             "from=\"" + shape.getAngle() + " " +
-            (shape.getPosition().getX() + shape.getWidth() / 2) + " " +
-            (shape.getPosition().getY() + shape.getHeight() / 2) + "\" " +
+            (shape.getX() + shape.getWidth() / 2) + " " +
+            (shape.getY() + shape.getHeight() / 2) + "\" " +
             "to=\"" + instruction.getEndAngle() + " " +
-            (instruction.getEndPosn().getX() + instruction.getEndWidth() / 2) + " " +
-            (instruction.getEndPosn().getY() + instruction.getEndHeight() / 2) + "\" " +
+            (instruction.getEndX() + instruction.getEndWidth() / 2) + " " +
+            (instruction.getEndY() + instruction.getEndHeight() / 2) + "\" " +
             "begin=\"" + begin + "ms\"" +
             " dur=\"" + duration + "ms\" " +
             "fill=\"freeze\" />\n");
@@ -161,14 +161,14 @@ public class SVGView implements IAnimationView {
 
     StringBuilder xml = new StringBuilder();
 
-    String xLeftStart = Double.toString(shape.getPosition().getX() + shape.getWidth() / 2.0);
+    String xLeftStart = Double.toString(shape.getX() + shape.getWidth() / 2.0);
     String xLeftEnd = Double.toString(
-            instruction.getEndPosn().getX() + instruction.getEndWidth() / 2.0);
+            instruction.getEndX() + instruction.getEndWidth() / 2.0);
     xml.append(generateAnimateTag("cx", begin, duration, xLeftStart, xLeftEnd));
 
-    String yTopStart = Double.toString(shape.getPosition().getY() + shape.getHeight() / 2.0);
+    String yTopStart = Double.toString(shape.getY() + shape.getHeight() / 2.0);
     String yTopEnd = Double.toString(
-            instruction.getEndPosn().getY() + instruction.getEndHeight() / 2.0);
+            instruction.getEndY() + instruction.getEndHeight() / 2.0);
     xml.append(generateAnimateTag("cy", begin, duration, yTopStart, yTopEnd));
 
     String widthStart = Integer.toString(shape.getWidth() / 2);
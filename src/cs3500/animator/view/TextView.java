@@ -79,26 +79,26 @@ public class TextView implements IAnimationView {
 
         stringBuilder.append(String.format(eventParamsFormat,
                 event.getStartTick(),
-                shape.getPosition().getX(),
-                shape.getPosition().getY(),
+                shape.getX(),
+                shape.getY(),
                 shape.getWidth(),
                 shape.getHeight(),
-                shape.getColor().getRed(),
-                shape.getColor().getGreen(),
-                shape.getColor().getBlue()));
+                (shape.getRgb() >> 16) & 0xFF,
+                (shape.getRgb() >> 8) & 0xFF,
+                shape.getRgb() & 0xFF));
 
         // method that executes the event instructions on the shape
         shape.executeInstructions(event);
 
         stringBuilder.append(String.format(eventParamsFormat,
                 event.getEndTick(),
-                shape.getPosition().getX(),
-                shape.getPosition().getY(),
+                shape.getX(),
+                shape.getY(),
                 shape.getWidth(),
                 shape.getHeight(),
-                shape.getColor().getRed(),
-                shape.getColor().getGreen(),
-                shape.getColor().getBlue()));
+                (shape.getRgb() >> 16) & 0xFF,
+                (shape.getRgb() >> 8) & 0xFF,
+                shape.getRgb() & 0xFF));
 
         stringBuilder.append("\n");
       }
@@ -12,6 +12,7 @@ import javax.swing.Timer;
 import javax.swing.JScrollPane;
 
 import cs3500.animator.misc.Utils;
+import cs3500.animator.model.LoadProgress;
 import cs3500.animator.model.ReadOnlyIAnimationModel;
 
 /**
@@ -25,6 +26,7 @@ import cs3500.animator.model.ReadOnlyIAnimationModel;
 public class VisualView extends JFrame implements IAnimationView, ActionListener {
   private Timer timer;
   private AnimationPanel panel;
+  private LoadProgress loading;
 
   /**
    * Constructor for a visual animation view. Sets the frame up and initializes private vars. Note
@@ -42,10 +44,21 @@ public class VisualView extends JFrame implements IAnimationView, ActionListener
 
   }
 
+  /**
+   * Plays the model while it is still loading, showing only the ticks that have loaded until
+   * everything has. Must be called before the view is displayed.
+   *
+   * @param loading how far the model has loaded, or null if it already has.
+   */
+  public void setLoadProgress(LoadProgress loading) {
+    this.loading = loading;
+  }
+
   @Override
   public void display(ReadOnlyIAnimationModel model) {
     Utils.requireNonNull(model);
     this.panel = new AnimationPanel(model);
+    this.panel.setLoadProgress(this.loading);
 
     // Setup for the frame
     setTitle("The Easy Excellence - Esketit");
@@ -7,6 +7,7 @@ import java.util.ArrayList;
 import cs3500.animator.model.AnimatedShape;
 import cs3500.animator.model.EventInstructions;
 import cs3500.animator.model.IAnimatedShape;
+import cs3500.animator.misc.ErrorMessages;
 import cs3500.animator.misc.Position2D;
 import cs3500.animator.shapes.IShape;
 import cs3500.animator.shapes.Rectangle;
@@ -440,7 +441,135 @@ public class AnimatedShapeTest {
     }
     assertEquals(this.animatedShape0.getEvents().size(), 1);
   }
-}
+  @Test
+  public void testGetShapeAtTickSameInAnyOrder() {
+    int tick = 2;
+    for (int i = 0; i < 60; i++) {
+      int length = i % 5 == 0 ? 0 : i % 7 + 1;
+      this.animatedShape0.addEvent(new EventInstructions(tick, tick + length,
+              new Position2D(i * 3, 100 - i), 10 + i, 4 + i % 3,
+              new Color(i * 4, 255 - i * 4, i % 2 * 200)));
+      tick += length;
+    }
+    int lastTick = tick;
+
+    ArrayList<IShape> forward = new ArrayList<>();
+    for (int t = 2; t <= lastTick; t++) {
+      forward.add(this.animatedShape0.getShapeAtTick(t));
+    }
+    for (int t = lastTick; t >= 2; t -= 3) {
+      IShape expected = forward.get(t - 2);
+      IShape actual = this.animatedShape0.getShapeAtTick(t);
+      assertEquals(expected.getPosition(), actual.getPosition());
+      assertEquals(expected.getWidth(), actual.getWidth());
+      assertEquals(expected.getHeight(), actual.getHeight());
+      assertEquals(expected.getColor(), actual.getColor());
+    }
+
+    // the tick where one event ends and the next starts belongs to the earlier event
+    EventInstructions second = this.animatedShape0.getEvents().get(1);
+    IShape atBoundary = this.animatedShape0.getShapeAtTick(second.getEndTick());
+    assertEquals(second.getEndPosn(), atBoundary.getPosition());
+    assertEquals(second.getEndColor(), atBoundary.getColor());
+  }
+
+  @Test
+  public void testManyKeyFramesStayInOrder() {
+    this.animatedShape0.placeKeyFrame(0, new Position2D(0, 0), 1, 1, Color.BLACK);
+    this.animatedShape0.placeKeyFrame(1000, new Position2D(1000, 0), 1, 1, Color.BLACK);
+    // split the track all over the place, so edits land far from the last one
+    for (int i = 1; i < 100; i++) {
+      int t = (i * 37) % 100 * 10;
+      this.animatedShape0.placeKeyFrame(t, new Position2D(t, t), 1 + i, 1, Color.BLUE);
+    }
+    ArrayList<EventInstructions> events = this.animatedShape0.getEvents();
+    assertEquals(100, events.size());
+    for (int i = 0; i < events.size(); i++) {
+      assertEquals(i * 10, events.get(i).getStartTick());
+      assertEquals(i * 10 + 10, events.get(i).getEndTick());
+    }
+    assertEquals(new Position2D(370, 370), this.animatedShape0.getShapeAtTick(370).getPosition());
+
+    try {
+      this.animatedShape0.placeKeyFrame(370, new Position2D(0, 0), 1, 1, Color.RED);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertEquals(ErrorMessages.KeyFrameBadTick.errorMessage(), e.getMessage());
+    }
+
+    // take out every other keyframe in the middle, the track must stay contiguous
+    for (int i = 49; i >= 1; i--) {
+      this.animatedShape0.removeKeyFrame(i * 2);
+    }
+    events = this.animatedShape0.getEvents();
+    assertEquals(51, events.size());
+    assertEquals(0, events.get(0).getStartTick());
+    for (int i = 1; i < events.size(); i++) {
+      assertEquals(events.get(i - 1).getEndTick(), events.get(i).getStartTick());
+    }
+    assertEquals(1000, this.animatedShape0.getEndTick());
+    assertEquals(new Position2D(30, 30), this.animatedShape0.getShapeAtTick(30).getPosition());
+  }
+
+
+  @Test
+  public void testSimplifyMergesOnlyWhatDrawsTheSame() {
+    IAnimatedShape shape = new AnimatedShape(new Rectangle("r",
+            new Position2D(0, 0), 10, 10, Color.RED));
+    // a straight line from 0 to 100 in four events, a pause, and a hop in between
+    for (int i = 1; i <= 4; i++) {
+      shape.addEvent(new EventInstructions(10 * (i - 1), 10 * i,
+              new Position2D(25 * i, 0), 10, 10, Color.RED));
+    }
+    shape.addEvent(new EventInstructions(40, 40, new Position2D(100, 0), 10, 10, Color.RED));
+    shape.addEvent(new EventInstructions(40, 50, new Position2D(100, 0), 10, 10, Color.RED));
+    shape.addEvent(new EventInstructions(50, 60, new Position2D(100, 0), 10, 10, Color.RED));
+    shape.addEvent(new EventInstructions(60, 61, new Position2D(100, 40), 10, 10, Color.RED));
+    shape.addEvent(new EventInstructions(61, 70, new Position2D(100, 0), 10, 10, Color.RED));
+    IAnimatedShape original = shape.copy();
+
+    assertEquals(4, shape.simplify(0, 0));
+    ArrayList<EventInstructions> events = shape.getEvents();
+    assertEquals(5, events.size());
+    assertEquals(0, events.get(0).getStartTick());
+    assertEquals(40, events.get(0).getEndTick());
+    assertEquals(40, events.get(1).getEndTick());
+    assertEquals(60, events.get(2).getEndTick());
+    for (int tick = 0; tick <= 70; tick++) {
+      assertEquals(original.getShapeAtTick(tick).getPosition(),
+              shape.getShapeAtTick(tick).getPosition());
+    }
 
+    // with a wide enough tolerance the hop goes too
+    assertEquals(2, shape.simplify(40, 0));
+    assertEquals(0, shape.simplify(40, 0));
+  }
 
+  @Test
+  public void testSegmentExtentsHoldTheSweptArea() {
+    IAnimatedShape shape = new AnimatedShape(new Rectangle("r",
+            new Position2D(0, 0), 10, 10, Color.RED));
+    shape.addEvent(new EventInstructions(0, 10, new Position2D(100, 20), 30, 10, Color.RED));
+    shape.addEvent(new EventInstructions(10, 20, new Position2D(100, 500), 30, 10, Color.RED));
+    assertEquals(new java.awt.Rectangle(0, 0, 130, 30), shape.getSegmentExtent(0));
+    assertEquals(new java.awt.Rectangle(100, 20, 30, 490), shape.getSegmentExtent(1));
+
+    java.awt.Rectangle corner = new java.awt.Rectangle(300, 300, 50, 50);
+    assertEquals(false, shape.mayOverlap(0, 20, corner));
+    java.awt.Rectangle path = new java.awt.Rectangle(110, 300, 5, 5);
+    assertEquals(true, shape.mayOverlap(0, 20, path));
+    // the first event never gets that far down, and the second isn't alive yet
+    assertEquals(false, shape.mayOverlap(0, 9, path));
+    assertEquals(false, shape.mayOverlap(21, 40, path));
+  }
 
+  @Test
+  public void testTurnedShapesSweepTheirWholeCircle() {
+    IAnimatedShape shape = new AnimatedShape(new Rectangle("r",
+            new Position2D(0, 0), 100, 2, Color.RED));
+    shape.addEvent(new EventInstructions(0, 10, new Position2D(0, 0), 100, 2, Color.RED, 90));
+    // the shape turns about its center, which sweeps far above and below where it starts
+    assertEquals(true, shape.mayOverlap(0, 10, new java.awt.Rectangle(49, -45, 2, 2)));
+    assertEquals(true, shape.getSegmentExtent(0).contains(49, -49));
+  }
+}
@@ -211,6 +211,24 @@ public class AnimationControllerTest {
             this.testModel.getAllAnimatedShapes().get(0).getEvents().get(0).getEndTick());
   }
 
+  @Test
+  public void testFailedEditLeavesNothingToUndo() {
+    this.testModel.placeAnimatedShape(
+            new AnimatedShape(new Rectangle("r0", new Position2D(1, 1), 1, 2, Color.WHITE)));
+    this.testModel.addEventInstructionToShape("r0",
+            new EventInstructions(0, 10, new Position2D(1, 1), 1, 2, Color.WHITE));
+    long version = this.testModel.getVersion();
+
+    // the view's keyframe is at tick 0, where the shape already has one
+    this.controllerWithCustomView.actionPerformed(
+            new ActionEvent(this.customTempView, 0, Command.ADD_KEYFRAME.getString()));
+    this.controllerWithCustomView.actionPerformed(
+            new ActionEvent(this.customTempView, 0, Command.UNDO.getString()));
+
+    assertEquals(version, this.testModel.getVersion());
+    assertEquals(1, this.testModel.getAllAnimatedShapes().get(0).getEvents().size());
+  }
+
   @Test
   public void testAddKeyFrame() {
     for (String actionEvent : Arrays.stream(Command.values())
@@ -2,11 +2,16 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Collections;
 
 import cs3500.animator.misc.Position2D;
 import cs3500.animator.model.AnimatedShape;
 import cs3500.animator.model.IAnimationModel;
 import cs3500.animator.model.LayeredModelImpl;
+import cs3500.animator.model.ModelEdit;
+import cs3500.animator.model.ModelEvent;
+import cs3500.animator.model.ModelSnapshot;
 import cs3500.animator.shapes.Rectangle;
 import cs3500.animator.shapes.Triangle;
 
@@ -195,4 +200,147 @@ public class AnimationLayerModelTest {
             this.layerModel1.getAllAnimatedShapes().get(0).getShape().getName());
 
   }
+
+  @Test
+  public void testLayerChangesAreReported() {
+    ArrayList<ModelEvent> events = new ArrayList<>();
+    this.layerModel1.addModelListener(events::add);
+    long version = this.layerModel1.getVersion();
+
+    this.layerModel1.setCurrentLayer(1);
+    this.layerModel1.placeAnimatedShape(new AnimatedShape(
+            new Rectangle("r0", new Position2D(3, 3), 10, 4, new Color(255))));
+    this.layerModel1.placeKeyFrame("r0", 5, new Position2D(1, 1), 2, 2, Color.RED);
+    try {
+      this.layerModel1.placeKeyFrame("r1", 5, new Position2D(1, 1), 2, 2, Color.RED);
+      fail();
+    } catch (IllegalArgumentException e) {
+      // nothing changed so nothing is reported
+    }
+    this.layerModel1.moveCurrentLayer(-1);
+
+    assertEquals(4, events.size());
+    assertEquals(ModelEvent.Type.CURRENT_LAYER_CHANGED, events.get(0).getType());
+    assertEquals(ModelEvent.Type.SHAPE_ADDED, events.get(1).getType());
+    assertEquals(1, events.get(1).getLayer());
+    assertEquals("r0", events.get(1).getShapeName());
+    assertEquals(ModelEvent.Type.SHAPE_CHANGED, events.get(2).getType());
+    assertEquals(ModelEvent.Type.LAYER_CHANGED, events.get(3).getType());
+    assertEquals(version + 4, this.layerModel1.getVersion());
+    assertEquals(this.layerModel1.getVersion(), events.get(3).getVersion());
+  }
+
+  @Test
+  public void testTimelineCoversAllLayers() {
+    this.layerModel1.placeAnimatedShape(new AnimatedShape(
+            new Rectangle("r0", new Position2D(0, 0), 10, 10, new Color(255))));
+    this.layerModel1.placeKeyFrame("r0", 5, new Position2D(0, 0), 10, 10, Color.RED);
+    this.layerModel1.placeKeyFrame("r0", 20, new Position2D(0, 0), 10, 10, Color.RED);
+    this.layerModel1.setCurrentLayer(1);
+    this.layerModel1.placeAnimatedShape(new AnimatedShape(
+            new Rectangle("r1", new Position2D(0, 0), 10, 10, new Color(255))));
+    this.layerModel1.placeKeyFrame("r1", 10, new Position2D(50, 50), 10, 10, Color.RED);
+    this.layerModel1.placeKeyFrame("r1", 40, new Position2D(50, 50), 10, 10, Color.RED);
+
+    assertEquals(5, this.layerModel1.getStartTick());
+    assertEquals(40, this.layerModel1.getEndTick());
+    assertEquals(new java.awt.Rectangle(0, 0, 60, 60), this.layerModel1.getExtent());
+    assertEquals(20, this.layerModel1.getLayerEndTick(0));
+    assertEquals(10, this.layerModel1.getLayerStartTick(1));
+    assertEquals(new java.awt.Rectangle(50, 50, 10, 10), this.layerModel1.getLayerExtent(1));
+
+    this.layerModel1.deleteLayer(1);
+    assertEquals(20, this.layerModel1.getEndTick());
+  }
+  @Test
+  public void testFailedApplyAllPutsLayersBack() {
+    this.layerModel1.placeAnimatedShape(new AnimatedShape(
+            new Rectangle("r0", new Position2D(0, 0), 10, 10, new Color(255))));
+    this.layerModel1.placeKeyFrame("r0", 5, new Position2D(0, 0), 10, 10, Color.RED);
+    ArrayList<ModelEvent> events = new ArrayList<>();
+    this.layerModel1.addModelListener(events::add);
+
+    try {
+      this.layerModel1.applyAll(Collections.singletonList(m -> {
+        m.deleteShape("r0");
+        m.setLayerState(0, false);
+        m.addLayer();
+        m.setCurrentLayer(2);
+        m.placeAnimatedShape(new AnimatedShape(
+                new Rectangle("r1", new Position2D(0, 0), 10, 10, new Color(255))));
+        m.moveCurrentLayer(1);
+      }));
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertEquals("invalid direction", e.getMessage());
+    }
+
+    assertEquals(0, events.size());
+    assertEquals(2, this.layerModel1.layerCount());
+    assertEquals(0, this.layerModel1.getCurrentLayer());
+    assertEquals(true, this.layerModel1.isEnabled(0));
+    assertEquals(1, this.layerModel1.getShapesAt(5).size());
+
+    ArrayList<ModelEdit> edits = new ArrayList<>();
+    edits.add(m -> m.setCurrentLayer(1));
+    edits.add(m -> m.placeAnimatedShape(new AnimatedShape(
+            new Rectangle("r1", new Position2D(0, 0), 10, 10, new Color(255)))));
+    edits.add(m -> m.placeKeyFrame("r1", 9, new Position2D(0, 0), 10, 10, Color.RED));
+    this.layerModel1.applyAll(edits);
+    assertEquals(1, events.size());
+    assertEquals(ModelEvent.Type.BATCH_APPLIED, events.get(0).getType());
+    assertEquals(9, this.layerModel1.getEndTick());
+  }
+
+  @Test
+  public void testRestoreLayers() {
+    this.layerModel1.setCurrentLayer(1);
+    this.layerModel1.placeAnimatedShape(new AnimatedShape(
+            new Rectangle("r0", new Position2D(0, 0), 10, 10, new Color(255))));
+    this.layerModel1.placeKeyFrame("r0", 5, new Position2D(0, 0), 10, 10, Color.RED);
+    ModelSnapshot before = this.layerModel1.snapshot();
+
+    this.layerModel1.placeKeyFrame("r0", 15, new Position2D(0, 0), 10, 10, Color.RED);
+    this.layerModel1.setLayerState(0, false);
+    this.layerModel1.addLayer();
+    this.layerModel1.deleteLayer(1);
+    assertEquals(2, this.layerModel1.layerCount());
+
+    this.layerModel1.restore(before);
+    assertEquals(2, this.layerModel1.layerCount());
+    assertEquals(1, this.layerModel1.getCurrentLayer());
+    assertEquals(true, this.layerModel1.isEnabled(0));
+    assertEquals(5, this.layerModel1.getEndTick());
+    assertEquals(1, this.layerModel1.getShapesFromLayerAtTick(1, 5).size());
+  }
+
+  @Test
+  public void testLayerIdsSurviveReordering() {
+    this.layerModel1.addLayer();
+    this.layerModel1.addLayer();
+    assertEquals(0, this.layerModel1.getLayerId(0));
+    assertEquals(3, this.layerModel1.getLayerId(3));
+    this.layerModel1.setCurrentLayer(1);
+
+    this.layerModel1.moveLayer(1, 3);
+    assertEquals(3, this.layerModel1.getCurrentLayer());
+    assertEquals(1, this.layerModel1.getLayerId(3));
+    assertEquals(2, this.layerModel1.getLayerIndex(3));
+
+    this.layerModel1.deleteLayer(0);
+    this.layerModel1.addLayer();
+    assertEquals(4, this.layerModel1.getLayerId(3));
+    assertEquals(-1, this.layerModel1.getLayerIndex(0));
+
+    this.layerModel1.reorderLayers(new int[]{1, 4, 3, 2});
+    assertEquals(0, this.layerModel1.getCurrentLayer());
+    assertEquals(3, this.layerModel1.getLayerIndex(2));
+    try {
+      this.layerModel1.reorderLayers(new int[]{1, 1, 3, 2});
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertEquals("Invalid Layer", e.getMessage());
+    }
+  }
+
 }
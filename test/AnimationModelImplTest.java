@@ -8,9 +8,17 @@ import cs3500.animator.misc.ErrorMessages;
 import cs3500.animator.model.AnimatedShape;
 import cs3500.animator.model.AnimationModelImpl;
 import cs3500.animator.model.EventInstructions;
+import cs3500.animator.model.FrameBuffer;
 import cs3500.animator.model.IAnimatedShape;
 import cs3500.animator.misc.Position2D;
 import cs3500.animator.model.IAnimationModel;
+import cs3500.animator.model.IModelListener;
+import cs3500.animator.model.ModelEdit;
+import cs3500.animator.model.LayeredModelImpl;
+import cs3500.animator.model.ModelEvent;
+import cs3500.animator.model.ModelSnapshot;
+import cs3500.animator.model.PrimitiveAnimatedShape;
+import cs3500.animator.shapes.Ellipse;
 import cs3500.animator.shapes.IShape;
 import cs3500.animator.shapes.Rectangle;
 import cs3500.animator.shapes.Triangle;
@@ -376,4 +384,399 @@ public class AnimationModelImplTest {
     assertEquals(as0.getShape().getName(), simple.getShapesAt(35).get(0).getName());
   }
 
+  @Test
+  public void testDrawOrderKeptAfterDeletingShape() {
+    IAnimatedShape as2 = new AnimatedShape(
+            new Rectangle("r1", new Position2D(0, 0), 5, 5, Color.BLUE));
+    model.placeAnimatedShape(as0);
+    model.placeAnimatedShape(as1);
+    model.placeAnimatedShape(as2);
+    model.deleteShape("r0");
+    assertEquals(2, model.getAllAnimatedShapes().size());
+    assertEquals("t0", model.getAllAnimatedShapes().get(0).getShape().getName());
+    assertEquals("r1", model.getAllAnimatedShapes().get(1).getShape().getName());
+
+    model.placeAnimatedShape(as1);
+    assertEquals("r0", model.getAllAnimatedShapes().get(2).getShape().getName());
+  }
+
+  @Test
+  public void testSetArrayListWithDuplicateNames() {
+    ArrayList<IAnimatedShape> testArrayList = new ArrayList<>();
+    testArrayList.add(as1);
+    testArrayList.add(new AnimatedShape(as1));
+    try {
+      this.model.setListOfAnimatedShapes(testArrayList);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertEquals(ErrorMessages.DuplicateShape.errorMessage(), e.getMessage());
+    }
+  }
+
+  @Test
+  public void testLookupByNameWithManyShapes() {
+    for (int i = 0; i < 1000; i++) {
+      model.placeAnimatedShape(new AnimatedShape(
+              new Rectangle("r" + i, new Position2D(0, 0), 5, 5, Color.BLUE)));
+    }
+    model.addEventInstructionToShape("r999", testEvent0);
+    model.placeKeyFrame("r500", 3, new Position2D(1, 1), 2, 2, Color.RED);
+    assertEquals(1000, model.getAllAnimatedShapes().size());
+    assertEquals(1, model.getAllAnimatedShapes().get(999).getEvents().size());
+    assertEquals(1, model.getAllAnimatedShapes().get(500).getEvents().size());
+    assertEquals(0, model.getAllAnimatedShapes().get(0).getEvents().size());
+  }
+
+  @Test
+  public void testShapesAtMatchesLifetimesAfterEdits() {
+    for (int i = 0; i < 200; i++) {
+      IAnimatedShape s = new AnimatedShape(
+              new Rectangle("r" + i, new Position2D(0, 0), 5, 5, Color.BLUE));
+      s.addEvent(new EventInstructions((i * 7) % 50, (i * 7) % 50 + i % 13,
+              new Position2D(i, i), 5, 5, Color.RED));
+      model.placeAnimatedShape(s);
+    }
+    model.placeKeyFrame("r3", 90, new Position2D(1, 1), 2, 2, Color.RED);
+    model.placeKeyFrame("r4", 0, new Position2D(1, 1), 2, 2, Color.RED);
+    model.deleteShape("r5");
+    model.removeKeyFrame("r6", 1);
+    model.addEventInstructionToShape("r7", new EventInstructions(56, 120,
+            new Position2D(1, 1), 2, 2, Color.RED));
+
+    for (int tick = 0; tick < 130; tick++) {
+      ArrayList<String> expected = new ArrayList<>();
+      for (IAnimatedShape s : model.getAllAnimatedShapes()) {
+        ArrayList<EventInstructions> events = s.getEvents();
+        if (events.size() > 0 && events.get(0).getStartTick() <= tick
+                && tick <= events.get(events.size() - 1).getEndTick()) {
+          expected.add(s.getShape().getName());
+        }
+      }
+      ArrayList<String> actual = new ArrayList<>();
+      for (IShape s : model.getShapesAt(tick)) {
+        actual.add(s.getName());
+      }
+      assertEquals(expected, actual);
+    }
+  }
+
+  @Test
+  public void testSampledFrameMatchesShapesAt() {
+    for (int i = 0; i < 60; i++) {
+      IAnimatedShape s = i % 2 == 0
+              ? new AnimatedShape(new Rectangle("r" + i, new Position2D(i, 0), 5, 5, Color.BLUE))
+              : new PrimitiveAnimatedShape(
+                      new Ellipse("e" + i, new Position2D(0, i), 5, 5, Color.BLUE));
+      int start = (i * 11) % 40;
+      s.addEvent(new EventInstructions(start, start + i % 9,
+              new Position2D(i * 3, i), 5 + i, 5, new Color(i * 4, 255 - i, 7), i));
+      s.addEvent(new EventInstructions(start + i % 9, start + 20,
+              new Position2D(1, 2), 9, 2 * i, new Color(3, i, 200), 360 - i));
+      model.placeAnimatedShape(s);
+    }
+    FrameBuffer frame = new FrameBuffer();
+    for (int tick = 0; tick < 70; tick++) {
+      ArrayList<IShape> shapes = model.getShapesAt(tick);
+      model.sampleLayerAtTick(0, tick, frame);
+      assertEquals(shapes.size(), frame.size());
+      for (int i = 0; i < shapes.size(); i++) {
+        IShape s = shapes.get(i);
+        assertEquals(s.getName(), frame.getName(i));
+        assertEquals(s.asString(), frame.getType(i));
+        assertEquals(s.getPosition().getX(), frame.getX(i));
+        assertEquals(s.getPosition().getY(), frame.getY(i));
+        assertEquals(s.getWidth(), frame.getWidth(i));
+        assertEquals(s.getHeight(), frame.getHeight(i));
+        assertEquals(s.getColor(), new Color(frame.getRgb(i)));
+        assertEquals(s.getAngle(), frame.getAngle(i));
+      }
+    }
+  }
+
+  @Test
+  public void testAllAnimatedShapesAreReadOnlyViews() {
+    model.placeAnimatedShape(as1);
+    IAnimatedShape view = model.getAllAnimatedShapes().get(0);
+    try {
+      view.addEvent(testEvent0);
+      fail();
+    } catch (UnsupportedOperationException e) {
+      assertEquals(ErrorMessages.ReadOnlyShape.errorMessage(), e.getMessage());
+    }
+    // the view follows the shape in the model
+    model.addEventInstructionToShape("r0", testEvent0);
+    assertEquals(1, view.getEvents().size());
+
+    // a copy can be changed without changing the model
+    IAnimatedShape copy = view.copy();
+    copy.placeKeyFrame(100, new Position2D(1, 1), 2, 2, Color.RED);
+    assertEquals(2, copy.getEvents().size());
+    assertEquals(1, model.getAllAnimatedShapes().get(0).getEvents().size());
+
+    // placing a view in another model places a copy of it
+    IAnimationModel other = new AnimationModelImpl();
+    other.placeAnimatedShape(view);
+    other.placeKeyFrame("r0", 100, new Position2D(1, 1), 2, 2, Color.RED);
+    assertEquals(2, other.getAllAnimatedShapes().get(0).getEvents().size());
+    assertEquals(1, model.getAllAnimatedShapes().get(0).getEvents().size());
+  }
+
+  @Test
+  public void testVersionAndListeners() {
+    ArrayList<ModelEvent> events = new ArrayList<>();
+    IModelListener listener = events::add;
+    model.addModelListener(listener);
+    long version = model.getVersion();
+    model.placeAnimatedShape(as1);
+    model.addEventInstructionToShape("r0", testEvent0);
+    model.addEventInstructionToShape("not there", testEvent0);
+    model.deleteShape("r0");
+    model.deleteShape("r0");
+    assertEquals(version + 3, model.getVersion());
+    assertEquals(3, events.size());
+    assertEquals(ModelEvent.Type.SHAPE_ADDED, events.get(0).getType());
+    assertEquals(ModelEvent.Type.SHAPE_CHANGED, events.get(1).getType());
+    assertEquals(ModelEvent.Type.SHAPE_REMOVED, events.get(2).getType());
+    assertEquals("r0", events.get(2).getShapeName());
+
+    model.removeModelListener(listener);
+    model.placeAnimatedShape(as0);
+    assertEquals(3, events.size());
+    assertEquals(version + 4, model.getVersion());
+  }
+
+  @Test
+  public void testTimelineKeptUpToDate() {
+    assertEquals(-1, model.getStartTick());
+    assertEquals(-1, model.getEndTick());
+    assertEquals(new java.awt.Rectangle(), model.getExtent());
+
+    model.placeAnimatedShape(as1);
+    model.addEventInstructionToShape("r0", testEvent0);
+    assertEquals(10, model.getStartTick());
+    assertEquals(50, model.getEndTick());
+    // from (3, 3) 10x4 to (300, 300) 50x100
+    assertEquals(new java.awt.Rectangle(3, 3, 347, 397), model.getExtent());
+
+    model.placeAnimatedShape(as0);
+    model.placeKeyFrame("t0", 70, new Position2D(-5.5, 20), 2, 2, Color.RED);
+    model.placeKeyFrame("t0", 5, new Position2D(1, 1), 2, 2, Color.RED);
+    assertEquals(5, model.getStartTick());
+    assertEquals(70, model.getEndTick());
+    assertEquals(new java.awt.Rectangle(-6, 1, 356, 399), model.getExtent());
+
+    // a keyframe inside the shape's lifetime can still grow the extent
+    model.placeKeyFrame("r0", 30, new Position2D(400, 0), 2, 2, Color.RED);
+    assertEquals(new java.awt.Rectangle(-6, 0, 408, 400), model.getExtent());
+
+    model.deleteShape("t0");
+    assertEquals(10, model.getStartTick());
+    assertEquals(50, model.getEndTick());
+    assertEquals(new java.awt.Rectangle(3, 0, 399, 400), model.getExtent());
+  }
+
+  @Test
+  public void testApplyAllIsOneChange() {
+    model.placeAnimatedShape(as1);
+    model.addEventInstructionToShape("r0", testEvent0);
+    ArrayList<ModelEvent> events = new ArrayList<>();
+    model.addModelListener(events::add);
+    long version = model.getVersion();
+
+    ArrayList<ModelEdit> edits = new ArrayList<>();
+    edits.add(m -> m.placeAnimatedShape(as0));
+    edits.add(m -> m.placeKeyFrame("t0", 5, new Position2D(1, 1), 2, 2, Color.RED));
+    edits.add(m -> {
+      m.placeKeyFrame("t0", 80, new Position2D(1, 1), 2, 2, Color.RED);
+      // the timeline is only worked out again once the batch is done
+      assertEquals(50, m.getEndTick());
+    });
+    edits.add(m -> m.placeKeyFrame("r0", 30, new Position2D(0, 0), 2, 2, Color.RED));
+    model.applyAll(edits);
+
+    assertEquals(1, events.size());
+    assertEquals(ModelEvent.Type.BATCH_APPLIED, events.get(0).getType());
+    assertEquals(version + 1, model.getVersion());
+    assertEquals(5, model.getStartTick());
+    assertEquals(80, model.getEndTick());
+    assertEquals(2, model.getShapesAt(20).size());
+    assertEquals(2, model.getAllAnimatedShapes().get(0).getEvents().size());
+  }
+
+  @Test
+  public void testFailedApplyAllChangesNothing() {
+    model.placeAnimatedShape(as1);
+    model.addEventInstructionToShape("r0", testEvent0);
+    model.placeAnimatedShape(as0);
+    model.placeKeyFrame("t0", 60, new Position2D(1, 1), 2, 2, Color.RED);
+    IAnimatedShape r0 = model.getAllAnimatedShapes().get(0);
+    ArrayList<ModelEvent> events = new ArrayList<>();
+    model.addModelListener(events::add);
+    long version = model.getVersion();
+
+    ArrayList<ModelEdit> edits = new ArrayList<>();
+    edits.add(m -> m.placeKeyFrame("r0", 30, new Position2D(0, 0), 2, 2, Color.RED));
+    edits.add(m -> m.placeKeyFrame("r0", 90, new Position2D(0, 0), 2, 2, Color.RED));
+    edits.add(m -> m.deleteShape("t0"));
+    edits.add(m -> m.placeAnimatedShape(new AnimatedShape(
+            new Rectangle("r1", new Position2D(0, 0), 1, 1, Color.RED))));
+    edits.add(m -> m.setBounds(0, 0, 5, 5));
+    edits.add(m -> m.placeKeyFrame("not there", 30, new Position2D(0, 0), 2, 2, Color.RED));
+    try {
+      model.applyAll(edits);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertEquals(ErrorMessages.ShapeNotInModel.errorMessage(), e.getMessage());
+    }
+
+    assertEquals(0, events.size());
+    assertEquals(version, model.getVersion());
+    assertEquals(2, model.getAllAnimatedShapes().size());
+    assertEquals(1, model.getAllAnimatedShapes().get(0).getEvents().size());
+    assertEquals(new java.awt.Rectangle(1000, 1000), model.getBounds());
+    assertEquals(10, model.getStartTick());
+    assertEquals(60, model.getEndTick());
+    assertEquals(1, model.getShapesAt(40).size());
+    assertEquals(r0.getShape().getName(), model.getShapesAt(40).get(0).getName());
+    assertEquals("t0", model.getShapesAt(60).get(0).getName());
+    assertEquals(new Position2D(300, 300), model.getShapesAt(50).get(0).getPosition());
+  }
+
+  @Test
+  public void testFailedKeyFrameEditsChangeNothing() {
+    IAnimationModel layered = new LayeredModelImpl();
+    layered.placeAnimatedShape(as1);
+    layered.addEventInstructionToShape("r0", testEvent0);
+    layered.snapshot();
+    ArrayList<ModelEvent> events = new ArrayList<>();
+    layered.addModelListener(events::add);
+    long version = layered.getVersion();
+
+    try {
+      layered.placeKeyFrame("r0", 10, new Position2D(0, 0), 2, 2, Color.RED);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertEquals(ErrorMessages.KeyFrameBadTick.errorMessage(), e.getMessage());
+    }
+    try {
+      layered.removeKeyFrame("r0", 5);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertEquals("KeyEvent Doesn't exist at this time", e.getMessage());
+    }
+
+    assertEquals(0, events.size());
+    assertEquals(version, layered.getVersion());
+    assertEquals(1, layered.getAllAnimatedShapes().get(0).getEvents().size());
+  }
+
+  @Test
+  public void testSnapshotsAreUnchangedByEdits() {
+    model.placeAnimatedShape(as1);
+    model.addEventInstructionToShape("r0", testEvent0);
+    model.placeAnimatedShape(as0);
+    model.placeKeyFrame("t0", 20, new Position2D(0, 0), 2, 2, Color.RED);
+    ModelSnapshot start = model.snapshot();
+
+    model.placeKeyFrame("r0", 30, new Position2D(0, 0), 2, 2, Color.RED);
+    model.deleteShape("t0");
+    model.setBounds(0, 0, 5, 5);
+    ModelSnapshot edited = model.snapshot();
+    model.placeKeyFrame("r0", 60, new Position2D(0, 0), 2, 2, Color.RED);
+
+    ArrayList<ModelEvent> events = new ArrayList<>();
+    model.addModelListener(events::add);
+    model.restore(start);
+    assertEquals(1, events.size());
+    assertEquals(ModelEvent.Type.RESTORED, events.get(0).getType());
+    assertEquals(2, model.getAllAnimatedShapes().size());
+    assertEquals(1, model.getAllAnimatedShapes().get(0).getEvents().size());
+    assertEquals(new java.awt.Rectangle(1000, 1000), model.getBounds());
+    assertEquals(50, model.getEndTick());
+    assertEquals(2, model.getShapesAt(20).size());
+
+    // editing the restored model doesn't change the snapshot it came from
+    model.removeKeyFrame("r0", 1);
+    model.deleteShape("r0");
+    model.restore(edited);
+    assertEquals(1, model.getAllAnimatedShapes().size());
+    assertEquals(2, model.getAllAnimatedShapes().get(0).getEvents().size());
+    assertEquals(new java.awt.Rectangle(0, 0, 5, 5), model.getBounds());
+    assertEquals(new Position2D(0, 0), model.getShapesAt(30).get(0).getPosition());
+
+    model.restore(start);
+    assertEquals(1, model.getAllAnimatedShapes().get(0).getEvents().size());
+    assertEquals(10, model.getStartTick());
+    assertEquals(1, model.getShapesAt(30).size());
+    try {
+      model.restore(new LayeredModelImpl().snapshot());
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertEquals(ErrorMessages.BadSnapshot.errorMessage(), e.getMessage());
+    }
+  }
+
+
+  @Test
+  public void testSimplifyIsOneChange() {
+    IAnimationModel layered = new LayeredModelImpl();
+    layered.addLayer();
+    for (int layer = 0; layer < 2; layer++) {
+      layered.setCurrentLayer(layer);
+      String name = "r" + layer;
+      layered.placeAnimatedShape(new AnimatedShape(
+              new Rectangle(name, new Position2D(0, 0), 10, 10, Color.RED)));
+      for (int t = 0; t <= 50; t += 10) {
+        layered.placeKeyFrame(name, t, new Position2D(t, t), 10, 10, Color.RED);
+      }
+    }
+    ModelSnapshot before = layered.snapshot();
+    ArrayList<ModelEvent> events = new ArrayList<>();
+    layered.addModelListener(events::add);
+
+    assertEquals(8, layered.simplify(0.5, 0));
+    assertEquals(1, events.size());
+    assertEquals(ModelEvent.Type.BATCH_APPLIED, events.get(0).getType());
+    assertEquals(1, layered.getLayerAnimatedShapes(0).get(0).getEvents().size());
+    assertEquals(new Position2D(25, 25), layered.getShapesFromLayerAtTick(1, 25).get(0)
+            .getPosition());
+    assertEquals(0, layered.simplify(0.5, 0));
+    assertEquals(1, events.size());
+
+    layered.restore(before);
+    assertEquals(5, layered.getLayerAnimatedShapes(1).get(0).getEvents().size());
+  }
+
+  @Test
+  public void testShapesAreFoundByTheirIds() {
+    // enough shapes for the ids to need more than one level of the id array
+    for (int i = 0; i < 2000; i++) {
+      assertEquals(i, model.placeAnimatedShape(new AnimatedShape(
+              new Rectangle("r" + i, new Position2D(i, 0), 10, 10, Color.RED))));
+    }
+    ArrayList<IAnimatedShape> shapes = model.getAllAnimatedShapes();
+    for (int i = 0; i < 2000; i += 37) {
+      assertEquals(i, shapes.get(i).getId());
+      assertEquals("r" + i, model.getAnimatedShape(0, i).getShape().getName());
+    }
+    assertEquals(null, model.getAnimatedShape(0, 2000));
+    assertEquals(null, model.getAnimatedShape(0, -1));
+
+    model.addEventInstructionToShape(1500, testEvent0);
+    assertEquals(1, model.getAnimatedShape(0, 1500).getEvents().size());
+    FrameBuffer frame = new FrameBuffer();
+    model.sampleLayerAtTick(0, 20, frame);
+    assertEquals(1, frame.size());
+    assertEquals(1500, frame.getId(0));
+
+    ModelSnapshot before = model.snapshot();
+    model.deleteShape("r1500");
+    assertEquals(null, model.getAnimatedShape(0, 1500));
+    // ids are never handed out again
+    assertEquals(2000, model.placeAnimatedShape(as0));
+    model.restore(before);
+    assertEquals("r1500", model.getAnimatedShape(0, 1500).getShape().getName());
+    assertEquals(null, model.getAnimatedShape(0, 2000));
+    assertEquals(-1, as0.getId());
+  }
 }
@@ -0,0 +1,211 @@
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import cs3500.animator.util.AnimationBuilder;
+import cs3500.animator.util.AnimationReader;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.fail;
+
+/**
+ * Tests that the animation reader splits input into tokens like it always has and hands the
+ * builder what it read, and that it reports bad input with the same messages.
+ */
+public class AnimationReaderTest {
+
+  /**
+   * A builder that writes down every call made to it.
+   */
+  static class RecordingBuilder implements AnimationBuilder<String> {
+    final StringBuilder calls = new StringBuilder();
+
+    @Override
+    public String build() {
+      return this.calls.toString();
+    }
+
+    @Override
+    public AnimationBuilder<String> setBounds(int x, int y, int width, int height) {
+      this.calls.append("canvas ").append(x).append(" ").append(y).append(" ").append(width)
+              .append(" ").append(height).append("\n");
+      return this;
+    }
+
+    @Override
+    public AnimationBuilder<String> declareShape(String name, String type) {
+      this.calls.append("shape ").append(name).append(" ").append(type).append("\n");
+      return this;
+    }
+
+    @Override
+    public AnimationBuilder<String> addMotion(String name, int t1, int x1, int y1, int w1,
+                                              int h1, int r1, int g1, int b1, int a1, int t2,
+                                              int x2, int y2, int w2, int h2, int r2, int g2,
+                                              int b2, int a2) {
+      this.calls.append("motion ").append(name).append(" ").append(Arrays.toString(new int[]{
+          t1, x1, y1, w1, h1, r1, g1, b1, a1, t2, x2, y2, w2, h2, r2, g2, b2, a2})).append("\n");
+      return this;
+    }
+
+    @Override
+    public AnimationBuilder<String> addKeyframe(String name, int t, int x, int y, int w, int h,
+                                                int r, int g, int b) {
+      return this;
+    }
+
+    @Override
+    public void setLayer(int layer) {
+      this.calls.append("layer ").append(layer).append("\n");
+    }
+  }
+
+  private String read(String input) {
+    return AnimationReader.parseFile(new StringReader(input), new RecordingBuilder());
+  }
+
+  /**
+   * Reads the input expecting it to be rejected, and gives the message it was rejected with.
+   */
+  private String rejection(String input) {
+    try {
+      this.read(input);
+    } catch (RuntimeException e) {
+      return e.getMessage();
+    }
+    fail("Expected " + input + " to be rejected");
+    return null;
+  }
+
+  @Test
+  public void testReadsEveryKindOfLine() {
+    assertEquals("canvas 200 70 360 360\n"
+                    + "shape R rectangle\n"
+                    + "layer 1\n"
+                    + "motion R [1, 200, 200, 50, 100, 255, 0, 0, 0, 10, 200, 200, 50, 100, 255,"
+                    + " 0, 0, 0]\n"
+                    + "motion R [10, 200, 200, 50, 100, 255, 0, 0, 45, 50, -3, 300, 50, 100, 255,"
+                    + " 0, 0, 90]\n",
+            this.read("canvas 200 70 360 360\n"
+                    + "shape R rectangle\n"
+                    + "layer 1\n"
+                    + "motion R 1 200 200 50 100 255 0 0    10 200 200 50 100 255 0 0\n"
+                    + "motion R 10 200 200 50 100 255 0 0 45 50 -3 300 50 100 255 0 0 +90\n"));
+  }
+
+  @Test
+  public void testCommentsAndWhitespace() {
+    assertEquals("shape R rectangle\nshape C ellipse\n",
+            this.read("# a comment\r\n\tshape R#a comment right after a token\n"
+                    + "rectangle # shape X ellipse\n\u000B\fshape C ellipse\n# no line break"));
+  }
+
+  @Test
+  public void testTokensAcrossReads() {
+    StringBuilder input = new StringBuilder();
+    StringBuilder expected = new StringBuilder();
+    for (int i = 0; i < 5000; i++) {
+      input.append("shape shapeNumber").append(i).append(" rectangle  # comment\n");
+      expected.append("shape shapeNumber").append(i).append(" rectangle\n");
+    }
+    assertEquals(expected.toString(), this.read(input.toString()));
+    // a source that is not a Reader is read through a CharBuffer
+    assertEquals(expected.toString(), AnimationReader.parseFile(
+            CharBuffer.wrap(input), new RecordingBuilder()));
+  }
+
+  @Test
+  public void testBadInputMessages() {
+    assertEquals("Unexpected keyword: rect 1 2", this.rejection("shape R rectangle\nrect 1 2\n"));
+    assertEquals("Canvas: expected integer for width, got: wide",
+            this.rejection("canvas 0 0 wide 10"));
+    assertEquals("Canvas: expected integer for height, but no more input available",
+            this.rejection("canvas 0 0 10"));
+    assertEquals("Canvas: expected integer for top, got: 99999999999",
+            this.rejection("canvas 0 99999999999 10 10"));
+    assertEquals("Shape: Expected a type, but no more input available",
+            this.rejection("shape R"));
+    assertEquals("Motion: Expected a shape name, but no more input available",
+            this.rejection("shape R rectangle motion"));
+    assertEquals("Invalid layer format", this.rejection("layer # 1"));
+    assertEquals("Index 15 out of bounds for length 15",
+            this.rejection("motion R 1 2 3 4 5 6 7 8 9 10 11 12 13 14 15"));
+  }
+
+  @Test
+  public void testMappedFileReadsLikeAReader() throws IOException {
+    StringBuilder input = new StringBuilder("canvas 0 0 800 600\r\n# a comment\n");
+    input.append("shape caf\u00e9 ellipse\nlayer 2\n");
+    for (int i = 0; i < 2000; i++) {
+      input.append("motion caf\u00e9 ").append(i).append(" 1 2 3 4 5 6 7 ").append(i + 1)
+              .append(" -1 2 3 4 5 6 7#end\n");
+    }
+    Path file = Files.createTempFile("animation", ".txt");
+    try {
+      Files.write(file, input.toString().getBytes(StandardCharsets.UTF_8));
+      assertEquals(this.read(input.toString()),
+              AnimationReader.parseFile(file, new RecordingBuilder()));
+
+      Files.write(file, "shape R rectangle\nrect 1 2".getBytes(StandardCharsets.UTF_8));
+      try {
+        AnimationReader.parseFile(file, new RecordingBuilder());
+        fail("Expected the file to be rejected");
+      } catch (IllegalStateException e) {
+        assertEquals("Unexpected keyword: rect 1 2", e.getMessage());
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test(expected = NoSuchFileException.class)
+  public void testMissingFile() throws IOException {
+    AnimationReader.parseFile(Paths.get("no such animation file.txt"), new RecordingBuilder());
+  }
+
+  @Test
+  public void testParallelParseMatchesOneThread() throws IOException {
+    StringBuilder input = new StringBuilder("canvas 0 0 800 600\n");
+    for (int i = 0; i < 300; i++) {
+      input.append("layer ").append(i % 3).append("\nshape s").append(i).append(" rectangle\n")
+              .append("motion s").append(i).append(" 0 1 2 3 4 5 6 7 # a comment\n")
+              .append("  10 1 2 3 4 5 6 7\nmotion s").append(i).append(" 10 1 2 3 4 5 6 7 0\n")
+              .append("20 1 2 3 4 5 6 7 90\n");
+    }
+    ForkJoinPool pool = new ForkJoinPool(3);
+    Path file = Files.createTempFile("animation", ".txt");
+    try {
+      Files.write(file, input.toString().getBytes(StandardCharsets.UTF_8));
+      for (int chunkSize : new int[]{1, 7, 100, 1 << 20}) {
+        assertEquals(this.read(input.toString()), AnimationReader.parseFileInParallel(file,
+                new RecordingBuilder(), pool, chunkSize));
+      }
+
+      // a shape named like a number, and a bad keyword in the middle of the file
+      input.append("shape 12 ellipse\nmotion 12 0 1 2 3 4 5 6 7 1 1 2 3 4 5 6 7\nrect 1 2\n");
+      input.append("shape after rectangle\n");
+      Files.write(file, input.toString().getBytes(StandardCharsets.UTF_8));
+      RecordingBuilder builder = new RecordingBuilder();
+      try {
+        AnimationReader.parseFileInParallel(file, builder, pool, 64);
+        fail("Expected the file to be rejected");
+      } catch (IllegalStateException e) {
+        assertEquals("Unexpected keyword: rect 1 2", e.getMessage());
+      }
+      assertEquals(true, builder.calls.toString().endsWith("shape 12 ellipse\n"
+              + "motion 12 [0, 1, 2, 3, 4, 5, 6, 7, 0, 1, 1, 2, 3, 4, 5, 6, 7, 0]\n"));
+    } finally {
+      Files.delete(file);
+      pool.shutdown();
+    }
+  }
+}
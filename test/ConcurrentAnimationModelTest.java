@@ -0,0 +1,100 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import cs3500.animator.misc.ErrorMessages;
+import cs3500.animator.misc.Position2D;
+import cs3500.animator.model.AnimatedShape;
+import cs3500.animator.model.ConcurrentAnimationModel;
+import cs3500.animator.model.FrameBuffer;
+import cs3500.animator.model.IAnimationModel;
+import cs3500.animator.model.LayeredModelImpl;
+import cs3500.animator.model.ModelEvent;
+import cs3500.animator.model.ReadOnlyIAnimationModel;
+import cs3500.animator.shapes.Rectangle;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.fail;
+
+/**
+ * Tests that the ConcurrentAnimationModel publishes whole edits as snapshots.
+ */
+public class ConcurrentAnimationModelTest {
+  IAnimationModel model;
+
+  @Before
+  public void setup() {
+    IAnimationModel source = new LayeredModelImpl();
+    source.placeAnimatedShape(new AnimatedShape(
+            new Rectangle("r0", new Position2D(0, 0), 10, 10, Color.RED)));
+    source.placeKeyFrame("r0", 0, new Position2D(5, 5), 10, 10, Color.RED);
+    source.placeKeyFrame("r0", 1000, new Position2D(5, 5), 10, 10, Color.RED);
+    this.model = new ConcurrentAnimationModel(source);
+  }
+
+  @Test
+  public void testSnapshotsDoNotChange() {
+    ReadOnlyIAnimationModel before = this.model.consistentView();
+    ArrayList<ModelEvent> events = new ArrayList<>();
+    this.model.addModelListener(events::add);
+
+    this.model.placeKeyFrame("r0", 500, new Position2D(50, 50), 10, 10, Color.BLUE);
+    this.model.addLayer();
+
+    assertEquals(1, before.getAllAnimatedShapes().get(0).getEvents().size());
+    assertEquals(1, before.layerCount());
+    assertEquals(new Position2D(5, 5), before.getShapesAt(500).get(0).getPosition());
+    assertEquals(2, this.model.getAllAnimatedShapes().get(0).getEvents().size());
+    assertEquals(2, this.model.layerCount());
+    assertEquals(new Position2D(50, 50), this.model.getShapesAt(500).get(0).getPosition());
+
+    assertEquals(2, events.size());
+    assertEquals(ModelEvent.Type.SHAPE_CHANGED, events.get(0).getType());
+    assertEquals(ModelEvent.Type.LAYER_CHANGED, events.get(1).getType());
+    assertEquals(this.model.getVersion(), events.get(1).getVersion());
+  }
+
+  @Test
+  public void testFailedEditPublishesNothing() {
+    ReadOnlyIAnimationModel before = this.model.consistentView();
+    long version = this.model.getVersion();
+    try {
+      this.model.placeKeyFrame("r0", 1000, new Position2D(1, 1), 1, 1, Color.BLUE);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertEquals(ErrorMessages.KeyFrameBadTick.errorMessage(), e.getMessage());
+    }
+    assertEquals(before, this.model.consistentView());
+    assertEquals(version, this.model.getVersion());
+  }
+
+  @Test
+  public void testReadersNeverSeeHalfAnEdit() throws InterruptedException {
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    Thread reader = new Thread(() -> {
+      FrameBuffer frame = new FrameBuffer();
+      try {
+        for (int i = 0; i < 2000; i++) {
+          // every keyframe is at the same place, so any whole state draws the shape there
+          ReadOnlyIAnimationModel state = this.model.consistentView();
+          state.sampleLayerAtTick(0, i % 1000, frame);
+          assertEquals(1, frame.size());
+          assertEquals(5.0, frame.getX(0));
+        }
+      } catch (Throwable t) {
+        failure.set(t);
+      }
+    });
+    reader.start();
+    for (int t = 1; t < 1000; t += 7) {
+      this.model.placeKeyFrame("r0", t, new Position2D(5, 5), 10, 10, Color.RED);
+    }
+    reader.join();
+    assertNull(failure.get());
+    assertEquals(144, this.model.getAllAnimatedShapes().get(0).getEvents().size());
+  }
+}
@@ -69,4 +69,22 @@ public class EventInstructionsTest {
             50, 100, new Color(255, 0, 0));
   }
 
+  @Test
+  public void testPrimitiveGetters() {
+    assertEquals(300.0, testEvent1.getEndX());
+    assertEquals(300.0, testEvent1.getEndY());
+    assertEquals(new Color(255, 0, 0).getRGB(), testEvent1.getEndRgb());
+    EventInstructions raw = new EventInstructions(10, 50, 300, 300, 50, 100,
+            new Color(255, 0, 0).getRGB(), 0);
+    assertEquals(testEvent1.getEndPosn(), raw.getEndPosn());
+    assertEquals(testEvent1.getEndColor(), raw.getEndColor());
+  }
+
+  @Test
+  public void testColorsComeBackOpaque() {
+    EventInstructions clear = new EventInstructions(0, 1, new Position2D(0, 0), 1, 1,
+            new Color(10, 20, 30, 40));
+    assertEquals(new Color(10, 20, 30), clear.getEndColor());
+    assertEquals(new Color(10, 20, 30).getRGB(), new EventInstructions(clear).getEndRgb());
+  }
 }
@@ -0,0 +1,117 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+
+import cs3500.animator.misc.Position2D;
+import cs3500.animator.model.AnimatedShape;
+import cs3500.animator.model.FrameBuffer;
+import cs3500.animator.model.FrameSampler;
+import cs3500.animator.model.IAnimationModel;
+import cs3500.animator.model.LayeredModelImpl;
+import cs3500.animator.shapes.Rectangle;
+
+import static junit.framework.TestCase.assertEquals;
+
+/**
+ * Tests that sampling across a pool gives the same frame as sampling on one thread.
+ */
+public class FrameSamplerTest {
+  IAnimationModel model;
+
+  @Before
+  public void setup() {
+    this.model = new LayeredModelImpl();
+    this.model.addLayer();
+    this.model.addLayer();
+    for (int layer = 0; layer < 3; layer++) {
+      this.model.setCurrentLayer(layer);
+      for (int i = 0; i < 300; i++) {
+        String name = "r" + layer + "-" + i;
+        this.model.placeAnimatedShape(new AnimatedShape(
+                new Rectangle(name, new Position2D(i, layer), 10, 10, Color.RED)));
+        this.model.placeKeyFrame(name, i % 40, new Position2D(i, layer), 10, 10, Color.RED);
+        this.model.placeKeyFrame(name, 40 + i % 70, new Position2D(2 * i, 5), 20, 10,
+                new Color(i));
+      }
+    }
+    this.model.setLayerState(1, false);
+  }
+
+  /**
+   * Samples every enabled layer one after another on this thread.
+   */
+  private FrameBuffer sequential(int tick) {
+    return this.sequential(tick, new ArrayList<>());
+  }
+
+  /**
+   * Samples every enabled layer one after another on this thread, adding the id of each shape in
+   * the frame to ids.
+   */
+  private FrameBuffer sequential(int tick, ArrayList<Integer> ids) {
+    FrameBuffer all = new FrameBuffer();
+    FrameBuffer layer = new FrameBuffer();
+    for (int i = 0; i < this.model.layerCount(); i++) {
+      if (this.model.isEnabled(i)) {
+        this.model.sampleLayerAtTick(i, tick, layer);
+        for (int s = 0; s < layer.size(); s++) {
+          all.add(layer.getName(s), layer.getType(s), layer.getX(s), layer.getY(s),
+                  layer.getWidth(s), layer.getHeight(s), layer.getRgb(s), layer.getAngle(s));
+          ids.add(layer.getId(s));
+        }
+      }
+    }
+    return all;
+  }
+
+  @Test
+  public void testParallelFrameMatchesSequential() {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    FrameSampler sampler = new FrameSampler(pool, 16);
+    FrameBuffer frame = new FrameBuffer();
+    try {
+      for (int tick = 0; tick < 120; tick += 7) {
+        // sampled twice, since the layers are only split once a frame has been big enough
+        for (int pass = 0; pass < 2; pass++) {
+          sampler.sampleFrame(this.model, tick, frame);
+          ArrayList<Integer> ids = new ArrayList<>();
+          FrameBuffer expected = this.sequential(tick, ids);
+          assertEquals(expected.size(), frame.size());
+          for (int s = 0; s < frame.size(); s++) {
+            assertEquals(expected.getName(s), frame.getName(s));
+            assertEquals((int) ids.get(s), frame.getId(s));
+            assertEquals(expected.getX(s), frame.getX(s));
+            assertEquals(expected.getWidth(s), frame.getWidth(s));
+            assertEquals(expected.getRgb(s), frame.getRgb(s));
+          }
+        }
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testSmallFrameStaysSequential() {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    FrameSampler sampler = new FrameSampler(pool, FrameSampler.DEFAULT_THRESHOLD);
+    FrameBuffer frame = new FrameBuffer();
+    this.model.setLayerState(2, false);
+    try {
+      // sampled twice, since the size of the last frame decides whether layers are split
+      for (int pass = 0; pass < 2; pass++) {
+        sampler.sampleFrame(this.model, 45, frame);
+        assertEquals(this.sequential(45).size(), frame.size());
+        assertEquals("r0-5", frame.getName(0));
+      }
+      // nothing was handed to the pool, so it never started a worker
+      assertEquals(0, pool.getPoolSize());
+      assertEquals(0L, pool.getStealCount());
+    } finally {
+      pool.shutdown();
+    }
+  }
+}
@@ -0,0 +1,122 @@
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import cs3500.animator.util.AnimationReader;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.fail;
+
+/**
+ * Tests that reading a mapped file gives the builder the same calls as reading the file as text,
+ * when the file is mapped a few bytes at a time so that tokens, comments and characters outside
+ * ASCII all cross from one window into the next.
+ */
+public class MappedFileLexerTest {
+  private static final String[] NAMES = {"R", "caf\u00e9", "\u65e5\u672c", "12", "99999999999",
+      "1-2"};
+  private static final String[] INTS = {"0", "7", "-3", "+90", "123456"};
+  private static final String[] GAPS = {" ", "  ", "\t", "\n", "\r\n", "\u000B", "\f",
+      " # a comment\n", "#\u00e9\u00e9\n", "# motion R 1 2\r"};
+
+  /**
+   * Makes a file of random lines, with random whitespace and comments between the tokens.
+   */
+  private static String randomInput(Random random) {
+    StringBuilder input = new StringBuilder();
+    int lines = random.nextInt(12);
+    for (int i = 0; i < lines; i++) {
+      String name = NAMES[random.nextInt(NAMES.length)];
+      switch (random.nextInt(4)) {
+        case 0:
+          append(input, random, "shape", name, random.nextBoolean() ? "rectangle" : "ellipse");
+          break;
+        case 1:
+          append(input, random, "layer", INTS[random.nextInt(2)]);
+          break;
+        case 2:
+          append(input, random, "canvas");
+          for (int v = 0; v < 4; v++) {
+            append(input, random, INTS[random.nextInt(INTS.length)]);
+          }
+          break;
+        default:
+          append(input, random, "motion", name);
+          for (int v = 0; v < 16; v++) {
+            append(input, random, INTS[random.nextInt(INTS.length)]);
+          }
+      }
+    }
+    return input.toString();
+  }
+
+  /**
+   * Adds each token to the input, each followed by a random gap.
+   */
+  private static void append(StringBuilder input, Random random, String... tokens) {
+    for (String token : tokens) {
+      input.append(token).append(GAPS[random.nextInt(GAPS.length)]);
+    }
+  }
+
+  /**
+   * Writes the input to the file and reads it mapped the given number of bytes at a time.
+   */
+  private static String readMapped(Path file, String input, int window) throws IOException {
+    Files.write(file, input.getBytes(StandardCharsets.UTF_8));
+    return AnimationReader.parseFile(file, new AnimationReaderTest.RecordingBuilder(), window);
+  }
+
+  @Test
+  public void testTinyWindowsReadLikeAReader() throws IOException {
+    Random random = new Random(25);
+    Path file = Files.createTempFile("animation", ".txt");
+    try {
+      for (int n = 0; n < 300; n++) {
+        String input = randomInput(random);
+        String expected = AnimationReader.parseFile(new StringReader(input),
+                new AnimationReaderTest.RecordingBuilder());
+        for (int window = 1; window <= 7; window++) {
+          assertEquals(input, expected, readMapped(file, input, window));
+        }
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void testRestOfLineAcrossWindows() throws IOException {
+    String input = "shape R rectangle\nrect caf\u00e9 1 2 # not a comment yet\r\n"
+            + "shape C ellipse\n";
+    Path file = Files.createTempFile("animation", ".txt");
+    try {
+      for (int window = 1; window <= 7; window++) {
+        try {
+          readMapped(file, input, window);
+          fail("Expected the file to be rejected");
+        } catch (IllegalStateException e) {
+          assertEquals("Unexpected keyword: rect caf\u00e9 1 2 # not a comment yet",
+                  e.getMessage());
+        }
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWindowsMustHoldAByte() throws IOException {
+    Path file = Files.createTempFile("animation", ".txt");
+    try {
+      readMapped(file, "shape R rectangle\n", 0);
+    } finally {
+      Files.delete(file);
+    }
+  }
+}
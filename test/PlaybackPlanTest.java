@@ -0,0 +1,152 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.Color;
+import java.util.concurrent.ForkJoinPool;
+
+import cs3500.animator.misc.Position2D;
+import cs3500.animator.model.AnimatedShape;
+import cs3500.animator.model.EventInstructions;
+import cs3500.animator.model.FrameBuffer;
+import cs3500.animator.model.FrameSampler;
+import cs3500.animator.model.IAnimationModel;
+import cs3500.animator.model.LayeredModelImpl;
+import cs3500.animator.model.LoadProgress;
+import cs3500.animator.model.PlaybackPlan;
+import cs3500.animator.shapes.Rectangle;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+
+/**
+ * Tests that playing through a PlaybackPlan gives the same frames as asking the model.
+ */
+public class PlaybackPlanTest {
+  private static class FakeProgress implements LoadProgress {
+    int loadedTick;
+    boolean done;
+
+    @Override
+    public int getLoadedTick() {
+      return this.loadedTick;
+    }
+
+    @Override
+    public boolean isDone() {
+      return this.done;
+    }
+  }
+
+  IAnimationModel model;
+  PlaybackPlan plan;
+
+  @Before
+  public void setup() {
+    this.model = new LayeredModelImpl();
+    this.model.addLayer();
+    for (int layer = 0; layer < 2; layer++) {
+      this.model.setCurrentLayer(layer);
+      for (int i = 0; i < 50; i++) {
+        String name = "r" + layer + "-" + i;
+        this.model.placeAnimatedShape(new AnimatedShape(
+                new Rectangle(name, new Position2D(i, layer), 10, 10, Color.RED)));
+        this.model.placeKeyFrame(name, i % 13, new Position2D(i, layer), 10, 10, Color.RED);
+        this.model.placeKeyFrame(name, 20 + i % 17, new Position2D(3 * i, 5), 20, 10,
+                new Color(i));
+        this.model.placeKeyFrame(name, 60 - i % 11, new Position2D(0, 0), 5, 5, Color.BLUE);
+      }
+    }
+    // an event that starts and ends on the same tick, right before another
+    AnimatedShape still = new AnimatedShape(
+            new Rectangle("still", new Position2D(0, 0), 10, 10, Color.RED));
+    still.addEvent(new EventInstructions(30, 30, new Position2D(5, 5), 10, 10, Color.RED));
+    still.addEvent(new EventInstructions(30, 40, new Position2D(9, 9), 10, 10, Color.RED));
+    this.model.placeAnimatedShape(still);
+    this.plan = new PlaybackPlan(this.model);
+  }
+
+  /**
+   * Checks that the plan samples the same frame at the tick as the model does layer by layer.
+   */
+  private void assertSameFrame(int tick, FrameBuffer frame) {
+    FrameBuffer layer = new FrameBuffer();
+    int s = 0;
+    for (int i = 0; i < this.model.layerCount(); i++) {
+      if (!this.model.isEnabled(i)) {
+        continue;
+      }
+      this.model.sampleLayerAtTick(i, tick, layer);
+      for (int j = 0; j < layer.size(); j++, s++) {
+        assertEquals(layer.getName(j), frame.getName(s));
+        assertEquals(layer.getX(j), frame.getX(s));
+        assertEquals(layer.getY(j), frame.getY(s));
+        assertEquals(layer.getWidth(j), frame.getWidth(s));
+        assertEquals(layer.getRgb(j), frame.getRgb(s));
+      }
+    }
+    assertEquals(s, frame.size());
+  }
+
+  @Test
+  public void testPlayingMatchesTheModel() {
+    FrameBuffer frame = new FrameBuffer();
+    for (int tick = 0; tick < 70; tick++) {
+      this.plan.sampleAt(tick, frame);
+      this.assertSameFrame(tick, frame);
+    }
+    assertEquals(69, this.plan.getTick());
+    // going back starts playback over
+    this.plan.sampleAt(30, frame);
+    this.assertSameFrame(30, frame);
+  }
+
+  @Test
+  public void testPlanFollowsEdits() {
+    FrameBuffer frame = new FrameBuffer();
+    this.plan.sampleAt(25, frame);
+    this.model.setLayerState(0, false);
+    this.model.deleteShape("r1-3");
+    this.model.placeKeyFrame("r1-4", 80, new Position2D(1, 1), 1, 1, Color.GREEN);
+    for (int tick = 25; tick < 90; tick += 5) {
+      this.plan.sampleAt(tick, frame);
+      this.assertSameFrame(tick, frame);
+    }
+  }
+
+  @Test
+  public void testSplitSamplingMatchesTheModel() {
+    FrameSampler sampler = new FrameSampler(new ForkJoinPool(3), 4);
+    FrameBuffer frame = new FrameBuffer();
+    for (int tick = 0; tick < 70; tick += 3) {
+      this.plan.sampleAt(tick, frame, sampler);
+      this.assertSameFrame(tick, frame);
+    }
+  }
+
+  @Test
+  public void testLoadedTickWhileLoading() {
+    FakeProgress progress = new FakeProgress();
+    progress.loadedTick = 7;
+    this.plan.setLoadProgress(progress);
+    assertEquals(7, this.plan.getLoadedTick());
+    // the plan is up to date, so it plays whatever has loaded
+    progress.loadedTick = 9;
+    assertEquals(9, this.plan.getLoadedTick());
+
+    // after an edit the plan may still be the old one, which only had tick 9 loaded
+    this.model.placeKeyFrame("r1-5", 80, new Position2D(1, 1), 1, 1, Color.GREEN);
+    progress.loadedTick = 12;
+    int loaded = this.plan.getLoadedTick();
+    assertTrue(loaded == 9 || loaded == 12);
+
+    // once everything has loaded the plan follows every edit at once
+    progress.done = true;
+    this.model.deleteShape("r1-3");
+    assertEquals(Integer.MAX_VALUE, this.plan.getLoadedTick());
+    FrameBuffer frame = new FrameBuffer();
+    for (int tick = 0; tick < 90; tick += 5) {
+      this.plan.sampleAt(tick, frame);
+      this.assertSameFrame(tick, frame);
+    }
+  }
+}
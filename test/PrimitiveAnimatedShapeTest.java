@@ -0,0 +1,227 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.Color;
+import java.util.ArrayList;
+
+import cs3500.animator.misc.Position2D;
+import cs3500.animator.model.AnimatedShape;
+import cs3500.animator.model.EventInstructions;
+import cs3500.animator.model.IAnimatedShape;
+import cs3500.animator.model.PrimitiveAnimatedShape;
+import cs3500.animator.shapes.IShape;
+import cs3500.animator.shapes.Rectangle;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.fail;
+
+/**
+ * Tests that a PrimitiveAnimatedShape behaves exactly like an AnimatedShape given the same edits.
+ */
+public class PrimitiveAnimatedShapeTest {
+  IShape rect;
+  IAnimatedShape list;
+  IAnimatedShape prim;
+
+  @Before
+  public void setup() {
+    this.rect = new Rectangle("r", new Position2D(3, 3), 10, 4, new Color(10, 20, 30));
+    this.list = new AnimatedShape(this.rect);
+    this.prim = new PrimitiveAnimatedShape(this.rect);
+  }
+
+  private void assertSameShape(IShape expected, IShape actual) {
+    assertEquals(expected.getName(), actual.getName());
+    assertEquals(expected.asString(), actual.asString());
+    assertEquals(expected.getPosition().getX(), actual.getPosition().getX());
+    assertEquals(expected.getPosition().getY(), actual.getPosition().getY());
+    assertEquals(expected.getWidth(), actual.getWidth());
+    assertEquals(expected.getHeight(), actual.getHeight());
+    assertEquals(expected.getColor(), actual.getColor());
+    assertEquals(expected.getAngle(), actual.getAngle());
+  }
+
+  private void assertSameAnimation(IAnimatedShape expected, IAnimatedShape actual) {
+    assertSameShape(expected.getShape(), actual.getShape());
+    ArrayList<EventInstructions> e = expected.getEvents();
+    ArrayList<EventInstructions> a = actual.getEvents();
+    assertEquals(e.size(), a.size());
+    assertEquals(e.size(), actual.getSegmentCount());
+    for (int i = 0; i < e.size(); i++) {
+      assertEquals(e.get(i).getStartTick(), actual.getSegmentStartTick(i));
+      assertEquals(e.get(i).getEndTick(), actual.getSegmentEndTick(i));
+      assertEquals(e.get(i).getStartTick(), a.get(i).getStartTick());
+      assertEquals(e.get(i).getEndTick(), a.get(i).getEndTick());
+      assertEquals(e.get(i).getEndPosn().getX(), a.get(i).getEndPosn().getX());
+      assertEquals(e.get(i).getEndPosn().getY(), a.get(i).getEndPosn().getY());
+      assertEquals(e.get(i).getEndWidth(), a.get(i).getEndWidth());
+      assertEquals(e.get(i).getEndHeight(), a.get(i).getEndHeight());
+      assertEquals(e.get(i).getEndColor(), a.get(i).getEndColor());
+      assertEquals(e.get(i).getEndAngle(), a.get(i).getEndAngle());
+    }
+    assertEquals(expected.getStartTick(), actual.getStartTick());
+    assertEquals(expected.getEndTick(), actual.getEndTick());
+    for (int t = Math.max(0, expected.getStartTick()); t <= expected.getEndTick(); t++) {
+      assertSameShape(expected.getShapeAtTick(t), actual.getShapeAtTick(t));
+    }
+  }
+
+  private void addEvent(EventInstructions e) {
+    this.list.addEvent(e);
+    this.prim.addEvent(e);
+  }
+
+  private void placeKeyFrame(int t, int x, int w, int c) {
+    this.list.placeKeyFrame(t, new Position2D(x, x), w, w, new Color(c, c, c));
+    this.prim.placeKeyFrame(t, new Position2D(x, x), w, w, new Color(c, c, c));
+  }
+
+  private void removeKeyFrame(int index) {
+    this.list.removeKeyFrame(index);
+    this.prim.removeKeyFrame(index);
+  }
+
+  @Test
+  public void testSameTweensAsAnimatedShape() {
+    this.addEvent(new EventInstructions(1, 7, new Position2D(10.5, -3), 20, 9,
+            new Color(200, 100, 0), 90));
+    this.addEvent(new EventInstructions(7, 7, new Position2D(1, 1), 2, 2,
+            new Color(1, 2, 3), 45));
+    this.addEvent(new EventInstructions(7, 30, new Position2D(100, 50), 3, 70,
+            new Color(0, 255, 9), 180));
+    this.assertSameAnimation(this.list, this.prim);
+    // and again backwards, so the cursor has to search
+    for (int t = 30; t >= 1; t--) {
+      this.assertSameShape(this.list.getShapeAtTick(t), this.prim.getShapeAtTick(t));
+    }
+  }
+
+  @Test
+  public void testSameKeyFramePlacingAndRemoving() {
+    this.placeKeyFrame(10, 5, 5, 50);
+    this.assertSameAnimation(this.list, this.prim);
+    this.placeKeyFrame(4, 1, 8, 10);
+    this.assertSameAnimation(this.list, this.prim);
+    this.placeKeyFrame(20, 9, 2, 90);
+    this.placeKeyFrame(2, 0, 1, 0);
+    this.placeKeyFrame(15, 7, 6, 120);
+    this.placeKeyFrame(30, 3, 3, 250);
+    this.assertSameAnimation(this.list, this.prim);
+    this.removeKeyFrame(3);
+    this.assertSameAnimation(this.list, this.prim);
+    this.removeKeyFrame(0);
+    this.assertSameAnimation(this.list, this.prim);
+    this.removeKeyFrame(this.list.getEvents().size());
+    this.assertSameAnimation(this.list, this.prim);
+    while (this.list.getEvents().size() > 1) {
+      this.removeKeyFrame(1);
+      this.assertSameAnimation(this.list, this.prim);
+    }
+    this.removeKeyFrame(1);
+    this.assertSameAnimation(this.list, this.prim);
+  }
+
+  @Test
+  public void testSameEventsBetween() {
+    assertEquals(0, this.prim.getEventsBetween(0, 100).size());
+    this.addEvent(new EventInstructions(1, 7, new Position2D(10, 3), 20, 9,
+            new Color(200, 100, 0)));
+    this.addEvent(new EventInstructions(7, 7, new Position2D(1, 1), 2, 2,
+            new Color(1, 2, 3)));
+    this.addEvent(new EventInstructions(7, 12, new Position2D(5, 5), 3, 3,
+            new Color(4, 5, 6)));
+    this.addEvent(new EventInstructions(12, 20, new Position2D(9, 9), 4, 4,
+            new Color(7, 8, 9)));
+    for (int from = 0; from <= 21; from++) {
+      for (int to = from - 1; to <= 21; to++) {
+        // the events are looked up by search, so check them against every event's span
+        ArrayList<Integer> expected = new ArrayList<>();
+        ArrayList<EventInstructions> all = this.list.getEvents();
+        for (int i = 0; i < all.size(); i++) {
+          if (all.get(i).getEndTick() >= from && all.get(i).getStartTick() <= to) {
+            expected.add(all.get(i).getEndWidth());
+          }
+        }
+        for (IAnimatedShape shape : new IAnimatedShape[]{this.list, this.prim}) {
+          ArrayList<Integer> found = new ArrayList<>();
+          for (EventInstructions e : shape.getEventsBetween(from, to)) {
+            found.add(e.getEndWidth());
+          }
+          assertEquals(from + " to " + to, expected, found);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testSameCopyWithEvents() {
+    this.addEvent(new EventInstructions(1, 7, new Position2D(10, 3), 20, 9,
+            new Color(200, 100, 0)));
+    this.addEvent(new EventInstructions(7, 12, new Position2D(1, 1), 2, 2,
+            new Color(1, 2, 3)));
+    ArrayList<EventInstructions> merged = new ArrayList<>();
+    merged.add(new EventInstructions(1, 12, new Position2D(1, 1), 2, 2, new Color(1, 2, 3)));
+    IAnimatedShape listCopy = this.list.copyWithEvents(merged);
+    IAnimatedShape primCopy = this.prim.copyWithEvents(merged);
+    this.assertSameAnimation(listCopy, primCopy);
+    this.assertSameShape(this.rect, primCopy.getShape());
+    assertEquals(1, primCopy.getEvents().size());
+    // the shapes copied from are left as they were
+    this.assertSameAnimation(this.list, this.prim);
+    assertEquals(2, this.prim.getEvents().size());
+  }
+
+  @Test
+  public void testPlacingAfterSingleKeyFrame() {
+    this.placeKeyFrame(10, 5, 5, 50);
+    this.placeKeyFrame(12, 6, 6, 60);
+    this.assertSameAnimation(this.list, this.prim);
+  }
+
+  @Test
+  public void testPlacingOnExistingKeyFrame() {
+    this.addEvent(new EventInstructions(1, 7, new Position2D(10, 3), 20, 9,
+            new Color(200, 100, 0)));
+    this.addEvent(new EventInstructions(7, 12, new Position2D(1, 1), 2, 2,
+            new Color(1, 2, 3)));
+    try {
+      this.prim.placeKeyFrame(7, new Position2D(0, 0), 1, 1, Color.BLACK);
+      fail("Placed a keyframe on an existing one");
+    } catch (IllegalArgumentException e) {
+      // the tick already has a keyframe
+    }
+    this.assertSameAnimation(this.list, this.prim);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testAddingNonContiguousEvent() {
+    this.prim.addEvent(new EventInstructions(1, 7, new Position2D(10, 3), 20, 9,
+            new Color(200, 100, 0)));
+    this.prim.addEvent(new EventInstructions(8, 12, new Position2D(1, 1), 2, 2,
+            new Color(1, 2, 3)));
+  }
+
+  @Test
+  public void testNoSegmentPastTheEvents() {
+    for (IAnimatedShape shape : new IAnimatedShape[]{this.list, this.prim}) {
+      shape.addEvent(new EventInstructions(0, 5, new Position2D(1, 1), 2, 2, Color.RED));
+      for (int segment : new int[]{-1, 1}) {
+        try {
+          shape.getSegmentEndTick(segment);
+          fail("Expected no event at " + segment);
+        } catch (IndexOutOfBoundsException e) {
+          // expected
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testCopyingAnAnimatedShape() {
+    this.addEvent(new EventInstructions(1, 7, new Position2D(10, 3), 20, 9,
+            new Color(200, 100, 0), 30));
+    this.addEvent(new EventInstructions(7, 12, new Position2D(1, 1), 2, 2,
+            new Color(1, 2, 3)));
+    this.assertSameAnimation(this.list, new PrimitiveAnimatedShape(this.list));
+  }
+}
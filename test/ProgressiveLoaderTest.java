@@ -0,0 +1,277 @@
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import cs3500.animator.model.AnimationModelImpl;
+import cs3500.animator.model.IAnimationModel;
+import cs3500.animator.model.LoadProgress;
+import cs3500.animator.model.ReadOnlyIAnimationModel;
+import cs3500.animator.shapes.IShape;
+import cs3500.animator.util.AnimationModelBuilder;
+import cs3500.animator.util.AnimationReader;
+import cs3500.animator.util.ProgressiveLoader;
+import cs3500.animator.view.AnimationPanel;
+import cs3500.animator.view.TextView;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+import static junit.framework.TestCase.fail;
+
+/**
+ * Tests that a model loaded in the background ends up the same as one loaded all at once, that
+ * the ticks it counts as loaded while it loads really have, and that an animation panel only plays
+ * the ticks of a model that have loaded.
+ */
+public class ProgressiveLoaderTest {
+
+  /**
+   * How far a model has loaded, set by hand.
+   */
+  private static class FakeProgress implements LoadProgress {
+    int loadedTick;
+    boolean done;
+
+    @Override
+    public int getLoadedTick() {
+      return this.loadedTick;
+    }
+
+    @Override
+    public boolean isDone() {
+      return this.done;
+    }
+  }
+
+  /**
+   * What was published once while a file loaded, with the tick counted as loaded when it was.
+   */
+  private static class Published {
+    final int loadedTick;
+    final ReadOnlyIAnimationModel view;
+
+    Published(int loadedTick, ReadOnlyIAnimationModel view) {
+      this.loadedTick = loadedTick;
+      this.view = view;
+    }
+  }
+
+  private String text(IAnimationModel model) {
+    StringBuilder out = new StringBuilder();
+    new TextView(out).display(model);
+    return out.toString();
+  }
+
+  private String text(List<IShape> shapes) {
+    StringBuilder out = new StringBuilder();
+    for (IShape s : shapes) {
+      out.append(s.getName()).append(' ').append(s.getPosition()).append(' ')
+              .append(s.getWidth()).append(' ').append(s.getHeight()).append(' ')
+              .append(s.getColor()).append('\n');
+    }
+    return out.toString();
+  }
+
+  /**
+   * Loads the given animation, publishing after every motion, and gives everything published
+   * while it loaded. The last thing published is the whole model.
+   */
+  private List<Published> loadPublishingEveryMotion(String input) throws IOException {
+    Path file = Files.createTempFile("animation", ".txt");
+    try {
+      Files.write(file, input.getBytes(StandardCharsets.UTF_8));
+      ProgressiveLoader loader = new ProgressiveLoader(file, 0, 1);
+      List<Published> published = new ArrayList<>();
+      loader.getModel().addModelListener(e -> published.add(
+              new Published(loader.getLoadedTick(), loader.getModel().consistentView())));
+      loader.start();
+      loader.await();
+      return published;
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  /**
+   * Checks that everything published has every tick it counted as loaded as it is in the whole
+   * model, and gives the latest tick counted as loaded before loading was done.
+   */
+  private int checkLoadedTicks(List<Published> published) {
+    ReadOnlyIAnimationModel whole = published.get(published.size() - 1).view;
+    int latest = -1;
+    for (Published p : published) {
+      for (int tick = 0; tick <= p.loadedTick; tick++) {
+        assertEquals("tick " + tick + " of " + p.loadedTick,
+                this.text(whole.getShapesAt(tick)), this.text(p.view.getShapesAt(tick)));
+      }
+      latest = Math.max(latest, p.loadedTick);
+    }
+    return latest;
+  }
+
+  /**
+   * Gives an animation of shapes that each move once a tick, with every shape's motions for a
+   * tick listed before any motion for the next.
+   */
+  private String inStartOrder(int shapes, int ticks) {
+    StringBuilder input = new StringBuilder("canvas 0 0 100 100\n");
+    for (int i = 0; i < shapes; i++) {
+      input.append("shape S").append(i).append(" rectangle\n");
+    }
+    for (int t = 0; t < ticks; t++) {
+      for (int i = 0; i < shapes; i++) {
+        input.append(this.motion("S" + i, t));
+      }
+    }
+    return input.toString();
+  }
+
+  private String motion(String name, int t) {
+    return "motion " + name + " " + t + " " + t + " " + t + " 5 5 " + t + " 0 0 "
+            + (t + 1) + " " + (t + 1) + " " + (t + 1) + " 5 5 " + (t + 1) + " 0 0\n";
+  }
+
+  @Test
+  public void testLoadsWhatAParseLoads() throws IOException {
+    StringBuilder input = new StringBuilder("canvas 10 20 300 400\n");
+    for (int i = 0; i < 3000; i++) {
+      input.append("shape loaded").append(i).append(" rectangle\n");
+      input.append("motion loaded").append(i).append(" ").append(i).append(" 1 2 3 4 5 6 7 ")
+              .append(i + 5).append(" 9 8 7 6 5 4 3\n");
+    }
+    Path file = Files.createTempFile("animation", ".txt");
+    try {
+      Files.write(file, input.toString().getBytes(StandardCharsets.UTF_8));
+      ProgressiveLoader loader = new ProgressiveLoader(file);
+      loader.start();
+      loader.awaitStart();
+      // the canvas is published before anything else
+      assertEquals(new java.awt.Rectangle(10, 20, 300, 400), loader.getModel().getBounds());
+
+      IAnimationModel loaded = loader.await();
+      assertTrue(loader.isDone());
+      assertEquals(loaded.getEndTick(), loader.getLoadedTick());
+      assertEquals(this.text(AnimationReader.parseFile(new StringReader(input.toString()),
+              new AnimationModelBuilder())), this.text(loaded));
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void testKeepsWhatLoadedBeforeBadInput() throws IOException {
+    Path file = Files.createTempFile("animation", ".txt");
+    try {
+      Files.write(file, ("shape R rectangle\nmotion R 1 1 2 3 4 5 6 7 10 1 2 3 4 5 6 7\n"
+              + "rect 1 2\n").getBytes(StandardCharsets.UTF_8));
+      ProgressiveLoader loader = new ProgressiveLoader(file);
+      loader.start();
+      try {
+        loader.await();
+        fail("Expected the file to be rejected");
+      } catch (IllegalArgumentException e) {
+        assertEquals("Unexpected keyword: rect 1 2", e.getMessage());
+      }
+      assertTrue(loader.isDone());
+      assertEquals(1, loader.getModel().getAllAnimatedShapes().size());
+      assertEquals(10, loader.getLoadedTick());
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void testCountsTicksAsLoadedInStartOrder() throws IOException {
+    List<Published> published = this.loadPublishingEveryMotion(this.inStartOrder(4, 30));
+    // most of the animation is counted as loaded well before it is all read
+    assertTrue(this.checkLoadedTicks(published) >= 25);
+  }
+
+  @Test
+  public void testCountsNothingAsLoadedWithEachShapesMotionsTogether() throws IOException {
+    StringBuilder input = new StringBuilder("canvas 0 0 100 100\n");
+    for (int i = 0; i < 4; i++) {
+      input.append("shape S").append(i).append(" rectangle\n");
+      for (int t = 0; t < 30; t++) {
+        input.append(this.motion("S" + i, t));
+      }
+    }
+    List<Published> published = this.loadPublishingEveryMotion(input.toString());
+    assertEquals(-1, this.checkLoadedTicks(published));
+  }
+
+  @Test
+  public void testGoesBackWhenAShapeStartsEarlierThanTheLast() throws IOException {
+    String input = this.inStartOrder(4, 30) + "shape Late ellipse\n" + this.motion("Late", 10)
+            + this.motion("Late", 11);
+    List<Published> published = this.loadPublishingEveryMotion(input);
+    // published after the last motion in order, after each of the late shape's, and once done
+    int before = published.size() - 4;
+    assertTrue(published.get(before).loadedTick >= 25);
+    // a file out of start order could still change any tick, so none counts until it is all read
+    assertEquals(-1, published.get(before + 1).loadedTick);
+    assertEquals(-1, published.get(before + 2).loadedTick);
+    this.checkLoadedTicks(published.subList(before + 1, published.size()));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMissingFile() {
+    ProgressiveLoader loader = new ProgressiveLoader(Paths.get("no such animation file.txt"));
+    loader.start();
+    loader.await();
+  }
+
+  @Test
+  public void testPanelPlaysOnlyLoadedTicks() {
+    IAnimationModel model = AnimationReader.parseFile(
+            new StringReader("shape R rectangle\nmotion R 0 1 2 3 4 5 6 7 20 1 2 3 4 5 6 7\n"),
+            new AnimationModelBuilder());
+    AnimationPanel panel = new AnimationPanel(model);
+    FakeProgress progress = new FakeProgress();
+    progress.loadedTick = 3;
+    panel.setLoadProgress(progress);
+    assertEquals(3, panel.getMaxTick());
+
+    // waits at the last loaded tick instead of looping
+    for (int i = 0; i < 10; i++) {
+      panel.increment();
+    }
+    assertEquals(3, panel.getCurTick());
+
+    progress.loadedTick = 5;
+    panel.increment();
+    assertEquals(4, panel.getCurTick());
+    assertEquals(5, panel.getMaxTick());
+
+    // goes back if the tick it waits at turns out not to have loaded
+    panel.setCurTick(5);
+    progress.loadedTick = 2;
+    panel.increment();
+    assertEquals(2, panel.getCurTick());
+
+    // once everything has loaded the whole animation plays, and loops
+    progress.done = true;
+    assertEquals(20, panel.getMaxTick());
+    panel.setCurTick(20);
+    panel.increment();
+    assertEquals(0, panel.getCurTick());
+  }
+
+  @Test
+  public void testPanelWithNothingLoaded() {
+    AnimationPanel panel = new AnimationPanel(new AnimationModelImpl());
+    FakeProgress progress = new FakeProgress();
+    progress.loadedTick = -1;
+    panel.setLoadProgress(progress);
+    panel.increment();
+    assertEquals(0, panel.getCurTick());
+    assertEquals(0, panel.getMaxTick());
+  }
+}
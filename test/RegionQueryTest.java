@@ -0,0 +1,156 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.Color;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Random;
+
+import cs3500.animator.misc.Position2D;
+import cs3500.animator.model.AnimatedShape;
+import cs3500.animator.model.EventInstructions;
+import cs3500.animator.model.FrameBuffer;
+import cs3500.animator.model.IAnimatedShape;
+import cs3500.animator.model.IAnimationModel;
+import cs3500.animator.model.LayeredModelImpl;
+import cs3500.animator.shapes.Ellipse;
+import cs3500.animator.shapes.IShape;
+
+import static junit.framework.TestCase.assertEquals;
+
+/**
+ * Tests that asking a model for the shapes in a region finds the same shapes as checking every
+ * shape at the tick would, and that the areas shapes sweep never leave out a shape that is drawn
+ * in the region.
+ */
+public class RegionQueryTest {
+  IAnimationModel model;
+
+  @Before
+  public void setup() {
+    Random random = new Random(3500);
+    this.model = new LayeredModelImpl();
+    this.model.addLayer();
+    for (int layer = 0; layer < 2; layer++) {
+      this.model.setCurrentLayer(layer);
+      for (int i = 0; i < 400; i++) {
+        String name = "s" + layer + "-" + i;
+        AnimatedShape shape = new AnimatedShape(new cs3500.animator.shapes.Rectangle(name,
+                new Position2D(random.nextInt(1000), random.nextInt(1000)), 1 + random.nextInt(40),
+                1 + random.nextInt(40), Color.RED));
+        shape.addEvent(new EventInstructions(random.nextInt(20), 20 + random.nextInt(20),
+                new Position2D(random.nextInt(1000) - 100, random.nextInt(1000)),
+                random.nextInt(60), random.nextInt(60), Color.BLUE,
+                random.nextInt(3) == 0 ? random.nextInt(360) : 0));
+        this.model.placeAnimatedShape(shape);
+      }
+    }
+    // a background that covers every cell of the grid
+    AnimatedShape background = new AnimatedShape(
+            new Ellipse("background", new Position2D(-50, -50), 1200, 1200, Color.GREEN));
+    background.addEvent(new EventInstructions(0, 40, new Position2D(-50, -50), 1200, 1200,
+            Color.GREEN));
+    this.model.placeAnimatedShape(background);
+  }
+
+  /**
+   * Checks that the model finds the shapes overlapping the region that looking at every shape
+   * finds, in the same order.
+   */
+  private void assertSameShapes(int layer, int tick, Rectangle region) {
+    FrameBuffer frame = new FrameBuffer();
+    this.model.sampleLayerAtTick(layer, tick, frame);
+    ArrayList<String> expected = new ArrayList<>();
+    for (int i = 0; i < frame.size(); i++) {
+      if (frame.intersects(i, region)) {
+        expected.add(frame.getName(i));
+      }
+    }
+    ArrayList<String> found = new ArrayList<>();
+    for (IShape shape : this.model.getShapesInRegionAt(layer, tick, region)) {
+      found.add(shape.getName());
+    }
+    assertEquals(region + " at " + tick, expected, found);
+  }
+
+  @Test
+  public void testRegionsMatchCheckingEveryShape() {
+    Random random = new Random(5);
+    for (int tick = 0; tick < 45; tick += 4) {
+      for (int layer = 0; layer < 2; layer++) {
+        for (int q = 0; q < 40; q++) {
+          this.assertSameShapes(layer, tick, new Rectangle(random.nextInt(1200) - 100,
+                  random.nextInt(1200) - 100, random.nextInt(300), random.nextInt(300)));
+        }
+        this.assertSameShapes(layer, tick, new Rectangle(-5000, -5000, 10000, 10000));
+        this.assertSameShapes(layer, tick, new Rectangle(5000, 5000, 10, 10));
+      }
+    }
+  }
+
+  @Test
+  public void testRegionsFollowEdits() {
+    Rectangle region = new Rectangle(0, 0, 1000, 1000);
+    this.assertSameShapes(1, 10, region);
+    this.model.deleteShape("background");
+    this.model.placeKeyFrame("s1-3", 10, new Position2D(2000, 2000), 5, 5, Color.RED);
+    this.assertSameShapes(1, 10, region);
+    this.assertSameShapes(1, 10, new Rectangle(1999, 1999, 2, 2));
+  }
+
+  @Test
+  public void testRegionShapesAreTheShapesAtTheTick() {
+    ArrayList<IShape> all = this.model.getShapesFromLayerAtTick(0, 30);
+    ArrayList<IShape> found = this.model.getShapesInRegionAt(0, 30,
+            new Rectangle(-5000, -5000, 10000, 10000));
+    assertEquals(all.size(), found.size());
+    for (int i = 0; i < all.size(); i++) {
+      assertEquals(all.get(i).asString(), found.get(i).asString());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeTick() {
+    this.model.getShapesInRegionAt(0, -1, new Rectangle(0, 0, 1, 1));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullRegion() {
+    this.model.getShapesInRegionAt(0, 1, null);
+  }
+
+  @Test
+  public void testSweptBoundsNeverMissAShape() {
+    Random random = new Random(7);
+    FrameBuffer frame = new FrameBuffer();
+    for (int q = 0; q < 30; q++) {
+      int layer = q % 2;
+      int from = random.nextInt(40);
+      int to = from + random.nextInt(8);
+      Rectangle region = new Rectangle(random.nextInt(1000), random.nextInt(1000),
+              random.nextInt(150), random.nextInt(150));
+      ArrayList<String> kept = new ArrayList<>();
+      for (IAnimatedShape shape : this.model.getAnimatedShapesInRegion(layer, from, to, region)) {
+        kept.add(shape.getShape().getName());
+      }
+      ArrayList<String> drawn = new ArrayList<>();
+      for (int tick = from; tick <= to; tick++) {
+        this.model.sampleLayerAtTick(layer, tick, frame);
+        for (int i = 0; i < frame.size(); i++) {
+          if (frame.intersects(i, region) && !drawn.contains(frame.getName(i))) {
+            drawn.add(frame.getName(i));
+            assertEquals(frame.getName(i) + " at " + tick, true,
+                    kept.contains(frame.getName(i)));
+          }
+        }
+      }
+      // most shapes are nowhere near a small region
+      assertEquals(true, kept.size() < this.model.getLayerAnimatedShapes(layer).size() / 2);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTicksOutOfOrder() {
+    this.model.getAnimatedShapesInRegion(0, 5, 4, new Rectangle(0, 0, 1, 1));
+  }
+}
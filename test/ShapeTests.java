@@ -93,7 +93,19 @@ public class ShapeTests {
     assertEquals(new Color(255, 0, 0), rectangle1.getColor());
   }
 
+  @Test
+  public void testPrimitiveGetters() {
+    assertEquals(440.0, ellipse1.getX());
+    assertEquals(70.0, ellipse1.getY());
+    assertEquals(new Color(0, 0, 255).getRGB(), ellipse1.getRgb());
+    ellipse1.executeInstructions(testEvent1);
+    assertEquals(300.0, ellipse1.getX());
+    assertEquals(new Color(255, 0, 0).getRGB(), ellipse1.getRgb());
+    assertEquals(ellipse1.getPosition(), ellipse1.copy().getPosition());
+  }
 
-
-
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullColor() {
+    new Rectangle("r1", new Position2D(200, 200), 50, 100, null);
+  }
 }
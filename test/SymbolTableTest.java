@@ -0,0 +1,65 @@
+import org.junit.Test;
+
+import cs3500.animator.misc.SymbolTable;
+import cs3500.animator.model.IAnimationModel;
+import cs3500.animator.util.AnimationModelBuilder;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertNotSame;
+import static junit.framework.TestCase.assertSame;
+
+/**
+ * Tests the symbol table names are interned in, and the builder that keeps one to find the shapes
+ * it has been told about.
+ */
+public class SymbolTableTest {
+
+  @Test
+  public void testInterningGivesOneIdAndOneString() {
+    SymbolTable table = new SymbolTable();
+    assertEquals(-1, table.idOf("a"));
+    assertEquals(0, table.intern("a"));
+    assertEquals(1, table.intern("b"));
+    String copy = new String("a");
+    assertEquals(0, table.intern(copy));
+    assertEquals(0, table.idOf(copy));
+    assertSame(table.nameOf(0), table.nameOf(table.intern(copy)));
+    assertEquals(2, table.size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoSuchId() {
+    new SymbolTable().nameOf(0);
+  }
+
+  @Test
+  public void testBuilderShapesShareTheTablesName() {
+    AnimationModelBuilder builder = new AnimationModelBuilder();
+    builder.declareShape(new String("shared"), "rectangle");
+    String fromFile = new String("shared");
+    builder.addMotion(fromFile, 0, 0, 0, 5, 5, 0, 0, 0, 0, 10, 10, 10, 5, 5, 0, 0, 0, 0);
+    String name = builder.build().getAllAnimatedShapes().get(0).getShape().getName();
+    assertEquals("shared", name);
+    assertNotSame(fromFile, name);
+  }
+
+  @Test
+  public void testBuilderFindsShapesById() {
+    AnimationModelBuilder builder = new AnimationModelBuilder();
+    builder.declareShape("built", "rectangle");
+    builder.setLayer(1);
+    builder.declareShape("onTop", "ellipse");
+    builder.addMotion("built", 0, 0, 0, 5, 5, 0, 0, 0, 0, 10, 10, 10, 5, 5, 0, 0, 0, 0);
+    builder.addMotion("onTop", 0, 0, 0, 5, 5, 0, 0, 0, 0, 10, 10, 10, 5, 5, 0, 0, 0, 0);
+    builder.addMotion("built", 10, 10, 10, 5, 5, 0, 0, 0, 0, 20, 0, 0, 5, 5, 0, 0, 0, 0);
+    IAnimationModel model = builder.build();
+    assertEquals(2, model.getLayerAnimatedShapes(0).get(0).getEvents().size());
+    assertEquals("onTop", model.getLayerAnimatedShapes(1).get(0).getShape().getName());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBuilderRejectsUndeclaredShapes() {
+    new AnimationModelBuilder().addMotion("neverDeclared",
+            0, 0, 0, 5, 5, 0, 0, 0, 0, 10, 10, 10, 5, 5, 0, 0, 0, 0);
+  }
+}
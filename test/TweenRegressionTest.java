@@ -0,0 +1,159 @@
+import org.junit.Test;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import cs3500.animator.misc.Position2D;
+import cs3500.animator.model.AnimatedShape;
+import cs3500.animator.model.EventInstructions;
+import cs3500.animator.model.FrameBuffer;
+import cs3500.animator.model.IAnimatedShape;
+import cs3500.animator.model.PrimitiveAnimatedShape;
+import cs3500.animator.shapes.IShape;
+import cs3500.animator.shapes.Rectangle;
+
+import static junit.framework.TestCase.assertEquals;
+
+/**
+ * Checks that every way of tweening a shape gives exactly the values the original tweening
+ * formula gave, bit for bit, over a fixed corpus of random animations.
+ */
+public class TweenRegressionTest {
+
+  /**
+   * The tweening formula as it was first written, kept here as the reference.
+   */
+  private static double reference(double startVal, double endVal, int startTick, int endTick,
+                                  int currTick) {
+    int deltaTick = endTick - startTick;
+    double tweenVal = (startVal * ((double) (endTick - currTick) / (double) deltaTick)
+            + endVal * ((double) (currTick - startTick) / (double) deltaTick));
+    return Math.round(tweenVal * 1000) / 1000.0;
+  }
+
+  /**
+   * A position in the corpus, which is sometimes whole, sometimes to a few places and sometimes
+   * any double at all.
+   */
+  private static double position(Random random) {
+    switch (random.nextInt(3)) {
+      case 0:
+        return random.nextInt(2000) - 1000;
+      case 1:
+        return (random.nextInt(2000000) - 1000000) / 1000.0;
+      default:
+        return random.nextDouble() * 2000 - 1000;
+    }
+  }
+
+  /**
+   * Builds the corpus: random shapes with a few events each, some of which start and end on the
+   * same tick, some of which change nothing and some of which only change the color.
+   */
+  private static List<IAnimatedShape> corpus() {
+    Random random = new Random(3500);
+    ArrayList<IAnimatedShape> shapes = new ArrayList<>();
+    for (int i = 0; i < 300; i++) {
+      AnimatedShape shape = new AnimatedShape(new Rectangle("s" + i,
+              new Position2D(position(random), position(random)), random.nextInt(500),
+              random.nextInt(500), new Color(random.nextInt(0x1000000))));
+      int tick = random.nextInt(50);
+      int events = 1 + random.nextInt(6);
+      for (int e = 0; e < events; e++) {
+        int length = random.nextInt(5) == 0 ? 0 : 1 + random.nextInt(60);
+        int kind = random.nextInt(4);
+        EventInstructions last = e == 0 ? null : shape.getEvents().get(e - 1);
+        Position2D p = kind == 0 && last != null ? last.getEndPosn()
+                : new Position2D(position(random), position(random));
+        int w = kind <= 1 && last != null ? last.getEndWidth() : random.nextInt(500);
+        int h = kind <= 1 && last != null ? last.getEndHeight() : random.nextInt(500);
+        Color c = kind == 0 && last != null ? last.getEndColor()
+                : new Color(random.nextInt(0x1000000));
+        shape.addEvent(new EventInstructions(tick, tick + length, p, w, h, c,
+                random.nextInt(4) == 0 ? random.nextInt(720) - 360 : 0));
+        tick += length;
+      }
+      shapes.add(shape);
+    }
+    return shapes;
+  }
+
+  /**
+   * The index of the event the shape is tweened with at the tick, found the slow way.
+   */
+  private static int segmentAt(List<EventInstructions> events, int tick) {
+    for (int i = 0; i < events.size(); i++) {
+      if (events.get(i).getEndTick() >= tick) {
+        return events.get(i).getStartTick() <= tick ? i : -1;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Checks the shape sampled at every tick of its lifetime against the reference.
+   */
+  private static void assertMatchesReference(IAnimatedShape animated) {
+    IShape start = animated.getShape();
+    List<EventInstructions> events = animated.getEvents();
+    FrameBuffer frame = new FrameBuffer();
+    int first = events.get(0).getStartTick();
+    int last = events.get(events.size() - 1).getEndTick();
+    for (int tick = first; tick <= last; tick++) {
+      int i = segmentAt(events, tick);
+      EventInstructions event = events.get(i);
+      double x0 = i == 0 ? start.getPosition().getX() : events.get(i - 1).getEndPosn().getX();
+      double y0 = i == 0 ? start.getPosition().getY() : events.get(i - 1).getEndPosn().getY();
+      int w0 = i == 0 ? start.getWidth() : events.get(i - 1).getEndWidth();
+      int h0 = i == 0 ? start.getHeight() : events.get(i - 1).getEndHeight();
+      Color c0 = i == 0 ? start.getColor() : events.get(i - 1).getEndColor();
+      int a0 = (int) (i == 0 ? start.getAngle() : events.get(i - 1).getEndAngle());
+      int s = event.getStartTick();
+      int e = event.getEndTick();
+      double x = reference(x0, event.getEndPosn().getX(), s, e, tick);
+      double y = reference(y0, event.getEndPosn().getY(), s, e, tick);
+      int w = (int) reference(w0, event.getEndWidth(), s, e, tick);
+      int h = (int) reference(h0, event.getEndHeight(), s, e, tick);
+      int r = (int) reference(c0.getRed(), event.getEndColor().getRed(), s, e, tick);
+      int g = (int) reference(c0.getGreen(), event.getEndColor().getGreen(), s, e, tick);
+      int b = (int) reference(c0.getBlue(), event.getEndColor().getBlue(), s, e, tick);
+      int a = (int) reference(a0, event.getEndAngle(), s, e, tick);
+      String at = start.getName() + " at " + tick;
+
+      frame.clear();
+      assertEquals(at, true, animated.sampleInto(tick, frame));
+      assertEquals(at, Double.doubleToLongBits(x), Double.doubleToLongBits(frame.getX(0)));
+      assertEquals(at, Double.doubleToLongBits(y), Double.doubleToLongBits(frame.getY(0)));
+      assertEquals(at, w, frame.getWidth(0));
+      assertEquals(at, h, frame.getHeight(0));
+      assertEquals(at, (r << 16) | (g << 8) | b, frame.getRgb(0));
+      assertEquals(at, (double) a, frame.getAngle(0));
+
+      IShape shape = animated.getShapeAtTick(tick);
+      assertEquals(at, Double.doubleToLongBits(x),
+              Double.doubleToLongBits(shape.getPosition().getX()));
+      assertEquals(at, Double.doubleToLongBits(y),
+              Double.doubleToLongBits(shape.getPosition().getY()));
+      assertEquals(at, w, shape.getWidth());
+      assertEquals(at, h, shape.getHeight());
+      assertEquals(at, new Color(r, g, b), shape.getColor());
+      assertEquals(at, (double) a, shape.getAngle());
+    }
+  }
+
+  @Test
+  public void testAnimatedShapesMatchTheReference() {
+    for (IAnimatedShape shape : corpus()) {
+      assertMatchesReference(shape);
+    }
+  }
+
+  @Test
+  public void testPrimitiveAnimatedShapesMatchTheReference() {
+    for (IAnimatedShape shape : corpus()) {
+      assertMatchesReference(new PrimitiveAnimatedShape(shape));
+    }
+  }
+}